@@ -23,18 +23,27 @@ import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPNamedObject;
 import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBExecUtils;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
 import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.ParallelProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.SubTaskProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.runtime.properties.*;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class CompareObjectsExecutor {
 
@@ -54,6 +63,11 @@ public class CompareObjectsExecutor {
     private volatile IStatus initializeError;
     private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = new IdentityHashMap<>();
 
+    // Reads metadata of compared sides concurrently
+    private ExecutorService readerPool;
+    // Isolated meta contexts of sides which share the data source instance with another side. Key is the side index.
+    private final Map<Integer, DBCExecutionContext> sideContexts = new HashMap<>();
+
     private final List<CompareReportLine> reportLines = new ArrayList<>();
     private int reportDepth = 0;
     private CompareReportLine lastLine;
@@ -162,7 +176,21 @@ public class CompareObjectsExecutor {
         reportLines.clear();
         lastLine = null;
 
-        compareNodes(monitor, nodes);
+        readerPool = Executors.newFixedThreadPool(Math.max(1, rootNodes.size()), r -> {
+            Thread thread = new Thread(r, "Compare objects reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            compareNodes(monitor, nodes);
+        } finally {
+            readerPool.shutdownNow();
+            readerPool = null;
+            for (DBCExecutionContext context : sideContexts.values()) {
+                context.close();
+            }
+            sideContexts.clear();
+        }
         return new CompareReport(rootNodes, reportLines);
     }
 
@@ -238,21 +266,28 @@ public class CompareObjectsExecutor {
         }
 
         // Load all properties
+        List<Map<DBPPropertyDescriptor, Object>> allNodeProperties = new ArrayList<>(nodes.size());
         for (DBNDatabaseNode node : nodes) {
-            if (monitor.isCanceled()) {
-                throw new InterruptedException();
-            }
             DBSObject databaseObject = node.getObject();
             Map<DBPPropertyDescriptor, Object> nodeProperties = propertyValues.get(databaseObject);
             if (nodeProperties == null) {
                 nodeProperties = new IdentityHashMap<>();
                 propertyValues.put(databaseObject, nodeProperties);
             }
-            PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
+            allNodeProperties.add(nodeProperties);
+        }
+        final boolean readLazyProperties = compareLazyProperties;
+        readNodes(monitor, nodes, (readerMonitor, index) -> {
+            if (readerMonitor.isCanceled()) {
+                throw new InterruptedException();
+            }
+            DBSObject databaseObject = nodes.get(index).getObject();
+            Map<DBPPropertyDescriptor, Object> nodeProperties = allNodeProperties.get(index);
+            PropertyCollector propertySource = new PropertyCollector(databaseObject, readLazyProperties || compareScripts);
             for (ObjectPropertyDescriptor prop : properties) {
                 boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
                 if (prop.isLazy()) {
-                    if (!compareLazyProperties) {
+                    if (!readLazyProperties) {
                         if (compareScripts) {
                             // Only DBPScriptObject methods
                             if (!isScriptProperty) {
@@ -270,7 +305,7 @@ public class CompareObjectsExecutor {
                 if (onlyStruct && !isScriptProperty) {
                     continue;
                 }
-                Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
+                Object propertyValue = propertySource.getPropertyValue(readerMonitor, databaseObject, prop, true);
                 synchronized (PROPS_LOCK) {
                     if (propertyValue instanceof DBPNamedObject) {
                         // Compare just object names
@@ -279,8 +314,8 @@ public class CompareObjectsExecutor {
                     nodeProperties.put(prop, propertyValue);
                 }
             }
-            monitor.worked(1);
-        }
+        });
+        monitor.worked(nodes.size());
 
         // Compare properties
         for (ObjectPropertyDescriptor prop : properties) {
@@ -292,23 +327,22 @@ public class CompareObjectsExecutor {
     {
         // Compare children
         int nodeCount = nodes.size();
-        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
+        DBNDatabaseNode[][] childArrays = new DBNDatabaseNode[nodeCount][];
         // Use submonitor to avoid huge number of tasks
         DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(monitor);
-        for (int i = 0; i < nodeCount; i++) {
-            DBNDatabaseNode node = nodes.get(i);
+        readNodes(subMonitor, nodes, (readerMonitor, index) -> {
+            DBNDatabaseNode node = nodes.get(index);
             // Cache structure if possible
             if (node.getObject() instanceof DBSObjectContainer) {
-                ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
+                ((DBSObjectContainer) node.getObject()).cacheStructure(readerMonitor, DBSObjectContainer.STRUCT_ALL);
             }
             try {
-                DBNDatabaseNode[] children = node.getChildren(subMonitor);
-                allChildren.add(children);
+                childArrays[index] = node.getChildren(readerMonitor);
             } catch (Exception e) {
                 log.warn("Error reading child nodes for compare", e);
-                allChildren.add(null);
             }
-        }
+        });
+        List<DBNDatabaseNode[]> allChildren = Arrays.asList(childArrays);
 
         Set<String> allChildNames = new LinkedHashSet<>();
         for (DBNDatabaseNode[] childList : allChildren) {
@@ -327,19 +361,23 @@ public class CompareObjectsExecutor {
             }
         }
 
+        // Child name -> index of the first child with this name
+        List<Map<String, Integer>> childIndexMaps = new ArrayList<>(nodeCount);
+        for (DBNDatabaseNode[] childList : allChildren) {
+            Map<String, Integer> indexMap = new HashMap<>();
+            if (childList != null) {
+                for (int k = 0; k < childList.length; k++) {
+                    indexMap.putIfAbsent(childList[k].getNodeName(), k);
+                }
+            }
+            childIndexMaps.add(indexMap);
+        }
+
         for (String childName : allChildNames) {
             int[] childIndexes = new int[nodeCount];
             for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
-                }
+                Integer childIndex = childIndexMaps.get(i).get(childName);
+                childIndexes[i] = childIndex == null ? -1 : childIndex;
             }
 
             List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
@@ -365,6 +403,113 @@ public class CompareObjectsExecutor {
     }
 
 
+    /**
+     * Runs reader for each node. Nodes are read concurrently.
+     * If several nodes belong to the same data source instance then all but the first one are read
+     * with isolated meta contexts, so sides don't wait for each other on the same connection.
+     * Readers get a thread-safe monitor.
+     */
+    private void readNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, NodeReader reader) throws DBException, InterruptedException
+    {
+        if (nodes.size() < 2 || readerPool == null) {
+            for (int i = 0; i < nodes.size(); i++) {
+                readNode(monitor, reader, i);
+            }
+            return;
+        }
+        DBCExecutionContext[] nodeContexts = new DBCExecutionContext[nodes.size()];
+        Set<DBSInstance> usedInstances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < nodes.size(); i++) {
+            DBNDatabaseNode node = nodes.get(i);
+            DBSInstance instance = DBUtils.getObjectOwnerInstance(node.getObject());
+            if (instance != null && !usedInstances.add(instance)) {
+                nodeContexts[i] = getSideContext(monitor, node, instance);
+            }
+        }
+
+        ParallelProgressMonitor readerMonitor = new ParallelProgressMonitor(monitor);
+        List<Future<?>> results = new ArrayList<>(nodes.size());
+        // Cancel of the original monitor reaches blocks of all reader threads
+        monitor.startBlock(readerMonitor, null);
+        try {
+            for (int i = 0; i < nodes.size(); i++) {
+                final int index = i;
+                final DBCExecutionContext context = nodeContexts[i];
+                results.add(readerPool.submit(() -> {
+                    DBCExecutionContext prevContext = DBExecUtils.setThreadMetaContext(context);
+                    try {
+                        readNode(readerMonitor, reader, index);
+                    } finally {
+                        DBExecUtils.setThreadMetaContext(prevContext);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DBException) {
+                throw (DBException) cause;
+            } else if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            throw new DBException("Error reading objects for compare", cause);
+        } finally {
+            for (Future<?> result : results) {
+                result.cancel(true);
+            }
+            monitor.endBlock();
+        }
+    }
+
+    /**
+     * Returns isolated meta context of the side the node belongs to. Context is opened on the first call.
+     * Returns null (default meta context is used) if context can't be opened.
+     */
+    private DBCExecutionContext getSideContext(DBRProgressMonitor monitor, DBNDatabaseNode node, DBSInstance instance)
+    {
+        int side = -1;
+        for (int i = 0; i < rootNodes.size(); i++) {
+            if (node == rootNodes.get(i) || node.isChildOf(rootNodes.get(i))) {
+                side = i;
+                break;
+            }
+        }
+        DBCExecutionContext context = sideContexts.get(side);
+        if (context == null || context.getOwnerInstance() != instance) {
+            try {
+                context = instance.openIsolatedContext(monitor, "Compare objects reader", DBUtils.getDefaultContext(node.getObject(), true));
+            } catch (DBException e) {
+                log.debug("Can't open isolated context for compare: " + e.getMessage());
+                return null;
+            }
+            DBCExecutionContext prevContext = sideContexts.put(side, context);
+            if (prevContext != null) {
+                prevContext.close();
+            }
+        }
+        return context;
+    }
+
+    private static void readNode(DBRProgressMonitor monitor, NodeReader reader, int index) throws DBException, InterruptedException
+    {
+        try {
+            reader.readNode(monitor, index);
+        } catch (DBException | InterruptedException e) {
+            throw e;
+        } catch (InvocationTargetException e) {
+            throw new DBException("Error reading object properties", e.getTargetException());
+        } catch (Exception e) {
+            throw new DBException("Error reading object", e);
+        }
+    }
+
+    private interface NodeReader {
+        void readNode(DBRProgressMonitor monitor, int index) throws Exception;
+    }
+
     private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
     {
         DBPDataSource dataSource = node.getDataSourceContainer().getDataSource();
@@ -287,6 +287,12 @@ public class CoreMessages extends NLS {
 	public static String pref_page_error_handle_cancel_check_timeout;
 	public static String pref_page_error_handle_cancel_check_timeout_tip;
 
+	public static String pref_page_error_handle_group_isolated_pool_title;
+	public static String pref_page_error_handle_isolated_pool_size_label;
+	public static String pref_page_error_handle_isolated_pool_size_tip;
+	public static String pref_page_error_handle_isolated_pool_idle_timeout_label;
+	public static String pref_page_error_handle_isolated_pool_idle_timeout_tip;
+
     public static String pref_page_query_manager_checkbox_ddl_executions;
 	public static String pref_page_query_manager_checkbox_metadata_read;
     public static String pref_page_query_manager_checkbox_metadata_write;
@@ -304,6 +310,7 @@ public class CoreMessages extends NLS {
     public static String pref_page_query_manager_group_settings;
 	public static String pref_page_query_manager_group_storage;
     public static String pref_page_query_manager_checkbox_store_log_file;
+    public static String pref_page_query_manager_checkbox_store_history;
     public static String pref_page_query_manager_logs_folder;
 	public static String pref_page_query_manager_label_days_to_store_log;
 	public static String pref_page_query_manager_label_entries_per_page;
@@ -382,6 +389,8 @@ public class CoreMessages extends NLS {
 	public static String pref_page_database_general_checkbox_show_row_count_tip;
 	public static String pref_page_database_general_server_side_object_filters;
 	public static String pref_page_database_general_server_side_object_filters_tip;
+	public static String pref_page_database_general_metadata_snapshot;
+	public static String pref_page_database_general_metadata_snapshot_tip;
 	public static String pref_page_database_general_group_query_metadata;
 	public static String pref_page_database_general_use_column_names;
 	public static String pref_page_database_general_use_column_names_tip;
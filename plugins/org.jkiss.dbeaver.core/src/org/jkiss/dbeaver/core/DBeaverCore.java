@@ -158,7 +158,7 @@ public class DBeaverCore extends BasePlatformImpl {
         this.workspace.initializeProjects();
 
         QMUtils.initApplication(this);
-        this.queryManager = new QMControllerImpl();
+        this.queryManager = new QMControllerImpl(getPreferenceStore());
 
         this.qmLogWriter = new QMLogFileWriter();
         this.queryManager.registerMetaListener(qmLogWriter);
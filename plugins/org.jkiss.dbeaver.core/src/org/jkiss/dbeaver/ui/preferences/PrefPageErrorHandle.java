@@ -44,6 +44,9 @@ public class PrefPageErrorHandle extends TargetPrefPage
 
     private Spinner cancelCheckTimeout;
 
+    private Spinner isolatedPoolSize;
+    private Spinner isolatedPoolIdleTimeout;
+
     public PrefPageErrorHandle()
     {
         super();
@@ -62,7 +65,10 @@ public class PrefPageErrorHandle extends TargetPrefPage
             store.contains(ModelPreferences.EXECUTE_RECOVER_ENABLED) ||
             store.contains(ModelPreferences.EXECUTE_RECOVER_RETRY_COUNT) ||
 
-            store.contains(ModelPreferences.EXECUTE_CANCEL_CHECK_TIMEOUT)
+            store.contains(ModelPreferences.EXECUTE_CANCEL_CHECK_TIMEOUT) ||
+
+            store.contains(ModelPreferences.CONNECTION_ISOLATED_POOL_SIZE) ||
+            store.contains(ModelPreferences.CONNECTION_ISOLATED_POOL_IDLE_TIMEOUT)
             ;
     }
 
@@ -102,6 +108,14 @@ public class PrefPageErrorHandle extends TargetPrefPage
             cancelCheckTimeout = UIUtils.createLabelSpinner(errorGroup, CoreMessages.pref_page_error_handle_cancel_check_timeout, CoreMessages.pref_page_error_handle_cancel_check_timeout_tip, 0, 0, Integer.MAX_VALUE);
         }
 
+        // Isolated contexts pool
+        {
+            Group poolGroup = UIUtils.createControlGroup(composite, CoreMessages.pref_page_error_handle_group_isolated_pool_title, 2, GridData.VERTICAL_ALIGN_BEGINNING, 0);
+
+            isolatedPoolSize = UIUtils.createLabelSpinner(poolGroup, CoreMessages.pref_page_error_handle_isolated_pool_size_label, CoreMessages.pref_page_error_handle_isolated_pool_size_tip, 0, 0, 100);
+            isolatedPoolIdleTimeout = UIUtils.createLabelSpinner(poolGroup, CoreMessages.pref_page_error_handle_isolated_pool_idle_timeout_label, CoreMessages.pref_page_error_handle_isolated_pool_idle_timeout_tip, 0, 0, Integer.MAX_VALUE);
+        }
+
         return composite;
     }
 
@@ -118,6 +132,9 @@ public class PrefPageErrorHandle extends TargetPrefPage
             connectionAutoRecoverRetryCount.setSelection(store.getInt(ModelPreferences.EXECUTE_RECOVER_RETRY_COUNT));
 
             cancelCheckTimeout.setSelection(store.getInt(ModelPreferences.EXECUTE_CANCEL_CHECK_TIMEOUT));
+
+            isolatedPoolSize.setSelection(store.getInt(ModelPreferences.CONNECTION_ISOLATED_POOL_SIZE));
+            isolatedPoolIdleTimeout.setSelection(store.getInt(ModelPreferences.CONNECTION_ISOLATED_POOL_IDLE_TIMEOUT));
         } catch (Exception e) {
             log.warn(e);
         }
@@ -136,6 +153,9 @@ public class PrefPageErrorHandle extends TargetPrefPage
             store.setValue(ModelPreferences.EXECUTE_RECOVER_RETRY_COUNT, connectionAutoRecoverRetryCount.getSelection());
 
             store.setValue(ModelPreferences.EXECUTE_CANCEL_CHECK_TIMEOUT, cancelCheckTimeout.getSelection());
+
+            store.setValue(ModelPreferences.CONNECTION_ISOLATED_POOL_SIZE, isolatedPoolSize.getSelection());
+            store.setValue(ModelPreferences.CONNECTION_ISOLATED_POOL_IDLE_TIMEOUT, isolatedPoolIdleTimeout.getSelection());
         } catch (Exception e) {
             log.warn(e);
         }
@@ -154,6 +174,9 @@ public class PrefPageErrorHandle extends TargetPrefPage
         store.setToDefault(ModelPreferences.EXECUTE_RECOVER_RETRY_COUNT);
 
         store.setToDefault(ModelPreferences.EXECUTE_CANCEL_CHECK_TIMEOUT);
+
+        store.setToDefault(ModelPreferences.CONNECTION_ISOLATED_POOL_SIZE);
+        store.setToDefault(ModelPreferences.CONNECTION_ISOLATED_POOL_IDLE_TIMEOUT);
     }
 
     @Override
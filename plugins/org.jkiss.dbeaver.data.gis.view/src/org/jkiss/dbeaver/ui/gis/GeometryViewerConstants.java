@@ -24,6 +24,7 @@ public class GeometryViewerConstants {
     public static final String PREF_MAX_OBJECTS_RENDER = "gis.view.maxObjectsRender";
     public static final String PREF_DEFAULT_SRID = "gis.view.defaultSRID";
     public static final String PREF_DEFAULT_LEAFLET_TILES = "gis.view.defaultLeafletTiles";
+    public static final String PREF_VIEWPORT_RENDER = "gis.view.viewportRender";
 
     public static final int DEFAULT_MAX_OBJECTS_RENDER = 10000;
 
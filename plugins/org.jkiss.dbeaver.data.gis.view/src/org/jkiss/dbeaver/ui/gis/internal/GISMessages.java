@@ -36,6 +36,8 @@ public class GISMessages extends NLS {
 	public static String panel_gis_viewer_config_dialog_control_group_label;
 	public static String panel_gis_viewer_config_dialog_label_text_srid;
 	public static String panel_gis_viewer_config_dialog_label_tixi_max_objects;
+	public static String panel_gis_viewer_config_dialog_label_viewport_render;
+	public static String panel_gis_viewer_config_dialog_label_viewport_render_tip;
 	
 	public static String panel_manage_crs_dialog_title_select_system;
 	public static String panel_manage_crs_dialog_tree_column_text_name;
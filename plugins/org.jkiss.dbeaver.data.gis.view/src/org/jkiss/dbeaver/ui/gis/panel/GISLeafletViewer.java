@@ -23,6 +23,7 @@ import org.eclipse.jface.action.Separator;
 import org.eclipse.jface.action.ToolBarManager;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.browser.Browser;
+import org.eclipse.swt.browser.BrowserFunction;
 import org.eclipse.swt.dnd.Clipboard;
 import org.eclipse.swt.dnd.ImageTransfer;
 import org.eclipse.swt.dnd.Transfer;
@@ -66,6 +67,8 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IOUtils;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
 
 import java.io.*;
 import java.util.ArrayList;
@@ -93,6 +96,7 @@ public class GISLeafletViewer implements IGeometryValueEditor {
     private int sourceSRID; // Explicitly set SRID
     private int actualSourceSRID; // SRID taken from geometry value
     private File scriptFile;
+    private GISViewportIndex viewportIndex; // Index of large data sets rendered by viewport
     private final ToolBarManager toolBarManager;
     private int defaultSRID; // Target SRID used to render map
 
@@ -113,6 +117,12 @@ public class GISLeafletViewer implements IGeometryValueEditor {
             cleanupFiles();
         });
         browser.setLayoutData(new GridData(GridData.FILL_BOTH));
+        new BrowserFunction(browser, "gisLoadViewport") {
+            @Override
+            public Object function(Object[] arguments) {
+                return loadViewport(arguments);
+            }
+        };
 
         {
             Composite bottomPanel = UIUtils.createPlaceholder(composite, 1);//new Composite(composite, SWT.NONE);
@@ -215,7 +225,8 @@ public class GISLeafletViewer implements IGeometryValueEditor {
         if (maxObjects <= 0) {
             maxObjects = GeometryViewerConstants.DEFAULT_MAX_OBJECTS_RENDER;
         }
-        if (values != null && values.length > maxObjects) {
+        boolean viewportRender = GISViewerActivator.getDefault().getPreferences().getBoolean(GeometryViewerConstants.PREF_VIEWPORT_RENDER);
+        if (values != null && values.length > maxObjects && !viewportRender) {
             // Truncate value list
             DBGeometry[] truncValues = new DBGeometry[maxObjects];
             System.arraycopy(values, 0, truncValues, 0, maxObjects);
@@ -226,7 +237,7 @@ public class GISLeafletViewer implements IGeometryValueEditor {
                 if (ArrayUtils.isEmpty(values)) {
                     browser.setUrl("about:blank");
                 } else {
-                    File file = generateViewScript(values);
+                    File file = generateViewScript(values, values.length > maxObjects ? maxObjects : 0);
                     browser.setUrl(file.toURI().toURL().toString());
                 }
             } catch (IOException e) {
@@ -237,7 +248,11 @@ public class GISLeafletViewer implements IGeometryValueEditor {
         updateToolbar();
     }
 
-    private File generateViewScript(DBGeometry[] values) throws IOException {
+    /**
+     * Generates view HTML.
+     * @param viewportObjects if positive then geometries are rendered by viewport with this limit
+     */
+    private File generateViewScript(DBGeometry[] values, int viewportObjects) throws IOException {
         if (scriptFile == null) {
             File tempDir = DBWorkbench.getPlatform().getTempFolder(new VoidProgressMonitor(), "gis-viewer-files");
             checkIncludesExistence(tempDir);
@@ -257,6 +272,8 @@ public class GISLeafletViewer implements IGeometryValueEditor {
 
         List<String> geomValues = new ArrayList<>();
         List<String> geomTipValues = new ArrayList<>();
+        List<Geometry> indexGeometries = viewportObjects > 0 ? new ArrayList<>() : null;
+        WKTReader wktReader = null;
         boolean showMap = false;
         for (int i = 0; i < values.length; i++) {
             DBGeometry value = values[i];
@@ -304,7 +321,23 @@ public class GISLeafletViewer implements IGeometryValueEditor {
             if (targetValue == null) {
                 continue;
             }
-            geomValues.add("'" + targetValue + "'");
+            if (indexGeometries != null) {
+                if (targetValue instanceof Geometry) {
+                    indexGeometries.add((Geometry) targetValue);
+                } else {
+                    if (wktReader == null) {
+                        wktReader = new WKTReader();
+                    }
+                    try {
+                        indexGeometries.add(wktReader.read(CommonUtils.toString(targetValue)));
+                    } catch (ParseException e) {
+                        log.debug("Can't parse geometry value '" + targetValue + "'", e);
+                        continue;
+                    }
+                }
+            } else {
+                geomValues.add("'" + targetValue + "'");
+            }
             try {
                 if (CommonUtils.isEmpty(value.getProperties())) {
                     geomTipValues.add("null");
@@ -325,12 +358,30 @@ public class GISLeafletViewer implements IGeometryValueEditor {
                 }
             } catch (Exception e) {
                 log.debug(e);
+                geomTipValues.add("null");
             }
         }
         this.defaultSRID = actualSourceSRID;
+        String geomCRS = actualSourceSRID == GisConstants.SRID_SIMPLE ? GisConstants.LL_CRS_SIMPLE : GisConstants.LL_CRS_3857;
+        String viewportBounds = "null";
+        if (indexGeometries != null) {
+            viewportIndex = new GISViewportIndex(viewportObjects);
+            for (int i = 0; i < indexGeometries.size(); i++) {
+                viewportIndex.addGeometry(indexGeometries.get(i), geomTipValues.get(i));
+            }
+            viewportBounds = viewportIndex.getBoundsDefinition();
+            // Page gets simplified overview. Then viewport geometries are requested on each map move
+            GISViewportIndex.ViewportData overview = viewportIndex.getOverview();
+            for (String wkt : overview.getValues()) {
+                geomValues.add("'" + wkt + "'");
+            }
+            geomTipValues = overview.getTips();
+        } else {
+            viewportIndex = null;
+        }
         String geomValuesString = String.join(",", geomValues);
         String geomTipValuesString = String.join(",", geomTipValues);
-        String geomCRS = actualSourceSRID == GisConstants.SRID_SIMPLE ? GisConstants.LL_CRS_SIMPLE : GisConstants.LL_CRS_3857;
+        String geomViewportBounds = viewportBounds;
         boolean isShowMap = showMap;
 
         InputStream fis = GISViewerActivator.getDefault().getResourceStream(GISBrowserViewerConstants.VIEW_TEMPLATE_PATH);
@@ -353,6 +404,8 @@ public class GISLeafletViewer implements IGeometryValueEditor {
                         return String.valueOf(toolsVisible);
                     case "geomCRS":
                         return geomCRS;
+                    case "viewportBounds":
+                        return geomViewportBounds;
                     case "defaultTiles":
                         return GeometryViewerRegistry.getInstance().getDefaultLeafletTiles().getLayersDefinition();
                 }
@@ -368,6 +421,29 @@ public class GISLeafletViewer implements IGeometryValueEditor {
         return scriptFile;
     }
 
+    /**
+     * Called from the view script when map viewport changes.
+     * Arguments: south, west, north, east, viewport width and height in pixels
+     * @return JSON with visible geometries or null
+     */
+    @Nullable
+    private String loadViewport(Object[] arguments) {
+        if (viewportIndex == null || arguments == null || arguments.length < 6) {
+            return null;
+        }
+        try {
+            double[] coords = new double[6];
+            for (int i = 0; i < coords.length; i++) {
+                coords[i] = ((Number) arguments[i]).doubleValue();
+            }
+            return viewportIndex.getViewport(
+                coords[0], coords[1], coords[2], coords[3], (int) Math.round(coords[4]), (int) Math.round(coords[5])).toJSON();
+        } catch (Exception e) {
+            log.debug("Error loading map viewport geometries", e);
+            return null;
+        }
+    }
+
     private void checkIncludesExistence(File scriptDir) throws IOException {
         File incFolder = new File(scriptDir, "inc");
         if (!incFolder.exists()) {
@@ -18,6 +18,7 @@ package org.jkiss.dbeaver.ui.gis.panel;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Shell;
@@ -41,6 +42,7 @@ public class GISViewerConfigurationDialog extends BaseDialog {
     private static final Log log = Log.getLog(GISViewerConfigurationDialog.class);
     private Text defaultSridText;
     private Text maxObjectsText;
+    private Button viewportRenderCheck;
 
     public GISViewerConfigurationDialog(Shell shell) {
         super(shell, GISMessages.panel_gis_viewer_config_dialog_title_configure, null);
@@ -58,6 +60,10 @@ public class GISViewerConfigurationDialog extends BaseDialog {
         defaultSridText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
         maxObjectsText = UIUtils.createLabelText(crsGroup, GISMessages.panel_gis_viewer_config_dialog_label_tixi_max_objects, preferences.getString(GeometryViewerConstants.PREF_MAX_OBJECTS_RENDER), SWT.BORDER);
         maxObjectsText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+        viewportRenderCheck = UIUtils.createCheckbox(crsGroup,
+            GISMessages.panel_gis_viewer_config_dialog_label_viewport_render,
+            GISMessages.panel_gis_viewer_config_dialog_label_viewport_render_tip,
+            preferences.getBoolean(GeometryViewerConstants.PREF_VIEWPORT_RENDER), 2);
 
         return dialogArea;
     }
@@ -67,6 +73,7 @@ public class GISViewerConfigurationDialog extends BaseDialog {
         DBPPreferenceStore preferences = GISViewerActivator.getDefault().getPreferences();
         preferences.setValue(GeometryViewerConstants.PREF_DEFAULT_SRID, defaultSridText.getText());
         preferences.setValue(GeometryViewerConstants.PREF_MAX_OBJECTS_RENDER, CommonUtils.toInt(maxObjectsText.getText()));
+        preferences.setValue(GeometryViewerConstants.PREF_VIEWPORT_RENDER, viewportRenderCheck.getSelection());
         super.okPressed();
     }
 }
\ No newline at end of file
@@ -0,0 +1,213 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.gis.panel;
+
+import org.jkiss.code.NotNull;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Puntal;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial index of geometries rendered by the Leaflet viewer.
+ * Returns only geometries which intersect the map viewport. Geometries are simplified
+ * with a tolerance of one screen pixel. Pixel size is taken from the viewport bounds, so it is
+ * in units of geometry coordinates whatever the SRID is (degrees, meters, feet, etc).
+ * If viewport contains more than maxObjects geometries then the largest ones are returned.
+ */
+class GISViewportIndex {
+
+    // Viewport width used to build the initial overview
+    private static final int OVERVIEW_PIXELS = 1024;
+
+    private final STRtree index = new STRtree();
+    private final List<Feature> features = new ArrayList<>();
+    private final Envelope bounds = new Envelope();
+    private final int maxObjects;
+
+    private double cachedTolerance = -1;
+    private final Map<Feature, String> simplifiedCache = new HashMap<>();
+
+    GISViewportIndex(int maxObjects) {
+        this.maxObjects = maxObjects;
+    }
+
+    void addGeometry(@NotNull Geometry geometry, @NotNull String tip) {
+        Envelope envelope = geometry.getEnvelopeInternal();
+        if (envelope.isNull()) {
+            return;
+        }
+        Feature feature = new Feature(features.size(), geometry, tip);
+        features.add(feature);
+        bounds.expandToInclude(envelope);
+        index.insert(envelope, feature);
+    }
+
+    int getGeometryCount() {
+        return features.size();
+    }
+
+    /**
+     * Bounds in Leaflet format: [[south,west],[north,east]]
+     */
+    @NotNull
+    String getBoundsDefinition() {
+        if (bounds.isNull()) {
+            return "null";
+        }
+        return "[[" + bounds.getMinY() + "," + bounds.getMinX() + "],[" + bounds.getMaxY() + "," + bounds.getMaxX() + "]]";
+    }
+
+    /**
+     * Geometries of the whole index simplified for the initial (fit bounds) map view.
+     */
+    @NotNull
+    ViewportData getOverview() {
+        double tolerance = Math.max(bounds.getWidth(), bounds.getHeight()) / OVERVIEW_PIXELS;
+        return query(bounds, tolerance);
+    }
+
+    /**
+     * Geometries visible in the viewport
+     * @param width viewport width in pixels
+     * @param height viewport height in pixels
+     */
+    @NotNull
+    ViewportData getViewport(double south, double west, double north, double east, int width, int height) {
+        return query(new Envelope(west, east, south, north), getPixelSize(north - south, east - west, width, height));
+    }
+
+    /**
+     * Size of a screen pixel in coordinate units. The smaller of the vertical and horizontal sizes is used
+     * (they differ e.g. in Web Mercator). It is rounded down to a power of two, so it doesn't change
+     * while map is panned at the same zoom level and simplified geometries may be reused.
+     */
+    static double getPixelSize(double viewportHeight, double viewportWidth, int width, int height) {
+        double pixelSize = Math.min(viewportWidth / Math.max(width, 1), viewportHeight / Math.max(height, 1));
+        if (!(pixelSize > 0) || Double.isInfinite(pixelSize)) {
+            return 0;
+        }
+        return Math.pow(2, Math.floor(Math.log(pixelSize) / Math.log(2)));
+    }
+
+    private ViewportData query(Envelope envelope, double tolerance) {
+        if (features.isEmpty()) {
+            return new ViewportData(new ArrayList<>(), new ArrayList<>());
+        }
+        @SuppressWarnings("unchecked")
+        List<Feature> visible = index.query(envelope);
+        if (visible.size() > maxObjects) {
+            visible.sort(Comparator.comparingDouble((Feature f) -> f.extent).reversed());
+            visible = new ArrayList<>(visible.subList(0, maxObjects));
+        }
+        // Keep the source order (it defines drawing order)
+        visible.sort(Comparator.comparingInt(f -> f.ordinal));
+
+        if (tolerance != cachedTolerance || simplifiedCache.size() > maxObjects * 4) {
+            simplifiedCache.clear();
+            cachedTolerance = tolerance;
+        }
+        List<String> values = new ArrayList<>(visible.size());
+        List<String> tips = new ArrayList<>(visible.size());
+        for (Feature feature : visible) {
+            values.add(simplifiedCache.computeIfAbsent(feature, f -> simplify(f.geometry, tolerance)));
+            tips.add(feature.tip);
+        }
+        return new ViewportData(values, tips);
+    }
+
+    @NotNull
+    private static String simplify(@NotNull Geometry geometry, double tolerance) {
+        if (geometry instanceof Puntal || geometry.getNumPoints() <= 2) {
+            return geometry.toText();
+        }
+        Envelope envelope = geometry.getEnvelopeInternal();
+        if (envelope.getWidth() < tolerance && envelope.getHeight() < tolerance) {
+            // Less than a pixel. Render as a point
+            return geometry.getFactory().createPoint(envelope.centre()).toText();
+        }
+        try {
+            return TopologyPreservingSimplifier.simplify(geometry, tolerance).toText();
+        } catch (Exception e) {
+            // Invalid geometries may fail simplification
+            return geometry.toText();
+        }
+    }
+
+    private static class Feature {
+        private final int ordinal;
+        private final Geometry geometry;
+        private final String tip;
+        private final double extent;
+
+        Feature(int ordinal, Geometry geometry, String tip) {
+            this.ordinal = ordinal;
+            this.geometry = geometry;
+            this.tip = tip;
+            Envelope envelope = geometry.getEnvelopeInternal();
+            this.extent = Math.max(envelope.getWidth(), envelope.getHeight());
+        }
+    }
+
+    /**
+     * WKT values and JSON tips of geometries
+     */
+    static class ViewportData {
+        private final List<String> values;
+        private final List<String> tips;
+
+        ViewportData(List<String> values, List<String> tips) {
+            this.values = values;
+            this.tips = tips;
+        }
+
+        @NotNull
+        List<String> getValues() {
+            return values;
+        }
+
+        @NotNull
+        List<String> getTips() {
+            return tips;
+        }
+
+        @NotNull
+        String toJSON() {
+            StringBuilder json = new StringBuilder();
+            json.append("{\"values\":[");
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) json.append(',');
+                json.append('"').append(values.get(i)).append('"');
+            }
+            json.append("],\"tips\":[");
+            for (int i = 0; i < tips.size(); i++) {
+                if (i > 0) json.append(',');
+                json.append(tips.get(i));
+            }
+            json.append("]}");
+            return json.toString();
+        }
+    }
+
+}
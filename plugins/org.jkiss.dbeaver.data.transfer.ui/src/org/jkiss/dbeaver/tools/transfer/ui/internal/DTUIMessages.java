@@ -44,6 +44,10 @@ public class DTUIMessages extends NLS {
 	public static String database_consumer_wizard_performance_group_label;
 	public static String database_consumer_wizard_transactions_checkbox_label;
 	public static String database_consumer_wizard_commit_spinner_label;
+	public static String database_consumer_wizard_bulk_load_checkbox_label;
+	public static String database_consumer_wizard_bulk_load_checkbox_tooltip;
+	public static String database_consumer_wizard_multi_row_insert_spinner_label;
+	public static String database_consumer_wizard_multi_row_insert_spinner_tooltip;
 	public static String database_consumer_wizard_general_group_label;
 	public static String database_consumer_wizard_table_checkbox_label;
 	public static String database_consumer_wizard_final_message_checkbox_label;
@@ -82,6 +86,8 @@ public class DTUIMessages extends NLS {
 	public static String database_producer_page_extract_settings_row_count_checkbox_tooltip;
 	public static String database_producer_page_extract_settings_text_fetch_size_label;
 	public static String database_producer_page_extract_settings_text_fetch_size_tooltip;
+	public static String database_producer_page_extract_settings_split_range_count_tooltip;
+	public static String database_producer_page_extract_settings_pipeline_checkbox_tooltip;
 
 	public static String database_producer_page_input_objects_name;
 	public static String database_producer_page_input_objects_title;
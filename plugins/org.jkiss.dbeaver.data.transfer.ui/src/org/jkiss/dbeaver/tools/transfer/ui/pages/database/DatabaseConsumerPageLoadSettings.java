@@ -116,6 +116,29 @@ public class DatabaseConsumerPageLoadSettings extends ActiveWizardPage<DataTrans
                 }
             });
             commitAfterEdit.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
+
+            final Spinner multiRowInsertEdit = UIUtils.createLabelSpinner(performanceSettings, DTUIMessages.database_consumer_wizard_multi_row_insert_spinner_label, settings.getMultiRowInsertBatch(), 1, 10000);
+            multiRowInsertEdit.setToolTipText(DTUIMessages.database_consumer_wizard_multi_row_insert_spinner_tooltip);
+            multiRowInsertEdit.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setMultiRowInsertBatch(multiRowInsertEdit.getSelection());
+                }
+            });
+            multiRowInsertEdit.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
+
+            final Button useBulkLoadCheck = UIUtils.createCheckbox(
+                performanceSettings,
+                DTUIMessages.database_consumer_wizard_bulk_load_checkbox_label,
+                DTUIMessages.database_consumer_wizard_bulk_load_checkbox_tooltip,
+                settings.isUseBulkLoad(),
+                4);
+            useBulkLoadCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUseBulkLoad(useBulkLoadCheck.getSelection());
+                }
+            });
         }
 
         {
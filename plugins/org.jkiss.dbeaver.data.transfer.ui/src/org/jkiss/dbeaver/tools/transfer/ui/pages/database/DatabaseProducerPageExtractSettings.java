@@ -37,6 +37,7 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
 
     private static final int EXTRACT_TYPE_SINGLE_QUERY = 0;
     private static final int EXTRACT_TYPE_SEGMENTS = 1;
+    private static final int EXTRACT_TYPE_KEYSET = 2;
 
     private Text threadsNumText;
     private Combo rowsExtractType;
@@ -47,6 +48,8 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
     private Button selectedColumnsOnlyCheckbox;
     private Button selectedRowsOnlyCheckbox;
     private Text fetchSizeText;
+    private Text splitRangeCountText;
+    private Button pipelineCheckbox;
 
     public DatabaseProducerPageExtractSettings() {
         super(DTUIMessages.database_producer_page_extract_settings_name_and_title);
@@ -95,13 +98,15 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 rowsExtractType.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
                 rowsExtractType.setItems(
                     DTMessages.data_transfer_wizard_output_combo_extract_type_item_single_query,
-                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_segments);
+                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_segments,
+                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_keys);
                 rowsExtractType.addSelectionListener(new SelectionAdapter() {
                     @Override
                     public void widgetSelected(SelectionEvent e) {
                         switch (rowsExtractType.getSelectionIndex()) {
                             case EXTRACT_TYPE_SEGMENTS: settings.setExtractType(DatabaseProducerSettings.ExtractType.SEGMENTS); break;
                             case EXTRACT_TYPE_SINGLE_QUERY: settings.setExtractType(DatabaseProducerSettings.ExtractType.SINGLE_QUERY); break;
+                            case EXTRACT_TYPE_KEYSET: settings.setExtractType(DatabaseProducerSettings.ExtractType.KEYSET); break;
                         }
                         updatePageCompletion();
                     }
@@ -136,6 +141,14 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 }
             });
 
+            pipelineCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_pipeline_read_write, DTUIMessages.database_producer_page_extract_settings_pipeline_checkbox_tooltip, false, 4);
+            pipelineCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setPipelineReadWrite(pipelineCheckbox.getSelection());
+                }
+            });
+
             fetchSizeText = UIUtils.createLabelText(generalSettings, DTUIMessages.database_producer_page_extract_settings_text_fetch_size_label, "", SWT.BORDER);
             fetchSizeText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_text_fetch_size_tooltip);
             fetchSizeText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
@@ -143,6 +156,17 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 settings.setFetchSize(Integer.parseInt(fetchSizeText.getText()));
             });
 
+            splitRangeCountText = UIUtils.createLabelText(generalSettings, DTMessages.data_transfer_wizard_output_label_split_range_count, "", SWT.BORDER);
+            splitRangeCountText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_split_range_count_tooltip);
+            splitRangeCountText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+            splitRangeCountText.addModifyListener(e -> {
+                try {
+                    settings.setSplitRangeCount(Integer.parseInt(splitRangeCountText.getText()));
+                } catch (NumberFormatException e1) {
+                    // just skip it
+                }
+            });
+
             IStructuredSelection curSelection = getWizard().getCurrentSelection();
             boolean hasSelection = curSelection != null && !curSelection.isEmpty() && curSelection.getFirstElement() instanceof DBDCellValue;
 
@@ -187,15 +211,18 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
         threadsNumText.setText(String.valueOf(getWizard().getSettings().getMaxJobCount()));
         newConnectionCheckbox.setSelection(settings.isOpenNewConnections());
         rowCountCheckbox.setSelection(settings.isQueryRowCount());
+        pipelineCheckbox.setSelection(settings.isPipelineReadWrite());
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
             switch (settings.getExtractType()) {
                 case SINGLE_QUERY: rowsExtractType.select(EXTRACT_TYPE_SINGLE_QUERY); break;
                 case SEGMENTS: rowsExtractType.select(EXTRACT_TYPE_SEGMENTS); break;
+                case KEYSET: rowsExtractType.select(EXTRACT_TYPE_KEYSET); break;
             }
         }
         fetchSizeText.setText(String.valueOf(settings.getFetchSize()));
+        splitRangeCountText.setText(String.valueOf(settings.getSplitRangeCount()));
         if (selectedColumnsOnlyCheckbox != null) {
             selectedColumnsOnlyCheckbox.setSelection(settings.isSelectedColumnsOnly());
         }
@@ -211,7 +238,7 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
     {
         if (rowsExtractType != null) {
             int selectionIndex = rowsExtractType.getSelectionIndex();
-            if (selectionIndex == EXTRACT_TYPE_SEGMENTS) {
+            if (selectionIndex == EXTRACT_TYPE_SEGMENTS || selectionIndex == EXTRACT_TYPE_KEYSET) {
                 segmentSizeLabel.setEnabled(true);
                 segmentSizeText.setEnabled(true);
             } else {
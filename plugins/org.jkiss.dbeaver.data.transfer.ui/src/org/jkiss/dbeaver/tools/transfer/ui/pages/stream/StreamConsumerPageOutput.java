@@ -46,6 +46,8 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
     private Text directoryText;
     private Text fileNameText;
     private Button compressCheckbox;
+    private Combo compressionFormatCombo;
+    private Spinner compressionLevelSpinner;
     private Button showFolderCheckbox;
     private Button execProcessCheckbox;
     private Text execProcessText;
@@ -168,6 +170,21 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
                     updateControlsEnablement();
                 }
             });
+            compressionFormatCombo = UIUtils.createLabelCombo(generalSettings, DTMessages.data_transfer_wizard_output_label_compression_format, SWT.DROP_DOWN | SWT.READ_ONLY);
+            compressionFormatCombo.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            for (StreamConsumerSettings.CompressionFormat format : StreamConsumerSettings.CompressionFormat.values()) {
+                compressionFormatCombo.add(format.name());
+            }
+            compressionFormatCombo.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setCompressionFormat(StreamConsumerSettings.CompressionFormat.values()[compressionFormatCombo.getSelectionIndex()]);
+                }
+            });
+            compressionLevelSpinner = UIUtils.createLabelSpinner(generalSettings, DTMessages.data_transfer_wizard_output_label_compression_level,
+                StreamConsumerSettings.DEFAULT_COMPRESSION_LEVEL, StreamConsumerSettings.MIN_COMPRESSION_LEVEL, StreamConsumerSettings.MAX_COMPRESSION_LEVEL);
+            compressionLevelSpinner.addModifyListener(e ->
+                settings.setCompressionLevel(compressionLevelSpinner.getSelection()));
 
             {
                 Composite outFilesSettings = UIUtils.createComposite(generalSettings, 3);
@@ -259,6 +276,8 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
         directoryText.setEnabled(!clipboard);
         fileNameText.setEnabled(!clipboard);
         compressCheckbox.setEnabled(!clipboard);
+        compressionFormatCombo.setEnabled(!clipboard && compressCheckbox.getSelection());
+        compressionLevelSpinner.setEnabled(!clipboard && compressCheckbox.getSelection());
         splitFilesCheckbox.setEnabled(!clipboard);
         maximumFileSizeLabel.setEnabled(!clipboard && splitFilesCheckbox.getSelection());
         maximumFileSizeText.setEnabled(!clipboard && splitFilesCheckbox.getSelection());
@@ -282,6 +301,8 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
         directoryText.setText(CommonUtils.toString(settings.getOutputFolder()));
         fileNameText.setText(CommonUtils.toString(settings.getOutputFilePattern()));
         compressCheckbox.setSelection(settings.isCompressResults());
+        compressionFormatCombo.select(settings.getCompressionFormat().ordinal());
+        compressionLevelSpinner.setSelection(settings.getCompressionLevel());
         splitFilesCheckbox.setSelection(settings.isSplitOutFiles());
         maximumFileSizeText.setText(String.valueOf(settings.getMaxOutFileSize()));
         encodingCombo.setText(CommonUtils.toString(settings.getOutputEncoding()));
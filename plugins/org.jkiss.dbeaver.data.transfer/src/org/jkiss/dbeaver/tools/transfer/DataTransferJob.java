@@ -112,9 +112,16 @@ public class DataTransferJob implements DBRRunnableWithProgress {
                     processor,
                     nodeSettings,
                     task);
-            } finally {
-                consumer.finishTransfer(monitor, false);
+            } catch (Exception e) {
+                try {
+                    consumer.finishTransfer(monitor, false);
+                } catch (Exception e1) {
+                    log.debug("Error finishing failed transfer", e1);
+                }
+                throw e;
             }
+            // Consumer may fail to finish its output (e.g. to complete compressed file)
+            consumer.finishTransfer(monitor, false);
             return true;
         } catch (Exception e) {
             log.error("Error transfering data from " + producer.getObjectName() + " to " + consumer.getObjectName(), e);
@@ -0,0 +1,348 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.DBDValueMeta;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decouples data reading from data writing.
+ * Rows are fetched from the source result set in the caller (reader) thread and passed in batches
+ * to the writer thread through a bounded queue. Reader blocks when the queue is full.
+ * Writer feeds the target receiver with a result set which returns buffered values.
+ * fetchStart and fetchEnd are passed to the target in the reader thread after all buffered rows are written,
+ * so target receives all calls in the original order.
+ *
+ * Rows with LOBs or complex values are passed to the target directly because such values
+ * may depend on the state of source result set.
+ */
+public class DataTransferPipeBuffer implements DBDDataReceiver {
+
+    private static final Log log = Log.getLog(DataTransferPipeBuffer.class);
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final RowBatch END_OF_DATA = new RowBatch(null, null, null, 0);
+
+    @NotNull
+    private final DBDDataReceiver target;
+    private final int batchSize;
+    private final BlockingQueue<RowBatch> queue;
+
+    private WriterJob writerJob;
+    private volatile Throwable writerError;
+
+    // Current fetch state (reader thread)
+    private boolean buffered;
+    private DBCAttributeMetaData[] metaAttributes;
+    private DBDValueHandler[] valueHandlers;
+    private DBCResultSetMetaData resultSetMeta;
+    private RowBatch currentBatch;
+
+    public DataTransferPipeBuffer(@NotNull DBDDataReceiver target, int batchSize, int maxBatches) {
+        this.target = target;
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, maxBatches));
+    }
+
+    @Override
+    public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+        flush(session);
+
+        resultSetMeta = resultSet.getMeta();
+        List<DBCAttributeMetaData> attributes = resultSetMeta.getAttributes();
+        buffered = true;
+        for (DBCAttributeMetaData attr : attributes) {
+            switch (attr.getDataKind()) {
+                case BOOLEAN:
+                case NUMERIC:
+                case STRING:
+                case DATETIME:
+                case BINARY:
+                    break;
+                default:
+                    buffered = false;
+                    break;
+            }
+        }
+        if (buffered) {
+            metaAttributes = attributes.toArray(new DBCAttributeMetaData[0]);
+            valueHandlers = new DBDValueHandler[metaAttributes.length];
+            for (int i = 0; i < metaAttributes.length; i++) {
+                valueHandlers[i] = DBUtils.findValueHandler(session, metaAttributes[i]);
+            }
+            if (writerJob == null) {
+                writerJob = new WriterJob();
+                writerJob.schedule();
+            }
+        } else {
+            log.debug("Result set contains complex values. Read and write in the same thread.");
+        }
+        target.fetchStart(session, resultSet, offset, maxRows);
+    }
+
+    @Override
+    public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        if (!buffered) {
+            target.fetchRow(session, resultSet);
+            return;
+        }
+        Object[] row = new Object[valueHandlers.length];
+        for (int i = 0; i < valueHandlers.length; i++) {
+            row[i] = valueHandlers[i].fetchValueObject(session, resultSet, metaAttributes[i], i);
+        }
+        if (currentBatch == null) {
+            currentBatch = new RowBatch(session, resultSet.getSourceStatement(), resultSetMeta, batchSize);
+        }
+        currentBatch.rows.add(row);
+        if (currentBatch.rows.size() >= batchSize) {
+            enqueue(session, currentBatch);
+            currentBatch = null;
+        }
+    }
+
+    @Override
+    public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        flush(session);
+        target.fetchEnd(session, resultSet);
+    }
+
+    @Override
+    public void close() {
+        if (writerJob != null) {
+            try {
+                while (!queue.offer(END_OF_DATA, 100, TimeUnit.MILLISECONDS)) {
+                    if (writerJob.finished.getCount() == 0) {
+                        break;
+                    }
+                }
+                writerJob.finished.await();
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for data writer");
+            }
+            writerJob = null;
+        }
+        queue.clear();
+    }
+
+    /**
+     * Sends current batch to the writer and waits until all queued rows are written
+     */
+    private void flush(DBCSession session) throws DBCException {
+        if (currentBatch != null) {
+            enqueue(session, currentBatch);
+            currentBatch = null;
+        }
+        if (writerJob != null) {
+            RowBatch barrier = new RowBatch(null, null, null, 0);
+            barrier.written = new CountDownLatch(1);
+            enqueue(session, barrier);
+            try {
+                while (!barrier.written.await(100, TimeUnit.MILLISECONDS)) {
+                    checkWriter(session);
+                }
+            } catch (InterruptedException e) {
+                throw new DBCException("Data write interrupted", e);
+            }
+        }
+        checkWriter(session);
+    }
+
+    private void enqueue(DBCSession session, RowBatch batch) throws DBCException {
+        try {
+            while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                checkWriter(session);
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Data read interrupted", e);
+        }
+    }
+
+    private void checkWriter(DBCSession session) throws DBCException {
+        if (writerError != null) {
+            throw new DBCException("Error writing data", writerError);
+        }
+        if (session.getProgressMonitor().isCanceled()) {
+            throw new DBCException("Data transfer canceled");
+        }
+    }
+
+    private class WriterJob extends AbstractJob {
+
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        WriterJob() {
+            super("Data transfer writer");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                for (;;) {
+                    RowBatch batch = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (batch == null) {
+                        if (monitor.isCanceled()) {
+                            break;
+                        }
+                        continue;
+                    }
+                    if (batch == END_OF_DATA) {
+                        break;
+                    }
+                    if (batch.written != null) {
+                        batch.written.countDown();
+                        continue;
+                    }
+                    if (writerError != null) {
+                        // Skip the rest of data. Error will be reported by reader.
+                        continue;
+                    }
+                    try {
+                        BufferedResultSet resultSet = new BufferedResultSet(batch);
+                        for (Object[] row : batch.rows) {
+                            resultSet.row = row;
+                            target.fetchRow(batch.session, resultSet);
+                        }
+                    } catch (Throwable e) {
+                        writerError = e;
+                    }
+                }
+            } catch (InterruptedException e) {
+                writerError = e;
+            } finally {
+                finished.countDown();
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private static class RowBatch {
+        final DBCSession session;
+        final DBCStatement sourceStatement;
+        final DBCResultSetMetaData meta;
+        final List<Object[]> rows;
+        CountDownLatch written;
+
+        RowBatch(DBCSession session, DBCStatement sourceStatement, DBCResultSetMetaData meta, int size) {
+            this.session = session;
+            this.sourceStatement = sourceStatement;
+            this.meta = meta;
+            this.rows = new ArrayList<>(size);
+        }
+    }
+
+    /**
+     * Returns values of buffered row. Value handlers read values via getAttributeValue for non-JDBC result sets.
+     */
+    private static class BufferedResultSet implements DBCResultSet {
+
+        private final RowBatch batch;
+        private Object[] row;
+
+        BufferedResultSet(RowBatch batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public DBCSession getSession() {
+            return batch.session;
+        }
+
+        @Override
+        public DBCStatement getSourceStatement() {
+            return batch.sourceStatement;
+        }
+
+        @Override
+        public Object getAttributeValue(int index) throws DBCException {
+            if (index < 0 || index >= row.length) {
+                throw new DBCException("Attribute index out of range (" + index + "/" + row.length + ")");
+            }
+            return row[index];
+        }
+
+        @Override
+        public Object getAttributeValue(String name) throws DBCException {
+            List<DBCAttributeMetaData> attributes = getMeta().getAttributes();
+            for (int i = 0; i < attributes.size(); i++) {
+                if (attributes.get(i).getName().equals(name)) {
+                    return getAttributeValue(i);
+                }
+            }
+            throw new DBCException("Bad attribute name: " + name);
+        }
+
+        @Override
+        public DBDValueMeta getAttributeValueMeta(int index) throws DBCException {
+            return null;
+        }
+
+        @Override
+        public DBDValueMeta getRowMeta() throws DBCException {
+            return null;
+        }
+
+        @Override
+        public boolean nextRow() throws DBCException {
+            return false;
+        }
+
+        @Override
+        public boolean moveTo(int position) throws DBCException {
+            return false;
+        }
+
+        @NotNull
+        @Override
+        public DBCResultSetMetaData getMeta() throws DBCException {
+            return batch.meta;
+        }
+
+        @Override
+        public String getResultSetName() throws DBCException {
+            return null;
+        }
+
+        @Override
+        public Object getFeature(String name) {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
@@ -360,7 +360,11 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
             // End of transfer
             // Signal last pipe about it
             if (!dataPipes.isEmpty()) {
-                dataPipes.get(dataPipes.size() - 1).getConsumer().finishTransfer(monitor, true);
+                try {
+                    dataPipes.get(dataPipes.size() - 1).getConsumer().finishTransfer(monitor, true);
+                } catch (DBException e) {
+                    log.error("Error finishing data transfer", e);
+                }
             }
             return null;
         }
@@ -55,6 +55,6 @@ public interface IDataTransferConsumer<SETTINGS extends IDataTransferSettings, P
      * @param monitor monitor
      * @param last called in the very end of all transfers
      */
-    void finishTransfer(DBRProgressMonitor monitor, boolean last);
+    void finishTransfer(DBRProgressMonitor monitor, boolean last) throws DBException;
 
 }
@@ -57,6 +57,8 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
     private boolean transferAutoGeneratedColumns = true;
     private boolean truncateBeforeLoad = false;
     private boolean openTableOnFinish = true;
+    private boolean useBulkLoad = false;
+    private int multiRowInsertBatch = 1;
 
     private transient Map<String, Object> dialogSettings;
 
@@ -142,6 +144,22 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         this.useTransactions = useTransactions;
     }
 
+    public boolean isUseBulkLoad() {
+        return useBulkLoad;
+    }
+
+    public void setUseBulkLoad(boolean useBulkLoad) {
+        this.useBulkLoad = useBulkLoad;
+    }
+
+    public int getMultiRowInsertBatch() {
+        return multiRowInsertBatch;
+    }
+
+    public void setMultiRowInsertBatch(int multiRowInsertBatch) {
+        this.multiRowInsertBatch = multiRowInsertBatch;
+    }
+
     public int getCommitAfterRows() {
         return commitAfterRows;
     }
@@ -174,6 +192,8 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         transferAutoGeneratedColumns = CommonUtils.getBoolean(settings.get("transferAutoGeneratedColumns"), transferAutoGeneratedColumns);
         truncateBeforeLoad = CommonUtils.getBoolean(settings.get("truncateBeforeLoad"), truncateBeforeLoad);
         openTableOnFinish = CommonUtils.getBoolean(settings.get("openTableOnFinish"), openTableOnFinish);
+        useBulkLoad = CommonUtils.getBoolean(settings.get("useBulkLoad"), useBulkLoad);
+        multiRowInsertBatch = CommonUtils.toInt(settings.get("multiRowInsertBatch"), multiRowInsertBatch);
 
         List<DataTransferPipe> dataPipes = dataTransferSettings.getDataPipes();
         {
@@ -235,6 +255,8 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         settings.put("transferAutoGeneratedColumns", transferAutoGeneratedColumns);
         settings.put("truncateBeforeLoad", truncateBeforeLoad);
         settings.put("openTableOnFinish", openTableOnFinish);
+        settings.put("useBulkLoad", useBulkLoad);
+        settings.put("multiRowInsertBatch", multiRowInsertBatch);
 
         // Load all data mappings
         Map<String, Object> mappings = new LinkedHashMap<>();
@@ -261,6 +283,8 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         }
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_transfer_auto_generated_columns, transferAutoGeneratedColumns);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_truncate_before_load, truncateBeforeLoad);
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_bulk_load, useBulkLoad);
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_multi_row_insert, multiRowInsertBatch);
 
         return summary.toString();
     }
@@ -0,0 +1,234 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.virtual.DBVEntity;
+import org.jkiss.dbeaver.model.virtual.DBVEntityConstraint;
+import org.jkiss.dbeaver.model.virtual.DBVUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.List;
+
+/**
+ * Keyset (seek) pagination receiver.
+ * Passes all rows to the target receiver and remembers unique key values of the last fetched row.
+ * Next segment is read with a condition on these values instead of OFFSET so each segment
+ * costs the same regardless of its position in the table.
+ * If key values can't be read (key column is not in the result set or has NULL values)
+ * the owner continues with offset segments, still ordered by the key.
+ */
+class DatabaseKeysetReceiver implements DBDDataReceiver {
+
+    private static final Log log = Log.getLog(DatabaseKeysetReceiver.class);
+
+    @NotNull
+    private final DBDDataReceiver target;
+    @NotNull
+    private final List<? extends DBSEntityAttribute> keyAttributes;
+    private final DBDValueHandler[] keyHandlers;
+    private int[] keyIndexes;
+    private Object[] lastKey;
+    private boolean keyAvailable = true;
+    private long rowsFetched;
+
+    DatabaseKeysetReceiver(@NotNull DBPDataSource dataSource, @NotNull DBDDataReceiver target, @NotNull List<? extends DBSEntityAttribute> keyAttributes) {
+        this.target = target;
+        this.keyAttributes = keyAttributes;
+        this.keyHandlers = new DBDValueHandler[keyAttributes.size()];
+        for (int i = 0; i < keyHandlers.length; i++) {
+            keyHandlers[i] = DBUtils.findValueHandler(dataSource, keyAttributes.get(i));
+        }
+    }
+
+    /**
+     * Key values of the last fetched row or null if nothing was fetched yet.
+     */
+    @Nullable
+    Object[] getLastKey() {
+        return lastKey;
+    }
+
+    void setLastKey(@Nullable Object[] lastKey) {
+        this.lastKey = lastKey;
+    }
+
+    /**
+     * False if key values can't be read from the result set. Next segments must be read by offset then.
+     */
+    boolean isKeyAvailable() {
+        return keyAvailable;
+    }
+
+    /**
+     * Number of rows passed to the target receiver in all segments
+     */
+    long getRowsFetched() {
+        return rowsFetched;
+    }
+
+    /**
+     * Makes filter for the next segment. Source filter is copied, its ordering is replaced with key ordering
+     * and key condition is appended to its WHERE clause (if key values are available).
+     */
+    @NotNull
+    DBDDataFilter makeSegmentFilter(@NotNull DBPDataSource dataSource, @Nullable DBDDataFilter sourceFilter) {
+        DBDDataFilter filter = sourceFilter == null ? new DBDDataFilter() : new DBDDataFilter(sourceFilter);
+        filter.resetOrderBy();
+
+        StringBuilder order = new StringBuilder();
+        for (DBSEntityAttribute attr : keyAttributes) {
+            if (order.length() > 0) order.append(',');
+            order.append(DBUtils.getQuotedIdentifier(attr));
+        }
+        filter.setOrder(order.toString());
+
+        if (keyAvailable && lastKey != null) {
+            String keyCondition = makeKeyCondition(dataSource);
+            String where = filter.getWhere();
+            if (CommonUtils.isEmpty(where)) {
+                filter.setWhere(keyCondition);
+            } else {
+                filter.setWhere("(" + where + ") AND " + keyCondition);
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Row value comparison (k1,k2) > (v1,v2) is not supported by all databases so we expand it:
+     * (k1 > v1 OR (k1 = v1 AND k2 > v2))
+     */
+    private String makeKeyCondition(@NotNull DBPDataSource dataSource) {
+        StringBuilder condition = new StringBuilder();
+        condition.append('(');
+        for (int i = 0; i < keyAttributes.size(); i++) {
+            if (i > 0) condition.append(" OR ");
+            condition.append('(');
+            for (int k = 0; k <= i; k++) {
+                if (k > 0) condition.append(" AND ");
+                DBSEntityAttribute attr = keyAttributes.get(k);
+                condition.append(DBUtils.getQuotedIdentifier(attr))
+                    .append(k == i ? " > " : " = ")
+                    .append(SQLUtils.convertValueToSQL(dataSource, attr, keyHandlers[k], lastKey[k]));
+            }
+            condition.append(')');
+        }
+        condition.append(')');
+        return condition.toString();
+    }
+
+    @Override
+    public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+        if (keyAvailable) {
+            List<DBCAttributeMetaData> metaAttributes = resultSet.getMeta().getAttributes();
+            keyIndexes = new int[keyAttributes.size()];
+            for (int i = 0; i < keyIndexes.length; i++) {
+                keyIndexes[i] = -1;
+                String keyName = keyAttributes.get(i).getName();
+                for (int k = 0; k < metaAttributes.size(); k++) {
+                    if (keyName.equalsIgnoreCase(metaAttributes.get(k).getName())) {
+                        keyIndexes[i] = k;
+                        break;
+                    }
+                }
+                if (keyIndexes[i] < 0) {
+                    // E.g. only selected columns are exported
+                    log.warn("Key attribute '" + keyName + "' not found in result set. Use offset segments instead of keyset extraction.");
+                    keyAvailable = false;
+                    break;
+                }
+            }
+        }
+        // SQL offset is always zero here. Pass real segment position to the target receiver
+        // (e.g. database consumer truncates target table only on the first segment)
+        target.fetchStart(session, resultSet, rowsFetched, maxRows);
+    }
+
+    @Override
+    public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        target.fetchRow(session, resultSet);
+        rowsFetched++;
+        if (!keyAvailable) {
+            return;
+        }
+
+        Object[] rowKey = new Object[keyIndexes.length];
+        for (int i = 0; i < keyIndexes.length; i++) {
+            rowKey[i] = keyHandlers[i].fetchValueObject(session, resultSet, keyAttributes.get(i), keyIndexes[i]);
+            if (DBUtils.isNullValue(rowKey[i])) {
+                log.warn("NULL value in key attribute '" + keyAttributes.get(i).getName() + "'. Use offset segments instead of keyset extraction.");
+                keyAvailable = false;
+                return;
+            }
+        }
+        lastKey = rowKey;
+    }
+
+    @Override
+    public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        target.fetchEnd(session, resultSet);
+    }
+
+    @Override
+    public void close() {
+        // Target receiver is closed by the owner
+    }
+
+    /**
+     * Finds unique key of the data container. Physical identifiers are checked first, then virtual unique keys.
+     * @return key attributes or null if container has no usable key
+     */
+    @Nullable
+    static List<? extends DBSEntityAttribute> findKeyAttributes(@NotNull DBRProgressMonitor monitor, @NotNull DBSDataContainer dataContainer) throws DBException {
+        if (!(dataContainer instanceof DBSEntity)) {
+            return null;
+        }
+        DBSEntity entity = (DBSEntity) dataContainer;
+        List<? extends DBSEntityAttribute> keyAttributes = DBUtils.getBestTableIdentifier(monitor, entity);
+        if (CommonUtils.isEmpty(keyAttributes)) {
+            DBVEntity virtualEntity = DBVUtils.getVirtualEntity(entity, false);
+            if (virtualEntity != null) {
+                for (DBVEntityConstraint constraint : virtualEntity.getConstraints()) {
+                    if (constraint.getConstraintType().isUnique() && !constraint.isUseAllColumns() && !CommonUtils.isEmpty(constraint.getAttributes())) {
+                        keyAttributes = DBUtils.getEntityAttributes(monitor, constraint);
+                        break;
+                    }
+                }
+            }
+        }
+        return CommonUtils.isEmpty(keyAttributes) ? null : keyAttributes;
+    }
+
+}
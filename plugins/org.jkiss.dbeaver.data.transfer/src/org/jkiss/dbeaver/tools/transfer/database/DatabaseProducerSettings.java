@@ -32,7 +32,9 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
 
     public enum ExtractType {
         SINGLE_QUERY,
-        SEGMENTS
+        SEGMENTS,
+        // Segments are read by unique key ranges (WHERE key > last_key ORDER BY key)
+        KEYSET
     }
 
     private static final int DEFAULT_SEGMENT_SIZE = 100000;
@@ -46,6 +48,8 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     private boolean selectedColumnsOnly = false;
     private ExtractType extractType = ExtractType.SINGLE_QUERY;
     private int fetchSize = DEFAULT_FETCH_SIZE;
+    private int splitRangeCount = 1;
+    private boolean pipelineReadWrite = false;
 
     public DatabaseProducerSettings() {
     }
@@ -100,6 +104,28 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         this.openNewConnections = openNewConnections;
     }
 
+    /**
+     * Number of key ranges read in parallel for one table. 1 means no split.
+     */
+    public int getSplitRangeCount() {
+        return splitRangeCount;
+    }
+
+    public void setSplitRangeCount(int splitRangeCount) {
+        this.splitRangeCount = Math.max(splitRangeCount, 1);
+    }
+
+    /**
+     * Source rows are read in one thread and passed to the consumer in another one.
+     */
+    public boolean isPipelineReadWrite() {
+        return pipelineReadWrite;
+    }
+
+    public void setPipelineReadWrite(boolean pipelineReadWrite) {
+        this.pipelineReadWrite = pipelineReadWrite;
+    }
+
     public ExtractType getExtractType() {
         return extractType;
     }
@@ -113,6 +139,8 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         extractType = CommonUtils.valueOf(ExtractType.class, (String) settings.get("extractType"), extractType);
         segmentSize = CommonUtils.toInt(settings.get("segmentSize"), DEFAULT_SEGMENT_SIZE);
         fetchSize = CommonUtils.toInt(settings.get("fetchSize"), fetchSize);
+        setSplitRangeCount(CommonUtils.toInt(settings.get("splitRangeCount"), 1));
+        pipelineReadWrite = CommonUtils.toBoolean(settings.get("pipelineReadWrite"));
         openNewConnections = CommonUtils.toBoolean(settings.get("openNewConnections"));
         queryRowCount = CommonUtils.toBoolean(settings.get("queryRowCount"));
         selectedColumnsOnly = CommonUtils.toBoolean(settings.get("selectedColumnsOnly"));
@@ -124,6 +152,8 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         settings.put("extractType", extractType.name());
         settings.put("segmentSize", segmentSize);
         settings.put("fetchSize", fetchSize);
+        settings.put("splitRangeCount", splitRangeCount);
+        settings.put("pipelineReadWrite", pipelineReadWrite);
         settings.put("openNewConnections", openNewConnections);
         settings.put("queryRowCount", queryRowCount);
         settings.put("selectedColumnsOnly", selectedColumnsOnly);
@@ -136,6 +166,8 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_new_connection, openNewConnections);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_extract_type, extractType.name());
+        DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_split_range_count, splitRangeCount);
+        DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_pipeline_read_write, pipelineReadWrite);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_select_row_count, queryRowCount);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_rows_only, selectedRowsOnly);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_columns_only, selectedColumnsOnly);
@@ -0,0 +1,359 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads one table in several key ranges in parallel.
+ * Table is split by min/max values of its single-column integer unique key.
+ * Each range is read in a separate job with its own isolated execution context.
+ * All ranges feed the same data receiver, rows from different ranges are interleaved.
+ */
+class DatabaseRangeReader {
+
+    private static final Log log = Log.getLog(DatabaseRangeReader.class);
+
+    @NotNull
+    private final DBSDataContainer dataContainer;
+    @Nullable
+    private final DBDDataFilter dataFilter;
+    @NotNull
+    private final DBSEntityAttribute keyAttribute;
+    @NotNull
+    private final long[] bounds;
+
+    private DatabaseRangeReader(@NotNull DBSDataContainer dataContainer, @Nullable DBDDataFilter dataFilter, @NotNull DBSEntityAttribute keyAttribute, @NotNull long[] bounds) {
+        this.dataContainer = dataContainer;
+        this.dataFilter = dataFilter;
+        this.keyAttribute = keyAttribute;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Splits data container into key ranges.
+     * @return range reader or null if container can't be split
+     */
+    @Nullable
+    static DatabaseRangeReader create(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter,
+        int rangeCount) throws DBException
+    {
+        if (rangeCount < 2 || !(dataContainer instanceof DBSEntity) || !(session instanceof JDBCSession)) {
+            return null;
+        }
+        if (dataFilter != null && dataFilter.isAnyConstraint() && dataFilter.hasConditions()) {
+            return null;
+        }
+        List<? extends DBSEntityAttribute> keyAttributes = DatabaseKeysetReceiver.findKeyAttributes(session.getProgressMonitor(), dataContainer);
+        if (keyAttributes == null || keyAttributes.size() != 1 || keyAttributes.get(0).getDataKind() != DBPDataKind.NUMERIC) {
+            log.debug("Table '" + dataContainer.getName() + "' has no single-column numeric key. It can't be split into ranges.");
+            return null;
+        }
+        DBSEntityAttribute keyAttribute = keyAttributes.get(0);
+        DBPDataSource dataSource = session.getDataSource();
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+
+        StringBuilder query = new StringBuilder();
+        query.append("SELECT MIN(").append(keyName).append("),MAX(").append(keyName).append(") FROM ")
+            .append(DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML));
+        SQLUtils.appendQueryConditions(dataSource, query, null, dataFilter);
+
+        Long minValue, maxValue;
+        try (JDBCPreparedStatement dbStat = ((JDBCSession) session).prepareStatement(query.toString())) {
+            try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                if (!dbResult.next()) {
+                    return null;
+                }
+                minValue = toLong(dbResult.getObject(1));
+                maxValue = toLong(dbResult.getObject(2));
+            }
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+        if (minValue == null || maxValue == null) {
+            return null;
+        }
+        long span;
+        try {
+            span = Math.subtractExact(maxValue, minValue);
+        } catch (ArithmeticException e) {
+            return null;
+        }
+        if (span < rangeCount) {
+            return null;
+        }
+        long[] bounds = new long[rangeCount];
+        long step = span / rangeCount;
+        for (int i = 0; i < rangeCount; i++) {
+            bounds[i] = minValue + step * i;
+        }
+        return new DatabaseRangeReader(dataContainer, dataFilter, keyAttribute, bounds);
+    }
+
+    @Nullable
+    private static Long toLong(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        } else if (value instanceof BigInteger) {
+            return ((BigInteger) value).longValueExact();
+        } else if (value instanceof BigDecimal) {
+            try {
+                return ((BigDecimal) value).longValueExact();
+            } catch (ArithmeticException e) {
+                // Fractional or too big value
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads all ranges and waits for their completion.
+     * Ranges do not share a transaction so the result is not a consistent snapshot of the table.
+     * Target receiver gets fetchEnd even if some range fails or the read is canceled.
+     */
+    DBCStatistics readRanges(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession session,
+        @NotNull DBDDataReceiver receiver,
+        long readFlags,
+        int fetchSize) throws DBException
+    {
+        SharedDataReceiver sharedReceiver = new SharedDataReceiver(receiver);
+        boolean fetchEnded = false;
+        try {
+            DBCStatistics statistics = readAllRanges(monitor, session.getExecutionContext(), sharedReceiver, readFlags, fetchSize);
+            fetchEnded = true;
+            sharedReceiver.endFetch(session);
+            return statistics;
+        } finally {
+            if (!fetchEnded) {
+                // Let target flush rows it got from the other ranges
+                try {
+                    sharedReceiver.endFetch(session);
+                } catch (Throwable e) {
+                    log.debug("Error ending failed range read", e);
+                }
+            }
+        }
+    }
+
+    private DBCStatistics readAllRanges(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCExecutionContext baseContext,
+        @NotNull DBDDataReceiver receiver,
+        long readFlags,
+        int fetchSize) throws DBException
+    {
+        // Jobs canceled before start never run, so completion is counted by job listener
+        CountDownLatch completeLatch = new CountDownLatch(bounds.length);
+        List<RangeReadJob> jobs = new ArrayList<>(bounds.length);
+        for (int i = 0; i < bounds.length; i++) {
+            RangeReadJob job = new RangeReadJob(i, baseContext, receiver, readFlags, fetchSize);
+            job.addJobChangeListener(new JobChangeAdapter() {
+                @Override
+                public void done(IJobChangeEvent event) {
+                    completeLatch.countDown();
+                }
+            });
+            jobs.add(job);
+            job.schedule();
+        }
+        boolean canceled = false;
+        try {
+            while (!completeLatch.await(100, TimeUnit.MILLISECONDS)) {
+                if (!canceled && monitor.isCanceled()) {
+                    canceled = true;
+                    for (RangeReadJob job : jobs) {
+                        job.cancel();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Range read interrupted", e);
+        }
+        if (canceled || monitor.isCanceled()) {
+            throw new DBCException("Data transfer canceled");
+        }
+
+        DBCStatistics statistics = new DBCStatistics();
+        for (RangeReadJob job : jobs) {
+            if (job.error != null) {
+                throw new DBCException("Error reading range " + (job.rangeIndex + 1) + " of '" + dataContainer.getName() + "'", job.error);
+            }
+            if (job.statistics != null) {
+                statistics.accumulate(job.statistics);
+            }
+        }
+        return statistics;
+    }
+
+    @NotNull
+    private DBDDataFilter makeRangeFilter(DBPDataSource dataSource, int rangeIndex) {
+        DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+        // First and last ranges are open to include rows changed after min/max read.
+        // Unique key may be nullable, rows with null keys go to the first range.
+        StringBuilder condition = new StringBuilder();
+        if (rangeIndex > 0) {
+            condition.append(keyName).append(" >= ").append(bounds[rangeIndex]);
+        }
+        if (rangeIndex < bounds.length - 1) {
+            if (condition.length() > 0) condition.append(" AND ");
+            condition.append(keyName).append(" < ").append(bounds[rangeIndex + 1]);
+        }
+        if (rangeIndex == 0) {
+            condition.insert(0, "(").append(" OR ").append(keyName).append(" IS NULL)");
+        }
+        String where = filter.getWhere();
+        if (CommonUtils.isEmpty(where)) {
+            filter.setWhere(condition.toString());
+        } else {
+            filter.setWhere("(" + where + ") AND " + condition);
+        }
+        return filter;
+    }
+
+    private class RangeReadJob extends AbstractJob {
+
+        private final int rangeIndex;
+        private final DBCExecutionContext baseContext;
+        private final DBDDataReceiver receiver;
+        private final long readFlags;
+        private final int fetchSize;
+        private volatile DBCStatistics statistics;
+        private volatile Throwable error;
+
+        RangeReadJob(int rangeIndex, DBCExecutionContext baseContext, DBDDataReceiver receiver, long readFlags, int fetchSize) {
+            super("Read range " + (rangeIndex + 1) + " of '" + dataContainer.getName() + "'");
+            setUser(false);
+            setSystem(true);
+            this.rangeIndex = rangeIndex;
+            this.baseContext = baseContext;
+            this.receiver = receiver;
+            this.readFlags = readFlags;
+            this.fetchSize = fetchSize;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                DBCExecutionContext context = DBUtils.getObjectOwnerInstance(dataContainer).openIsolatedContext(
+                    monitor, "Data transfer range reader", baseContext);
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, getName())) {
+                    session.enableLogging(false);
+                    AbstractExecutionSource source = new AbstractExecutionSource(dataContainer, context, receiver);
+                    statistics = dataContainer.readData(
+                        source, session, receiver, makeRangeFilter(context.getDataSource(), rangeIndex), -1, -1, readFlags, fetchSize);
+                } finally {
+                    context.close();
+                }
+            } catch (Throwable e) {
+                error = e;
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    /**
+     * Serializes access to the target receiver.
+     * Target gets one fetchStart (from the first opened range) and one fetchEnd (when all ranges are finished).
+     */
+    private static class SharedDataReceiver implements DBDDataReceiver {
+
+        private final DBDDataReceiver target;
+        private boolean started;
+        private boolean ended;
+
+        SharedDataReceiver(DBDDataReceiver target) {
+            this.target = target;
+        }
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            synchronized (target) {
+                if (!started) {
+                    target.fetchStart(session, resultSet, 0, -1);
+                    started = true;
+                }
+            }
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            synchronized (target) {
+                target.fetchRow(session, resultSet);
+            }
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            // Target fetch is ended by range reader after all ranges are finished
+        }
+
+        void endFetch(DBCSession session) throws DBCException {
+            synchronized (target) {
+                if (started && !ended) {
+                    ended = true;
+                    target.fetchEnd(session, null);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            // Target receiver is closed by the owner
+        }
+    }
+
+}
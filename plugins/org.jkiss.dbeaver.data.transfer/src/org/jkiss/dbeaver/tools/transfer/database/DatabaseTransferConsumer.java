@@ -206,11 +206,30 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             ((DBSDataManipulatorExt) targetObject).beforeDataChange(targetSession, DBSManipulationType.INSERT, attributes, executionSource);
         }
 
-        executeBatch = targetObject.insertData(
-            targetSession,
-            attributes,
-            null,
-            executionSource);
+        executeBatch = null;
+        if (settings.isUseBulkLoad()) {
+            DBSDataBulkLoader bulkLoader = DBUtils.getAdapter(DBSDataBulkLoader.class, targetContext.getDataSource());
+            if (bulkLoader != null) {
+                executeBatch = bulkLoader.createBulkLoad(targetSession, targetObject, attributes, executionSource);
+            }
+            if (executeBatch == null) {
+                log.debug("Bulk load is not supported for '" + targetObject.getName() + "'. Use regular inserts.");
+            }
+        }
+        if (executeBatch == null && settings.getMultiRowInsertBatch() > 1 && targetObject instanceof DBSDataManipulatorMultiRow) {
+            executeBatch = ((DBSDataManipulatorMultiRow) targetObject).insertMultiRowData(
+                targetSession,
+                attributes,
+                settings.getMultiRowInsertBatch(),
+                executionSource);
+        }
+        if (executeBatch == null) {
+            executeBatch = targetObject.insertData(
+                targetSession,
+                attributes,
+                null,
+                executionSource);
+        }
     }
 
     private boolean isSkipColumn(DBDAttributeBinding attr) {
@@ -25,6 +25,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.meta.DBSerializable;
@@ -37,10 +38,12 @@ import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTaskUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.serialize.DBPObjectSerializer;
+import org.jkiss.dbeaver.tools.transfer.DataTransferPipeBuffer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferNodePrimary;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
@@ -51,6 +54,7 @@ import org.jkiss.utils.CommonUtils;
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -61,6 +65,8 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
 
     private static final Log log = Log.getLog(DatabaseTransferProducer.class);
 
+    private static final int PIPELINE_MAX_BATCHES = 4;
+
     @NotNull
     private DBSDataContainer dataContainer;
     @Nullable
@@ -125,8 +131,6 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         @Nullable IDataTransferProcessor processor,
         @NotNull DatabaseProducerSettings settings, DBTTask task)
         throws DBException {
-        String contextTask = DTMessages.data_transfer_wizard_job_task_export;
-
         DBSDataContainer databaseObject = getDatabaseObject();
         if (databaseObject == null) {
             throw new DBException("No input database object found");
@@ -134,6 +138,32 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         DBPDataSource dataSource = databaseObject.getDataSource();
         assert (dataSource != null);
 
+        // Keyset reader lives outside of recover block. After reconnect we continue from the last read key.
+        DatabaseKeysetReceiver[] keysetReceiver = new DatabaseKeysetReceiver[1];
+        // Optional buffer between reader and consumer. Consumer gets rows in a separate thread.
+        DataTransferPipeBuffer pipeBuffer = settings.isPipelineReadWrite() ?
+            new DataTransferPipeBuffer(consumer, settings.getFetchSize(), PIPELINE_MAX_BATCHES) : null;
+        DBDDataReceiver dataReceiver = pipeBuffer != null ? pipeBuffer : consumer;
+
+        try {
+            transferData(monitor1, dataSource, dataReceiver, settings, task, keysetReceiver);
+        } finally {
+            if (pipeBuffer != null) {
+                pipeBuffer.close();
+            }
+        }
+    }
+
+    private void transferData(
+        @NotNull DBRProgressMonitor monitor1,
+        @NotNull DBPDataSource dataSource,
+        @NotNull DBDDataReceiver consumer,
+        @NotNull DatabaseProducerSettings settings,
+        @Nullable DBTTask task,
+        @NotNull DatabaseKeysetReceiver[] keysetReceiver)
+        throws DBException
+    {
+        String contextTask = DTMessages.data_transfer_wizard_job_task_export;
         DBExecUtils.tryExecuteRecover(monitor1, dataSource, monitor -> {
             long readFlags = DBSDataContainer.FLAG_NONE;
             if (settings.isSelectedColumnsOnly()) {
@@ -210,9 +240,38 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             monitor.subTask("Read data");
 
                             // Perform export
-                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                            DatabaseRangeReader rangeReader = null;
+                            if (!selectiveExportFromUI && newConnection && settings.getSplitRangeCount() > 1) {
+                                rangeReader = DatabaseRangeReader.create(session, dataContainer, dataFilter, settings.getSplitRangeCount());
+                            }
+                            DatabaseProducerSettings.ExtractType extractType = settings.getExtractType();
+                            if (rangeReader == null && extractType == DatabaseProducerSettings.ExtractType.KEYSET && keysetReceiver[0] == null) {
+                                keysetReceiver[0] = createKeysetReceiver(monitor, dataSource, consumer);
+                                if (keysetReceiver[0] == null) {
+                                    extractType = DatabaseProducerSettings.ExtractType.SEGMENTS;
+                                }
+                            }
+                            if (rangeReader != null) {
+                                // Read key ranges in parallel in separate connections
+                                rangeReader.readRanges(monitor, session, consumer, readFlags, settings.getFetchSize());
+                            } else if (extractType == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
                                 // Just do it in single query
                                 dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize());
+                            } else if (extractType == DatabaseProducerSettings.ExtractType.KEYSET) {
+                                // Read data by segments using last read key as a start point of the next segment
+                                DatabaseKeysetReceiver keysetReader = keysetReceiver[0];
+                                int segmentSize = settings.getSegmentSize();
+                                for (; ; ) {
+                                    // Without key values continue by offset. Rows are still ordered by the key so the offset is stable.
+                                    long offset = keysetReader.isKeyAvailable() ? 0 : keysetReader.getRowsFetched();
+                                    DBDDataFilter segmentFilter = keysetReader.makeSegmentFilter(dataSource, dataFilter);
+                                    DBCStatistics statistics = dataContainer.readData(
+                                        transferSource, session, keysetReader, segmentFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                    if (statistics == null || statistics.getRowsFetched() < segmentSize) {
+                                        // Done
+                                        break;
+                                    }
+                                }
                             } else {
                                 // Read all data by segments
                                 long offset = 0;
@@ -260,6 +319,20 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         });
     }
 
+    @Nullable
+    private DatabaseKeysetReceiver createKeysetReceiver(DBRProgressMonitor monitor, DBPDataSource dataSource, DBDDataReceiver consumer) throws DBException {
+        if (dataFilter != null && dataFilter.isAnyConstraint() && dataFilter.hasConditions()) {
+            log.warn("Keyset extraction can't be used with OR filter criteria in '" + dataContainer.getName() + "'. Use segments.");
+            return null;
+        }
+        List<? extends DBSEntityAttribute> keyAttributes = DatabaseKeysetReceiver.findKeyAttributes(monitor, dataContainer);
+        if (keyAttributes == null) {
+            log.warn("No unique key found in '" + dataContainer.getName() + "'. Use segments instead of keyset extraction.");
+            return null;
+        }
+        return new DatabaseKeysetReceiver(dataSource, consumer, keyAttributes);
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof DatabaseTransferProducer &&
@@ -33,6 +33,8 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_job_task_export_table_data;
 	public static String data_transfer_wizard_job_task_retrieve;
 	public static String data_transfer_wizard_output_checkbox_compress;
+	public static String data_transfer_wizard_output_label_compression_format;
+	public static String data_transfer_wizard_output_label_compression_level;
 	public static String data_transfer_wizard_output_checkbox_split_files;
 	public static String data_transfer_wizard_output_checkbox_split_files_tip;
 	public static String data_transfer_wizard_output_checkbox_new_connection;
@@ -41,6 +43,7 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_output_checkbox_selected_columns_only;
 	public static String data_transfer_wizard_output_checkbox_selected_rows_only;
 	public static String data_transfer_wizard_output_combo_extract_type_item_by_segments;
+	public static String data_transfer_wizard_output_combo_extract_type_item_by_keys;
 	public static String data_transfer_wizard_output_combo_extract_type_item_single_query;
 	public static String data_transfer_wizard_output_description;
 	public static String data_transfer_wizard_output_dialog_directory_message;
@@ -54,6 +57,8 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_output_label_encoding;
 	public static String data_transfer_wizard_output_label_timestamp_pattern;
 	public static String data_transfer_wizard_output_label_extract_type;
+	public static String data_transfer_wizard_output_label_split_range_count;
+	public static String data_transfer_wizard_output_checkbox_pipeline_read_write;
 	public static String data_transfer_wizard_output_label_file_name_pattern;
 	public static String data_transfer_wizard_output_label_insert_bom;
 	public static String data_transfer_wizard_output_label_insert_bom_tooltip;
@@ -111,6 +116,8 @@ public class DTMessages extends NLS {
 	public static String database_consumer_settings_option_commit_after;
 	public static String database_consumer_settings_option_transfer_auto_generated_columns;
 	public static String database_consumer_settings_option_truncate_before_load;
+	public static String database_consumer_settings_option_use_bulk_load;
+	public static String database_consumer_settings_option_multi_row_insert;
 
 	public static String data_transfer_settings_title_find_producer;
 	public static String data_transfer_settings_message_find_data_producer;
@@ -0,0 +1,179 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * GZIP output stream which compresses data blocks in parallel (like pigz).
+ * Each block is written as a separate gzip member. Concatenated members form a valid gzip file
+ * which is decompressed by all standard tools (gzip, GZIPInputStream, etc).
+ * Compressed blocks are written to the target stream in their original order.
+ * flush() does not force compression of a partially filled block, data is complete only after close().
+ */
+class ParallelGzipOutputStream extends OutputStream {
+
+    static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final byte[] GZIP_HEADER = {
+        0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final int level;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+
+    private byte[] buffer;
+    private int bufferLength;
+    private boolean empty = true;
+    private boolean closed;
+
+    ParallelGzipOutputStream(@NotNull OutputStream out, @NotNull ExecutorService executor, int threadCount, int level, int blockSize) {
+        this.out = out;
+        this.executor = executor;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.maxPendingBlocks = threadCount * 2;
+        this.buffer = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        buffer[bufferLength++] = (byte) b;
+        if (bufferLength == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int count = Math.min(len, blockSize - bufferLength);
+            System.arraycopy(b, off, buffer, bufferLength, count);
+            bufferLength += count;
+            off += count;
+            len -= count;
+            if (bufferLength == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        // Write blocks which are already compressed. Do not wait for others.
+        while (!pendingBlocks.isEmpty() && pendingBlocks.peekFirst().isDone()) {
+            writeBlock(pendingBlocks.pollFirst());
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (bufferLength > 0 || empty) {
+                // Empty input still produces one (empty) gzip member
+                submitBlock();
+            }
+            while (!pendingBlocks.isEmpty()) {
+                writeBlock(pendingBlocks.pollFirst());
+            }
+            out.flush();
+        } finally {
+            for (Future<byte[]> block : pendingBlocks) {
+                block.cancel(true);
+            }
+            pendingBlocks.clear();
+            buffer = null;
+            out.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] data = buffer;
+        final int length = bufferLength;
+        pendingBlocks.addLast(executor.submit(() -> compressBlock(data, length, level)));
+        empty = false;
+        buffer = new byte[blockSize];
+        bufferLength = 0;
+        // Limit memory consumption and let the writer wait for compression
+        while (pendingBlocks.size() > maxPendingBlocks ||
+            (!pendingBlocks.isEmpty() && pendingBlocks.peekFirst().isDone()))
+        {
+            writeBlock(pendingBlocks.pollFirst());
+        }
+    }
+
+    private void writeBlock(Future<byte[]> block) throws IOException {
+        try {
+            out.write(block.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Compression interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Error compressing data block", e.getCause());
+        }
+    }
+
+    private static byte[] compressBlock(byte[] data, int length, int level) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream(length / 2 + 64);
+        result.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            byte[] chunk = new byte[Math.max(length / 4, 8192)];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(chunk);
+                result.write(chunk, 0, count);
+            }
+        } finally {
+            deflater.end();
+        }
+        writeIntLE(result, (int) crc.getValue());
+        writeIntLE(result, length);
+        return result.toByteArray();
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+}
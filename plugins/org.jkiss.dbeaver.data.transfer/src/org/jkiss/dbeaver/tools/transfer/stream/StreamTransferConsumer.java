@@ -54,9 +54,11 @@ import org.jkiss.utils.IOUtils;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -82,12 +84,18 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     public static final int OUT_FILE_BUFFER_SIZE = 100000;
 
+    private static final int COMPRESS_THREAD_COUNT = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+
     private IStreamDataExporter processor;
     private StreamConsumerSettings settings;
     private DBSDataContainer dataContainer;
 
     private OutputStream outputStream;
     private ZipOutputStream zipStream;
+    private ExecutorService compressExecutor;
+    // Closes finished parts. Part close waits for compressor tasks so it must never run in the compressor pool itself.
+    private ExecutorService partCloseExecutor;
+    private final List<Future<?>> closingParts = new ArrayList<>();
     private PrintWriter writer;
     private int multiFileNumber;
     private long bytesWritten = 0;
@@ -241,7 +249,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                 openOutputStreams();
             }
         } catch (IOException e) {
-            closeExporter();
+            try {
+                closeExporter();
+            } catch (DBException e1) {
+                log.debug(e1);
+            }
             throw new DBCException("Data transfer IO error", e);
         }
 
@@ -253,7 +265,12 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
-    private void closeExporter() {
+    /**
+     * Closes output files. Compressed parts are written completely only on close,
+     * so the first close error is rethrown after all parts are closed.
+     */
+    private void closeExporter() throws DBException {
+        Throwable error = null;
         if (exportSite != null) {
             try {
                 exportSite.flush();
@@ -271,7 +288,41 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             }
             processor = null;
         }
-        closeOutputStreams();
+        try {
+            closeOutputStreams();
+        } catch (IOException e) {
+            error = e;
+        }
+
+        for (Future<?> part : closingParts) {
+            try {
+                part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (error == null) {
+                    error = e;
+                }
+                break;
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                } else {
+                    log.error(e.getCause());
+                }
+            }
+        }
+        closingParts.clear();
+        if (partCloseExecutor != null) {
+            partCloseExecutor.shutdownNow();
+            partCloseExecutor = null;
+        }
+        if (compressExecutor != null) {
+            compressExecutor.shutdownNow();
+            compressExecutor = null;
+        }
+        if (error != null) {
+            throw new DBException("Error writing output file", error);
+        }
     }
 
     private void openOutputStreams() throws IOException {
@@ -279,9 +330,19 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             new FileOutputStream(outputFile, settings.isUseSingleFile()),
             OUT_FILE_BUFFER_SIZE);
         if (settings.isCompressResults()) {
-            this.zipStream = new ZipOutputStream(this.outputStream);
-            this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
-            this.outputStream = zipStream;
+            if (settings.getCompressionFormat() == StreamConsumerSettings.CompressionFormat.GZIP) {
+                this.outputStream = new ParallelGzipOutputStream(
+                    this.outputStream,
+                    getCompressExecutor(),
+                    COMPRESS_THREAD_COUNT,
+                    settings.getCompressionLevel(),
+                    ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE);
+            } else {
+                this.zipStream = new ZipOutputStream(this.outputStream);
+                this.zipStream.setLevel(settings.getCompressionLevel());
+                this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
+                this.outputStream = zipStream;
+            }
         }
 
         // If we need to split files - use stream wrapper to calculate fiel size
@@ -299,14 +360,48 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
 
         if (!parameters.isBinary) {
-            this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, settings.getOutputEncoding()), true);
+            // No auto-flush: each flush goes down to the file (and compressor) and costs much more than a line write
+            this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, settings.getOutputEncoding()), false);
+        }
+    }
+
+    private ExecutorService getCompressExecutor() {
+        if (compressExecutor == null) {
+            compressExecutor = Executors.newFixedThreadPool(COMPRESS_THREAD_COUNT, r -> {
+                Thread thread = new Thread(r, "Data export compressor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return compressExecutor;
+    }
+
+    private ExecutorService getPartCloseExecutor() {
+        if (partCloseExecutor == null) {
+            partCloseExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "Data export part closer");
+                thread.setDaemon(true);
+                return thread;
+            });
         }
+        return partCloseExecutor;
     }
 
-    private void closeOutputStreams() {
+    /**
+     * Closes current output. All streams are closed even if some of them fail, the first error is thrown.
+     */
+    private void closeOutputStreams() throws IOException {
+        IOException error = null;
         if (this.writer != null) {
             this.writer.flush();
-            ContentUtils.close(this.writer);
+            if (outputFile != null && this.writer.checkError()) {
+                // PrintWriter hides IO errors
+                error = new IOException("Error writing output file '" + outputFile.getAbsolutePath() + "'");
+            }
+            if (outputStream == null) {
+                ContentUtils.close(this.writer);
+            }
+            // Otherwise output stream is closed below, so its close errors are not hidden by the writer
             this.writer = null;
         }
 
@@ -314,13 +409,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         if (zipStream != null) {
             try {
                 zipStream.closeEntry();
-            } catch (IOException e) {
-                log.debug(e);
-            }
-            try {
                 zipStream.finish();
             } catch (IOException e) {
-                log.debug(e);
+                if (error == null) {
+                    error = e;
+                }
             }
             zipStream = null;
         }
@@ -329,15 +422,45 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             try {
                 outputStream.flush();
             } catch (IOException e) {
-                log.debug(e);
+                if (error == null) {
+                    error = e;
+                }
+            }
+            try {
+                outputStream.close();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
             }
-            ContentUtils.close(outputStream);
             outputStream = null;
         }
+        if (error != null) {
+            throw error;
+        }
     }
 
     private void createNewOutFile() throws IOException {
-        closeOutputStreams();
+        if (compressExecutor != null) {
+            // Finish compression of the previous part in background while the next part is written
+            if (writer != null) {
+                writer.flush();
+                writer = null;
+            }
+            final OutputStream partStream = outputStream;
+            final File partFile = outputFile;
+            closingParts.add(getPartCloseExecutor().submit(() -> {
+                try {
+                    partStream.close();
+                } catch (IOException e) {
+                    throw new IOException("Error writing file '" + partFile.getAbsolutePath() + "'", e);
+                }
+                return null;
+            }));
+            outputStream = null;
+        } else {
+            closeOutputStreams();
+        }
 
         bytesWritten = 0;
         multiFileNumber++;
@@ -361,7 +484,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     }
 
     @Override
-    public void finishTransfer(DBRProgressMonitor monitor, boolean last) {
+    public void finishTransfer(DBRProgressMonitor monitor, boolean last) throws DBException {
         if (!last) {
             if (processor != null) {
                 try {
@@ -455,7 +578,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
         String fileName = getOutputFileName();
         if (settings.isCompressResults()) {
-            fileName += ".zip";
+            fileName += "." + settings.getCompressionFormat().getExtension();
         }
         return new File(dir, fileName);
     }
@@ -25,7 +25,6 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.local.LocalResultSetColumn;
 import org.jkiss.dbeaver.model.impl.local.LocalResultSetMeta;
 import org.jkiss.dbeaver.tools.transfer.stream.model.StreamTransferSession;
-import org.jkiss.utils.CommonUtils;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -95,30 +94,51 @@ public class StreamTransferResultSet implements DBCResultSet {
         }
 
         Object value = streamRow[attr.getSourceAttributeIndex()];
-        if (value != null && dateTimeFormat != null && attr.getTargetAttribute() != null && attr.getTargetAttribute().getDataKind() == DBPDataKind.DATETIME) {
-            // Convert string to timestamp
+        if (value instanceof String && dateTimeFormat != null && isDateTimeAttribute(attr)) {
+            value = parseDateTime(dateTimeFormat, (String) value);
+        }
+
+        return value;
+    }
+
+    private static boolean isDateTimeAttribute(StreamProducerSettings.AttributeMapping attr) {
+        return attr.getTargetAttribute() != null && attr.getTargetAttribute().getDataKind() == DBPDataKind.DATETIME;
+    }
+
+    /**
+     * Converts string to date.
+     * @return date, null for blank string or the string itself if it can't be parsed
+     */
+    public static Object parseDateTime(DateTimeFormatter dateTimeFormat, CharSequence strValue) {
+        // Convert string to timestamp
+        try {
+            if (isBlank(strValue)) {
+                return null;
+            }
+            TemporalAccessor ta = dateTimeFormat.parse(strValue);
             try {
-                String strValue = CommonUtils.toString(value);
-                if (CommonUtils.isEmptyTrimmed(strValue)) {
-                    return null;
-                }
-                TemporalAccessor ta = dateTimeFormat.parse(strValue);
-                try {
-                    ZonedDateTime zdt = ZonedDateTime.from(ta);
-                    value = java.util.Date.from(zdt.toInstant());
-                } catch (Exception e) {
-                    LocalDateTime localDT = LocalDateTime.from(ta);
-                    if (localDT != null) {
-                        value = java.util.Date.from(localDT.atZone(ZoneId.systemDefault()).toInstant());
-                    }
-                }
+                ZonedDateTime zdt = ZonedDateTime.from(ta);
+                return java.util.Date.from(zdt.toInstant());
             } catch (Exception e) {
-                // Can't parse. Ignore format then
-                log.debug("Error parsing datetime string: " + e.getMessage());
+                LocalDateTime localDT = LocalDateTime.from(ta);
+                if (localDT != null) {
+                    return java.util.Date.from(localDT.atZone(ZoneId.systemDefault()).toInstant());
+                }
             }
+        } catch (Exception e) {
+            // Can't parse. Ignore format then
+            log.debug("Error parsing datetime string: " + e.getMessage());
         }
+        return strValue.toString();
+    }
 
-        return value;
+    private static boolean isBlank(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -176,7 +176,7 @@ public class DataExporterCSV extends StreamExporterAbstract {
                 finally {
                     content.release();
                 }
-            } else {
+            } else if (!writeFormattedCellValue(column, row[i])) {
                 String stringValue = super.getValueDisplayString(column, row[i]);
                 boolean quote = false;
 
@@ -210,6 +210,35 @@ public class DataExporterCSV extends StreamExporterAbstract {
         }
     }
 
+    /**
+     * Writes numbers and dates without intermediate strings.
+     * Returns false if value has no fast path or must be quoted.
+     */
+    private boolean writeFormattedCellValue(DBDAttributeBinding column, Object value) throws IOException
+    {
+        ExportValueFormatter formatter = getValueFormatter();
+        if (!formatter.formatValue(column, value, getValueExportFormat(column))) {
+            return false;
+        }
+        if (useQuotes) {
+            if (quoteStrategy == QuoteStrategy.ALL || (quoteStrategy == QuoteStrategy.ALL_BUT_NUMBERS && !(value instanceof Number))) {
+                return false;
+            }
+            StringBuilder formatted = formatter.getBuffer();
+            for (int i = 0; i < formatted.length(); i++) {
+                char c = formatted.charAt(i);
+                if (c == quoteChar || c == '\r' || c == '\n') {
+                    return false;
+                }
+            }
+            if (formatted.indexOf(delimiter) != -1 || formatted.indexOf(rowDelimiter) != -1) {
+                return false;
+            }
+        }
+        formatter.writeTo(getWriter());
+        return true;
+    }
+
     private void writeCellValue(String value, boolean quote)
     {
         if (!useQuotes) {
@@ -49,13 +49,19 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
 
     public static final String PROP_FORMAT_DATE_ISO = "formatDateISO";
     public static final String PROP_PRINT_TABLE_NAME = "printTableName";
+    public static final String PROP_LINE_DELIMITED = "lineDelimited";
+
+    private static final String[] CONTROL_CHAR_ESCAPES = makeControlCharEscapes();
 
     private DBDAttributeBinding[] columns;
+    private char[][] columnTokens;
     private String tableName;
     private int rowNum = 0;
 
     private boolean printTableName = true;
     private boolean formatDateISO = true;
+    private boolean lineDelimited = false;
+    private char[] charBuffer = new char[2000];
 
     @Override
     public void init(IStreamDataExporterSite site) throws DBException
@@ -63,6 +69,7 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
         super.init(site);
         formatDateISO = CommonUtils.getBoolean(site.getProperties().get(PROP_FORMAT_DATE_ISO), true);
         printTableName = CommonUtils.getBoolean(site.getProperties().get(PROP_PRINT_TABLE_NAME), true);
+        lineDelimited = CommonUtils.getBoolean(site.getProperties().get(PROP_LINE_DELIMITED), false);
     }
 
     @Override
@@ -76,7 +83,19 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
     {
         columns = getSite().getAttributes();
         tableName = getSite().getSource().getName();
-        printHeader();
+        // Column names are the same in all rows. Escape them once
+        columnTokens = new char[columns.length][];
+        for (int i = 0; i < columns.length; i++) {
+            String columnName = columns[i].getLabel();
+            if (CommonUtils.isEmpty(columnName)) {
+                columnName = columns[i].getName();
+            }
+            String escapedName = JSONUtils.escapeJsonString(columnName);
+            columnTokens[i] = (lineDelimited ? "\"" + escapedName + "\":" : "\t\t\"" + escapedName + "\" : ").toCharArray();
+        }
+        if (!lineDelimited) {
+            printHeader();
+        }
     }
 
     private void printHeader()
@@ -93,7 +112,7 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
     public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException
     {
         PrintWriter out = getWriter();
-        if (rowNum > 0) {
+        if (rowNum > 0 && !lineDelimited) {
             out.write(",\n");
         }
         rowNum++;
@@ -102,16 +121,16 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
             ByteArrayOutputStream buffer = new ByteArrayOutputStream();
             document.serializeDocument(session.getProgressMonitor(), buffer, StandardCharsets.UTF_8);
             String jsonText = buffer.toString(StandardCharsets.UTF_8.name());
+            if (lineDelimited) {
+                // Line breaks may appear in JSON text only as whitespace
+                jsonText = jsonText.trim().replace('\r', ' ').replace('\n', ' ');
+            }
             out.write(jsonText);
         } else {
-            out.write("\t{\n");
+            out.write(lineDelimited ? "{" : "\t{\n");
             for (int i = 0; i < columns.length; i++) {
                 DBDAttributeBinding column = columns[i];
-                String columnName = column.getLabel();
-                if (CommonUtils.isEmpty(columnName)) {
-                    columnName = column.getName();
-                }
-                out.write("\t\t\"" + JSONUtils.escapeJsonString(columnName) + "\" : ");
+                out.write(columnTokens[i]);
                 Object cellValue = row[column.getOrdinalPosition()];
                 if (DBUtils.isNullValue(cellValue)) {
                     writeTextCell(null);
@@ -124,9 +143,9 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
                         if (cs != null) {
                             if (ContentUtils.isTextContent(content)) {
                                 try (Reader in = cs.getContentReader()) {
-                                    out.write("\"");
+                                    out.write('"');
                                     writeCellValue(in);
-                                    out.write("\"");
+                                    out.write('"');
                                 }
                             } else {
                                 getSite().writeBinaryData(cs);
@@ -136,20 +155,37 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
                         content.release();
                     }
                 } else {
-                    if (cellValue instanceof Number || cellValue instanceof Boolean) {
+                    ExportValueFormatter formatter = getValueFormatter();
+                    if (cellValue instanceof Number && formatter.formatNumber((Number) cellValue)) {
+                        formatter.writeTo(out);
+                    } else if (cellValue instanceof Boolean) {
+                        out.write((Boolean) cellValue ? "true" : "false");
+                    } else if (cellValue instanceof Number) {
                         out.write(cellValue.toString());
                     } else if (cellValue instanceof Date && formatDateISO) {
-                        writeTextCell(JSONUtils.formatDate((Date) cellValue));
+                        if (formatter.formatISODate((Date) cellValue)) {
+                            // ISO date has nothing to escape
+                            out.write('"');
+                            formatter.writeTo(out);
+                            out.write('"');
+                        } else {
+                            writeTextCell(JSONUtils.formatDate((Date) cellValue));
+                        }
                     } else {
                         writeTextCell(super.getValueDisplayString(column, cellValue));
                     }
                 }
                 if (i < columns.length - 1) {
-                    out.write(",");
+                    out.write(',');
+                }
+                if (!lineDelimited) {
+                    out.write('\n');
                 }
-                out.write("\n");
             }
-            out.write("\t}");
+            out.write(lineDelimited ? "}" : "\t}");
+        }
+        if (lineDelimited) {
+            out.write('\n');
         }
     }
 
@@ -168,6 +204,9 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
     @Override
     public void exportFooter(DBRProgressMonitor monitor) throws IOException
     {
+        if (lineDelimited) {
+            return;
+        }
         PrintWriter out = getWriter();
         out.write("\n]");
         if (printTableName) {
@@ -178,24 +217,93 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
 
     private void writeTextCell(@Nullable String value)
     {
+        PrintWriter out = getWriter();
         if (value != null) {
-            getWriter().write("\"" + JSONUtils.escapeJsonString(value) + "\"");
+            int length = value.length();
+            if (charBuffer.length < length) {
+                charBuffer = new char[Math.max(length, charBuffer.length * 2)];
+            }
+            value.getChars(0, length, charBuffer, 0);
+            out.write('"');
+            writeEscaped(out, charBuffer, length);
+            out.write('"');
         } else {
-            getWriter().write("null");
+            out.write("null");
         }
     }
 
     private void writeCellValue(Reader reader) throws IOException
     {
         // Copy reader
-        char buffer[] = new char[2000];
+        PrintWriter out = getWriter();
         for (;;) {
-            int count = reader.read(buffer);
+            int count = reader.read(charBuffer);
             if (count <= 0) {
                 break;
             }
-            getWriter().write(JSONUtils.escapeJsonString(new String(buffer, 0, count)));
+            writeEscaped(out, charBuffer, count);
+        }
+    }
+
+    /**
+     * Escapes JSON string directly into the output. Unescaped fragments are written as is.
+     */
+    private static void writeEscaped(PrintWriter out, char[] chars, int length)
+    {
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            String escape;
+            switch (c) {
+                case '\n':
+                    escape = "\\n";
+                    break;
+                case '\r':
+                    escape = "\\r";
+                    break;
+                case '\t':
+                    escape = "\\t";
+                    break;
+                case '\f':
+                    escape = "\\f";
+                    break;
+                case '\b':
+                    escape = "\\b";
+                    break;
+                case '"':
+                    escape = "\\\"";
+                    break;
+                case '\\':
+                    escape = "\\\\";
+                    break;
+                case '/':
+                    escape = "\\/";
+                    break;
+                default:
+                    if (c >= ' ') {
+                        continue;
+                    }
+                    escape = CONTROL_CHAR_ESCAPES[c];
+                    break;
+            }
+            if (i > start) {
+                out.write(chars, start, i - start);
+            }
+            out.write(escape);
+            start = i + 1;
+        }
+        if (start < length) {
+            out.write(chars, start, length - start);
+        }
+    }
+
+    private static String[] makeControlCharEscapes()
+    {
+        String[] escapes = new String[' '];
+        for (int i = 0; i < escapes.length; i++) {
+            escapes[i] = String.format("\\u%04x", i);
         }
+        return escapes;
     }
 
 }
@@ -0,0 +1,451 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.IOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Apache Parquet exporter.
+ * Values are written in their native types (without conversion to strings) where possible.
+ */
+public class DataExporterParquet extends StreamExporterAbstract {
+
+    public static final String PROP_COMPRESSION = "compression";
+    public static final String PROP_ROW_GROUP_SIZE = "rowGroupSize";
+
+    private static final int DEFAULT_ROW_GROUP_SIZE = 100000;
+    // Decimals up to this precision are stored as INT64
+    private static final int MAX_LONG_DECIMAL_PRECISION = 18;
+    private static final int MAX_DECIMAL_PRECISION = 38;
+
+    private enum ValueType {
+        BOOLEAN,
+        INT32,
+        INT64,
+        FLOAT,
+        DOUBLE,
+        DECIMAL,
+        DATE,
+        TIME,
+        TIMESTAMP,
+        STRING,
+        BINARY
+    }
+
+    private DBDAttributeBinding[] columns;
+    private ValueType[] valueTypes;
+    private ParquetWriter.Column[] parquetColumns;
+    private ParquetWriter writer;
+
+    private ParquetWriter.Codec codec;
+    private int rowGroupSize;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        String compression = CommonUtils.toString(site.getProperties().get(PROP_COMPRESSION));
+        if ("gzip".equalsIgnoreCase(compression)) {
+            codec = ParquetWriter.Codec.GZIP;
+        } else if ("snappy".equalsIgnoreCase(compression)) {
+            codec = ParquetWriter.Codec.SNAPPY;
+        } else {
+            codec = ParquetWriter.Codec.UNCOMPRESSED;
+        }
+        rowGroupSize = CommonUtils.toInt(site.getProperties().get(PROP_ROW_GROUP_SIZE), DEFAULT_ROW_GROUP_SIZE);
+        if (rowGroupSize <= 0) {
+            rowGroupSize = DEFAULT_ROW_GROUP_SIZE;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        writer = null;
+        super.dispose();
+    }
+
+    @Override
+    public void exportHeader(DBCSession session) throws DBException, IOException {
+        columns = getSite().getAttributes();
+        // Native date format means that date/time values are strings
+        boolean nativeDateFormat = session.getDataSource().getContainer().getPreferenceStore().getBoolean(
+            ModelPreferences.RESULT_NATIVE_DATETIME_FORMAT);
+
+        valueTypes = new ValueType[columns.length];
+        parquetColumns = new ParquetWriter.Column[columns.length];
+        Set<String> columnNames = new HashSet<>();
+        List<ParquetWriter.Column> columnList = new ArrayList<>(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            DBDAttributeBinding column = columns[i];
+            String columnName = column.getLabel();
+            if (CommonUtils.isEmpty(columnName)) {
+                columnName = column.getName();
+            }
+            // Parquet column names must be unique
+            String uniqueName = columnName;
+            for (int k = 2; !columnNames.add(uniqueName); k++) {
+                uniqueName = columnName + "_" + k;
+            }
+            valueTypes[i] = getValueType(column, nativeDateFormat);
+            parquetColumns[i] = makeParquetColumn(uniqueName, valueTypes[i], column);
+            columnList.add(parquetColumns[i]);
+        }
+
+        writer = new ParquetWriter(getOutputStream(), columnList, codec, GeneralUtils.getProductTitle());
+        writer.start();
+    }
+
+    @Override
+    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException {
+        for (int i = 0; i < columns.length; i++) {
+            writeValue(session, i, row[i]);
+        }
+        writer.endRow();
+        if (writer.getBufferedRows() >= rowGroupSize) {
+            writer.flushRowGroup();
+        }
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws DBException, IOException {
+        if (writer != null) {
+            writer.finish();
+        }
+    }
+
+    private static ValueType getValueType(DBDAttributeBinding column, boolean nativeDateFormat) {
+        switch (column.getDataKind()) {
+            case BOOLEAN:
+                return ValueType.BOOLEAN;
+            case NUMERIC:
+                switch (column.getTypeID()) {
+                    case Types.TINYINT:
+                    case Types.SMALLINT:
+                        return ValueType.INT32;
+                    case Types.INTEGER:
+                    case Types.BIGINT:
+                        return ValueType.INT64;
+                    case Types.REAL:
+                        return ValueType.FLOAT;
+                    case Types.FLOAT:
+                    case Types.DOUBLE:
+                        return ValueType.DOUBLE;
+                    case Types.DECIMAL:
+                    case Types.NUMERIC: {
+                        int precision = CommonUtils.toInt(column.getPrecision());
+                        int scale = CommonUtils.toInt(column.getScale());
+                        if (precision > 0 && precision <= MAX_DECIMAL_PRECISION && scale >= 0 && scale <= precision) {
+                            return ValueType.DECIMAL;
+                        }
+                        // Unknown precision. Keep exact value as string
+                        return ValueType.STRING;
+                    }
+                    default:
+                        return ValueType.STRING;
+                }
+            case DATETIME:
+                if (nativeDateFormat) {
+                    return ValueType.STRING;
+                }
+                switch (column.getTypeID()) {
+                    case Types.DATE:
+                        return ValueType.DATE;
+                    case Types.TIME:
+                    case Types.TIME_WITH_TIMEZONE:
+                        return ValueType.TIME;
+                    default:
+                        return ValueType.TIMESTAMP;
+                }
+            case BINARY:
+                return ValueType.BINARY;
+            case CONTENT:
+                switch (column.getTypeID()) {
+                    case Types.BLOB:
+                    case Types.BINARY:
+                    case Types.VARBINARY:
+                    case Types.LONGVARBINARY:
+                        return ValueType.BINARY;
+                    default:
+                        return ValueType.STRING;
+                }
+            default:
+                return ValueType.STRING;
+        }
+    }
+
+    private static ParquetWriter.Column makeParquetColumn(String name, ValueType valueType, DBDAttributeBinding column) {
+        switch (valueType) {
+            case BOOLEAN:
+                return new ParquetWriter.Column(name, ParquetWriter.PhysicalType.BOOLEAN, null);
+            case INT32:
+                return new ParquetWriter.Column(name, ParquetWriter.PhysicalType.INT32, null);
+            case INT64:
+                return new ParquetWriter.Column(name, ParquetWriter.PhysicalType.INT64, null);
+            case FLOAT:
+                return new ParquetWriter.Column(name, ParquetWriter.PhysicalType.FLOAT, null);
+            case DOUBLE:
+                return new ParquetWriter.Column(name, ParquetWriter.PhysicalType.DOUBLE, null);
+            case DECIMAL: {
+                int precision = CommonUtils.toInt(column.getPrecision());
+                int scale = CommonUtils.toInt(column.getScale());
+                if (precision <= MAX_LONG_DECIMAL_PRECISION) {
+                    return new ParquetWriter.Column(
+                        name, ParquetWriter.PhysicalType.INT64, ParquetWriter.ConvertedType.DECIMAL, 0, precision, scale);
+                }
+                return new ParquetWriter.Column(
+                    name, ParquetWriter.PhysicalType.FIXED_LEN_BYTE_ARRAY, ParquetWriter.ConvertedType.DECIMAL,
+                    getDecimalLength(precision), precision, scale);
+            }
+            case DATE:
+                return new ParquetWriter.Column(name, ParquetWriter.PhysicalType.INT32, ParquetWriter.ConvertedType.DATE);
+            case TIME:
+                return new ParquetWriter.Column(name, ParquetWriter.PhysicalType.INT64, ParquetWriter.ConvertedType.TIME_MICROS);
+            case TIMESTAMP:
+                return new ParquetWriter.Column(name, ParquetWriter.PhysicalType.INT64, ParquetWriter.ConvertedType.TIMESTAMP_MICROS);
+            case BINARY:
+                return new ParquetWriter.Column(name, ParquetWriter.PhysicalType.BYTE_ARRAY, null);
+            default:
+                return new ParquetWriter.Column(name, ParquetWriter.PhysicalType.BYTE_ARRAY, ParquetWriter.ConvertedType.UTF8);
+        }
+    }
+
+    /**
+     * Minimal number of bytes which can hold unscaled value of the specified precision (two's complement)
+     */
+    private static int getDecimalLength(int precision) {
+        BigInteger maxValue = BigInteger.TEN.pow(precision);
+        int length = 1;
+        while (maxValue.compareTo(BigInteger.ONE.shiftLeft(length * 8 - 1)) >= 0) {
+            length++;
+        }
+        return length;
+    }
+
+    private void writeValue(DBCSession session, int index, Object value) throws DBException, IOException {
+        ParquetWriter.Column parquetColumn = parquetColumns[index];
+        ValueType valueType = valueTypes[index];
+        if (value instanceof DBDContent) {
+            value = readContent(session.getProgressMonitor(), (DBDContent) value, valueType == ValueType.BINARY);
+        }
+        if (DBUtils.isNullValue(value)) {
+            parquetColumn.addNull();
+            return;
+        }
+        try {
+            switch (valueType) {
+                case BOOLEAN:
+                    if (value instanceof Boolean) {
+                        parquetColumn.addBoolean((Boolean) value);
+                    } else {
+                        parquetColumn.addBoolean(toNumber(index, value).intValue() != 0);
+                    }
+                    break;
+                case INT32:
+                    parquetColumn.addInt(toNumber(index, value).intValue());
+                    break;
+                case INT64: {
+                    Number number = toNumber(index, value);
+                    if (number instanceof BigDecimal) {
+                        parquetColumn.addLong(((BigDecimal) number).longValueExact());
+                    } else if (number instanceof BigInteger) {
+                        parquetColumn.addLong(((BigInteger) number).longValueExact());
+                    } else {
+                        parquetColumn.addLong(number.longValue());
+                    }
+                    break;
+                }
+                case FLOAT:
+                    parquetColumn.addFloat(toNumber(index, value).floatValue());
+                    break;
+                case DOUBLE:
+                    parquetColumn.addDouble(toNumber(index, value).doubleValue());
+                    break;
+                case DECIMAL: {
+                    Number number = toNumber(index, value);
+                    BigDecimal decimal = number instanceof BigDecimal ? (BigDecimal) number : new BigDecimal(number.toString());
+                    BigInteger unscaled = decimal.setScale(parquetColumn.getScale(), RoundingMode.HALF_UP).unscaledValue();
+                    if (parquetColumn.getType() == ParquetWriter.PhysicalType.INT64) {
+                        parquetColumn.addLong(unscaled.longValueExact());
+                    } else {
+                        parquetColumn.addFixed(toFixedBytes(unscaled, parquetColumn.getTypeLength()));
+                    }
+                    break;
+                }
+                case DATE:
+                    parquetColumn.addInt((int) toLocalDate(index, value).toEpochDay());
+                    break;
+                case TIME:
+                    parquetColumn.addLong(toLocalTime(index, value).toNanoOfDay() / 1000);
+                    break;
+                case TIMESTAMP:
+                    parquetColumn.addLong(toEpochMicros(index, value));
+                    break;
+                case BINARY:
+                    if (value instanceof byte[]) {
+                        parquetColumn.addBinary((byte[]) value);
+                    } else {
+                        parquetColumn.addBinary(getStringValue(index, value).getBytes(StandardCharsets.UTF_8));
+                    }
+                    break;
+                default:
+                    parquetColumn.addBinary(getStringValue(index, value).getBytes(StandardCharsets.UTF_8));
+                    break;
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new DBException("Value '" + value + "' is out of range of Parquet column '" + parquetColumn.getName() + "'", e);
+        }
+    }
+
+    private String getStringValue(int index, Object value) {
+        return value instanceof String ? (String) value : super.getValueDisplayString(columns[index], value);
+    }
+
+    private Number toNumber(int index, Object value) throws DBException {
+        if (value instanceof Number) {
+            return (Number) value;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        } else if (value instanceof String) {
+            return new BigDecimal(((String) value).trim());
+        }
+        throw makeTypeError(index, value);
+    }
+
+    private LocalDate toLocalDate(int index, Object value) throws DBException {
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        } else if (value instanceof java.util.Date) {
+            return Instant.ofEpochMilli(((java.util.Date) value).getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+        } else if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalDate();
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toLocalDate();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toLocalDate();
+        }
+        throw makeTypeError(index, value);
+    }
+
+    private LocalTime toLocalTime(int index, Object value) throws DBException {
+        if (value instanceof java.util.Date) {
+            // java.sql.Time.toLocalTime() drops milliseconds
+            return Instant.ofEpochMilli(((java.util.Date) value).getTime()).atZone(ZoneId.systemDefault()).toLocalTime();
+        } else if (value instanceof LocalTime) {
+            return (LocalTime) value;
+        } else if (value instanceof OffsetTime) {
+            return ((OffsetTime) value).toLocalTime();
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalTime();
+        }
+        throw makeTypeError(index, value);
+    }
+
+    private long toEpochMicros(int index, Object value) throws DBException {
+        Instant instant;
+        if (value instanceof java.sql.Timestamp) {
+            java.sql.Timestamp timestamp = (java.sql.Timestamp) value;
+            return Math.floorDiv(timestamp.getTime(), 1000) * 1000000 + timestamp.getNanos() / 1000;
+        } else if (value instanceof java.sql.Date) {
+            instant = ((java.sql.Date) value).toLocalDate().atStartOfDay(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof java.util.Date) {
+            return ((java.util.Date) value).getTime() * 1000;
+        } else if (value instanceof Instant) {
+            instant = (Instant) value;
+        } else if (value instanceof OffsetDateTime) {
+            instant = ((OffsetDateTime) value).toInstant();
+        } else if (value instanceof ZonedDateTime) {
+            instant = ((ZonedDateTime) value).toInstant();
+        } else if (value instanceof LocalDateTime) {
+            instant = ((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof LocalDate) {
+            instant = ((LocalDate) value).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        } else {
+            throw makeTypeError(index, value);
+        }
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1000000L), instant.getNano() / 1000);
+    }
+
+    private static byte[] toFixedBytes(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > length) {
+            throw new ArithmeticException("Decimal value doesn't fit in " + length + " bytes");
+        }
+        byte[] result = new byte[length];
+        byte sign = value.signum() < 0 ? (byte) 0xFF : 0;
+        for (int i = 0; i < length - bytes.length; i++) {
+            result[i] = sign;
+        }
+        System.arraycopy(bytes, 0, result, length - bytes.length, bytes.length);
+        return result;
+    }
+
+    private DBException makeTypeError(int index, Object value) {
+        return new DBException("Value of type " + value.getClass().getName() +
+            " can't be exported to Parquet column '" + parquetColumns[index].getName() + "' (" + valueTypes[index] + ")");
+    }
+
+    private static Object readContent(DBRProgressMonitor monitor, DBDContent content, boolean binary) throws DBException, IOException {
+        try {
+            DBDContentStorage cs = content.getContents(monitor);
+            if (cs == null) {
+                return null;
+            }
+            if (binary) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                try (InputStream in = cs.getContentStream()) {
+                    IOUtils.copyStream(in, buffer);
+                }
+                return buffer.toByteArray();
+            } else {
+                try (Reader in = cs.getContentReader()) {
+                    return IOUtils.readToString(in);
+                }
+            }
+        } finally {
+            content.release();
+        }
+    }
+
+}
@@ -0,0 +1,252 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBConstants;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCDateTimeValueHandler;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCNumberValueHandler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Types;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Value formatter for bulk export.
+ * Formats values into a reusable buffer which is written to the output without intermediate strings.
+ * Only integral numbers and date/time values of standard JDBC value handlers are formatted here.
+ * Result is the same as value handler produces, other values must be formatted by their value handlers.
+ * <p>
+ * Date/time values are formatted in the time zone of the value handler formats, so the result follows
+ * their settings. Fast path is used only for formats with Gregorian calendar and ASCII digits
+ * (other locales, e.g. with Buddhist calendar, go through the formats) and for dates after the Julian-Gregorian cutover.
+ * <p>
+ * Not thread-safe: each exporter (i.e. each transfer job) has its own formatter.
+ */
+public class ExportValueFormatter {
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    // Earlier dates are in Julian calendar. Later years have at least 4 digits, so they need no padding.
+    private static final int MIN_YEAR = 1583;
+    private static final long DEFAULT_GREGORIAN_CHANGE = new GregorianCalendar().getGregorianChange().getTime();
+
+    private static final TimeZone UTC_TIME_ZONE = TimeZone.getTimeZone("UTC");
+
+    private final StringBuilder buffer = new StringBuilder(64);
+    private char[] chars = new char[64];
+    private final boolean nativeDateFormatSupported;
+    private final boolean isoDateFormatSupported;
+
+    public ExportValueFormatter() {
+        nativeDateFormatSupported =
+            isSupportedFormat(JDBCDateTimeValueHandler.DEFAULT_DATETIME_FORMAT, "''" + DBConstants.DEFAULT_TIMESTAMP_FORMAT + "''") &&
+            isSupportedFormat(JDBCDateTimeValueHandler.DEFAULT_DATE_FORMAT, "''" + DBConstants.DEFAULT_DATE_FORMAT + "''") &&
+            isSupportedFormat(JDBCDateTimeValueHandler.DEFAULT_TIME_FORMAT, "''" + DBConstants.DEFAULT_TIME_FORMAT + "''");
+        // JSONUtils format is created with the default locale
+        String isoPattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+        isoDateFormatSupported = isSupportedFormat(new SimpleDateFormat(isoPattern), isoPattern);
+    }
+
+    /**
+     * Formatted value. Valid after successful format call.
+     */
+    @NotNull
+    public StringBuilder getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Formats value the same way as column value handler does.
+     * @return false if there is no fast path for this value
+     */
+    public boolean formatValue(@NotNull DBDAttributeBinding column, @NotNull Object value, @NotNull DBDDisplayFormat format) {
+        buffer.setLength(0);
+        DBDValueHandler valueHandler = column.getValueHandler();
+        // Exact class check: subclasses may format values differently
+        if (valueHandler.getClass() == JDBCNumberValueHandler.class) {
+            if (format == DBDDisplayFormat.NATIVE || format == DBDDisplayFormat.EDIT) {
+                return appendIntegral(value);
+            }
+        } else if (valueHandler.getClass() == JDBCDateTimeValueHandler.class) {
+            if (format == DBDDisplayFormat.NATIVE && value instanceof Date) {
+                return formatNativeDateTime(((Date) value).getTime(), column.getTypeID());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Formats date/time value of the given type as JDBCDateTimeValueHandler native formats do
+     * (see JDBCDateTimeValueHandler.getNativeValueFormat).
+     * @return false if there is no fast path for this value
+     */
+    boolean formatNativeDateTime(long time, int typeID) {
+        buffer.setLength(0);
+        if (!nativeDateFormatSupported) {
+            return false;
+        }
+        switch (typeID) {
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return appendQuotedDateTime(time, JDBCDateTimeValueHandler.DEFAULT_DATETIME_FORMAT.getTimeZone(), true, true);
+            case Types.TIME:
+            case Types.TIME_WITH_TIMEZONE:
+                return appendQuotedDateTime(time, JDBCDateTimeValueHandler.DEFAULT_TIME_FORMAT.getTimeZone(), false, true);
+            case Types.DATE:
+                return appendQuotedDateTime(time, JDBCDateTimeValueHandler.DEFAULT_DATE_FORMAT.getTimeZone(), true, false);
+        }
+        return false;
+    }
+
+    /**
+     * Formats number as it's toString() does.
+     * @return false if number is not a primitive wrapper
+     */
+    public boolean formatNumber(@NotNull Number value) {
+        buffer.setLength(0);
+        if (value instanceof Double) {
+            buffer.append(value.doubleValue());
+            return true;
+        } else if (value instanceof Float) {
+            buffer.append(value.floatValue());
+            return true;
+        }
+        return appendIntegral(value);
+    }
+
+    /**
+     * Formats date in ISO format (yyyy-MM-dd'T'HH:mm:ss.SSS'Z') in UTC, same as JSONUtils.formatDate.
+     * @return false if date is out of supported range
+     */
+    public boolean formatISODate(@NotNull Date value) {
+        buffer.setLength(0);
+        long time = value.getTime();
+        if (!isoDateFormatSupported || !appendDate(time, UTC_TIME_ZONE)) {
+            return false;
+        }
+        buffer.append('T');
+        appendTime(time, UTC_TIME_ZONE, true);
+        buffer.append('Z');
+        return true;
+    }
+
+    /**
+     * Writes formatted value.
+     */
+    public void writeTo(@NotNull Writer out) throws IOException {
+        int length = buffer.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        buffer.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+    }
+
+    private boolean appendIntegral(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            buffer.append(((Number) value).longValue());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks that format has the pattern and that fast path produces the same result as the format
+     */
+    private static boolean isSupportedFormat(@NotNull SimpleDateFormat format, @NotNull String pattern) {
+        Calendar calendar = format.getCalendar();
+        NumberFormat numberFormat = format.getNumberFormat();
+        return calendar.getClass() == GregorianCalendar.class &&
+            ((GregorianCalendar) calendar).getGregorianChange().getTime() == DEFAULT_GREGORIAN_CHANGE &&
+            numberFormat instanceof DecimalFormat &&
+            ((DecimalFormat) numberFormat).getDecimalFormatSymbols().getZeroDigit() == '0' &&
+            pattern.equals(format.toPattern());
+    }
+
+    // 'yyyy-MM-dd HH:mm:ss.SSS', 'yyyy-MM-dd' and 'HH:mm:ss'
+    private boolean appendQuotedDateTime(long time, TimeZone timeZone, boolean date, boolean timeOfDay) {
+        buffer.append('\'');
+        if (!appendDate(time, timeZone)) {
+            buffer.setLength(0);
+            return false;
+        }
+        if (!date) {
+            // Date was appended only to validate the range
+            buffer.setLength(1);
+        }
+        if (timeOfDay) {
+            if (date) {
+                buffer.append(' ');
+            }
+            appendTime(time, timeZone, date);
+        }
+        buffer.append('\'');
+        return true;
+    }
+
+    private boolean appendDate(long time, TimeZone timeZone) {
+        long localTime = time + timeZone.getOffset(time);
+        // Days to civil date (proleptic Gregorian calendar)
+        long z = Math.floorDiv(localTime, MILLIS_PER_DAY) + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < MIN_YEAR) {
+            return false;
+        }
+        buffer.append(year).append('-');
+        appendTwoDigits(month);
+        buffer.append('-');
+        appendTwoDigits(day);
+        return true;
+    }
+
+    private void appendTime(long time, TimeZone timeZone, boolean millis) {
+        int millisOfDay = (int) Math.floorMod(time + timeZone.getOffset(time), MILLIS_PER_DAY);
+        int seconds = millisOfDay / 1000;
+        appendTwoDigits(seconds / 3600);
+        buffer.append(':');
+        appendTwoDigits(seconds / 60 % 60);
+        buffer.append(':');
+        appendTwoDigits(seconds % 60);
+        if (millis) {
+            int ms = millisOfDay % 1000;
+            buffer.append('.').append((char) ('0' + ms / 100));
+            appendTwoDigits(ms % 100);
+        }
+    }
+
+    private void appendTwoDigits(int value) {
+        buffer.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+}
@@ -0,0 +1,672 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Minimal Apache Parquet file writer.
+ * Columns are flat and optional. Each row group contains one PLAIN encoded data page (v1) per column,
+ * definition levels are bit-packed. File metadata is serialized with Thrift compact protocol.
+ * Values are buffered in column buffers until the row group is flushed.
+ * Pages may be compressed with GZIP (JDK deflater) or with Snappy (built-in block compressor).
+ */
+class ParquetWriter {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    // Encodings
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_RLE = 3;
+    // Page types
+    private static final int PAGE_DATA = 0;
+    // Repetition types
+    private static final int REPETITION_OPTIONAL = 1;
+
+    enum PhysicalType {
+        BOOLEAN(0),
+        INT32(1),
+        INT64(2),
+        FLOAT(4),
+        DOUBLE(5),
+        BYTE_ARRAY(6),
+        FIXED_LEN_BYTE_ARRAY(7);
+
+        private final int id;
+
+        PhysicalType(int id) {
+            this.id = id;
+        }
+    }
+
+    enum ConvertedType {
+        UTF8(0),
+        DECIMAL(5),
+        DATE(6),
+        TIME_MICROS(8),
+        TIMESTAMP_MICROS(10);
+
+        private final int id;
+
+        ConvertedType(int id) {
+            this.id = id;
+        }
+    }
+
+    enum Codec {
+        UNCOMPRESSED(0),
+        SNAPPY(1),
+        GZIP(2);
+
+        private final int id;
+
+        Codec(int id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * Column definition and buffer of its values in the current row group
+     */
+    static class Column {
+        private final String name;
+        private final PhysicalType type;
+        private final ConvertedType convertedType;
+        private final int typeLength;
+        private final int precision;
+        private final int scale;
+
+        private final DataBuffer values = new DataBuffer();
+        private final DataBuffer definitionLevels = new DataBuffer();
+        private int valueCount;
+        // Bits not yet written to the definition levels and boolean values
+        private int levelBits;
+        private int booleanBits;
+        private int booleanCount;
+
+        Column(@NotNull String name, @NotNull PhysicalType type, ConvertedType convertedType) {
+            this(name, type, convertedType, 0, 0, 0);
+        }
+
+        Column(@NotNull String name, @NotNull PhysicalType type, ConvertedType convertedType, int typeLength, int precision, int scale) {
+            this.name = name;
+            this.type = type;
+            this.convertedType = convertedType;
+            this.typeLength = typeLength;
+            this.precision = precision;
+            this.scale = scale;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        PhysicalType getType() {
+            return type;
+        }
+
+        int getTypeLength() {
+            return typeLength;
+        }
+
+        int getScale() {
+            return scale;
+        }
+
+        void addNull() {
+            addLevel(false);
+        }
+
+        void addBoolean(boolean value) {
+            addLevel(true);
+            if (value) {
+                booleanBits |= 1 << (booleanCount & 7);
+            }
+            booleanCount++;
+            if ((booleanCount & 7) == 0) {
+                values.write(booleanBits);
+                booleanBits = 0;
+            }
+        }
+
+        void addInt(int value) {
+            addLevel(true);
+            values.writeIntLE(value);
+        }
+
+        void addLong(long value) {
+            addLevel(true);
+            values.writeLongLE(value);
+        }
+
+        void addFloat(float value) {
+            addLevel(true);
+            values.writeIntLE(Float.floatToIntBits(value));
+        }
+
+        void addDouble(double value) {
+            addLevel(true);
+            values.writeLongLE(Double.doubleToLongBits(value));
+        }
+
+        void addBinary(byte[] value) {
+            addLevel(true);
+            values.writeIntLE(value.length);
+            values.write(value, 0, value.length);
+        }
+
+        /**
+         * Value must have exactly typeLength bytes
+         */
+        void addFixed(byte[] value) {
+            addLevel(true);
+            values.write(value, 0, value.length);
+        }
+
+        private void addLevel(boolean defined) {
+            if (defined) {
+                levelBits |= 1 << (valueCount & 7);
+            }
+            valueCount++;
+            if ((valueCount & 7) == 0) {
+                definitionLevels.write(levelBits);
+                levelBits = 0;
+            }
+        }
+
+        private void finishPage() {
+            if ((valueCount & 7) != 0) {
+                definitionLevels.write(levelBits);
+            }
+            if ((booleanCount & 7) != 0) {
+                values.write(booleanBits);
+            }
+        }
+
+        private void reset() {
+            values.reset();
+            definitionLevels.reset();
+            valueCount = 0;
+            levelBits = 0;
+            booleanBits = 0;
+            booleanCount = 0;
+        }
+    }
+
+    private static class ColumnChunk {
+        private final long dataPageOffset;
+        private final long valueCount;
+        private final long uncompressedSize;
+        private final long compressedSize;
+
+        ColumnChunk(long dataPageOffset, long valueCount, long uncompressedSize, long compressedSize) {
+            this.dataPageOffset = dataPageOffset;
+            this.valueCount = valueCount;
+            this.uncompressedSize = uncompressedSize;
+            this.compressedSize = compressedSize;
+        }
+    }
+
+    private static class RowGroup {
+        private final List<ColumnChunk> chunks = new ArrayList<>();
+        private long rowCount;
+        private long totalByteSize;
+    }
+
+    private final OutputStream out;
+    private final List<Column> columns;
+    private final Codec codec;
+    private final String createdBy;
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+    private long position;
+    private int bufferedRows;
+    private long totalRows;
+
+    ParquetWriter(@NotNull OutputStream out, @NotNull List<Column> columns, @NotNull Codec codec, @NotNull String createdBy) {
+        this.out = out;
+        this.columns = columns;
+        this.codec = codec;
+        this.createdBy = createdBy;
+    }
+
+    void start() throws IOException {
+        write(MAGIC);
+    }
+
+    /**
+     * Must be called after a value was added to each column
+     */
+    void endRow() {
+        bufferedRows++;
+    }
+
+    int getBufferedRows() {
+        return bufferedRows;
+    }
+
+    void flushRowGroup() throws IOException {
+        if (bufferedRows == 0) {
+            return;
+        }
+        RowGroup rowGroup = new RowGroup();
+        rowGroup.rowCount = bufferedRows;
+        DataBuffer page = new DataBuffer();
+        for (Column column : columns) {
+            column.finishPage();
+            page.reset();
+            // Definition levels: single bit-packed run (header is number of 8-value groups)
+            DataBuffer levelsHeader = new DataBuffer();
+            levelsHeader.writeVarInt(((long) column.definitionLevels.size() << 1) | 1);
+            page.writeIntLE(levelsHeader.size() + column.definitionLevels.size());
+            levelsHeader.writeTo(page);
+            column.definitionLevels.writeTo(page);
+            column.values.writeTo(page);
+
+            byte[] pageData = compress(page);
+
+            DataBuffer header = new DataBuffer();
+            ThriftWriter thrift = new ThriftWriter(header);
+            thrift.structBegin();
+            thrift.writeI32(1, PAGE_DATA);
+            thrift.writeI32(2, page.size());
+            thrift.writeI32(3, pageData.length);
+            thrift.writeStructBegin(5);
+            thrift.writeI32(1, column.valueCount);
+            thrift.writeI32(2, ENCODING_PLAIN);
+            thrift.writeI32(3, ENCODING_RLE);
+            thrift.writeI32(4, ENCODING_RLE);
+            thrift.structEnd();
+            thrift.structEnd();
+
+            long pageOffset = position;
+            write(header);
+            write(pageData);
+            ColumnChunk chunk = new ColumnChunk(
+                pageOffset,
+                column.valueCount,
+                header.size() + page.size(),
+                header.size() + pageData.length);
+            rowGroup.chunks.add(chunk);
+            rowGroup.totalByteSize += chunk.uncompressedSize;
+
+            column.reset();
+        }
+        rowGroups.add(rowGroup);
+        totalRows += bufferedRows;
+        bufferedRows = 0;
+    }
+
+    /**
+     * Flushes the last row group and writes file footer
+     */
+    void finish() throws IOException {
+        flushRowGroup();
+
+        DataBuffer footer = new DataBuffer();
+        ThriftWriter thrift = new ThriftWriter(footer);
+        thrift.structBegin();
+        thrift.writeI32(1, 1);
+        // Schema: root element and its children
+        thrift.writeListBegin(2, ThriftWriter.TYPE_STRUCT, columns.size() + 1);
+        thrift.structBegin();
+        thrift.writeString(4, "schema");
+        thrift.writeI32(5, columns.size());
+        thrift.structEnd();
+        for (Column column : columns) {
+            thrift.structBegin();
+            thrift.writeI32(1, column.type.id);
+            if (column.type == PhysicalType.FIXED_LEN_BYTE_ARRAY) {
+                thrift.writeI32(2, column.typeLength);
+            }
+            thrift.writeI32(3, REPETITION_OPTIONAL);
+            thrift.writeString(4, column.name);
+            if (column.convertedType != null) {
+                thrift.writeI32(6, column.convertedType.id);
+                if (column.convertedType == ConvertedType.DECIMAL) {
+                    thrift.writeI32(7, column.scale);
+                    thrift.writeI32(8, column.precision);
+                }
+            }
+            thrift.structEnd();
+        }
+        thrift.writeI64(3, totalRows);
+        thrift.writeListBegin(4, ThriftWriter.TYPE_STRUCT, rowGroups.size());
+        for (RowGroup rowGroup : rowGroups) {
+            thrift.structBegin();
+            thrift.writeListBegin(1, ThriftWriter.TYPE_STRUCT, columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                Column column = columns.get(i);
+                ColumnChunk chunk = rowGroup.chunks.get(i);
+                thrift.structBegin();
+                thrift.writeI64(2, chunk.dataPageOffset);
+                thrift.writeStructBegin(3);
+                thrift.writeI32(1, column.type.id);
+                thrift.writeListBegin(2, ThriftWriter.TYPE_I32, 2);
+                thrift.writeListI32(ENCODING_PLAIN);
+                thrift.writeListI32(ENCODING_RLE);
+                thrift.writeListBegin(3, ThriftWriter.TYPE_BINARY, 1);
+                thrift.writeListString(column.name);
+                thrift.writeI32(4, codec.id);
+                thrift.writeI64(5, chunk.valueCount);
+                thrift.writeI64(6, chunk.uncompressedSize);
+                thrift.writeI64(7, chunk.compressedSize);
+                thrift.writeI64(9, chunk.dataPageOffset);
+                thrift.structEnd();
+                thrift.structEnd();
+            }
+            thrift.writeI64(2, rowGroup.totalByteSize);
+            thrift.writeI64(3, rowGroup.rowCount);
+            thrift.structEnd();
+        }
+        thrift.writeString(6, createdBy);
+        thrift.structEnd();
+
+        write(footer);
+        DataBuffer footerLength = new DataBuffer();
+        footerLength.writeIntLE(footer.size());
+        write(footerLength);
+        write(MAGIC);
+        out.flush();
+    }
+
+    private byte[] compress(DataBuffer page) throws IOException {
+        switch (codec) {
+            case GZIP: {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(page.size() / 2 + 64);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                    page.writeTo(gzip);
+                }
+                return buffer.toByteArray();
+            }
+            case SNAPPY:
+                return SnappyCompressor.compress(page.getBuffer(), page.size());
+            default:
+                return page.toByteArray();
+        }
+    }
+
+    private void write(byte[] data) throws IOException {
+        out.write(data);
+        position += data.length;
+    }
+
+    private void write(DataBuffer data) throws IOException {
+        data.writeTo(out);
+        position += data.size();
+    }
+
+    /**
+     * Byte buffer with little-endian and varint writers
+     */
+    private static class DataBuffer extends ByteArrayOutputStream {
+
+        DataBuffer() {
+            super(256);
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(count + len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(buf, 0, count);
+        }
+
+        /**
+         * Internal buffer, valid up to size()
+         */
+        byte[] getBuffer() {
+            return buf;
+        }
+
+        void writeIntLE(int value) {
+            ensureCapacity(count + 4);
+            buf[count++] = (byte) value;
+            buf[count++] = (byte) (value >>> 8);
+            buf[count++] = (byte) (value >>> 16);
+            buf[count++] = (byte) (value >>> 24);
+        }
+
+        void writeLongLE(long value) {
+            writeIntLE((int) value);
+            writeIntLE((int) (value >>> 32));
+        }
+
+        void writeVarInt(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > buf.length) {
+                byte[] newBuf = new byte[Math.max(capacity, buf.length * 2)];
+                System.arraycopy(buf, 0, newBuf, 0, count);
+                buf = newBuf;
+            }
+        }
+    }
+
+    /**
+     * Snappy block format compressor (raw block, without stream framing - as Parquet stores pages).
+     * Greedy matching of 4-byte sequences with a hash table, input is processed in 64K blocks
+     * so all copies fit 2-byte offsets.
+     */
+    static class SnappyCompressor {
+        private static final int BLOCK_SIZE = 1 << 16;
+        private static final int HASH_BITS = 14;
+        private static final int MIN_MATCH = 4;
+
+        static byte[] compress(byte[] data, int length) {
+            DataBuffer out = new DataBuffer();
+            out.writeVarInt(length);
+            int[] table = new int[1 << HASH_BITS];
+            for (int blockStart = 0; blockStart < length; blockStart += BLOCK_SIZE) {
+                compressBlock(data, blockStart, Math.min(blockStart + BLOCK_SIZE, length), table, out);
+            }
+            return out.toByteArray();
+        }
+
+        private static void compressBlock(byte[] data, int start, int end, int[] table, DataBuffer out) {
+            Arrays.fill(table, -1);
+            int literalStart = start;
+            int pos = start;
+            while (pos + MIN_MATCH <= end) {
+                int value = readInt(data, pos);
+                int hash = (value * 0x1E35A7BD) >>> (32 - HASH_BITS);
+                int candidate = table[hash];
+                table[hash] = pos;
+                if (candidate < start || readInt(data, candidate) != value) {
+                    pos++;
+                    continue;
+                }
+                int matchLength = MIN_MATCH;
+                while (pos + matchLength < end && data[candidate + matchLength] == data[pos + matchLength]) {
+                    matchLength++;
+                }
+                writeLiteral(data, literalStart, pos - literalStart, out);
+                writeCopy(pos - candidate, matchLength, out);
+                pos += matchLength;
+                literalStart = pos;
+            }
+            writeLiteral(data, literalStart, end - literalStart, out);
+        }
+
+        private static void writeLiteral(byte[] data, int offset, int length, DataBuffer out) {
+            if (length == 0) {
+                return;
+            }
+            int n = length - 1;
+            if (n < 60) {
+                out.write(n << 2);
+            } else if (n < 1 << 8) {
+                out.write(60 << 2);
+                out.write(n);
+            } else if (n < 1 << 16) {
+                out.write(61 << 2);
+                out.write(n);
+                out.write(n >>> 8);
+            } else {
+                out.write(62 << 2);
+                out.write(n);
+                out.write(n >>> 8);
+                out.write(n >>> 16);
+            }
+            out.write(data, offset, length);
+        }
+
+        private static void writeCopy(int offset, int length, DataBuffer out) {
+            // 2-byte offset copies take up to 64 bytes, last copy must have at least 4 bytes
+            while (length >= 68) {
+                writeCopy2(offset, 64, out);
+                length -= 64;
+            }
+            if (length > 64) {
+                writeCopy2(offset, 60, out);
+                length -= 60;
+            }
+            if (length < 12 && offset < 2048) {
+                // 1-byte offset copy (4..11 bytes)
+                out.write(0x01 | ((length - 4) << 2) | ((offset >>> 8) << 5));
+                out.write(offset);
+            } else {
+                writeCopy2(offset, length, out);
+            }
+        }
+
+        private static void writeCopy2(int offset, int length, DataBuffer out) {
+            out.write(0x02 | ((length - 1) << 2));
+            out.write(offset);
+            out.write(offset >>> 8);
+        }
+
+        private static int readInt(byte[] data, int pos) {
+            return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+        }
+    }
+
+    /**
+     * Thrift compact protocol writer
+     */
+    private static class ThriftWriter {
+        static final int TYPE_I32 = 5;
+        static final int TYPE_I64 = 6;
+        static final int TYPE_BINARY = 8;
+        static final int TYPE_LIST = 9;
+        static final int TYPE_STRUCT = 12;
+
+        private final DataBuffer out;
+        private final int[] fieldStack = new int[8];
+        private int depth;
+        private int lastField;
+
+        ThriftWriter(DataBuffer out) {
+            this.out = out;
+        }
+
+        void structBegin() {
+            fieldStack[depth++] = lastField;
+            lastField = 0;
+        }
+
+        void structEnd() {
+            out.write(0);
+            lastField = fieldStack[--depth];
+        }
+
+        void writeStructBegin(int fieldId) {
+            writeFieldHeader(fieldId, TYPE_STRUCT);
+            structBegin();
+        }
+
+        void writeI32(int fieldId, int value) {
+            writeFieldHeader(fieldId, TYPE_I32);
+            out.writeVarInt(zigzag(value));
+        }
+
+        void writeI64(int fieldId, long value) {
+            writeFieldHeader(fieldId, TYPE_I64);
+            out.writeVarInt(zigzag(value));
+        }
+
+        void writeString(int fieldId, String value) {
+            writeFieldHeader(fieldId, TYPE_BINARY);
+            writeListString(value);
+        }
+
+        void writeListBegin(int fieldId, int elementType, int size) {
+            writeFieldHeader(fieldId, TYPE_LIST);
+            if (size < 15) {
+                out.write((size << 4) | elementType);
+            } else {
+                out.write(0xF0 | elementType);
+                out.writeVarInt(size);
+            }
+        }
+
+        void writeListI32(int value) {
+            out.writeVarInt(zigzag(value));
+        }
+
+        void writeListString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeVarInt(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        private void writeFieldHeader(int fieldId, int type) {
+            int delta = fieldId - lastField;
+            if (delta > 0 && delta <= 15) {
+                out.write((delta << 4) | type);
+            } else {
+                out.write(type);
+                out.writeVarInt(zigzag(fieldId));
+            }
+            lastField = fieldId;
+        }
+
+        private static long zigzag(int value) {
+            return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+}
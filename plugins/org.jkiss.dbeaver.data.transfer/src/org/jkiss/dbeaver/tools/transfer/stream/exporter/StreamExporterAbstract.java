@@ -33,6 +33,7 @@ public abstract class StreamExporterAbstract implements IStreamDataExporter {
 
     private IStreamDataExporterSite site;
     private DBDDisplayFormat exportFormat;
+    private ExportValueFormatter valueFormatter;
 
     public IStreamDataExporterSite getSite()
     {
@@ -67,6 +68,16 @@ public abstract class StreamExporterAbstract implements IStreamDataExporter {
         return valueHandler.getValueDisplayString(column, value, getValueExportFormat(column));
     }
 
+    /**
+     * Fast value formatter. Owned by this exporter so it is never shared between transfer jobs.
+     */
+    protected ExportValueFormatter getValueFormatter() {
+        if (this.valueFormatter == null) {
+            this.valueFormatter = new ExportValueFormatter();
+        }
+        return this.valueFormatter;
+    }
+
     protected DBDDisplayFormat getValueExportFormat(DBDAttributeBinding column) {
         if (this.exportFormat == null) {
             this.exportFormat = getSite().getExportFormat();
@@ -0,0 +1,586 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferResultSet;
+import org.jkiss.utils.CommonUtils;
+
+import java.nio.CharBuffer;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Parses chunks of CSV records (see {@link CSVChunkReader}) into typed column vectors.
+ * Numbers and date/time values are parsed right from the chunk chars, strings are created only for string columns
+ * and for values which don't fit the column type (such values are kept as strings).
+ * <p>
+ * Quoting rules: value which starts with the quote char is quoted, quoted value may contain delimiters and line breaks,
+ * doubled quote char means the quote char itself. Escape char followed by the quote or escape char means that char.
+ * Other chars (including quote chars inside unquoted values) are taken as is.
+ * <p>
+ * Parser is immutable, chunks may be parsed in parallel.
+ */
+class CSVChunkParser {
+
+    enum ColumnType {
+        STRING,
+        LONG,
+        DOUBLE,
+        DATETIME
+    }
+
+    // Powers of ten which are exact doubles
+    private static final double[] POWERS_OF_TEN = new double[23];
+    // Larger mantissas may be not exact doubles
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final char delimiter;
+    private final char quoteChar;
+    private final char escapeChar;
+    private final boolean emptyStringNull;
+    @Nullable
+    private final String nullValueMark;
+    @Nullable
+    private final DateTimeFormatter dateTimeFormat;
+    @NotNull
+    private final ColumnType[] columnTypes;
+
+    /**
+     * @param columnTypes types of column vectors. Other columns are strings.
+     *                    DATETIME columns are strings if dateTimeFormat is not set.
+     */
+    CSVChunkParser(
+        char delimiter,
+        char quoteChar,
+        char escapeChar,
+        boolean emptyStringNull,
+        @Nullable String nullValueMark,
+        @Nullable DateTimeFormatter dateTimeFormat,
+        @NotNull ColumnType[] columnTypes)
+    {
+        this.delimiter = delimiter;
+        this.quoteChar = quoteChar;
+        this.escapeChar = escapeChar;
+        this.emptyStringNull = emptyStringNull;
+        this.nullValueMark = CommonUtils.isEmpty(nullValueMark) ? null : nullValueMark;
+        this.dateTimeFormat = dateTimeFormat;
+        this.columnTypes = columnTypes;
+    }
+
+    char getDelimiter() {
+        return delimiter;
+    }
+
+    char getQuoteChar() {
+        return quoteChar;
+    }
+
+    char getEscapeChar() {
+        return escapeChar;
+    }
+
+    /**
+     * Makes parser of the same syntax with other column types
+     */
+    CSVChunkParser withColumnTypes(@NotNull ColumnType[] columnTypes) {
+        return new CSVChunkParser(delimiter, quoteChar, escapeChar, emptyStringNull, nullValueMark, dateTimeFormat, columnTypes);
+    }
+
+    @NotNull
+    Chunk parse(@NotNull char[] chars, boolean skipFirstRecord) {
+        Column[] columns = new Column[columnTypes.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = createColumn(columnTypes[i]);
+        }
+        int rowCount = 0;
+        int pos = 0;
+        int length = chars.length;
+        StringBuilder buffer = new StringBuilder();
+        while (pos < length) {
+            boolean skipRecord = skipFirstRecord && pos == 0;
+            int columnIndex = 0;
+            for (;;) {
+                // Parse value
+                int valueStart = pos;
+                String value = null;
+                if (pos < length && chars[pos] == quoteChar) {
+                    buffer.setLength(0);
+                    pos = readQuotedValue(chars, pos + 1, buffer);
+                    pos = readUnquotedValue(chars, pos, buffer);
+                    value = buffer.toString();
+                } else {
+                    pos = readPlainValue(chars, pos);
+                    if (pos < length && chars[pos] == escapeChar && pos + 1 < length && isEscaped(chars[pos + 1])) {
+                        buffer.setLength(0);
+                        buffer.append(chars, valueStart, pos - valueStart);
+                        pos = readUnquotedValue(chars, pos, buffer);
+                        value = buffer.toString();
+                    }
+                }
+                if (!skipRecord) {
+                    if (columnIndex >= columns.length) {
+                        columns = Arrays.copyOf(columns, columnIndex + 1);
+                        columns[columnIndex] = createColumn(ColumnType.STRING);
+                    }
+                    Column column = columns[columnIndex];
+                    if (value != null) {
+                        if (!isNullValue(value)) {
+                            columns[columnIndex] = column.set(rowCount, value);
+                        }
+                    } else if (!isNullValue(chars, valueStart, pos)) {
+                        columns[columnIndex] = column.set(rowCount, chars, valueStart, pos);
+                    }
+                }
+                columnIndex++;
+                // Value is followed by delimiter, line break or the end of chunk
+                if (pos < length && chars[pos] == delimiter) {
+                    pos++;
+                    continue;
+                }
+                if (pos < length) {
+                    pos += (chars[pos] == '\r' && pos + 1 < length && chars[pos + 1] == '\n') ? 2 : 1;
+                }
+                break;
+            }
+            if (!skipRecord) {
+                rowCount++;
+            }
+        }
+        return new Chunk(rowCount, columns);
+    }
+
+    /**
+     * Reads value chars up to the delimiter, line break or escape sequence
+     */
+    private int readPlainValue(char[] chars, int pos) {
+        for (; pos < chars.length; pos++) {
+            char c = chars[pos];
+            if (c == delimiter || c == '\n' || c == '\r') {
+                break;
+            }
+            if (c == escapeChar && pos + 1 < chars.length && isEscaped(chars[pos + 1])) {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Reads quoted part of value (starting after the opening quote) up to the closing quote
+     */
+    private int readQuotedValue(char[] chars, int pos, StringBuilder buffer) {
+        while (pos < chars.length) {
+            char c = chars[pos];
+            boolean hasNext = pos + 1 < chars.length;
+            if (c == quoteChar && hasNext && chars[pos + 1] == quoteChar) {
+                buffer.append(quoteChar);
+                pos += 2;
+            } else if (c == escapeChar && hasNext && isEscaped(chars[pos + 1])) {
+                buffer.append(chars[pos + 1]);
+                pos += 2;
+            } else if (c == quoteChar) {
+                return pos + 1;
+            } else {
+                buffer.append(c);
+                pos++;
+            }
+        }
+        // Not terminated quote at the end of data
+        return pos;
+    }
+
+    /**
+     * Reads value chars up to the delimiter or line break replacing escape sequences
+     */
+    private int readUnquotedValue(char[] chars, int pos, StringBuilder buffer) {
+        while (pos < chars.length) {
+            char c = chars[pos];
+            if (c == delimiter || c == '\n' || c == '\r') {
+                break;
+            }
+            if (c == escapeChar && pos + 1 < chars.length && isEscaped(chars[pos + 1])) {
+                buffer.append(chars[pos + 1]);
+                pos += 2;
+            } else {
+                buffer.append(c);
+                pos++;
+            }
+        }
+        return pos;
+    }
+
+    private boolean isEscaped(char c) {
+        return c == quoteChar || c == escapeChar;
+    }
+
+    private boolean isNullValue(char[] chars, int start, int end) {
+        if (start == end) {
+            return emptyStringNull;
+        }
+        if (nullValueMark == null || nullValueMark.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (chars[i] != nullValueMark.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isNullValue(String value) {
+        return (emptyStringNull && value.isEmpty()) || value.equals(nullValueMark);
+    }
+
+    private Column createColumn(ColumnType type) {
+        switch (type) {
+            case LONG:
+                return new LongColumn();
+            case DOUBLE:
+                return new DoubleColumn();
+            case DATETIME:
+                if (dateTimeFormat != null) {
+                    return new DateTimeColumn(dateTimeFormat);
+                }
+                return new ObjectColumn();
+            default:
+                return new ObjectColumn();
+        }
+    }
+
+    /**
+     * Infers column types from a reservoir sample of chunk rows.
+     * Column is LONG or DOUBLE if all sampled values are numbers of this type, otherwise it is STRING.
+     * Empty columns are STRING.
+     * @param chunk chunk with string columns
+     */
+    @NotNull
+    static ColumnType[] inferColumnTypes(@NotNull Chunk chunk, int sampleSize, @NotNull Random random) {
+        int rowCount = chunk.getRowCount();
+        int[] sample = new int[Math.min(Math.max(sampleSize, 1), rowCount)];
+        for (int row = 0; row < rowCount; row++) {
+            if (row < sample.length) {
+                sample[row] = row;
+            } else {
+                int index = random.nextInt(row + 1);
+                if (index < sample.length) {
+                    sample[index] = row;
+                }
+            }
+        }
+        long[] longValue = new long[1];
+        double[] doubleValue = new double[1];
+        ColumnType[] types = new ColumnType[chunk.getColumnCount()];
+        for (int column = 0; column < types.length; column++) {
+            boolean hasValues = false, isLong = true, isDouble = true;
+            for (int row : sample) {
+                Object value = chunk.getValue(row, column);
+                if (value == null) {
+                    continue;
+                }
+                hasValues = true;
+                char[] chars = value.toString().toCharArray();
+                isLong = isLong && parseLong(chars, 0, chars.length, longValue, 0);
+                isDouble = isDouble && (isLong || parseDouble(chars, 0, chars.length, doubleValue, 0));
+                if (!isDouble) {
+                    break;
+                }
+            }
+            types[column] = !hasValues ? ColumnType.STRING : isLong ? ColumnType.LONG : isDouble ? ColumnType.DOUBLE : ColumnType.STRING;
+        }
+        return types;
+    }
+
+    /**
+     * Parses decimal long value. Same syntax as {@link Long#parseLong(String)} has.
+     * @return false if chars are not a long value
+     */
+    static boolean parseLong(char[] chars, int start, int end, long[] result, int index) {
+        int pos = start;
+        if (pos < end && (chars[pos] == '-' || chars[pos] == '+')) {
+            pos++;
+        }
+        if (pos == end) {
+            return false;
+        }
+        boolean negative = chars[start] == '-';
+        // Accumulate negative value, it has larger range
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long minBeforeMultiply = limit / 10;
+        long value = 0;
+        for (; pos < end; pos++) {
+            int digit = chars[pos] - '0';
+            if (digit < 0 || digit > 9 || value < minBeforeMultiply) {
+                return false;
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                return false;
+            }
+            value -= digit;
+        }
+        result[index] = negative ? value : -value;
+        return true;
+    }
+
+    /**
+     * Parses decimal double value (digits with optional sign, fraction and exponent).
+     * Values with up to 15 digits and without exponent are parsed right from chars, others go through {@link Double#parseDouble(String)}.
+     * Unlike Double.parseDouble NaN, infinity, hex and type suffixes are not accepted.
+     * @return false if chars are not a double value
+     */
+    static boolean parseDouble(char[] chars, int start, int end, double[] result, int index) {
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (chars[pos] == '-' || chars[pos] == '+')) {
+            negative = chars[pos] == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0, scale = 0;
+        boolean point = false, simple = true;
+        for (; pos < end; pos++) {
+            char c = chars[pos];
+            if (c >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                } else {
+                    simple = false;
+                }
+                digits++;
+                if (point) {
+                    scale++;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else if (c == 'e' || c == 'E') {
+                simple = false;
+                break;
+            } else {
+                return false;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (simple && mantissa <= MAX_EXACT_MANTISSA && scale < POWERS_OF_TEN.length) {
+            // Both operands are exact so result is correctly rounded
+            double value = mantissa / POWERS_OF_TEN[scale];
+            result[index] = negative ? -value : value;
+            return true;
+        }
+        for (int i = pos; i < end; i++) {
+            char c = chars[i];
+            if (!(c >= '0' && c <= '9') && c != 'e' && c != 'E' && c != '-' && c != '+') {
+                return false;
+            }
+        }
+        try {
+            result[index] = Double.parseDouble(new String(chars, start, end - start));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parsed rows
+     */
+    static final class Chunk {
+        private final int rowCount;
+        private final Column[] columns;
+
+        private Chunk(int rowCount, Column[] columns) {
+            this.rowCount = rowCount;
+            this.columns = columns;
+        }
+
+        int getRowCount() {
+            return rowCount;
+        }
+
+        int getColumnCount() {
+            return columns.length;
+        }
+
+        @Nullable
+        Object getValue(int row, int column) {
+            return column < columns.length ? columns[column].get(row) : null;
+        }
+
+        /**
+         * Copies row values to the array. Missing values are nulls.
+         */
+        void getRow(int row, @NotNull Object[] values) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = getValue(row, i);
+            }
+        }
+    }
+
+    /**
+     * Column vector. Rows are set in ascending order, rows which were not set are nulls.
+     */
+    private abstract static class Column {
+        @Nullable
+        abstract Object get(int row);
+
+        /**
+         * @return this column or a string column if value doesn't fit this column type
+         */
+        @NotNull
+        abstract Column set(int row, char[] chars, int start, int end);
+
+        @NotNull
+        Column set(int row, String value) {
+            return set(row, value.toCharArray(), 0, value.length());
+        }
+    }
+
+    private static class ObjectColumn extends Column {
+        private Object[] values = new Object[256];
+
+        @Override
+        Object get(int row) {
+            return row < values.length ? values[row] : null;
+        }
+
+        @NotNull
+        @Override
+        Column set(int row, char[] chars, int start, int end) {
+            setObject(row, new String(chars, start, end - start));
+            return this;
+        }
+
+        @NotNull
+        @Override
+        Column set(int row, String value) {
+            setObject(row, value);
+            return this;
+        }
+
+        void setObject(int row, Object value) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, row + 1));
+            }
+            values[row] = value;
+        }
+    }
+
+    private static class DateTimeColumn extends ObjectColumn {
+        private final DateTimeFormatter format;
+
+        DateTimeColumn(DateTimeFormatter format) {
+            this.format = format;
+        }
+
+        @NotNull
+        @Override
+        Column set(int row, char[] chars, int start, int end) {
+            setObject(row, StreamTransferResultSet.parseDateTime(format, CharBuffer.wrap(chars, start, end - start)));
+            return this;
+        }
+
+        @NotNull
+        @Override
+        Column set(int row, String value) {
+            setObject(row, StreamTransferResultSet.parseDateTime(format, value));
+            return this;
+        }
+    }
+
+    /**
+     * Column of primitive values
+     */
+    private abstract static class PrimitiveColumn extends Column {
+        final BitSet present = new BitSet();
+
+        @Override
+        Object get(int row) {
+            return present.get(row) ? getPresent(row) : null;
+        }
+
+        abstract Object getPresent(int row);
+
+        /**
+         * Converts this column to strings column and sets the value
+         */
+        Column setString(int row, char[] chars, int start, int end) {
+            ObjectColumn column = new ObjectColumn();
+            for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+                column.setObject(i, getPresent(i));
+            }
+            return column.set(row, chars, start, end);
+        }
+    }
+
+    private static class LongColumn extends PrimitiveColumn {
+        private long[] values = new long[256];
+
+        @Override
+        Object getPresent(int row) {
+            return values[row];
+        }
+
+        @NotNull
+        @Override
+        Column set(int row, char[] chars, int start, int end) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, row + 1));
+            }
+            if (!parseLong(chars, start, end, values, row)) {
+                return setString(row, chars, start, end);
+            }
+            present.set(row);
+            return this;
+        }
+    }
+
+    private static class DoubleColumn extends PrimitiveColumn {
+        private double[] values = new double[256];
+
+        @Override
+        Object getPresent(int row) {
+            return values[row];
+        }
+
+        @NotNull
+        @Override
+        Column set(int row, char[] chars, int start, int end) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, row + 1));
+            }
+            if (!parseDouble(chars, start, end, values, row)) {
+                return setString(row, chars, start, end);
+            }
+            present.set(row);
+            return this;
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits CSV text into chunks of complete records.
+ * Record boundaries are found with the same quoting rules as {@link CSVChunkParser} uses,
+ * so line breaks inside quoted values never split a chunk and each chunk can be parsed independently.
+ * Not thread safe, chunks are read by one thread.
+ */
+class CSVChunkReader {
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char quoteChar;
+    private final char escapeChar;
+    private final int chunkSize;
+
+    private char[] buffer;
+    // Number of chars in buffer
+    private int length;
+    // Next char to scan
+    private int scanPos;
+    // End of the last complete record in buffer
+    private int recordEnd;
+    private boolean inQuotes;
+    private boolean fieldStart = true;
+    private boolean eof;
+
+    /**
+     * @param chunkSize minimal chunk size in chars. Chunks are larger if records don't fit.
+     */
+    CSVChunkReader(Reader reader, char delimiter, char quoteChar, char escapeChar, int chunkSize) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.quoteChar = quoteChar;
+        this.escapeChar = escapeChar;
+        this.chunkSize = chunkSize;
+        this.buffer = new char[chunkSize * 2];
+    }
+
+    /**
+     * Reads next chunk. Chunk ends with the end of record (or with the end of stream).
+     * @return chunk chars or null if there is no more data
+     */
+    char[] nextChunk() throws IOException {
+        for (;;) {
+            scan();
+            if (eof) {
+                if (length == 0) {
+                    return null;
+                }
+                // The rest of stream, last record may be not terminated
+                return cutChunk(length);
+            }
+            if (recordEnd >= chunkSize || (recordEnd > 0 && length == buffer.length)) {
+                return cutChunk(recordEnd);
+            }
+            if (length == buffer.length) {
+                // Record is longer than the buffer
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            int count = reader.read(buffer, length, buffer.length - length);
+            if (count < 0) {
+                eof = true;
+            } else {
+                length += count;
+            }
+        }
+    }
+
+    private char[] cutChunk(int chunkLength) {
+        char[] chunk = Arrays.copyOf(buffer, chunkLength);
+        length -= chunkLength;
+        System.arraycopy(buffer, chunkLength, buffer, 0, length);
+        scanPos -= chunkLength;
+        recordEnd = 0;
+        return chunk;
+    }
+
+    /**
+     * Scans buffered chars and updates the end of the last complete record.
+     * Stops at chars which meaning depends on the next (not yet read) char.
+     */
+    private void scan() {
+        while (scanPos < length) {
+            char c = buffer[scanPos];
+            boolean hasNext = scanPos + 1 < length;
+            if (!hasNext && !eof && (c == '\r' || c == quoteChar || c == escapeChar)) {
+                // Wait for the next char
+                return;
+            }
+            char next = hasNext ? buffer[scanPos + 1] : 0;
+            if (inQuotes) {
+                if (c == quoteChar && next == quoteChar && hasNext) {
+                    // Doubled quote
+                    scanPos += 2;
+                } else if (c == escapeChar && hasNext && (next == quoteChar || next == escapeChar)) {
+                    scanPos += 2;
+                } else {
+                    if (c == quoteChar) {
+                        inQuotes = false;
+                    }
+                    scanPos++;
+                }
+                continue;
+            }
+            if (c == '\n' || c == '\r') {
+                scanPos += (c == '\r' && next == '\n' && hasNext) ? 2 : 1;
+                recordEnd = scanPos;
+                fieldStart = true;
+            } else if (c == quoteChar && fieldStart) {
+                inQuotes = true;
+                fieldStart = false;
+                scanPos++;
+            } else if (c == escapeChar && hasNext && (next == quoteChar || next == escapeChar)) {
+                fieldStart = false;
+                scanPos += 2;
+            } else {
+                fieldStart = c == delimiter;
+                scanPos++;
+            }
+        }
+    }
+
+}
@@ -19,9 +19,11 @@ package org.jkiss.dbeaver.tools.transfer.stream.importer;
 import au.com.bytecode.opencsv.CSVReader;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
 import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
 import org.jkiss.dbeaver.model.impl.local.LocalStatement;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.stream.*;
 import org.jkiss.dbeaver.tools.transfer.stream.model.StreamDataSource;
@@ -31,10 +33,14 @@ import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.*;
+import java.sql.Types;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * CSV importer
@@ -51,6 +57,13 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
     private static final String PROP_ESCAPE_CHAR = "escapeChar";
     private static final String PROP_TIMESTAMP_FORMAT = "timestampFormat";
+    private static final String PROP_PROCESSING_THREADS = "processingThreads";
+    private static final String PROP_TYPE_SAMPLE_SIZE = "typeSampleSize";
+
+    // Chars parsed by a processing thread at once
+    private static final int PROCESSING_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_PROCESSING_THREADS = 16;
+    private static final int DEFAULT_TYPE_SAMPLE_SIZE = 1000;
 
     enum HeaderPosition {
         none,
@@ -99,16 +112,27 @@ public class DataImporterCSV extends StreamImporterAbstract {
     }
 
     private CSVReader openCSVReader(Reader reader, Map<String, Object> processorProperties) {
-        String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
+        return new CSVReader(reader, getDelimiter(processorProperties), getQuoteChar(processorProperties), getEscapeChar(processorProperties));
+    }
+
+    private char getDelimiter(Map<String, Object> processorProperties) {
+        return StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER).charAt(0);
+    }
+
+    private char getQuoteChar(Map<String, Object> processorProperties) {
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
         if (CommonUtils.isEmpty(quoteChar)) {
             quoteChar = "'";
         }
+        return quoteChar.charAt(0);
+    }
+
+    private char getEscapeChar(Map<String, Object> processorProperties) {
         String escapeChar = CommonUtils.toString(processorProperties.get(PROP_ESCAPE_CHAR));
         if (CommonUtils.isEmpty(escapeChar)) {
             escapeChar = "\\";
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
+        return escapeChar.charAt(0);
     }
 
     private InputStreamReader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties) throws UnsupportedEncodingException {
@@ -124,6 +148,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
         HeaderPosition headerPosition = getHeaderPosition(properties);
         boolean emptyStringNull = CommonUtils.getBoolean(properties.get(PROP_EMPTY_STRING_NULL), false);
         String nullValueMark = CommonUtils.toString(properties.get(PROP_NULL_STRING));
+        int processingThreads = Math.min(CommonUtils.toInt(properties.get(PROP_PROCESSING_THREADS)), MAX_PROCESSING_THREADS);
         DateTimeFormatter tsFormat = null;
 
         String tsFormatPattern = CommonUtils.toString(properties.get(PROP_TIMESTAMP_FORMAT));
@@ -148,55 +173,45 @@ public class DataImporterCSV extends StreamImporterAbstract {
                 consumer.fetchStart(producerSession, resultSet, -1, -1);
 
                 try (Reader reader = openStreamReader(inputStream, properties)) {
-                    try (CSVReader csvReader = openCSVReader(reader, properties)) {
-
-                        int maxRows = site.getSettings().getMaxRows();
-                        int targetAttrSize = entityMapping.getStreamColumns().size();
-                        boolean headerRead = false;
-                        for (int lineNum = 0; ; ) {
-                            String[] line = csvReader.readNext();
-                            if (line == null) {
-                                break;
-                            }
-                            if (line.length == 0) {
-                                continue;
-                            }
-                            if (headerPosition != HeaderPosition.none && !headerRead) {
-                                // First line is a header
-                                headerRead = true;
-                                continue;
-                            }
-                            if (maxRows > 0 && lineNum >= maxRows) {
-                                break;
-                            }
-
-                            if (line.length < targetAttrSize) {
-                                // Stream row may be shorter than header
-                                String[] newLine = new String[targetAttrSize];
-                                System.arraycopy(line, 0, newLine, 0, line.length);
-                                for (int i = line.length; i < targetAttrSize - line.length; i++) {
-                                    newLine[i] = null;
-                                }
-                                line = newLine;
-                            }
-                            if (emptyStringNull) {
-                                for (int i = 0; i < line.length; i++) {
-                                    if ("".equals(line[i])) {
-                                        line[i] = null;
-                                    }
+                    if (processingThreads > 1) {
+                        CSVChunkParser parser = new CSVChunkParser(
+                            getDelimiter(properties),
+                            getQuoteChar(properties),
+                            getEscapeChar(properties),
+                            emptyStringNull,
+                            nullValueMark,
+                            tsFormat,
+                            new CSVChunkParser.ColumnType[0]);
+                        importParallel(
+                            monitor,
+                            reader,
+                            parser,
+                            headerPosition != HeaderPosition.none,
+                            CommonUtils.toInt(properties.get(PROP_TYPE_SAMPLE_SIZE), DEFAULT_TYPE_SAMPLE_SIZE),
+                            entityMapping,
+                            resultSet,
+                            processingThreads,
+                            site.getSettings().getMaxRows(),
+                            consumer,
+                            producerSession);
+                    } else {
+                        try (CSVReader csvReader = openCSVReader(reader, properties)) {
+                            LineReader lineReader = new LineReader(
+                                csvReader,
+                                headerPosition,
+                                site.getSettings().getMaxRows(),
+                                entityMapping.getStreamColumns().size(),
+                                emptyStringNull,
+                                nullValueMark);
+                            for (;;) {
+                                String[] line = lineReader.readLine();
+                                if (line == null) {
+                                    break;
                                 }
+                                lineReader.prepareLine(line);
+                                resultSet.setStreamRow(line);
+                                consumer.fetchRow(producerSession, resultSet);
                             }
-                            if (!CommonUtils.isEmpty(nullValueMark)) {
-                                for (int i = 0; i < line.length; i++) {
-                                    if (nullValueMark.equals(line[i])) {
-                                        line[i] = null;
-                                    }
-                                }
-                            }
-
-                            resultSet.setStreamRow(line);
-                            consumer.fetchRow(producerSession, resultSet);
-                            lineNum++;
                         }
                     }
                 } catch (IOException e) {
@@ -213,4 +228,239 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
     }
 
+    /**
+     * Splits CSV text into chunks of complete records (in a reader thread) and parses chunks in processing threads.
+     * Chunks are parsed into typed column vectors, types come from target attributes and from a reservoir sample
+     * of the first chunk rows. Parsed rows are passed to the consumer in the original order in the calling thread.
+     */
+    private void importParallel(
+        DBRProgressMonitor monitor,
+        Reader reader,
+        CSVChunkParser stringParser,
+        boolean skipHeader,
+        int typeSampleSize,
+        StreamProducerSettings.EntityMapping entityMapping,
+        StreamTransferResultSet resultSet,
+        int processingThreads,
+        int maxRows,
+        IDataTransferConsumer consumer,
+        StreamTransferSession producerSession) throws DBException, IOException
+    {
+        CSVChunkReader chunkReader = new CSVChunkReader(
+            reader,
+            stringParser.getDelimiter(),
+            stringParser.getQuoteChar(),
+            stringParser.getEscapeChar(),
+            PROCESSING_CHUNK_SIZE);
+        // Reader thread + processing threads
+        ExecutorService executor = Executors.newFixedThreadPool(processingThreads + 1, r -> {
+            Thread thread = new Thread(r, "CSV import parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Queue limits number of read but not yet imported chunks. Null chunk marks the end of the stream.
+        BlockingQueue<Future<CSVChunkParser.Chunk>> chunkQueue = new ArrayBlockingQueue<>(processingThreads * 2);
+        AtomicBoolean stopped = new AtomicBoolean();
+        Future<?> readerFuture = executor.submit(() -> {
+            try {
+                char[] firstChars = chunkReader.nextChunk();
+                if (firstChars != null) {
+                    // The first chunk is parsed as strings, its rows are the sample for type inference
+                    CSVChunkParser.Chunk firstChunk = stringParser.parse(firstChars, skipHeader);
+                    CSVChunkParser parser = stringParser.withColumnTypes(getColumnTypes(
+                        entityMapping,
+                        CSVChunkParser.inferColumnTypes(firstChunk, typeSampleSize, new Random()),
+                        resultSet.getDateTimeFormat() != null));
+                    putChunk(chunkQueue, CompletableFuture.completedFuture(firstChunk), stopped);
+                    for (;;) {
+                        char[] chars = chunkReader.nextChunk();
+                        if (chars == null || stopped.get()) {
+                            break;
+                        }
+                        putChunk(chunkQueue, executor.submit(() -> parser.parse(chars, false)), stopped);
+                    }
+                }
+            } finally {
+                putChunk(chunkQueue, CompletableFuture.completedFuture(null), stopped);
+            }
+            return null;
+        });
+
+        int targetAttrSize = entityMapping.getStreamColumns().size();
+        int rowCount = 0;
+        boolean finished = false;
+        try {
+            while (!finished && !monitor.isCanceled()) {
+                Future<CSVChunkParser.Chunk> chunkFuture = chunkQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (chunkFuture == null) {
+                    continue;
+                }
+                CSVChunkParser.Chunk chunk = chunkFuture.get();
+                if (chunk == null) {
+                    finished = true;
+                    break;
+                }
+                int rowSize = Math.max(targetAttrSize, chunk.getColumnCount());
+                for (int row = 0; row < chunk.getRowCount(); row++) {
+                    if (maxRows > 0 && rowCount >= maxRows) {
+                        return;
+                    }
+                    Object[] values = new Object[rowSize];
+                    chunk.getRow(row, values);
+                    resultSet.setStreamRow(values);
+                    consumer.fetchRow(producerSession, resultSet);
+                    rowCount++;
+                }
+            }
+            if (finished) {
+                // Rethrow read errors. Reader is finished (or finishing) here
+                readerFuture.get();
+            }
+        } catch (InterruptedException e) {
+            throw new DBException("CSV import interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof DBException) {
+                throw (DBException) cause;
+            }
+            throw new DBException("Error parsing CSV", cause);
+        } finally {
+            stopped.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for a free place in the queue until the import is stopped
+     */
+    private static void putChunk(
+        BlockingQueue<Future<CSVChunkParser.Chunk>> chunkQueue,
+        Future<CSVChunkParser.Chunk> chunk,
+        AtomicBoolean stopped) throws InterruptedException
+    {
+        while (!stopped.get() && !chunkQueue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+            // Wait for the consumer
+        }
+    }
+
+    /**
+     * Chooses column vector types.
+     * Source column is parsed as number only if all its target attributes are numeric and sampled values are numbers.
+     * Doubles are parsed only for floating point targets, so decimal values keep their exact text.
+     */
+    private static CSVChunkParser.ColumnType[] getColumnTypes(
+        StreamProducerSettings.EntityMapping entityMapping,
+        CSVChunkParser.ColumnType[] inferredTypes,
+        boolean parseDateTime)
+    {
+        CSVChunkParser.ColumnType[] types = new CSVChunkParser.ColumnType[inferredTypes.length];
+        for (StreamProducerSettings.AttributeMapping attr : entityMapping.getValuableAttributeMappings()) {
+            int sourceIndex = attr.getSourceAttributeIndex();
+            if (attr.getMappingType() == StreamProducerSettings.AttributeMapping.MappingType.DEFAULT_VALUE ||
+                sourceIndex < 0 || sourceIndex >= types.length)
+            {
+                continue;
+            }
+            CSVChunkParser.ColumnType type = CSVChunkParser.ColumnType.STRING;
+            DBSEntityAttribute target = attr.getTargetAttribute();
+            if (target != null) {
+                if (target.getDataKind() == DBPDataKind.DATETIME && parseDateTime) {
+                    type = CSVChunkParser.ColumnType.DATETIME;
+                } else if (target.getDataKind() == DBPDataKind.NUMERIC) {
+                    if (inferredTypes[sourceIndex] == CSVChunkParser.ColumnType.LONG) {
+                        type = CSVChunkParser.ColumnType.LONG;
+                    } else if (inferredTypes[sourceIndex] == CSVChunkParser.ColumnType.DOUBLE && isFloatingPointType(target.getTypeID())) {
+                        type = CSVChunkParser.ColumnType.DOUBLE;
+                    }
+                }
+            }
+            // Column imported into several attributes must fit all of them
+            types[sourceIndex] = types[sourceIndex] == null || types[sourceIndex] == type ? type : CSVChunkParser.ColumnType.STRING;
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == null) {
+                types[i] = CSVChunkParser.ColumnType.STRING;
+            }
+        }
+        return types;
+    }
+
+    private static boolean isFloatingPointType(int typeID) {
+        return typeID == Types.FLOAT || typeID == Types.REAL || typeID == Types.DOUBLE;
+    }
+
+    /**
+     * Reads CSV lines skipping header and prepares their values
+     */
+    private static class LineReader {
+        private final CSVReader csvReader;
+        private final int maxRows;
+        private final int targetAttrSize;
+        private final boolean emptyStringNull;
+        private final String nullValueMark;
+        private boolean headerRead;
+        private int lineNum;
+
+        LineReader(CSVReader csvReader, HeaderPosition headerPosition, int maxRows, int targetAttrSize, boolean emptyStringNull, String nullValueMark) {
+            this.csvReader = csvReader;
+            this.maxRows = maxRows;
+            this.targetAttrSize = targetAttrSize;
+            this.emptyStringNull = emptyStringNull;
+            this.nullValueMark = nullValueMark;
+            this.headerRead = headerPosition == HeaderPosition.none;
+        }
+
+        /**
+         * Reads the next data line. Returned line has at least targetAttrSize values.
+         * @return line or null if there are no more lines
+         */
+        String[] readLine() throws IOException {
+            for (;;) {
+                String[] line = csvReader.readNext();
+                if (line == null) {
+                    return null;
+                }
+                if (line.length == 0) {
+                    continue;
+                }
+                if (!headerRead) {
+                    // First line is a header
+                    headerRead = true;
+                    continue;
+                }
+                if (maxRows > 0 && lineNum >= maxRows) {
+                    return null;
+                }
+                lineNum++;
+
+                if (line.length < targetAttrSize) {
+                    // Stream row may be shorter than header
+                    String[] newLine = new String[targetAttrSize];
+                    System.arraycopy(line, 0, newLine, 0, line.length);
+                    line = newLine;
+                }
+                return line;
+            }
+        }
+
+        void prepareLine(String[] line) {
+            if (emptyStringNull) {
+                for (int i = 0; i < line.length; i++) {
+                    if ("".equals(line[i])) {
+                        line[i] = null;
+                    }
+                }
+            }
+            if (!CommonUtils.isEmpty(nullValueMark)) {
+                for (int i = 0; i < line.length; i++) {
+                    if (nullValueMark.equals(line[i])) {
+                        line[i] = null;
+                    }
+                }
+            }
+        }
+    }
+
 }
@@ -0,0 +1,118 @@
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCDateTimeValueHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Compares fast path formatting with the formats it replaces
+ */
+public class ExportValueFormatterTest {
+
+    private static final String[] TIME_ZONES = { "UTC", "Europe/Amsterdam", "America/St_Johns", "Asia/Kathmandu", "Pacific/Apia", "GMT-14:00" };
+    // 1500-01-01 .. 12000-01-01, includes dates before the Gregorian cutover and 5-digit years
+    private static final long MIN_TIME = -14831769600000L;
+    private static final long MAX_TIME = 316516204800000L;
+    private static final long GREGORIAN_TIME = -12212467200000L;
+
+    private static long randomTime(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                // Whole seconds and days, near DST transitions and the day bounds
+                return MIN_TIME + (long) (random.nextDouble() * (MAX_TIME - MIN_TIME)) / 86400000 * 86400000 + (random.nextInt(7200) - 3600) * 1000L;
+            case 1:
+                // Recent dates
+                return (long) (random.nextDouble() * 4102444800000L);
+            default:
+                return MIN_TIME + (long) (random.nextDouble() * (MAX_TIME - MIN_TIME));
+        }
+    }
+
+    @Test
+    public void testNativeDateTimeFormat() {
+        SimpleDateFormat[] formats = {
+            JDBCDateTimeValueHandler.DEFAULT_DATETIME_FORMAT,
+            JDBCDateTimeValueHandler.DEFAULT_DATE_FORMAT,
+            JDBCDateTimeValueHandler.DEFAULT_TIME_FORMAT
+        };
+        int[] typeIDs = { Types.TIMESTAMP, Types.DATE, Types.TIME };
+        TimeZone[] savedTimeZones = new TimeZone[formats.length];
+        for (int i = 0; i < formats.length; i++) {
+            savedTimeZones[i] = formats[i].getTimeZone();
+        }
+        try {
+            ExportValueFormatter formatter = new ExportValueFormatter();
+            Random random = new Random(1);
+            for (String timeZoneId : TIME_ZONES) {
+                // Formatter must follow time zone of the handler formats
+                for (SimpleDateFormat format : formats) {
+                    format.setTimeZone(TimeZone.getTimeZone(timeZoneId));
+                }
+                for (int i = 0; i < 20000; i++) {
+                    long time = randomTime(random);
+                    for (int k = 0; k < formats.length; k++) {
+                        String expected = formats[k].format(new Date(time));
+                        if (formatter.formatNativeDateTime(time, typeIDs[k])) {
+                            Assert.assertEquals(timeZoneId + " " + time, expected, formatter.getBuffer().toString());
+                        } else {
+                            Assert.assertTrue("Fast path for " + expected, time < GREGORIAN_TIME);
+                        }
+                    }
+                }
+            }
+        } finally {
+            for (int i = 0; i < formats.length; i++) {
+                formats[i].setTimeZone(savedTimeZones[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testISODateFormat() {
+        // Same format as JSONUtils.formatDate
+        SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        isoFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        ExportValueFormatter formatter = new ExportValueFormatter();
+        Random random = new Random(2);
+        for (int i = 0; i < 100000; i++) {
+            Date date = new Date(randomTime(random));
+            if (formatter.formatISODate(date)) {
+                Assert.assertEquals(isoFormat.format(date), formatter.getBuffer().toString());
+            } else {
+                Assert.assertTrue(date.getTime() < GREGORIAN_TIME);
+            }
+        }
+    }
+
+    @Test
+    public void testNonGregorianLocale() {
+        Locale savedLocale = Locale.getDefault(Locale.Category.FORMAT);
+        try {
+            // Buddhist calendar
+            Locale.setDefault(Locale.Category.FORMAT, new Locale("th", "TH"));
+            ExportValueFormatter formatter = new ExportValueFormatter();
+            Assert.assertFalse(formatter.formatISODate(new Date()));
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, savedLocale);
+        }
+    }
+
+    @Test
+    public void testNumbers() {
+        ExportValueFormatter formatter = new ExportValueFormatter();
+        for (Number value : new Number[] { 0, -1, Long.MIN_VALUE, Long.MAX_VALUE, (short) 12, (byte) -3, 1.5, -0.0, Double.NaN, 1e300, 0.1f, Float.MIN_VALUE }) {
+            Assert.assertTrue(formatter.formatNumber(value));
+            Assert.assertEquals(value.toString(), formatter.getBuffer().toString());
+        }
+        Assert.assertFalse(formatter.formatNumber(new BigDecimal("1.5")));
+    }
+
+}
@@ -0,0 +1,449 @@
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Writes Parquet files and reads them back with a minimal reader (Thrift compact footer, v1 PLAIN pages)
+ */
+public class ParquetWriterTest {
+
+    private static final int ROW_COUNT = 2500;
+    private static final int ROW_GROUP_SIZE = 1000;
+    // Thrift ids of makeColumns() types
+    private static final int[] TYPE_IDS = { 1, 2, 4, 5, 0, 6, 7 };
+
+    @Test
+    public void testRoundTripUncompressed() throws IOException {
+        assertRoundTrip(ParquetWriter.Codec.UNCOMPRESSED, 0);
+    }
+
+    @Test
+    public void testRoundTripGzip() throws IOException {
+        assertRoundTrip(ParquetWriter.Codec.GZIP, 2);
+    }
+
+    @Test
+    public void testRoundTripSnappy() throws IOException {
+        assertRoundTrip(ParquetWriter.Codec.SNAPPY, 1);
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        List<ParquetWriter.Column> columns = makeColumns();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ParquetWriter writer = new ParquetWriter(out, columns, ParquetWriter.Codec.GZIP, "test");
+        writer.start();
+        writer.finish();
+        Map<Integer, Object> footer = readFooter(out.toByteArray());
+        Assert.assertEquals(0L, footer.get(3));
+        Assert.assertEquals(0, ((List<?>) footer.get(4)).size());
+        Assert.assertEquals(columns.size() + 1, ((List<?>) footer.get(2)).size());
+    }
+
+    @Test
+    public void testSnappyCompressor() throws IOException {
+        Random random = new Random(1);
+        List<byte[]> samples = new ArrayList<>();
+        samples.add(new byte[0]);
+        samples.add(new byte[] { 1 });
+        samples.add(new byte[1000]);
+        byte[] randomBytes = new byte[200000];
+        random.nextBytes(randomBytes);
+        samples.add(randomBytes);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            text.append("value ").append(random.nextInt(100)).append(i % 7 == 0 ? "\n" : ",");
+        }
+        samples.add(text.toString().getBytes(StandardCharsets.UTF_8));
+        for (byte[] sample : samples) {
+            byte[] compressed = ParquetWriter.SnappyCompressor.compress(sample, sample.length);
+            Assert.assertArrayEquals(sample, snappyDecompress(compressed));
+        }
+        // Repetitive data must be actually compressed
+        byte[] textBytes = samples.get(samples.size() - 1);
+        Assert.assertTrue(ParquetWriter.SnappyCompressor.compress(textBytes, textBytes.length).length < textBytes.length / 2);
+    }
+
+    private static List<ParquetWriter.Column> makeColumns() {
+        return Arrays.asList(
+            new ParquetWriter.Column("int_col", ParquetWriter.PhysicalType.INT32, null),
+            new ParquetWriter.Column("long_col", ParquetWriter.PhysicalType.INT64, null),
+            new ParquetWriter.Column("float_col", ParquetWriter.PhysicalType.FLOAT, null),
+            new ParquetWriter.Column("double_col", ParquetWriter.PhysicalType.DOUBLE, null),
+            new ParquetWriter.Column("bool_col", ParquetWriter.PhysicalType.BOOLEAN, null),
+            new ParquetWriter.Column("string_col", ParquetWriter.PhysicalType.BYTE_ARRAY, ParquetWriter.ConvertedType.UTF8),
+            new ParquetWriter.Column("decimal_col", ParquetWriter.PhysicalType.FIXED_LEN_BYTE_ARRAY, ParquetWriter.ConvertedType.DECIMAL, 4, 9, 2));
+    }
+
+    private static Object makeValue(ParquetWriter.Column column, Random random) {
+        if (random.nextInt(5) == 0) {
+            return null;
+        }
+        switch (column.getType()) {
+            case INT32:
+                return random.nextInt();
+            case INT64:
+                return random.nextLong();
+            case FLOAT:
+                return random.nextFloat();
+            case DOUBLE:
+                return random.nextDouble();
+            case BOOLEAN:
+                return random.nextBoolean();
+            case BYTE_ARRAY:
+                return "value " + random.nextInt(100);
+            default:
+                byte[] bytes = new byte[column.getTypeLength()];
+                random.nextBytes(bytes);
+                return bytes;
+        }
+    }
+
+    private static void addValue(ParquetWriter.Column column, Object value) {
+        if (value == null) {
+            column.addNull();
+            return;
+        }
+        switch (column.getType()) {
+            case INT32:
+                column.addInt((Integer) value);
+                break;
+            case INT64:
+                column.addLong((Long) value);
+                break;
+            case FLOAT:
+                column.addFloat((Float) value);
+                break;
+            case DOUBLE:
+                column.addDouble((Double) value);
+                break;
+            case BOOLEAN:
+                column.addBoolean((Boolean) value);
+                break;
+            case BYTE_ARRAY:
+                column.addBinary(((String) value).getBytes(StandardCharsets.UTF_8));
+                break;
+            default:
+                column.addFixed((byte[]) value);
+                break;
+        }
+    }
+
+    private static void assertRoundTrip(ParquetWriter.Codec codec, int codecId) throws IOException {
+        List<ParquetWriter.Column> columns = makeColumns();
+        Random random = new Random(codec.ordinal());
+        Object[][] rows = new Object[ROW_COUNT][columns.size()];
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ParquetWriter writer = new ParquetWriter(out, columns, codec, "test");
+        writer.start();
+        for (Object[] row : rows) {
+            for (int i = 0; i < columns.size(); i++) {
+                row[i] = makeValue(columns.get(i), random);
+                addValue(columns.get(i), row[i]);
+            }
+            writer.endRow();
+            if (writer.getBufferedRows() >= ROW_GROUP_SIZE) {
+                writer.flushRowGroup();
+            }
+        }
+        writer.finish();
+        byte[] file = out.toByteArray();
+
+        Map<Integer, Object> footer = readFooter(file);
+        Assert.assertEquals(1, footer.get(1));
+        Assert.assertEquals((long) ROW_COUNT, footer.get(3));
+        Assert.assertEquals("test", footer.get(6));
+
+        List<?> schema = (List<?>) footer.get(2);
+        Assert.assertEquals(columns.size() + 1, schema.size());
+        Assert.assertEquals(columns.size(), struct(schema.get(0)).get(5));
+        for (int i = 0; i < columns.size(); i++) {
+            Map<Integer, Object> element = struct(schema.get(i + 1));
+            Assert.assertEquals(columns.get(i).getName(), element.get(4));
+            Assert.assertEquals(TYPE_IDS[i], element.get(1));
+        }
+        Map<Integer, Object> decimalElement = struct(schema.get(columns.size()));
+        Assert.assertEquals(4, decimalElement.get(2));
+        Assert.assertEquals(5, decimalElement.get(6));
+        Assert.assertEquals(2, decimalElement.get(7));
+        Assert.assertEquals(9, decimalElement.get(8));
+
+        List<?> rowGroups = (List<?>) footer.get(4);
+        Assert.assertEquals((ROW_COUNT + ROW_GROUP_SIZE - 1) / ROW_GROUP_SIZE, rowGroups.size());
+        int firstRow = 0;
+        for (Object rowGroupObject : rowGroups) {
+            Map<Integer, Object> rowGroup = struct(rowGroupObject);
+            int rowCount = ((Long) rowGroup.get(3)).intValue();
+            List<?> chunks = (List<?>) rowGroup.get(1);
+            Assert.assertEquals(columns.size(), chunks.size());
+            for (int i = 0; i < columns.size(); i++) {
+                Map<Integer, Object> chunk = struct(chunks.get(i));
+                Map<Integer, Object> metadata = struct(chunk.get(3));
+                Assert.assertEquals(chunk.get(2), metadata.get(9));
+                Assert.assertEquals(TYPE_IDS[i], metadata.get(1));
+                Assert.assertEquals(codecId, metadata.get(4));
+                Assert.assertEquals(Arrays.asList(columns.get(i).getName()), metadata.get(3));
+                Assert.assertEquals((long) rowCount, metadata.get(5));
+                Object[] values = readColumnChunk(file, metadata, columns.get(i));
+                Assert.assertEquals(rowCount, values.length);
+                for (int row = 0; row < rowCount; row++) {
+                    Object expected = rows[firstRow + row][i];
+                    if (expected instanceof byte[]) {
+                        Assert.assertArrayEquals((byte[]) expected, (byte[]) values[row]);
+                    } else {
+                        Assert.assertEquals(columns.get(i).getName() + " row " + (firstRow + row), expected, values[row]);
+                    }
+                }
+            }
+            firstRow += rowCount;
+        }
+        Assert.assertEquals(ROW_COUNT, firstRow);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, Object> struct(Object value) {
+        return (Map<Integer, Object>) value;
+    }
+
+    private static Map<Integer, Object> readFooter(byte[] file) {
+        Assert.assertEquals("PAR1", new String(file, 0, 4, StandardCharsets.US_ASCII));
+        Assert.assertEquals("PAR1", new String(file, file.length - 4, 4, StandardCharsets.US_ASCII));
+        ByteBuffer buffer = ByteBuffer.wrap(file).order(ByteOrder.LITTLE_ENDIAN);
+        int footerLength = buffer.getInt(file.length - 8);
+        ThriftReader reader = new ThriftReader(file, file.length - 8 - footerLength);
+        Map<Integer, Object> footer = reader.readStruct();
+        Assert.assertEquals(file.length - 8, reader.pos);
+        return footer;
+    }
+
+    private static Object[] readColumnChunk(byte[] file, Map<Integer, Object> metadata, ParquetWriter.Column column) throws IOException {
+        int offset = ((Long) metadata.get(9)).intValue();
+        ThriftReader reader = new ThriftReader(file, offset);
+        Map<Integer, Object> pageHeader = reader.readStruct();
+        int headerSize = reader.pos - offset;
+        int uncompressedSize = (Integer) pageHeader.get(2);
+        int compressedSize = (Integer) pageHeader.get(3);
+        Assert.assertEquals((long) headerSize + compressedSize, metadata.get(7));
+        Assert.assertEquals((long) headerSize + uncompressedSize, metadata.get(6));
+
+        byte[] page = Arrays.copyOfRange(file, reader.pos, reader.pos + compressedSize);
+        int codec = (Integer) metadata.get(4);
+        if (codec == 1) {
+            page = snappyDecompress(page);
+        } else if (codec == 2) {
+            page = readAll(new GZIPInputStream(new ByteArrayInputStream(page)));
+        }
+        Assert.assertEquals(uncompressedSize, page.length);
+
+        int valueCount = (Integer) struct(pageHeader.get(5)).get(1);
+        ByteBuffer buffer = ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN);
+        // Definition levels: length, bit-packed run header, bits
+        int levelsLength = buffer.getInt();
+        int levelsStart = buffer.position();
+        long runHeader = readVarInt(buffer);
+        Assert.assertEquals(1, runHeader & 1);
+        boolean[] defined = new boolean[valueCount];
+        for (int i = 0; i < valueCount; i++) {
+            defined[i] = (page[buffer.position() + i / 8] & (1 << (i % 8))) != 0;
+        }
+        Assert.assertEquals(runHeader >> 1, levelsLength - (buffer.position() - levelsStart));
+        buffer.position(levelsStart + levelsLength);
+
+        Object[] values = new Object[valueCount];
+        int booleanIndex = 0;
+        for (int i = 0; i < valueCount; i++) {
+            if (!defined[i]) {
+                continue;
+            }
+            switch (column.getType()) {
+                case INT32:
+                    values[i] = buffer.getInt();
+                    break;
+                case INT64:
+                    values[i] = buffer.getLong();
+                    break;
+                case FLOAT:
+                    values[i] = buffer.getFloat();
+                    break;
+                case DOUBLE:
+                    values[i] = buffer.getDouble();
+                    break;
+                case BOOLEAN:
+                    values[i] = (page[buffer.position() + booleanIndex / 8] & (1 << (booleanIndex % 8))) != 0;
+                    booleanIndex++;
+                    break;
+                case BYTE_ARRAY: {
+                    byte[] bytes = new byte[buffer.getInt()];
+                    buffer.get(bytes);
+                    values[i] = new String(bytes, StandardCharsets.UTF_8);
+                    break;
+                }
+                default: {
+                    byte[] bytes = new byte[column.getTypeLength()];
+                    buffer.get(bytes);
+                    values[i] = bytes;
+                    break;
+                }
+            }
+        }
+        if (column.getType() == ParquetWriter.PhysicalType.BOOLEAN) {
+            buffer.position(buffer.position() + (booleanIndex + 7) / 8);
+        }
+        Assert.assertFalse(buffer.hasRemaining());
+        return values;
+    }
+
+    private static long readVarInt(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = buffer.get() & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int count; (count = stream.read(buffer)) > 0; ) {
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] snappyDecompress(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        byte[] out = new byte[(int) readVarInt(in)];
+        int pos = 0;
+        while (in.hasRemaining()) {
+            int tag = in.get() & 0xFF;
+            int length, offset;
+            switch (tag & 3) {
+                case 0:
+                    length = tag >>> 2;
+                    if (length >= 60) {
+                        int bytes = length - 59;
+                        length = 0;
+                        for (int i = 0; i < bytes; i++) {
+                            length |= (in.get() & 0xFF) << (8 * i);
+                        }
+                    }
+                    length++;
+                    in.get(out, pos, length);
+                    pos += length;
+                    continue;
+                case 1:
+                    length = ((tag >>> 2) & 7) + 4;
+                    offset = ((tag >>> 5) << 8) | (in.get() & 0xFF);
+                    break;
+                case 2:
+                    length = (tag >>> 2) + 1;
+                    offset = (in.get() & 0xFF) | (in.get() & 0xFF) << 8;
+                    break;
+                default:
+                    length = (tag >>> 2) + 1;
+                    offset = in.order(ByteOrder.LITTLE_ENDIAN).getInt();
+                    break;
+            }
+            Assert.assertTrue(offset > 0 && offset <= pos);
+            for (int i = 0; i < length; i++, pos++) {
+                out[pos] = out[pos - offset];
+            }
+        }
+        Assert.assertEquals(out.length, pos);
+        return out;
+    }
+
+    /**
+     * Thrift compact protocol reader. Structs are read as maps of field ids to values.
+     */
+    private static class ThriftReader {
+        private final byte[] data;
+        private int pos;
+
+        ThriftReader(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+
+        Map<Integer, Object> readStruct() {
+            Map<Integer, Object> fields = new HashMap<>();
+            int fieldId = 0;
+            for (;;) {
+                int header = data[pos++] & 0xFF;
+                if (header == 0) {
+                    return fields;
+                }
+                int delta = header >>> 4;
+                fieldId = delta != 0 ? fieldId + delta : (int) unzigzag(readVarInt());
+                fields.put(fieldId, readValue(header & 0x0F));
+            }
+        }
+
+        private Object readValue(int type) {
+            switch (type) {
+                case 5:
+                    return (int) unzigzag(readVarInt());
+                case 6:
+                    return unzigzag(readVarInt());
+                case 8: {
+                    int length = (int) readVarInt();
+                    String value = new String(data, pos, length, StandardCharsets.UTF_8);
+                    pos += length;
+                    return value;
+                }
+                case 9: {
+                    int header = data[pos++] & 0xFF;
+                    int size = header >>> 4;
+                    if (size == 15) {
+                        size = (int) readVarInt();
+                    }
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue(header & 0x0F));
+                    }
+                    return list;
+                }
+                case 12:
+                    return readStruct();
+                default:
+                    throw new AssertionError("Unexpected Thrift type " + type);
+            }
+        }
+
+        private long readVarInt() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = data[pos++] & 0xFF;
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+public class CSVChunkParserTest {
+
+    private static final CSVChunkParser.ColumnType[] NO_TYPES = new CSVChunkParser.ColumnType[0];
+
+    private static CSVChunkParser makeParser(CSVChunkParser.ColumnType... types) {
+        return new CSVChunkParser(',', '"', '\\', false, null, null, types);
+    }
+
+    private static List<Object[]> getRows(CSVChunkParser.Chunk chunk) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int row = 0; row < chunk.getRowCount(); row++) {
+            Object[] values = new Object[chunk.getColumnCount()];
+            chunk.getRow(row, values);
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    private static List<Object[]> parseChunked(String text, int chunkSize) throws IOException {
+        CSVChunkReader reader = new CSVChunkReader(new StringReader(text), ',', '"', '\\', chunkSize);
+        CSVChunkParser parser = makeParser();
+        List<Object[]> rows = new ArrayList<>();
+        for (char[] chars = reader.nextChunk(); chars != null; chars = reader.nextChunk()) {
+            rows.addAll(getRows(parser.parse(chars, false)));
+        }
+        return rows;
+    }
+
+    private static void assertRows(List<Object[]> expected, List<Object[]> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            // Rows of different chunks may have different number of columns
+            Object[] expectedRow = expected.get(i);
+            Object[] actualRow = Arrays.copyOf(actual.get(i), expectedRow.length);
+            Assert.assertArrayEquals("Row " + i, expectedRow, actualRow);
+        }
+    }
+
+    @Test
+    public void testQuoting() {
+        String text = "a,\"b,c\",\"d\"\"e\"\r\n" +
+            "\"multi\nline\",f\\\"g,\"h\\\"i\"\n" +
+            "j\"k,,\"\"\n" +
+            "\"l\"m,n";
+        List<Object[]> rows = getRows(makeParser().parse(text.toCharArray(), false));
+        assertRows(Arrays.asList(
+            new Object[] { "a", "b,c", "d\"e" },
+            new Object[] { "multi\nline", "f\"g", "h\"i" },
+            new Object[] { "j\"k", "", "" },
+            new Object[] { "lm", "n", null }
+        ), rows);
+    }
+
+    @Test
+    public void testSkipHeaderAndNulls() {
+        String text = "id,name\n1,\n2,NULL\n";
+        CSVChunkParser parser = new CSVChunkParser(',', '"', '\\', true, "NULL", null, NO_TYPES);
+        assertRows(Arrays.asList(
+            new Object[] { "1", null },
+            new Object[] { "2", null }
+        ), getRows(parser.parse(text.toCharArray(), true)));
+    }
+
+    @Test
+    public void testChunksEndWithRecords() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append(i).append(",\"quoted\r\nvalue ").append(i).append("\",\"a\"\"b\\\\\"").append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        List<Object[]> expected = getRows(makeParser().parse(text.toString().toCharArray(), false));
+        Assert.assertEquals(500, expected.size());
+        for (int chunkSize : new int[] { 1, 2, 3, 7, 16, 100, 1000 }) {
+            assertRows(expected, parseChunked(text.toString(), chunkSize));
+        }
+    }
+
+    @Test
+    public void testTypedColumns() {
+        String text = "1,1.5,2020-01-02 10:00:00\n" +
+            "-9223372036854775808,-0.25,bad date\n" +
+            "9223372036854775808,1e3,\n" +
+            "x,,2020-01-03 11:30:00\n";
+        CSVChunkParser parser = new CSVChunkParser(',', '"', '\\', true, null, DateTimeFormatter.ofPattern("yyyy-MM-dd[ HH:mm:ss]"), new CSVChunkParser.ColumnType[] {
+            CSVChunkParser.ColumnType.LONG, CSVChunkParser.ColumnType.DOUBLE, CSVChunkParser.ColumnType.DATETIME
+        });
+        CSVChunkParser.Chunk chunk = parser.parse(text.toCharArray(), false);
+        Assert.assertEquals(1L, chunk.getValue(0, 0));
+        Assert.assertEquals(Long.MIN_VALUE, chunk.getValue(1, 0));
+        // Values which don't fit are kept as strings
+        Assert.assertEquals("9223372036854775808", chunk.getValue(2, 0));
+        Assert.assertEquals("x", chunk.getValue(3, 0));
+
+        Assert.assertEquals(1.5, chunk.getValue(0, 1));
+        Assert.assertEquals(-0.25, chunk.getValue(1, 1));
+        Assert.assertEquals(1000.0, chunk.getValue(2, 1));
+        Assert.assertNull(chunk.getValue(3, 1));
+
+        Assert.assertTrue(chunk.getValue(0, 2) instanceof Date);
+        Assert.assertEquals("bad date", chunk.getValue(1, 2));
+        Assert.assertNull(chunk.getValue(2, 2));
+        Assert.assertTrue(chunk.getValue(3, 2) instanceof Date);
+    }
+
+    @Test
+    public void testParseDouble() {
+        double[] result = new double[1];
+        Random random = new Random(1);
+        for (int i = 0; i < 100000; i++) {
+            String value = makeDecimalString(random);
+            char[] chars = value.toCharArray();
+            Assert.assertTrue(value, CSVChunkParser.parseDouble(chars, 0, chars.length, result, 0));
+            Assert.assertEquals(value, Double.parseDouble(value), result[0], 0);
+        }
+        for (String value : new String[] { "NaN", "Infinity", "1d", "0x10", " 1", "", "-", ".", "1.2.3" }) {
+            char[] chars = value.toCharArray();
+            Assert.assertFalse(value, CSVChunkParser.parseDouble(chars, 0, chars.length, result, 0));
+        }
+    }
+
+    private static String makeDecimalString(Random random) {
+        StringBuilder value = new StringBuilder();
+        if (random.nextBoolean()) {
+            value.append('-');
+        }
+        int digits = 1 + random.nextInt(20);
+        int point = random.nextInt(digits + 1);
+        for (int i = 0; i < digits; i++) {
+            if (i == point) {
+                value.append('.');
+            }
+            value.append((char) ('0' + random.nextInt(10)));
+        }
+        if (random.nextInt(10) == 0) {
+            value.append('e').append(random.nextInt(40) - 20);
+        }
+        return value.toString();
+    }
+
+    @Test
+    public void testInferColumnTypes() {
+        String text = "1,1.5,a,\n2,3,b,\n";
+        CSVChunkParser.ColumnType[] types = CSVChunkParser.inferColumnTypes(
+            makeParser().parse(text.toCharArray(), false), 100, new Random(1));
+        Assert.assertArrayEquals(new CSVChunkParser.ColumnType[] {
+            CSVChunkParser.ColumnType.LONG,
+            CSVChunkParser.ColumnType.DOUBLE,
+            CSVChunkParser.ColumnType.STRING,
+            CSVChunkParser.ColumnType.STRING
+        }, types);
+    }
+
+}
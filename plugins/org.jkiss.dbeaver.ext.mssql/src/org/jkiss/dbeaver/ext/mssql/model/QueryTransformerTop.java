@@ -50,7 +50,8 @@ public class QueryTransformerTop implements DBCQueryTransformer {
         limitSet = false;
         if (query.isPlainSelect()) {
             try {
-                Statement statement = query.getStatement();
+                // Query statement is shared, modify a private copy
+                Statement statement = query.parseModifiableStatement();
                 if (statement instanceof Select) {
                     Select select = (Select) statement;
                     if (select.getSelectBody() instanceof PlainSelect) {
@@ -0,0 +1,270 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mssql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.mssql.SQLServerUtils;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.utils.BeanUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.*;
+
+/**
+ * Bulk loader based on SQLServerBulkCopy of Microsoft JDBC driver.
+ * Driver classes are not visible to the plugin, so bulk copy is accessed via reflection and
+ * rows are passed as a proxy of driver's ISQLServerBulkRecord.
+ */
+class SQLServerBulkLoader implements DBSDataBulkLoader {
+
+    private static final Log log = Log.getLog(SQLServerBulkLoader.class);
+
+    private static final String BULK_COPY_CLASS = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopy";
+    private static final String BULK_COPY_OPTIONS_CLASS = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions";
+    private static final String BULK_RECORD_CLASS = "com.microsoft.sqlserver.jdbc.ISQLServerBulkRecord";
+
+    @Nullable
+    @Override
+    public DBSDataManipulator.ExecuteBatch createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataManipulator dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source) throws DBCException
+    {
+        if (!(session instanceof JDBCSession)) {
+            return null;
+        }
+        if (SQLServerUtils.isDriverJtds(session.getDataSource().getContainer().getDriver())) {
+            log.info("Bulk copy is not supported by jTDS driver");
+            return null;
+        }
+        for (DBSAttributeBase attr : attributes) {
+            switch (attr.getDataKind()) {
+                case BOOLEAN:
+                case NUMERIC:
+                case STRING:
+                case DATETIME:
+                case BINARY:
+                    break;
+                default:
+                    log.info("Column '" + attr.getName() + "' has type which can't be loaded with bulk copy");
+                    return null;
+            }
+        }
+        Class<?> bulkCopyClass, recordClass;
+        try {
+            ClassLoader driverClassLoader = ((JDBCSession) session).getOriginal().getClass().getClassLoader();
+            bulkCopyClass = Class.forName(BULK_COPY_CLASS, true, driverClassLoader);
+            recordClass = Class.forName(BULK_RECORD_CLASS, true, driverClassLoader);
+        } catch (Throwable e) {
+            log.info("SQL Server bulk copy API is not available: " + e.getMessage());
+            return null;
+        }
+
+        return new BulkCopyBatch(
+            attributes,
+            bulkCopyClass,
+            recordClass,
+            DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML));
+    }
+
+    private static class BulkCopyBatch implements DBSDataManipulator.ExecuteBatch {
+
+        private final DBSAttributeBase[] attributes;
+        private final Class<?> bulkCopyClass;
+        private final Class<?> recordClass;
+        private final String tableName;
+        private final List<Object[]> rows = new ArrayList<>();
+        private boolean loadFailed;
+
+        BulkCopyBatch(DBSAttributeBase[] attributes, Class<?> bulkCopyClass, Class<?> recordClass, String tableName) {
+            this.attributes = attributes;
+            this.bulkCopyClass = bulkCopyClass;
+            this.recordClass = recordClass;
+            this.tableName = tableName;
+        }
+
+        @Override
+        public void add(@NotNull Object[] attributeValues) throws DBCException {
+            if (attributeValues.length != attributes.length) {
+                throw new DBCException("Bad attribute values count: " + attributeValues.length + " (" + attributes.length + " expected)");
+            }
+            if (loadFailed) {
+                // Failed batch was skipped by the caller
+                rows.clear();
+                loadFailed = false;
+            }
+            rows.add(attributeValues);
+        }
+
+        @NotNull
+        @Override
+        public DBCStatistics execute(@NotNull DBCSession session) throws DBCException {
+            DBCStatistics statistics = new DBCStatistics();
+            if (rows.isEmpty()) {
+                return statistics;
+            }
+            long startTime = System.currentTimeMillis();
+            Object bulkCopy = null;
+            try {
+                bulkCopy = bulkCopyClass.getConstructor(Connection.class).newInstance(((JDBCSession) session).getOriginal());
+                BeanUtils.invokeObjectMethod(bulkCopy, "setDestinationTableName", new Class[]{String.class}, new Object[]{tableName});
+                boolean keepIdentity = false;
+                for (int i = 0; i < attributes.length; i++) {
+                    // Source columns are mapped by name, so the target may have other columns
+                    BeanUtils.invokeObjectMethod(
+                        bulkCopy,
+                        "addColumnMapping",
+                        new Class[]{int.class, String.class},
+                        new Object[]{i + 1, attributes[i].getName()});
+                    keepIdentity |= attributes[i].isAutoGenerated();
+                }
+                if (keepIdentity) {
+                    Class<?> optionsClass = Class.forName(BULK_COPY_OPTIONS_CLASS, true, bulkCopyClass.getClassLoader());
+                    Object options = optionsClass.getConstructor().newInstance();
+                    BeanUtils.invokeObjectMethod(options, "setKeepIdentity", new Class[]{boolean.class}, new Object[]{true});
+                    BeanUtils.invokeObjectMethod(bulkCopy, "setBulkCopyOptions", new Class[]{optionsClass}, new Object[]{options});
+                }
+                Object record = Proxy.newProxyInstance(
+                    recordClass.getClassLoader(),
+                    new Class[]{recordClass},
+                    new BulkRecordHandler(attributes, rows.iterator()));
+                BeanUtils.invokeObjectMethod(bulkCopy, "writeToServer", new Class[]{recordClass}, new Object[]{record});
+            } catch (Throwable e) {
+                // Rows are kept, so the batch may be loaded again
+                loadFailed = true;
+                throw new DBCException("Error copying data into table", e, session.getExecutionContext());
+            } finally {
+                if (bulkCopy != null) {
+                    try {
+                        BeanUtils.invokeObjectMethod(bulkCopy, "close");
+                    } catch (Throwable e) {
+                        log.debug("Error closing bulk copy: " + e.getMessage());
+                    }
+                }
+            }
+            statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+            statistics.addStatementsCount();
+            statistics.addRowsUpdated(rows.size());
+            rows.clear();
+            loadFailed = false;
+            return statistics;
+        }
+
+        @Override
+        public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions, Map<String, Object> options) throws DBCException {
+            throw new DBCException("Bulk load can't be represented as SQL script");
+        }
+
+        @Override
+        public void close() {
+            rows.clear();
+            loadFailed = false;
+        }
+    }
+
+    /**
+     * ISQLServerBulkRecord implementation. Column ordinals are 1-based.
+     */
+    private static class BulkRecordHandler implements InvocationHandler {
+
+        private final DBSAttributeBase[] attributes;
+        private final Iterator<Object[]> rowIterator;
+        private Object[] currentRow;
+
+        BulkRecordHandler(DBSAttributeBase[] attributes, Iterator<Object[]> rowIterator) {
+            this.attributes = attributes;
+            this.rowIterator = rowIterator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getColumnOrdinals": {
+                    Set<Integer> ordinals = new LinkedHashSet<>();
+                    for (int i = 1; i <= attributes.length; i++) {
+                        ordinals.add(i);
+                    }
+                    return ordinals;
+                }
+                case "getColumnName":
+                    return getAttribute(args).getName();
+                case "getColumnType":
+                    return getAttribute(args).getTypeID();
+                case "getPrecision":
+                    return getPrecision(getAttribute(args));
+                case "getScale": {
+                    Integer scale = getAttribute(args).getScale();
+                    return scale == null ? 0 : scale;
+                }
+                case "isAutoIncrement":
+                    return getAttribute(args).isAutoGenerated();
+                case "next":
+                    currentRow = rowIterator.hasNext() ? rowIterator.next() : null;
+                    return currentRow != null;
+                case "getRowData":
+                    return currentRow;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Bulk record";
+            }
+            // Optional methods of newer driver versions (e.g. date/time formatters)
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            } else if (returnType == int.class) {
+                return 0;
+            }
+            return null;
+        }
+
+        private DBSAttributeBase getAttribute(Object[] args) {
+            return attributes[(Integer) args[0] - 1];
+        }
+
+        private static int getPrecision(DBSAttributeBase attribute) {
+            switch (attribute.getDataKind()) {
+                case STRING:
+                case BINARY:
+                    long maxLength = attribute.getMaxLength();
+                    return maxLength <= 0 || maxLength > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) maxLength;
+                default:
+                    Integer precision = attribute.getPrecision();
+                    return precision == null ? 0 : precision;
+            }
+        }
+    }
+
+}
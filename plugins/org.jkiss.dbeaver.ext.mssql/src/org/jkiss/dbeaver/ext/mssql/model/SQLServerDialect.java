@@ -148,6 +148,12 @@ public class SQLServerDialect extends JDBCSQLDialect {
         }
     }
 
+    @Override
+    public int getMaxStatementParameters() {
+        // RPC call limit is 2100 parameters
+        return 2000;
+    }
+
     @Override
     public String getColumnTypeModifiers(DBPDataSource dataSource, @NotNull DBSTypedObject column, @NotNull String typeName, @NotNull DBPDataKind dataKind) {
         if (dataKind == DBPDataKind.DATETIME) {
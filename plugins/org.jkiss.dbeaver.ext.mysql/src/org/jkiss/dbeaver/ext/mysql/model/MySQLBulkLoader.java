@@ -0,0 +1,171 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.data.AbstractTextBulkLoadBatch;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.utils.BeanUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+
+/**
+ * Bulk loader based on LOAD DATA LOCAL INFILE.
+ * The driver reads the input stream only while the statement is executed, so rows are spooled to a temporary file.
+ * Works only if local infile is enabled in driver properties (allowLoadLocalInfile=true).
+ */
+class MySQLBulkLoader implements DBSDataBulkLoader {
+
+    private static final Log log = Log.getLog(MySQLBulkLoader.class);
+
+    static final String PROP_ALLOW_LOCAL_INFILE = "allowLoadLocalInfile";
+
+    @Nullable
+    @Override
+    public DBSDataManipulator.ExecuteBatch createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataManipulator dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source) throws DBCException
+    {
+        if (!(session instanceof JDBCSession)) {
+            return null;
+        }
+        if (!CommonUtils.toBoolean(session.getDataSource().getContainer().getConnectionConfiguration().getProperty(PROP_ALLOW_LOCAL_INFILE))) {
+            log.info("LOAD DATA LOCAL INFILE is disabled. Set driver property " + PROP_ALLOW_LOCAL_INFILE + "=true to use bulk load.");
+            return null;
+        }
+        for (DBSAttributeBase attr : attributes) {
+            if (attr.getDataKind() == DBPDataKind.CONTENT || attr.getDataKind() == DBPDataKind.BINARY) {
+                log.info("Column '" + attr.getName() + "' has binary or LOB type which can't be loaded with LOAD DATA");
+                return null;
+            }
+        }
+        StringBuilder sql = new StringBuilder();
+        sql.append("LOAD DATA LOCAL INFILE 'stream' INTO TABLE ").append(DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML))
+            .append(" CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (");
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) sql.append(',');
+            sql.append(DBUtils.getQuotedIdentifier(session.getDataSource(), attributes[i].getName()));
+        }
+        sql.append(")");
+
+        return new LoadDataBatch(session, attributes, sql.toString());
+    }
+
+    private static class LoadDataBatch extends AbstractTextBulkLoadBatch {
+
+        private final String loadSQL;
+        private File dataFile;
+
+        LoadDataBatch(DBCSession session, DBSAttributeBase[] attributes, String loadSQL) {
+            super(session, attributes);
+            this.loadSQL = loadSQL;
+        }
+
+        @Override
+        protected void appendNull(@NotNull StringBuilder buffer) {
+            buffer.append("\\N");
+        }
+
+        @Override
+        protected void appendValue(@NotNull StringBuilder buffer, int index, @NotNull Object value) {
+            String text;
+            if (value instanceof Boolean) {
+                text = (Boolean) value ? "1" : "0";
+            } else if (value instanceof String) {
+                text = (String) value;
+            } else {
+                text = getValueText(index, value);
+            }
+            buffer.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\': buffer.append("\\\\"); break;
+                    case '"': buffer.append("\\\""); break;
+                    case '\n': buffer.append("\\n"); break;
+                    case '\r': buffer.append("\\r"); break;
+                    case '\0': buffer.append("\\0"); break;
+                    default: buffer.append(c); break;
+                }
+            }
+            buffer.append('"');
+        }
+
+        @NotNull
+        @Override
+        protected Writer openLoad(@NotNull DBCSession session) throws IOException {
+            File tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "bulk-load");
+            dataFile = File.createTempFile("mysql-load", ".csv", tempFolder);
+            return new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(dataFile), 64 * 1024), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        protected long finishLoad(@NotNull DBCSession session) throws DBCException {
+            // Data file is kept on error, so the batch may be loaded again
+            long rowsLoaded;
+            try (InputStream dataStream = new FileInputStream(dataFile);
+                 Statement dbStat = ((JDBCSession) session).getOriginal().createStatement())
+            {
+                BeanUtils.invokeObjectMethod(
+                    dbStat,
+                    "setLocalInfileInputStream",
+                    new Class[]{InputStream.class},
+                    new Object[]{dataStream});
+                rowsLoaded = dbStat.executeUpdate(loadSQL);
+            } catch (Throwable e) {
+                throw new DBCException("Error loading data into table", e, session.getExecutionContext());
+            }
+            discardLoad();
+            return rowsLoaded;
+        }
+
+        @Override
+        protected void discardLoad() {
+            if (dataFile != null) {
+                if (!dataFile.delete()) {
+                    log.debug("Can't delete bulk load file '" + dataFile.getAbsolutePath() + "'");
+                }
+                dataFile = null;
+            }
+        }
+    }
+
+}
@@ -47,7 +47,8 @@ public class QueryTransformerRowNum implements DBCQueryTransformer {
         long totalRows = offset.longValue() + length.longValue();
         if (query.isPlainSelect()) {
             try {
-                Statement statement = query.getStatement();
+                // Query statement is shared, modify a private copy
+                Statement statement = query.parseModifiableStatement();
                 if (statement instanceof Select) {
                     Select select = (Select) statement;
                     if (select.getSelectBody() instanceof PlainSelect) {
@@ -535,6 +535,27 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
             }
         }
 
+        @Nullable
+        @Override
+        protected String readSnapshotMarker(@NotNull JDBCSession session, @NotNull OracleSchema owner) throws SQLException {
+            // DDL and comments update LAST_DDL_TIME, statistics gathering updates LAST_ANALYZED (NUM_ROWS)
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT " + OracleUtils.getSysCatalogHint(owner.getDataSource()) + " COUNT(*),MAX(o.LAST_DDL_TIME),SUM(CASE WHEN o.STATUS='VALID' THEN 1 ELSE 0 END)," +
+                "(SELECT MAX(t.LAST_ANALYZED) FROM " + OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), owner.getDataSource(), "TABLES") + " t WHERE t.OWNER=?)\n" +
+                "FROM " + OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), owner.getDataSource(), "OBJECTS") + " o\n" +
+                "WHERE o.OWNER=? AND o.OBJECT_TYPE IN ('TABLE','VIEW')"))
+            {
+                dbStat.setString(1, owner.getName());
+                dbStat.setString(2, owner.getName());
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    if (!dbResult.next()) {
+                        return null;
+                    }
+                    return dbResult.getString(1) + ":" + dbResult.getString(2) + ":" + dbResult.getString(3) + ":" + dbResult.getString(4);
+                }
+            }
+        }
+
         @Override
         protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull OracleSchema owner, @Nullable OracleTableBase forTable)
             throws SQLException
@@ -0,0 +1,203 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.data.AbstractTextBulkLoadBatch;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.utils.BeanUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bulk loader based on COPY ... FROM STDIN.
+ * Driver copy API is accessed via reflection because driver classes are not visible to the plugin.
+ */
+class PostgreBulkLoader implements DBSDataBulkLoader {
+
+    private static final Log log = Log.getLog(PostgreBulkLoader.class);
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Nullable
+    @Override
+    public DBSDataManipulator.ExecuteBatch createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataManipulator dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source) throws DBCException
+    {
+        if (!(session instanceof JDBCSession)) {
+            return null;
+        }
+        for (DBSAttributeBase attr : attributes) {
+            if (attr.getDataKind() == DBPDataKind.CONTENT) {
+                // LOBs and other content can't be formatted as text
+                return null;
+            }
+        }
+        Object copyManager;
+        try {
+            copyManager = BeanUtils.invokeObjectMethod(((JDBCSession) session).getOriginal(), "getCopyAPI");
+        } catch (Throwable e) {
+            log.debug("PostgreSQL copy API is not available: " + e.getMessage());
+            return null;
+        }
+        if (copyManager == null) {
+            return null;
+        }
+        StringBuilder sql = new StringBuilder();
+        sql.append("COPY ").append(DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML)).append(" (");
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) sql.append(',');
+            sql.append(DBUtils.getQuotedIdentifier(session.getDataSource(), attributes[i].getName()));
+        }
+        sql.append(") FROM STDIN WITH (FORMAT csv)");
+
+        return new CopyBatch(session, attributes, copyManager, sql.toString());
+    }
+
+    private static class CopyBatch extends AbstractTextBulkLoadBatch {
+
+        private final Object copyManager;
+        private final String copySQL;
+        private Object copyIn;
+        private Method writeMethod;
+
+        CopyBatch(DBCSession session, DBSAttributeBase[] attributes, Object copyManager, String copySQL) {
+            super(session, attributes);
+            this.copyManager = copyManager;
+            this.copySQL = copySQL;
+        }
+
+        @Override
+        protected void appendNull(@NotNull StringBuilder buffer) {
+            // Unquoted empty string is NULL in CSV format
+        }
+
+        @Override
+        protected void appendValue(@NotNull StringBuilder buffer, int index, @NotNull Object value) {
+            buffer.append('"');
+            if (value instanceof byte[]) {
+                buffer.append("\\x");
+                for (byte b : (byte[]) value) {
+                    buffer.append(HEX_DIGITS[(b >> 4) & 0x0F]).append(HEX_DIGITS[b & 0x0F]);
+                }
+            } else {
+                String text = value instanceof String ? (String) value : getValueText(index, value);
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    if (c == '"') {
+                        buffer.append('"');
+                    }
+                    buffer.append(c);
+                }
+            }
+            buffer.append('"');
+        }
+
+        @NotNull
+        @Override
+        protected Writer openLoad(@NotNull DBCSession session) throws DBCException {
+            try {
+                copyIn = BeanUtils.invokeObjectMethod(
+                    copyManager,
+                    "copyIn",
+                    new Class[]{String.class},
+                    new Object[]{copySQL});
+                writeMethod = copyIn.getClass().getMethod("writeToCopy", byte[].class, int.class, int.class);
+                writeMethod.setAccessible(true);
+            } catch (Throwable e) {
+                discardLoad();
+                throw new DBCException("Error starting copy into table", e, session.getExecutionContext());
+            }
+            // Driver always uses UTF8 client encoding
+            return new OutputStreamWriter(new CopyOutputStream(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        protected long finishLoad(@NotNull DBCSession session) throws DBCException {
+            if (copyIn == null) {
+                throw new DBCException("Copy failed, rows of this batch can't be sent again", null, session.getExecutionContext());
+            }
+            try {
+                Object result = BeanUtils.invokeObjectMethod(copyIn, "endCopy");
+                copyIn = null;
+                return result instanceof Number ? ((Number) result).longValue() : -1;
+            } catch (Throwable e) {
+                discardLoad();
+                throw new DBCException("Error copying data into table", e, session.getExecutionContext());
+            }
+        }
+
+        @Override
+        protected void discardLoad() {
+            if (copyIn != null) {
+                try {
+                    if (Boolean.TRUE.equals(BeanUtils.invokeObjectMethod(copyIn, "isActive"))) {
+                        BeanUtils.invokeObjectMethod(copyIn, "cancelCopy");
+                    }
+                } catch (Throwable e) {
+                    log.debug("Error canceling copy: " + e.getMessage());
+                }
+                copyIn = null;
+            }
+        }
+
+        /**
+         * Passes encoded rows to the copy operation. Closing the stream doesn't end the copy.
+         */
+        private class CopyOutputStream extends OutputStream {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(@NotNull byte[] b, int off, int len) throws IOException {
+                if (copyIn == null) {
+                    throw new IOException("Copy operation is not active");
+                }
+                try {
+                    writeMethod.invoke(copyIn, b, off, len);
+                } catch (InvocationTargetException e) {
+                    throw new IOException(e.getTargetException());
+                } catch (IllegalAccessException e) {
+                    throw new IOException(e);
+                }
+            }
+        }
+    }
+
+}
@@ -354,6 +354,8 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
             return adapter.cast(new PostgreSessionManager(this));
         } else if (adapter == DBCQueryPlanner.class) {
             return adapter.cast(new PostgreQueryPlaner(this));
+        } else if (adapter == DBSDataBulkLoader.class) {
+            return adapter.cast(new PostgreBulkLoader());
         }
         return super.getAdapter(adapter);
     }
@@ -767,6 +767,12 @@ public class PostgreDialect extends JDBCSQLDialect {
         return MultiValueInsertMode.GROUP_ROWS;
     }
 
+    @Override
+    public int getMaxStatementParameters() {
+        // Protocol limit (parameters count is Int16)
+        return Short.MAX_VALUE;
+    }
+
     @Override
     public String[][] getBlockBoundStrings() {
         return BLOCK_BOUND_KEYWORDS;
@@ -35,7 +35,9 @@ import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.utils.CommonUtils;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -187,6 +189,33 @@ public class PostgreExecutionContext extends JDBCExecutionContext implements DBC
         return true;
     }
 
+    /**
+     * Drops session settings, temporary tables, prepared statements, cursors, listeners and advisory locks.
+     * Bootstrap queries are run again. Search path is restored by refreshDefaults when the context is borrowed.
+     */
+    @Override
+    protected boolean resetSessionState(@NotNull Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        if (!autoCommit) {
+            // DISCARD ALL can't run inside a transaction block
+            connection.setAutoCommit(true);
+        }
+        try (Statement dbStat = connection.createStatement()) {
+            dbStat.execute("DISCARD ALL");
+            List<String> initQueries = getBootstrapSettings().getInitQueries();
+            if (!CommonUtils.isEmpty(initQueries)) {
+                for (String query : initQueries) {
+                    dbStat.execute(query);
+                }
+            }
+        } finally {
+            if (!autoCommit) {
+                connection.setAutoCommit(false);
+            }
+        }
+        return true;
+    }
+
     public String getActiveUser() {
         return activeUser;
     }
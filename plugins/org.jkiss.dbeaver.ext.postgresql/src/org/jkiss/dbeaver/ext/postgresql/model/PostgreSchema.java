@@ -617,6 +617,34 @@ public class PostgreSchema implements
             return container.getDataSource().getServerType().createRelationOfClass(PostgreSchema.this, kind, dbResult);
         }
 
+        @Nullable
+        @Override
+        protected String readSnapshotMarker(@NotNull JDBCSession session, @NotNull PostgreTableContainer container) throws SQLException {
+            // Inserts and updates of catalog rows change max(xmin), deletes change row counts
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT count(*),max(c.xmin::text::bigint),sum(c.relfilenode::bigint)," +
+                "(SELECT count(*)||'/'||coalesce(max(a.xmin::text::bigint),0) FROM pg_catalog.pg_attribute a INNER JOIN pg_catalog.pg_class ac ON ac.oid=a.attrelid WHERE ac.relnamespace=?)," +
+                "(SELECT count(*)||'/'||coalesce(max(ad.xmin::text::bigint),0) FROM pg_catalog.pg_attrdef ad INNER JOIN pg_catalog.pg_class dc ON dc.oid=ad.adrelid WHERE dc.relnamespace=?)," +
+                "(SELECT count(*)||'/'||coalesce(max(d.xmin::text::bigint),0) FROM pg_catalog.pg_description d INNER JOIN pg_catalog.pg_class dc ON dc.oid=d.objoid WHERE dc.relnamespace=?)\n" +
+                "FROM pg_catalog.pg_class c WHERE c.relnamespace=?"))
+            {
+                for (int i = 1; i <= 4; i++) {
+                    dbStat.setLong(i, getObjectId());
+                }
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    if (!dbResult.next()) {
+                        return null;
+                    }
+                    StringBuilder marker = new StringBuilder();
+                    for (int i = 1; i <= 6; i++) {
+                        if (i > 1) marker.append(':');
+                        marker.append(dbResult.getString(i));
+                    }
+                    return marker.toString();
+                }
+            }
+        }
+
         protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull PostgreTableContainer container)
             throws SQLException {
             String sql = "SELECT c.relname,a.*,pg_catalog.pg_get_expr(ad.adbin, ad.adrelid, true) as def_value,dsc.description" +
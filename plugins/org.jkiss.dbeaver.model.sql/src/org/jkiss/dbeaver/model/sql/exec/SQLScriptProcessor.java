@@ -28,9 +28,11 @@ import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.*;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptElementIterator;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -40,7 +42,8 @@ public class SQLScriptProcessor {
     private static final String STAT_LOG_PREFIX = "-----------------> ";
 
     private final DBCExecutionContext executionContext;
-    private final List<SQLScriptElement> queries;
+    private final Iterator<SQLScriptElement> queries;
+    private final int queryCount;
     private final SQLScriptContext scriptContext;
     private final DBDDataReceiver dataReceiver;
     private final Log log;
@@ -61,7 +64,26 @@ public class SQLScriptProcessor {
         @NotNull DBDDataReceiver dataReceiver,
         @NotNull Log log) {
         this.executionContext = executionContext;
+        this.queries = queries.iterator();
+        this.queryCount = queries.size();
+        this.scriptContext = scriptContext;
+        this.dataReceiver = dataReceiver;
+        this.log = log;
+    }
+
+    /**
+     * Creates processor which executes script elements while the rest of the script is being parsed.
+     * Progress is reported by the script text offset.
+     */
+    public SQLScriptProcessor(
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull SQLScriptElementIterator queries,
+        @NotNull SQLScriptContext scriptContext,
+        @NotNull DBDDataReceiver dataReceiver,
+        @NotNull Log log) {
+        this.executionContext = executionContext;
         this.queries = queries;
+        this.queryCount = -1;
         this.scriptContext = scriptContext;
         this.dataReceiver = dataReceiver;
         this.log = log;
@@ -108,9 +130,17 @@ public class SQLScriptProcessor {
                     txnManager.setAutoCommit(monitor, newAutoCommit);
                 }
 
-                monitor.beginTask("Execute queries (" + queries.size() + ")", queries.size());
+                SQLScriptElementIterator scriptIterator = queries instanceof SQLScriptElementIterator ? (SQLScriptElementIterator) queries : null;
+                int scanOffset = 0;
+                if (scriptIterator != null) {
+                    scanOffset = scriptIterator.getScanOffset();
+                    monitor.beginTask("Execute queries", scriptIterator.getEndOffset() - scanOffset);
+                } else {
+                    monitor.beginTask("Execute queries (" + queryCount + ")", queryCount);
+                }
 
-                for (SQLScriptElement query : queries) {
+                while (queries.hasNext()) {
+                    SQLScriptElement query = queries.next();
                     if (monitor.isCanceled()) {
                         break;
                     }
@@ -129,7 +159,12 @@ public class SQLScriptProcessor {
                         }
                     }
 
-                    monitor.worked(1);
+                    if (scriptIterator != null) {
+                        monitor.worked(scriptIterator.getScanOffset() - scanOffset);
+                        scanOffset = scriptIterator.getScanOffset();
+                    } else {
+                        monitor.worked(1);
+                    }
                 }
                 monitor.done();
 
@@ -161,6 +196,11 @@ public class SQLScriptProcessor {
             }
         } catch (Throwable ex) {
             throw new DBCException("Error during SQL script execution", ex);
+        } finally {
+            if (queries instanceof SQLScriptElementIterator) {
+                // Releases the script reader if script wasn't read till the end
+                ((SQLScriptElementIterator) queries).close();
+            }
         }
 
         if (lastError != null && errorHandling != SQLScriptErrorHandling.IGNORE) {
@@ -0,0 +1,207 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy script splitter.
+ * Script elements are extracted one by one when requested, so script processing may start
+ * before the whole script is scanned and the caller may stop scanning at any element.
+ * Iterator must be closed if it wasn't read till the end.
+ * Script may be read from a Reader. Then the document holds only a window of the script text,
+ * so the memory doesn't depend on the script size.
+ */
+public class SQLScriptElementIterator implements Iterator<SQLScriptElement>, AutoCloseable {
+
+    // Reader is read by chunks of this size
+    private static final int READ_CHUNK_SIZE = 1024 * 1024;
+    // Element is taken only if there is enough text after it. Otherwise its last token might be cut by the window end.
+    private static final int WINDOW_END_MARGIN = 4096;
+
+    private final SQLParserContext parserContext;
+    private int endOffset;
+    private final boolean scriptMode;
+    private final boolean keepDelimiters;
+    private final boolean parseParameters;
+
+    private int queryOffset;
+    private SQLScriptElement nextElement;
+    private boolean finished;
+
+    // Reader mode
+    private final Reader reader;
+    private final long sourceLength;
+    private long windowOffset;
+    private boolean readerEOF = true;
+
+    public SQLScriptElementIterator(SQLParserContext parserContext, int startOffset, int length, boolean scriptMode, boolean keepDelimiters, boolean parseParameters) {
+        this.parserContext = parserContext;
+        this.queryOffset = startOffset;
+        this.endOffset = startOffset + length;
+        this.scriptMode = scriptMode;
+        this.keepDelimiters = keepDelimiters;
+        this.parseParameters = parseParameters && parserContext.getPreferenceStore().getBoolean(ModelPreferences.SQL_PARAMETERS_ENABLED);
+        this.reader = null;
+        this.sourceLength = -1;
+
+        IDocument document = parserContext.getDocument();
+        if (document.getLength() == 0) {
+            finished = true;
+        } else {
+            parserContext.startScriptEvaluation();
+        }
+    }
+
+    /**
+     * Splits script read from the reader. Parser context document is used as a window: it is refilled
+     * from the reader when the next element doesn't fit in it.
+     * Element offsets are relative to the window in this mode. The reader is not closed by the iterator.
+     *
+     * @param sourceLength approximate length of the script (e.g. file size) used to report progress, or -1
+     */
+    public SQLScriptElementIterator(SQLParserContext parserContext, Reader reader, long sourceLength, boolean scriptMode, boolean keepDelimiters, boolean parseParameters) {
+        this.parserContext = parserContext;
+        this.scriptMode = scriptMode;
+        this.keepDelimiters = keepDelimiters;
+        this.parseParameters = parseParameters && parserContext.getPreferenceStore().getBoolean(ModelPreferences.SQL_PARAMETERS_ENABLED);
+        this.reader = reader;
+        this.sourceLength = sourceLength;
+        this.readerEOF = false;
+
+        parserContext.getDocument().set("");
+        parserContext.startScriptEvaluation();
+    }
+
+    /**
+     * Offset of the text which wasn't scanned yet.
+     * In reader mode it is scaled to the progress range of {@link #getEndOffset()}.
+     */
+    public int getScanOffset() {
+        if (reader == null) {
+            return queryOffset;
+        }
+        long scanOffset = windowOffset + queryOffset;
+        if (sourceLength <= 0) {
+            return 0;
+        }
+        return (int) (Math.min(scanOffset, sourceLength) / getProgressScale());
+    }
+
+    /**
+     * Length of the whole scanned range.
+     * In reader mode it is the source length scaled to fit in int, or 0 if length is unknown.
+     */
+    public int getEndOffset() {
+        if (reader == null) {
+            return endOffset;
+        }
+        return sourceLength <= 0 ? 0 : (int) (sourceLength / getProgressScale());
+    }
+
+    private long getProgressScale() {
+        return sourceLength / Integer.MAX_VALUE + 1;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (nextElement == null && !finished) {
+            if (reader != null && !readerEOF && endOffset - queryOffset < WINDOW_END_MARGIN * 2) {
+                readNextChunk();
+            }
+            SQLScriptElement element = SQLScriptParser.parseQuery(
+                parserContext, queryOffset, endOffset, queryOffset, scriptMode, keepDelimiters);
+            if (reader != null && !readerEOF && (element == null || element.getOffset() + element.getLength() > endOffset - WINDOW_END_MARGIN)) {
+                // Element may continue after the window end
+                readNextChunk();
+                continue;
+            }
+            if (element == null) {
+                close();
+            } else {
+                queryOffset = element.getOffset() + element.getLength();
+                nextElement = element;
+            }
+        }
+        return nextElement != null;
+    }
+
+    /**
+     * Drops the scanned text from the window and appends the next chunk of the reader.
+     * Window grows if an element is bigger than the chunk.
+     */
+    private void readNextChunk() {
+        IDocument document = parserContext.getDocument();
+        try {
+            StringBuilder text = new StringBuilder(endOffset - queryOffset + READ_CHUNK_SIZE);
+            text.append(document.get(queryOffset, endOffset - queryOffset));
+            char[] buffer = new char[8192];
+            for (int readCount = 0; readCount < READ_CHUNK_SIZE; ) {
+                int count = reader.read(buffer, 0, Math.min(buffer.length, READ_CHUNK_SIZE - readCount));
+                if (count < 0) {
+                    readerEOF = true;
+                    break;
+                }
+                text.append(buffer, 0, count);
+                readCount += count;
+            }
+            windowOffset += queryOffset;
+            queryOffset = 0;
+            document.set(text.toString());
+            endOffset = document.getLength();
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Error reading script", e);
+        } catch (BadLocationException e) {
+            close();
+            throw new IllegalStateException("Bad script window position", e);
+        }
+    }
+
+    @Override
+    public SQLScriptElement next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SQLScriptElement element = nextElement;
+        nextElement = null;
+        if (parseParameters && element instanceof SQLQuery) {
+            SQLQuery query = (SQLQuery) element;
+            query.setParameters(SQLScriptParser.parseParameters(parserContext, query.getOffset(), query.getLength()));
+        }
+        return element;
+    }
+
+    @Override
+    public void close() {
+        if (!finished) {
+            finished = true;
+            parserContext.endScriptEvaluation();
+        }
+    }
+
+}
@@ -34,6 +34,7 @@ import org.jkiss.dbeaver.model.text.parser.TPTokenDefault;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -707,40 +708,43 @@ public class SQLScriptParser
 
     public static List<SQLScriptElement> extractScriptQueries(SQLParserContext parserContext, int startOffset, int length, boolean scriptMode, boolean keepDelimiters, boolean parseParameters) {
         List<SQLScriptElement> queryList = new ArrayList<>();
-
-        IDocument document = parserContext.getDocument();
-        if (document.getLength() == 0) {
-            return queryList;
-        }
-
-        parserContext.startScriptEvaluation();
-        try {
-            for (int queryOffset = startOffset; ; ) {
-                SQLScriptElement query = parseQuery(
-                    parserContext, queryOffset, startOffset + length, queryOffset, scriptMode, keepDelimiters);
-                if (query == null) {
-                    break;
-                }
-                queryList.add(query);
-                queryOffset = query.getOffset() + query.getLength();
+        try (SQLScriptElementIterator iterator = new SQLScriptElementIterator(parserContext, startOffset, length, scriptMode, keepDelimiters, parseParameters)) {
+            while (iterator.hasNext()) {
+                queryList.add(iterator.next());
             }
-        } finally {
-            parserContext.endScriptEvaluation();
         }
+        return queryList;
+    }
 
-        if (parseParameters && parserContext.getPreferenceStore().getBoolean(ModelPreferences.SQL_PARAMETERS_ENABLED)) {
-            // Parse parameters
-            for (SQLScriptElement element : queryList) {
-                if (element instanceof SQLQuery) {
-                    SQLQuery query = (SQLQuery) element;
-                    (query).setParameters(parseParameters(parserContext, query.getOffset(), query.getLength()));
-                }
+    public static List<SQLScriptElement> parseScript(DBCExecutionContext executionContext, String sqlScriptContent) {
+        List<SQLScriptElement> queryList = new ArrayList<>();
+        try (SQLScriptElementIterator iterator = openScript(executionContext, sqlScriptContent)) {
+            while (iterator.hasNext()) {
+                queryList.add(iterator.next());
             }
         }
         return queryList;
     }
 
-    public static List<SQLScriptElement> parseScript(DBCExecutionContext executionContext, String sqlScriptContent) {
+    /**
+     * Opens lazy script splitter. Script elements are parsed when requested.
+     */
+    public static SQLScriptElementIterator openScript(DBCExecutionContext executionContext, String sqlScriptContent) {
+        SQLParserContext parserContext = createScriptParserContext(executionContext, new Document(sqlScriptContent));
+        return new SQLScriptElementIterator(parserContext, 0, sqlScriptContent.length(), true, false, true);
+    }
+
+    /**
+     * Opens lazy script splitter which reads script text from the reader.
+     * Only the part of the script which is being parsed is kept in memory.
+     * @param sourceLength approximate script length used for progress reporting, or -1 if unknown
+     */
+    public static SQLScriptElementIterator openScript(DBCExecutionContext executionContext, Reader reader, long sourceLength) {
+        SQLParserContext parserContext = createScriptParserContext(executionContext, new Document());
+        return new SQLScriptElementIterator(parserContext, reader, sourceLength, true, false, true);
+    }
+
+    private static SQLParserContext createScriptParserContext(DBCExecutionContext executionContext, Document sqlDocument) {
         DBPContextProvider contextProvider = () -> executionContext;
 
         SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
@@ -748,10 +752,7 @@ public class SQLScriptParser
         SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
         ruleManager.loadRules(executionContext.getDataSource(), false);
 
-        Document sqlDocument = new Document(sqlScriptContent);
-
-        SQLParserContext parserContext = new SQLParserContext(contextProvider, syntaxManager, ruleManager, sqlDocument);
-        return SQLScriptParser.extractScriptQueries(parserContext, 0, sqlScriptContent.length(), true, false, true);
+        return new SQLParserContext(contextProvider, syntaxManager, ruleManager, sqlDocument);
     }
 
     private static class ScriptBlockInfo {
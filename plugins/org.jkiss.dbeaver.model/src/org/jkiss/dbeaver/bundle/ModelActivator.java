@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.bundle;
 
 import org.eclipse.core.runtime.Plugin;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.osgi.framework.BundleContext;
 
 /**
@@ -52,6 +53,7 @@ public class ModelActivator extends Plugin
     public void stop(BundleContext context)
         throws Exception
     {
+        DBNDatabaseNode.shutdownLoadExecutor();
         instance = null;
 
         super.stop(context);
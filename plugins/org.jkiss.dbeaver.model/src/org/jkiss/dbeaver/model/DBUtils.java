@@ -1687,7 +1687,12 @@ public final class DBUtils {
     @SuppressWarnings("unchecked")
     @NotNull
     public static <T extends DBCSession> T openMetaSession(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource dataSource, @NotNull String task) {
-        return (T) dataSource.getDefaultInstance().getDefaultContext(monitor, true).openSession(monitor, DBCExecutionPurpose.META, task);
+        DBSInstance instance = dataSource.getDefaultInstance();
+        DBCExecutionContext context = DBExecUtils.getThreadMetaContext(instance);
+        if (context == null) {
+            context = instance.getDefaultContext(monitor, true);
+        }
+        return (T) context.openSession(monitor, DBCExecutionPurpose.META, task);
     }
 
     @SuppressWarnings("unchecked")
@@ -1944,9 +1949,16 @@ public final class DBUtils {
             return null;
         }
         DBSInstance instance = getObjectOwnerInstance(object);
-        return instance == null || (instance instanceof DBSInstanceLazy && !((DBSInstanceLazy) instance).isInstanceConnected()) ?
-            null :
-            instance.getDefaultContext(new VoidProgressMonitor(), meta);
+        if (instance == null || (instance instanceof DBSInstanceLazy && !((DBSInstanceLazy) instance).isInstanceConnected())) {
+            return null;
+        }
+        if (meta) {
+            DBCExecutionContext threadContext = DBExecUtils.getThreadMetaContext(instance);
+            if (threadContext != null) {
+                return threadContext;
+            }
+        }
+        return instance.getDefaultContext(new VoidProgressMonitor(), meta);
     }
 
     public static DBCExecutionContext getOrOpenDefaultContext(DBSObject object, boolean meta) {
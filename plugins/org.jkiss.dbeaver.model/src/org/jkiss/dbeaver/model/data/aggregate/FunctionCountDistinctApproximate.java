@@ -0,0 +1,119 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Approximate distinct count (HyperLogLog).
+ * Uses fixed 16K registers, standard error is about 0.8%.
+ * Values are compared as numbers (numeric strings too) unless they are aggregated as strings.
+ * Null is counted as one distinct value, like in exact distinct count.
+ */
+public class FunctionCountDistinctApproximate implements IAggregateFunction {
+
+    private static final int PRECISION = 14;
+    private static final int REGISTER_COUNT = 1 << PRECISION;
+
+    private final byte[] registers = new byte[REGISTER_COUNT];
+    private boolean hasNull;
+
+    @Override
+    public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        if (value == null) {
+            if (hasNull) {
+                return false;
+            }
+            hasNull = true;
+            return true;
+        }
+        long hash = mix(aggregateAsStrings ? hashString(value.toString()) : hashValue(value));
+        int index = (int) (hash >>> (64 - PRECISION));
+        // Position of the first set bit in the remaining bits
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+        return true;
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        double sum = 0;
+        int zeroRegisters = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeroRegisters++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+        double estimate = alpha * REGISTER_COUNT * REGISTER_COUNT / sum;
+        if (estimate <= 2.5 * REGISTER_COUNT && zeroRegisters > 0) {
+            // Small cardinality - linear counting is more accurate
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeroRegisters);
+        }
+        if (hasNull) {
+            estimate++;
+        }
+        return Math.min(Math.round(estimate), (long) valueCount);
+    }
+
+    private static long hashValue(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            // Primitive fast path, no string conversion
+            return ((Number) value).longValue();
+        }
+        Number number = FunctionNumeric.getNumeric(value);
+        if (number != null) {
+            double doubleValue = number.doubleValue();
+            if (doubleValue == Math.rint(doubleValue) && Math.abs(doubleValue) < Long.MAX_VALUE) {
+                // Integral value must have the same hash as the same integer
+                return (long) doubleValue;
+            }
+            return Double.doubleToLongBits(doubleValue);
+        } else if (value instanceof String) {
+            return hashString((String) value);
+        } else {
+            return value.hashCode();
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a. String.hashCode has only 32 bits which is not enough for big cardinalities
+     */
+    private static long hashString(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * MurmurHash3 finalizer. Spreads bits of the value hash over all 64 bits.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53ec62fL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Approximate median of numeric values (KLL quantile sketch).
+ * Memory is bounded by a few hundred values regardless of the number of accumulated values.
+ * Non-numeric values (dates, strings) and values aggregated as strings can't be sketched,
+ * exact median is calculated for them. Non-numeric values which come after numbers are ignored.
+ */
+public class FunctionMedianApproximate implements IAggregateFunction {
+
+    private static final int K = 200;
+    private static final double CAPACITY_FACTOR = 2.0 / 3.0;
+
+    // Compactor of level N holds values with weight 2^N
+    private final List<double[]> levels = new ArrayList<>();
+    private final List<Integer> levelSizes = new ArrayList<>();
+    private final Random random = new Random();
+    private boolean hasNumbers;
+    private FunctionMedian exactMedian;
+
+    public FunctionMedianApproximate() {
+        addLevel();
+    }
+
+    @Override
+    public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        if (exactMedian == null) {
+            Number number = aggregateAsStrings ? null : FunctionNumeric.getNumeric(value);
+            if (number != null) {
+                double doubleValue = number.doubleValue();
+                if (Double.isNaN(doubleValue)) {
+                    return false;
+                }
+                hasNumbers = true;
+                append(0, doubleValue);
+                compress();
+                return true;
+            }
+            if (hasNumbers || FunctionNumeric.getComparable(value, aggregateAsStrings) == null) {
+                return false;
+            }
+            exactMedian = new FunctionMedian();
+        }
+        return exactMedian.accumulate(value, aggregateAsStrings);
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        if (exactMedian != null) {
+            return exactMedian.getResult(valueCount);
+        }
+        // Collect all retained values with their weights and find the middle one
+        int total = 0;
+        for (int size : levelSizes) {
+            total += size;
+        }
+        if (total == 0) {
+            return null;
+        }
+        double[] values = new double[total];
+        long[] weights = new long[total];
+        int pos = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            double[] levelValues = levels.get(level);
+            for (int i = 0; i < levelSizes.get(level); i++) {
+                values[pos] = levelValues[i];
+                weights[pos] = 1L << level;
+                pos++;
+            }
+        }
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (o1, o2) -> Double.compare(values[o1], values[o2]));
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight += weight;
+        }
+        long halfWeight = (totalWeight + 1) / 2;
+        long cumulative = 0;
+        for (Integer index : order) {
+            cumulative += weights[index];
+            if (cumulative >= halfWeight) {
+                return values[index];
+            }
+        }
+        return values[order[total - 1]];
+    }
+
+    private void addLevel() {
+        levels.add(new double[8]);
+        levelSizes.add(0);
+    }
+
+    private void append(int level, double value) {
+        double[] values = levels.get(level);
+        int size = levelSizes.get(level);
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            levels.set(level, values);
+        }
+        values[size] = value;
+        levelSizes.set(level, size + 1);
+    }
+
+    private int getCapacity(int level) {
+        int depth = levels.size() - level - 1;
+        return Math.max(2, (int) Math.ceil(K * Math.pow(CAPACITY_FACTOR, depth)));
+    }
+
+    /**
+     * Compacts overfilled levels: sorts level values and promotes every second of them
+     * (with random offset) to the next level with doubled weight.
+     */
+    private void compress() {
+        for (int level = 0; level < levels.size(); level++) {
+            int size = levelSizes.get(level);
+            if (size < getCapacity(level)) {
+                continue;
+            }
+            if (level == levels.size() - 1) {
+                addLevel();
+            }
+            double[] values = levels.get(level);
+            Arrays.sort(values, 0, size);
+            int start = random.nextBoolean() ? 1 : 0;
+            // Odd value (if any) stays on this level
+            int pairs = size / 2;
+            for (int i = 0; i < pairs; i++) {
+                append(level + 1, values[i * 2 + start]);
+            }
+            if (size % 2 == 1) {
+                values[0] = values[size - 1];
+                levelSizes.set(level, 1);
+            } else {
+                levelSizes.set(level, 0);
+            }
+        }
+    }
+}
@@ -77,12 +77,41 @@ public class DBExecUtils {
      */
     private static final ThreadLocal<DBPDataSourceContainer> ACTIVE_CONTEXT = new ThreadLocal<>();
     private static final List<DBPDataSourceContainer> ACTIVE_CONTEXTS = new ArrayList<>();
+    /**
+     * Execution context used for metadata reads of its instance in the current thread instead of the default meta context
+     */
+    private static final ThreadLocal<DBCExecutionContext> THREAD_META_CONTEXT = new ThreadLocal<>();
     public static final boolean BROWSE_LAZY_ASSOCIATIONS = false;
 
     public static DBPDataSourceContainer getCurrentThreadContext() {
         return ACTIVE_CONTEXT.get();
     }
 
+    /**
+     * Binds meta context to the current thread. Metadata of the context instance is read with this context
+     * until it is unbound (set to null or previous value).
+     * @return previous thread meta context
+     */
+    @Nullable
+    public static DBCExecutionContext setThreadMetaContext(@Nullable DBCExecutionContext context) {
+        DBCExecutionContext prevContext = THREAD_META_CONTEXT.get();
+        if (context == null) {
+            THREAD_META_CONTEXT.remove();
+        } else {
+            THREAD_META_CONTEXT.set(context);
+        }
+        return prevContext;
+    }
+
+    /**
+     * Returns meta context bound to the current thread if it belongs to the specified instance
+     */
+    @Nullable
+    public static DBCExecutionContext getThreadMetaContext(@NotNull DBSInstance instance) {
+        DBCExecutionContext context = THREAD_META_CONTEXT.get();
+        return context != null && context.getOwnerInstance() == instance && context.isConnected() ? context : null;
+    }
+
     public static List<DBPDataSourceContainer> getActiveContexts() {
         synchronized (ACTIVE_CONTEXTS) {
             return new ArrayList<>(ACTIVE_CONTEXTS);
@@ -0,0 +1,183 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk load batch which sends rows to the server as a delimited text stream.
+ * Each row is formatted on add and written to the load stream right away, so the batch doesn't keep rows in memory.
+ * The stream is opened on the first row of a batch and completed on execute.
+ */
+public abstract class AbstractTextBulkLoadBatch implements DBSDataManipulator.ExecuteBatch {
+
+    protected final DBSAttributeBase[] attributes;
+    protected final DBDValueHandler[] handlers;
+    private final DBCSession session;
+    private final StringBuilder buffer = new StringBuilder(1024);
+    private Writer writer;
+    private int rowCount;
+    private boolean loadFailed;
+
+    protected AbstractTextBulkLoadBatch(@NotNull DBCSession session, @NotNull DBSAttributeBase[] attributes) {
+        this.session = session;
+        this.attributes = attributes;
+        this.handlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            if (attributes[i] instanceof DBDAttributeBinding) {
+                handlers[i] = ((DBDAttributeBinding) attributes[i]).getValueHandler();
+            } else {
+                handlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+            }
+        }
+    }
+
+    @Override
+    public void add(@NotNull Object[] attributeValues) throws DBCException {
+        if (attributeValues.length != attributes.length) {
+            throw new DBCException("Bad attribute values count: " + attributeValues.length + " (" + attributes.length + " expected)");
+        }
+        if (loadFailed) {
+            // Failed batch was skipped by the caller
+            discard();
+        }
+        for (int i = 0; i < attributeValues.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            Object value = attributeValues[i];
+            if (DBUtils.isNullValue(value)) {
+                appendNull(buffer);
+            } else {
+                appendValue(buffer, i, value);
+            }
+        }
+        buffer.append('\n');
+        try {
+            if (writer == null) {
+                writer = openLoad(session);
+            }
+            writer.append(buffer);
+        } catch (IOException e) {
+            throw new DBCException("Error writing bulk load data", e, session.getExecutionContext());
+        } finally {
+            buffer.setLength(0);
+        }
+        rowCount++;
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics execute(@NotNull DBCSession session) throws DBCException {
+        DBCStatistics statistics = new DBCStatistics();
+        if (rowCount == 0) {
+            return statistics;
+        }
+        long startTime = System.currentTimeMillis();
+        long rowsLoaded;
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+            // On error the loader keeps the data if it can send it again on retry
+            rowsLoaded = finishLoad(session);
+        } catch (IOException e) {
+            loadFailed = true;
+            throw new DBCException("Error writing bulk load data", e, session.getExecutionContext());
+        } catch (DBCException e) {
+            loadFailed = true;
+            throw e;
+        }
+        statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        statistics.addStatementsCount();
+        statistics.addRowsUpdated(rowsLoaded >= 0 ? rowsLoaded : rowCount);
+        rowCount = 0;
+        loadFailed = false;
+        return statistics;
+    }
+
+    @Override
+    public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions, Map<String, Object> options) throws DBCException {
+        throw new DBCException("Bulk load can't be represented as SQL script");
+    }
+
+    @Override
+    public void close() {
+        discard();
+    }
+
+    private void discard() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // ignore
+            }
+            writer = null;
+        }
+        discardLoad();
+        buffer.setLength(0);
+        rowCount = 0;
+        loadFailed = false;
+    }
+
+    /**
+     * Value text in the native database format
+     */
+    protected String getValueText(int index, @NotNull Object value) {
+        return handlers[index].getValueDisplayString(attributes[index], value, DBDDisplayFormat.NATIVE);
+    }
+
+    protected abstract void appendNull(@NotNull StringBuilder buffer);
+
+    protected abstract void appendValue(@NotNull StringBuilder buffer, int index, @NotNull Object value);
+
+    /**
+     * Starts the load of a new batch.
+     * @return stream for formatted rows. Closing the stream must not complete the load.
+     */
+    @NotNull
+    protected abstract Writer openLoad(@NotNull DBCSession session) throws DBCException, IOException;
+
+    /**
+     * Completes the load after all rows of the batch were written.
+     * @return number of loaded rows or -1 if unknown
+     */
+    protected abstract long finishLoad(@NotNull DBCSession session) throws DBCException;
+
+    /**
+     * Drops the load which wasn't finished or which failed.
+     */
+    protected abstract void discardLoad();
+
+}
@@ -0,0 +1,258 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.edit.SQLDatabasePersistAction;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.*;
+
+/**
+ * Multi-row insert batch.
+ * Groups rows into INSERT ... VALUES (...),(...) statements, each statement inserts up to rowsInStatement rows.
+ * NULL values are not inserted (same as in regular insert) so column defaults apply. Only adjacent rows
+ * with the same set of non-null columns go into one statement, so rows are inserted in the order they were added.
+ * Prepared statements are cached by columns and row count and reused between executions.
+ * At most MAX_CACHED_STATEMENTS statements are kept open, least recently used are closed.
+ */
+public abstract class ExecuteMultiRowBatchImpl implements DBSDataManipulator.ExecuteBatch {
+
+    // Keeps number of server-side prepared statements low (e.g. MySQL max_prepared_stmt_count)
+    private static final int MAX_CACHED_STATEMENTS = 16;
+
+    protected final DBSAttributeBase[] attributes;
+    protected final int rowsInStatement;
+    // Indexes of non-pseudo attributes
+    private final int[] valueIndexes;
+    private final List<Object[]> values = new ArrayList<>();
+    // Inserted columns of each row
+    private final List<BitSet> valueColumns = new ArrayList<>();
+    private final Map<StatementKey, DBCStatement> statements = new LinkedHashMap<StatementKey, DBCStatement>(MAX_CACHED_STATEMENTS * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<StatementKey, DBCStatement> eldest) {
+            if (size() > MAX_CACHED_STATEMENTS) {
+                eldest.getValue().close();
+                return true;
+            }
+            return false;
+        }
+    };
+    private DBDValueHandler[] handlers;
+
+    /**
+     * @param attributes      array of attributes used in batch. Pseudo attributes are skipped.
+     * @param rowsInStatement maximum number of rows in one statement
+     */
+    protected ExecuteMultiRowBatchImpl(@NotNull DBSAttributeBase[] attributes, int rowsInStatement) {
+        this.attributes = attributes;
+        this.rowsInStatement = Math.max(1, rowsInStatement);
+        int[] indexes = new int[attributes.length];
+        int count = 0;
+        for (int i = 0; i < attributes.length; i++) {
+            if (!DBUtils.isPseudoAttribute(attributes[i])) {
+                indexes[count++] = i;
+            }
+        }
+        this.valueIndexes = Arrays.copyOf(indexes, count);
+    }
+
+    @Override
+    public void add(@NotNull Object[] attributeValues) throws DBCException {
+        if (attributeValues.length != attributes.length) {
+            throw new DBCException("Bad attribute values: " + Arrays.toString(attributeValues));
+        }
+        BitSet columns = new BitSet(attributes.length);
+        for (int index : valueIndexes) {
+            if (!DBUtils.isNullValue(attributeValues[index])) {
+                columns.set(index);
+            }
+        }
+        if (columns.isEmpty()) {
+            // All values are null. Insert them explicitly as regular insert does
+            for (int index : valueIndexes) {
+                columns.set(index);
+            }
+        }
+        values.add(attributeValues);
+        valueColumns.add(columns);
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics execute(@NotNull DBCSession session) throws DBCException {
+        DBDValueHandler[] handlers = getValueHandlers(session);
+        DBCStatistics statistics = new DBCStatistics();
+        int rowIndex = 0;
+        while (rowIndex < values.size()) {
+            if (session.getProgressMonitor().isCanceled()) {
+                break;
+            }
+            int rowCount = getStatementRowCount(rowIndex);
+            BitSet columnSet = valueColumns.get(rowIndex);
+            int[] columns = columnSet.stream().toArray();
+            StatementKey key = new StatementKey(columnSet, rowCount);
+            DBCStatement statement = statements.get(key);
+            if (statement == null) {
+                statement = prepareStatement(session, columns, rowCount, Collections.emptyMap());
+                statements.put(key, statement);
+                statistics.setQueryText(statement.getQueryString());
+            }
+            int paramIndex = 0;
+            for (int i = 0; i < rowCount; i++) {
+                Object[] rowValues = values.get(rowIndex + i);
+                for (int k : columns) {
+                    handlers[k].bindValueObject(session, statement, attributes[k], paramIndex++, rowValues[k]);
+                }
+            }
+            long startTime = System.currentTimeMillis();
+            statement.executeStatement();
+            statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+            statistics.addStatementsCount();
+            long updatedRows = statement.getUpdateRowCount();
+            statistics.addRowsUpdated(updatedRows >= 0 ? updatedRows : rowCount);
+            Throwable[] warnings = statement.getStatementWarnings();
+            if (warnings != null) {
+                for (Throwable w : warnings) {
+                    statistics.addWarning(w);
+                }
+            }
+            rowIndex += rowCount;
+            session.getProgressMonitor().subTask("Save batch (" + rowIndex + " of " + values.size() + ")");
+        }
+        clearValues();
+        return statistics;
+    }
+
+    @Override
+    public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions, Map<String, Object> options) throws DBCException {
+        DBDValueHandler[] handlers = getValueHandlers(session);
+        int rowIndex = 0;
+        while (rowIndex < values.size()) {
+            int rowCount = getStatementRowCount(rowIndex);
+            int[] columns = valueColumns.get(rowIndex).stream().toArray();
+            String queryString = makeQuery(columns, rowCount, options);
+            StringBuilder query = new StringBuilder(queryString.length() * 2);
+            int paramIndex = 0;
+            for (int i = 0; i < queryString.length(); i++) {
+                char c = queryString.charAt(i);
+                if (c == '?') {
+                    Object[] rowValues = values.get(rowIndex + paramIndex / columns.length);
+                    int attrIndex = columns[paramIndex % columns.length];
+                    query.append(SQLUtils.convertValueToSQL(session.getDataSource(), attributes[attrIndex], handlers[attrIndex], rowValues[attrIndex]));
+                    paramIndex++;
+                } else {
+                    query.append(c);
+                }
+            }
+            actions.add(new SQLDatabasePersistAction("Execute statement", query.toString()));
+            rowIndex += rowCount;
+        }
+        clearValues();
+    }
+
+    @Override
+    public void close() {
+        for (DBCStatement statement : statements.values()) {
+            statement.close();
+        }
+        statements.clear();
+        clearValues();
+    }
+
+    /**
+     * Returns number of adjacent rows starting from rowIndex which can be inserted with one statement
+     */
+    private int getStatementRowCount(int rowIndex) {
+        BitSet columns = valueColumns.get(rowIndex);
+        int maxIndex = Math.min(values.size(), rowIndex + rowsInStatement);
+        int lastIndex = rowIndex + 1;
+        while (lastIndex < maxIndex && valueColumns.get(lastIndex).equals(columns)) {
+            lastIndex++;
+        }
+        return lastIndex - rowIndex;
+    }
+
+    private void clearValues() {
+        values.clear();
+        valueColumns.clear();
+    }
+
+    private DBDValueHandler[] getValueHandlers(@NotNull DBCSession session) {
+        if (handlers == null) {
+            handlers = new DBDValueHandler[attributes.length];
+            for (int i : valueIndexes) {
+                if (attributes[i] instanceof DBDAttributeBinding) {
+                    handlers[i] = ((DBDAttributeBinding) attributes[i]).getValueHandler();
+                } else {
+                    handlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+                }
+            }
+        }
+        return handlers;
+    }
+
+    /**
+     * Makes query text with (columns count * rowCount) parameters.
+     * Parameter placeholders are '?' and must go in row order.
+     * @param columns indexes of inserted attributes
+     */
+    @NotNull
+    protected abstract String makeQuery(@NotNull int[] columns, int rowCount, Map<String, Object> options);
+
+    @NotNull
+    protected DBCStatement prepareStatement(@NotNull DBCSession session, @NotNull int[] columns, int rowCount, Map<String, Object> options) throws DBCException {
+        String query = makeQuery(columns, rowCount, options);
+        if (CommonUtils.isEmpty(query)) {
+            throw new DBCException("Empty insert query");
+        }
+        return session.prepareStatement(DBCStatementType.QUERY, query, false, false, false);
+    }
+
+    private static class StatementKey {
+        private final BitSet columns;
+        private final int rowCount;
+
+        StatementKey(BitSet columns, int rowCount) {
+            this.columns = columns;
+            this.rowCount = rowCount;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof StatementKey)) {
+                return false;
+            }
+            StatementKey key = (StatementKey) obj;
+            return rowCount == key.rowCount && columns.equals(key.columns);
+        }
+
+        @Override
+        public int hashCode() {
+            return columns.hashCode() * 31 + rowCount;
+        }
+    }
+
+}
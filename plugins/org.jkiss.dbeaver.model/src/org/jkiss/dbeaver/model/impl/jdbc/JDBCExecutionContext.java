@@ -57,6 +57,10 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     private volatile Connection connection;
     private volatile Boolean autoCommit;
     private volatile Integer transactionIsolationLevel;
+    // Isolated context which returns to the instance pool on close
+    private volatile boolean pooled;
+    // Isolation level right after connect. Pooled context is reset to it.
+    private volatile Integer initialIsolationLevel;
 
     public JDBCExecutionContext(@NotNull JDBCRemoteInstance instance, String purpose) {
         super(instance.getDataSource(), purpose);
@@ -84,7 +88,7 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     protected void connect(@NotNull DBRProgressMonitor monitor, Boolean autoCommit, @Nullable Integer txnLevel, JDBCExecutionContext initFrom, boolean addContext) throws DBCException {
         if (connection != null && addContext) {
             log.error("Reopening not-closed connection");
-            close();
+            closeContext(true);
         }
         boolean connectionReadOnly = dataSource.getContainer().isConnectionReadOnly();
         final JDBCRemoteInstance currentInstance = this.instance;
@@ -236,9 +240,86 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
 
     @Override
     public void close() {
+        if (pooled && instance.getIsolatedContextPool().releaseContext(this)) {
+            // Context stays connected in the pool
+            return;
+        }
         closeContext(true);
     }
 
+    void setPooled(boolean pooled) {
+        this.pooled = pooled;
+        Connection connection = this.connection;
+        if (pooled && connection != null) {
+            try {
+                this.initialIsolationLevel = connection.getTransactionIsolation();
+            } catch (Throwable e) {
+                log.debug("Can't read transaction isolation level", e); //$NON-NLS-1$
+            }
+        }
+    }
+
+    /**
+     * Closes context bypassing the pool
+     */
+    void closeUnpooled() {
+        closeContext(true);
+    }
+
+    /**
+     * Resets session state before the context is returned to the pool.
+     * Uncommitted changes are rolled back, auto-commit and isolation level are set to defaults.
+     * Default catalog/schema are restored when the context is borrowed.
+     * Other session state (session variables, temporary tables, server-side prepared statements, session locks)
+     * is reset only if the data source implements resetSessionState. Otherwise it stays as the previous user left it.
+     * @return false if state can't be reset
+     */
+    boolean resetPooledState() {
+        Connection connection = this.connection;
+        if (connection == null) {
+            return false;
+        }
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            // Session reset may change isolation level, so it goes first
+            if (!resetSessionState(connection)) {
+                return false;
+            }
+            boolean defaultAutoCommit = dataSource.getContainer().isDefaultAutoCommit();
+            if (connection.getAutoCommit() != defaultAutoCommit) {
+                connection.setAutoCommit(defaultAutoCommit);
+            }
+            this.autoCommit = defaultAutoCommit;
+            Integer txnLevel = dataSource.getContainer().getDefaultTransactionsIsolation();
+            if (txnLevel == null) {
+                // No default in connection settings - restore the level the connection was opened with
+                txnLevel = initialIsolationLevel;
+                if (txnLevel == null) {
+                    return false;
+                }
+            }
+            if (connection.getTransactionIsolation() != txnLevel) {
+                connection.setTransactionIsolation(txnLevel);
+            }
+            this.transactionIsolationLevel = txnLevel;
+            return true;
+        } catch (Throwable e) {
+            log.debug("Can't reset state of pooled context '" + getContextName() + "'", e);
+            return false;
+        }
+    }
+
+    /**
+     * Resets database-specific session state of a pooled context. Called after the transaction was rolled back.
+     * Does nothing by default.
+     * @return false if context can't be reused
+     */
+    protected boolean resetSessionState(@NotNull Connection connection) throws SQLException {
+        return true;
+    }
+
     private void closeContext(boolean removeContext) {
         disconnect();
 
@@ -422,7 +503,7 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     }
 
     public void reconnect(DBRProgressMonitor monitor) throws DBCException {
-        close();
+        closeContext(true);
         connect(monitor, null, null, this, true);
     }
 
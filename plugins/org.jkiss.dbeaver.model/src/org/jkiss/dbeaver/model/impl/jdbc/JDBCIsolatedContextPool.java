@@ -0,0 +1,274 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of idle isolated execution contexts of a remote instance.
+ * Closed isolated contexts stay connected and are reused by the next isolated context request with the same purpose.
+ * Pool is disabled if its size is zero (default).
+ */
+public class JDBCIsolatedContextPool {
+
+    private static final Log log = Log.getLog(JDBCIsolatedContextPool.class);
+
+    private static class IdleContext {
+        final JDBCExecutionContext context;
+        final long releaseTime;
+
+        IdleContext(JDBCExecutionContext context) {
+            this.context = context;
+            this.releaseTime = System.currentTimeMillis();
+        }
+    }
+
+    @NotNull
+    private final JDBCRemoteInstance instance;
+    // Idle contexts by purpose. Most recently released contexts are in the end.
+    private final Map<String, Deque<IdleContext>> idleContexts = new HashMap<>();
+    private int idleCount;
+    private boolean closed;
+    private EvictionJob evictionJob;
+
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong reusedCount = new AtomicLong();
+    private final AtomicLong invalidCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    JDBCIsolatedContextPool(@NotNull JDBCRemoteInstance instance) {
+        this.instance = instance;
+    }
+
+    public int getMaxSize() {
+        return getPreferenceStore().getInt(ModelPreferences.CONNECTION_ISOLATED_POOL_SIZE);
+    }
+
+    public long getIdleTimeout() {
+        return getPreferenceStore().getLong(ModelPreferences.CONNECTION_ISOLATED_POOL_IDLE_TIMEOUT);
+    }
+
+    public boolean isEnabled() {
+        return getMaxSize() > 0;
+    }
+
+    public synchronized int getIdleCount() {
+        return idleCount;
+    }
+
+    /**
+     * Number of contexts opened for the pool
+     */
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    /**
+     * Number of isolated context requests served by idle contexts
+     */
+    public long getReusedCount() {
+        return reusedCount.get();
+    }
+
+    /**
+     * Number of idle contexts closed because they were dead or couldn't be re-initialized
+     */
+    public long getInvalidCount() {
+        return invalidCount.get();
+    }
+
+    /**
+     * Number of idle contexts closed by idle timeout
+     */
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    private DBPPreferenceStore getPreferenceStore() {
+        return instance.getDataSource().getContainer().getPreferenceStore();
+    }
+
+    void contextCreated(@NotNull JDBCExecutionContext context) {
+        context.setPooled(true);
+        createdCount.incrementAndGet();
+    }
+
+    /**
+     * Returns idle context with the specified purpose or null.
+     * Context is validated and its state is initialized from the source context.
+     */
+    @Nullable
+    JDBCExecutionContext borrowContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose, @Nullable JDBCExecutionContext initFrom) {
+        evictIdleContexts();
+        for (;;) {
+            IdleContext idleContext;
+            synchronized (this) {
+                Deque<IdleContext> contexts = idleContexts.get(purpose);
+                if (closed || contexts == null || contexts.isEmpty()) {
+                    return null;
+                }
+                idleContext = contexts.pollLast();
+                idleCount--;
+            }
+            JDBCExecutionContext context = idleContext.context;
+            try {
+                context.checkContextAlive(monitor);
+                // Restore default catalog/schema the same way as for the new context
+                instance.getDataSource().initializeContextState(monitor, context, initFrom);
+                instance.addContext(context);
+                reusedCount.incrementAndGet();
+                return context;
+            } catch (DBException e) {
+                log.debug("Idle context '" + purpose + "' is not valid: " + e.getMessage());
+                invalidCount.incrementAndGet();
+                context.closeUnpooled();
+            }
+        }
+    }
+
+    /**
+     * Puts closed context into the pool.
+     * @return false if context can't be pooled and must be closed
+     */
+    boolean releaseContext(@NotNull JDBCExecutionContext context) {
+        int maxSize = getMaxSize();
+        synchronized (this) {
+            if (closed || idleCount >= maxSize) {
+                return false;
+            }
+        }
+        if (!context.isConnected() || !context.resetPooledState()) {
+            return false;
+        }
+        synchronized (this) {
+            if (closed || idleCount >= maxSize) {
+                return false;
+            }
+            // Idle contexts are not visible in the instance contexts list until they are borrowed
+            instance.removeContext(context);
+            idleContexts.computeIfAbsent(context.getContextName(), k -> new ArrayDeque<>()).addLast(new IdleContext(context));
+            idleCount++;
+            scheduleEviction();
+        }
+        evictIdleContexts();
+        return true;
+    }
+
+    private void scheduleEviction() {
+        if (evictionJob == null) {
+            evictionJob = new EvictionJob();
+            evictionJob.schedule(getEvictionPeriod());
+        }
+    }
+
+    private long getEvictionPeriod() {
+        // Check a few times per timeout, but not too often
+        return Math.max(getIdleTimeout() / 4, 1000);
+    }
+
+    void evictIdleContexts() {
+        long expireTime = System.currentTimeMillis() - getIdleTimeout();
+        List<JDBCExecutionContext> expired = new ArrayList<>();
+        synchronized (this) {
+            for (Deque<IdleContext> contexts : idleContexts.values()) {
+                // Oldest contexts are in the beginning
+                while (!contexts.isEmpty() && contexts.peekFirst().releaseTime < expireTime) {
+                    expired.add(contexts.pollFirst().context);
+                    idleCount--;
+                }
+            }
+        }
+        for (JDBCExecutionContext context : expired) {
+            evictedCount.incrementAndGet();
+            context.closeUnpooled();
+        }
+    }
+
+    /**
+     * Closes all idle contexts. Contexts released after this call are not pooled until the pool is reopened.
+     */
+    void close() {
+        List<JDBCExecutionContext> contexts = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            for (Deque<IdleContext> idle : idleContexts.values()) {
+                for (IdleContext idleContext : idle) {
+                    contexts.add(idleContext.context);
+                }
+            }
+            idleContexts.clear();
+            idleCount = 0;
+            if (evictionJob != null) {
+                evictionJob.cancel();
+                evictionJob = null;
+            }
+        }
+        for (JDBCExecutionContext context : contexts) {
+            context.closeUnpooled();
+        }
+    }
+
+    synchronized void reopen() {
+        closed = false;
+    }
+
+    /**
+     * Closes expired idle contexts while the pool is not empty
+     */
+    private class EvictionJob extends AbstractJob {
+
+        EvictionJob() {
+            super("Isolated contexts pool eviction");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            evictIdleContexts();
+            synchronized (JDBCIsolatedContextPool.this) {
+                if (evictionJob != this) {
+                    return Status.OK_STATUS;
+                }
+                if (closed || idleCount == 0) {
+                    evictionJob = null;
+                } else {
+                    schedule(getEvictionPeriod());
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Isolated contexts pool: idle=" + getIdleCount() + ", created=" + getCreatedCount() + ", reused=" + getReusedCount() +
+            ", invalid=" + getInvalidCount() + ", evicted=" + getEvictedCount();
+    }
+}
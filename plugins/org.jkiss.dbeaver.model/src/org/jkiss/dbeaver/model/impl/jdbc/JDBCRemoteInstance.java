@@ -49,6 +49,8 @@ public class JDBCRemoteInstance implements DBSInstance {
     @NotNull
     private final List<JDBCExecutionContext> allContexts = new ArrayList<>();
     private final DBPExclusiveResource exclusiveLock = new SimpleExclusiveLock();
+    @NotNull
+    private final JDBCIsolatedContextPool isolatedContextPool = new JDBCIsolatedContextPool(this);
 
     protected JDBCRemoteInstance(@NotNull DBRProgressMonitor monitor, @NotNull JDBCDataSource dataSource, boolean initContext)
         throws DBException {
@@ -121,6 +123,13 @@ public class JDBCRemoteInstance implements DBSInstance {
     @NotNull
     @Override
     public DBCExecutionContext openIsolatedContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose, @Nullable DBCExecutionContext initFrom) throws DBException {
+        boolean usePool = isolatedContextPool.isEnabled() && (initFrom == null || initFrom instanceof JDBCExecutionContext);
+        if (usePool) {
+            JDBCExecutionContext pooledContext = isolatedContextPool.borrowContext(monitor, purpose, (JDBCExecutionContext) initFrom);
+            if (pooledContext != null) {
+                return pooledContext;
+            }
+        }
         JDBCExecutionContext context = dataSource.createExecutionContext(this, purpose);
         DBExecUtils.tryExecuteRecover(monitor, getDataSource(), monitor1 -> {
             try {
@@ -129,9 +138,20 @@ public class JDBCRemoteInstance implements DBSInstance {
                 throw new InvocationTargetException(e);
             }
         });
+        if (usePool) {
+            isolatedContextPool.contextCreated(context);
+        }
         return context;
     }
 
+    /**
+     * Pool of idle isolated contexts. Pool size is configured in data source preferences.
+     */
+    @NotNull
+    public JDBCIsolatedContextPool getIsolatedContextPool() {
+        return isolatedContextPool;
+    }
+
     @NotNull
     @Override
     public JDBCExecutionContext[] getAllContexts() {
@@ -178,17 +198,23 @@ public class JDBCRemoteInstance implements DBSInstance {
     public void shutdown(DBRProgressMonitor monitor, boolean keepMeta) {
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
-        List<JDBCExecutionContext> ctxCopy;
-        synchronized (allContexts) {
-            ctxCopy = new ArrayList<>(allContexts);
-        }
-        for (JDBCExecutionContext context : ctxCopy) {
-            if (keepMeta && context == metaContext) {
-                continue;
+        // Close idle pooled contexts. Contexts closed below must not return to the pool.
+        isolatedContextPool.close();
+        try {
+            List<JDBCExecutionContext> ctxCopy;
+            synchronized (allContexts) {
+                ctxCopy = new ArrayList<>(allContexts);
+            }
+            for (JDBCExecutionContext context : ctxCopy) {
+                if (keepMeta && context == metaContext) {
+                    continue;
+                }
+                monitor.subTask("Close context '" + context.getContextName() + "'");
+                context.close();
+                monitor.worked(1);
             }
-            monitor.subTask("Close context '" + context.getContextName() + "'");
-            context.close();
-            monitor.worked(1);
+        } finally {
+            isolatedContextPool.reopen();
         }
     }
 
@@ -62,7 +62,8 @@ public abstract class JDBCCompositeCache<
     private final Object parentColumnName;
     private final Object objectColumnName;
 
-    private final Map<PARENT, List<OBJECT>> objectCache = new IdentityHashMap<>();
+    // Objects by parent. Map and lists are replaced (not modified) on each change so readers don't need locks
+    private volatile Map<PARENT, List<OBJECT>> objectCache = new IdentityHashMap<>();
 
     protected JDBCCompositeCache(
         JDBCStructCache<OWNER,?,?> parentCache,
@@ -137,9 +138,7 @@ public abstract class JDBCCompositeCache<
         if (forParent == null) {
             return getCachedObjects();
         } else {
-            synchronized (objectCache) {
-                return objectCache.get(forParent);
-            }
+            return objectCache.get(forParent);
         }
     }
 
@@ -159,9 +158,7 @@ public abstract class JDBCCompositeCache<
         if (forParent == null) {
             return getCachedObject(objectName);
         } else {
-            synchronized (objectCache) {
-                return DBUtils.findObject(objectCache.get(forParent), objectName);
-            }
+            return DBUtils.findObject(objectCache.get(forParent), objectName);
         }
     }
 
@@ -169,14 +166,14 @@ public abstract class JDBCCompositeCache<
     public void cacheObject(@NotNull OBJECT object)
     {
         super.cacheObject(object);
-        synchronized (objectCache) {
+        synchronized (this) {
             PARENT parent = getParent(object);
-            List<OBJECT> objects = objectCache.get(parent);
-            if (objects == null) {
-                objects = new ArrayList<>();
-                objectCache.put(parent, objects);
-            }
+            Map<PARENT, List<OBJECT>> newCache = new IdentityHashMap<>(objectCache);
+            List<OBJECT> objects = newCache.get(parent);
+            objects = objects == null ? new ArrayList<>() : new ArrayList<>(objects);
             objects.add(object);
+            newCache.put(parent, objects);
+            objectCache = newCache;
         }
     }
 
@@ -184,15 +181,19 @@ public abstract class JDBCCompositeCache<
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
     {
         super.removeObject(object, resetFullCache);
-        synchronized (objectCache) {
+        synchronized (this) {
             PARENT parent = getParent(object);
-            if (resetFullCache) {
-                objectCache.remove(parent);
-            } else {
-                List<OBJECT> subCache = objectCache.get(parent);
-                if (subCache != null) {
+            List<OBJECT> subCache = objectCache.get(parent);
+            if (subCache != null) {
+                Map<PARENT, List<OBJECT>> newCache = new IdentityHashMap<>(objectCache);
+                if (resetFullCache) {
+                    newCache.remove(parent);
+                } else {
+                    subCache = new ArrayList<>(subCache);
                     subCache.remove(object);
+                    newCache.put(parent, subCache);
                 }
+                objectCache = newCache;
             }
         }
     }
@@ -200,14 +201,18 @@ public abstract class JDBCCompositeCache<
     @Override
     public void clearObjectCache(PARENT forParent)
     {
-        if (forParent == null) {
-            super.clearCache();
-            objectCache.clear();
-        } else {
-            List<OBJECT> removedObjects = objectCache.remove(forParent);
-            if (removedObjects != null) {
-                for (OBJECT obj : removedObjects) {
-                    super.removeObject(obj, false);
+        synchronized (this) {
+            if (forParent == null) {
+                super.clearCache();
+                objectCache = new IdentityHashMap<>();
+            } else if (objectCache.containsKey(forParent)) {
+                Map<PARENT, List<OBJECT>> newCache = new IdentityHashMap<>(objectCache);
+                List<OBJECT> removedObjects = newCache.remove(forParent);
+                objectCache = newCache;
+                if (removedObjects != null) {
+                    for (OBJECT obj : removedObjects) {
+                        super.removeObject(obj, false);
+                    }
                 }
             }
         }
@@ -220,26 +225,21 @@ public abstract class JDBCCompositeCache<
     @Override
     public void clearCache()
     {
-        synchronized (objectCache) {
-            this.objectCache.clear();
+        synchronized (this) {
+            this.objectCache = new IdentityHashMap<>();
             super.clearCache();
         }
     }
 
     @Override
     public void setCache(List<OBJECT> objects) {
-        super.setCache(objects);
-        synchronized (objectCache) {
-            objectCache.clear();
-            for (OBJECT object : objects) {
-                PARENT parent = getParent(object);
-                List<OBJECT> parentObjects = objectCache.get(parent);
-                if (parentObjects == null) {
-                    parentObjects = new ArrayList<>();
-                    objectCache.put(parent, parentObjects);
-                }
-                parentObjects.add(object);
-            }
+        Map<PARENT, List<OBJECT>> newCache = new IdentityHashMap<>();
+        for (OBJECT object : objects) {
+            newCache.computeIfAbsent(getParent(object), p -> new ArrayList<>()).add(object);
+        }
+        synchronized (this) {
+            super.setCache(objects);
+            objectCache = newCache;
         }
     }
 
@@ -258,12 +258,10 @@ public abstract class JDBCCompositeCache<
     protected void loadObjects(DBRProgressMonitor monitor, OWNER owner, PARENT forParent)
         throws DBException
     {
-        synchronized (objectCache) {
-            if ((forParent == null && isFullyCached()) ||
-                (forParent != null && (!forParent.isPersisted() || objectCache.containsKey(forParent))))
-            {
-                return;
-            }
+        if ((forParent == null && isFullyCached()) ||
+            (forParent != null && (!forParent.isPersisted() || objectCache.containsKey(forParent))))
+        {
+            return;
         }
 
         // Load tables and columns first
@@ -317,11 +315,9 @@ public abstract class JDBCCompositeCache<
                                 continue;
                             }
                         }
-                        synchronized (objectCache) {
-                            if (objectCache.containsKey(parent)) {
-                                // Already cached
-                                continue;
-                            }
+                        if (objectCache.containsKey(parent)) {
+                            // Already cached
+                            continue;
                         }
                         // Add to map
                         Map<String, ObjectInfo> objectMap = parentObjectMap.get(parent);
@@ -378,58 +374,59 @@ public abstract class JDBCCompositeCache<
 
         // Fill global cache
         synchronized (this) {
-            synchronized (objectCache) {
-                if (forParent != null || !parentObjectMap.isEmpty()) {
-                    if (forParent == null) {
-                        // Cache global object list
-                        List<OBJECT> globalCache = new ArrayList<>();
-                        for (Map<String, ObjectInfo> objMap : parentObjectMap.values()) {
-                            if (objMap != null) {
-                                for (ObjectInfo info : objMap.values()) {
-                                    if (!info.broken) {
-                                        globalCache.add(info.object);
-                                    }
+            Map<PARENT, List<OBJECT>> newCache = new IdentityHashMap<>(objectCache);
+            if (forParent != null || !parentObjectMap.isEmpty()) {
+                if (forParent == null) {
+                    // Cache global object list
+                    List<OBJECT> globalCache = new ArrayList<>();
+                    for (Map<String, ObjectInfo> objMap : parentObjectMap.values()) {
+                        if (objMap != null) {
+                            for (ObjectInfo info : objMap.values()) {
+                                if (!info.broken) {
+                                    globalCache.add(info.object);
                                 }
                             }
                         }
-                        // Save precached objects in global cache
-                        for (List<OBJECT> objects : objectCache.values()) {
-                            globalCache.addAll(objects);
-                        }
-                        // Add precached objects to global cache too
-                        super.setCache(globalCache);
-                        this.invalidateObjects(monitor, owner, new CacheIterator());
                     }
+                    // Save precached objects in global cache
+                    for (List<OBJECT> objects : newCache.values()) {
+                        globalCache.addAll(objects);
+                    }
+                    // Add precached objects to global cache too
+                    super.setCache(globalCache);
+                    this.invalidateObjects(monitor, owner, new CacheIterator());
                 }
+            }
 
-                // Cache data in individual objects only if we have read something or have certain parent object
-                // Otherwise we assume that this function is not supported for mass data reading
+            // Cache data in individual objects only if we have read something or have certain parent object
+            // Otherwise we assume that this function is not supported for mass data reading
 
-                // All objects are read. Now assign them to parents
-                for (Map.Entry<PARENT, Map<String, ObjectInfo>> colEntry : parentObjectMap.entrySet()) {
-                    if (colEntry.getValue() == null || objectCache.containsKey(colEntry.getKey())) {
-                        // Do not overwrite this object's cache
-                        continue;
-                    }
-                    Collection<ObjectInfo> objectInfos = colEntry.getValue().values();
-                    ArrayList<OBJECT> objects = new ArrayList<>(objectInfos.size());
-                    for (ObjectInfo objectInfo : objectInfos) {
-                        objectInfo.needsCaching = true;
-                        objects.add(objectInfo.object);
-                    }
-                    objectCache.put(colEntry.getKey(), objects);
+            // All objects are read. Now assign them to parents
+            for (Map.Entry<PARENT, Map<String, ObjectInfo>> colEntry : parentObjectMap.entrySet()) {
+                if (colEntry.getValue() == null || newCache.containsKey(colEntry.getKey())) {
+                    // Do not overwrite this object's cache
+                    continue;
                 }
-                // Now set empty object list for other parents
-                if (forParent == null) {
-                    for (PARENT tmpParent : parentCache.getTypedObjects(monitor, owner, parentType)) {
-                        if (!parentObjectMap.containsKey(tmpParent) && !objectCache.containsKey(tmpParent)) {
-                            objectCache.put(tmpParent, new ArrayList<OBJECT>());
-                        }
+                Collection<ObjectInfo> objectInfos = colEntry.getValue().values();
+                ArrayList<OBJECT> objects = new ArrayList<>(objectInfos.size());
+                for (ObjectInfo objectInfo : objectInfos) {
+                    objectInfo.needsCaching = true;
+                    objects.add(objectInfo.object);
+                }
+                newCache.put(colEntry.getKey(), objects);
+            }
+            // Now set empty object list for other parents
+            if (forParent == null) {
+                for (PARENT tmpParent : parentCache.getTypedObjects(monitor, owner, parentType)) {
+                    if (!parentObjectMap.containsKey(tmpParent) && !newCache.containsKey(tmpParent)) {
+                        newCache.put(tmpParent, new ArrayList<OBJECT>());
                     }
-                } else if (!parentObjectMap.containsKey(forParent) && !objectCache.containsKey(forParent)) {
-                    objectCache.put(forParent, new ArrayList<OBJECT>());
                 }
+            } else if (!parentObjectMap.containsKey(forParent) && !newCache.containsKey(forParent)) {
+                newCache.put(forParent, new ArrayList<OBJECT>());
             }
+            objectCache = newCache;
+
             // Cache children lists (we do it in the end because children caching may operate with other model objects)
             for (Map.Entry<PARENT, Map<String, ObjectInfo>> colEntry : parentObjectMap.entrySet()) {
                 for (ObjectInfo objectInfo : colEntry.getValue().values()) {
@@ -0,0 +1,719 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.*;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent snapshot of metadata query results.
+ * One snapshot per data source container. Each entry keeps raw rows of one metadata query
+ * and a change marker which was actual when these rows were read.
+ * Entry is replayed instead of the query. Then the marker is read from the database in background
+ * and the cache is invalidated if the marker has changed.
+ * Snapshots are stored in a compressed binary file in the workspace metadata folder.
+ */
+public class JDBCMetadataSnapshot {
+
+    private static final Log log = Log.getLog(JDBCMetadataSnapshot.class);
+
+    private static final String SNAPSHOT_FOLDER = "metadata-snapshots"; //$NON-NLS-1$
+    private static final String SNAPSHOT_FILE_EXT = ".dbsnap"; //$NON-NLS-1$
+    private static final int SNAPSHOT_MAGIC = 0x44424d53;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final long SAVE_DELAY = 5000;
+    // Bigger results are not recorded: replay of them would take more memory than it saves
+    private static final int MAX_ENTRY_ROWS = 200000;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_SHORT = 4;
+    private static final byte TYPE_DOUBLE = 5;
+    private static final byte TYPE_FLOAT = 6;
+    private static final byte TYPE_DECIMAL = 7;
+    private static final byte TYPE_BOOLEAN = 8;
+    private static final byte TYPE_TIMESTAMP = 9;
+    private static final byte TYPE_DATE = 10;
+    private static final byte TYPE_TIME = 11;
+    private static final byte TYPE_BYTES = 12;
+    private static final byte TYPE_ARRAY = 13;
+
+    private static final Class<?>[] ARRAY_COMPONENT_TYPES = {
+        Object.class, String.class, Integer.class, Long.class, Short.class, Double.class, Float.class, BigDecimal.class, Boolean.class
+    };
+
+    private static final Map<String, JDBCMetadataSnapshot> snapshots = new HashMap<>();
+    // Containers with disabled snapshots whose snapshot files were already deleted
+    private static final Set<String> discardedSnapshots = new HashSet<>();
+
+    private final String containerId;
+    private final File snapshotFile;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private SaveJob saveJob;
+    private boolean discarded;
+
+    private JDBCMetadataSnapshot(@NotNull String containerId, @NotNull File snapshotFile) {
+        this.containerId = containerId;
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Returns snapshot of the data source or null if snapshots are disabled for it.
+     * Snapshot file is read on the first call.
+     */
+    @Nullable
+    public static JDBCMetadataSnapshot getSnapshot(@NotNull DBPDataSource dataSource) {
+        DBPDataSourceContainer container = dataSource.getContainer();
+        if (!container.getPreferenceStore().getBoolean(ModelPreferences.META_SNAPSHOT_ENABLED)) {
+            // Snapshot was turned off - its file is obsolete
+            synchronized (snapshots) {
+                if (discardedSnapshots.add(container.getId())) {
+                    deleteSnapshot(container.getId());
+                }
+            }
+            return null;
+        }
+        synchronized (snapshots) {
+            discardedSnapshots.remove(container.getId());
+            JDBCMetadataSnapshot snapshot = snapshots.get(container.getId());
+            if (snapshot == null) {
+                snapshot = new JDBCMetadataSnapshot(container.getId(), getSnapshotFile(container.getId()));
+                snapshot.loadEntries();
+                snapshots.put(container.getId(), snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Deletes snapshot file of the data source container. Called when the container is deleted or snapshots are disabled.
+     */
+    public static void deleteSnapshot(@NotNull String containerId) {
+        JDBCMetadataSnapshot snapshot;
+        synchronized (snapshots) {
+            snapshot = snapshots.remove(containerId);
+        }
+        if (snapshot != null) {
+            snapshot.discard();
+        }
+        File snapshotFile = getSnapshotFile(containerId);
+        if (snapshotFile.exists() && !snapshotFile.delete()) {
+            log.debug("Can't delete metadata snapshot " + snapshotFile.getAbsolutePath());
+        }
+    }
+
+    @NotNull
+    private static File getSnapshotFile(@NotNull String containerId) {
+        File folder = new File(GeneralUtils.getMetadataFolder(), SNAPSHOT_FOLDER);
+        return new File(folder, CommonUtils.escapeFileName(containerId) + SNAPSHOT_FILE_EXT);
+    }
+
+    private synchronized void discard() {
+        discarded = true;
+        entries.clear();
+        if (saveJob != null) {
+            saveJob.cancel();
+        }
+    }
+
+    /**
+     * Makes entry key. Key is unique for the cache class, owner object and query kind.
+     */
+    @NotNull
+    public static String makeKey(@NotNull Object cache, @NotNull DBSObject owner, @NotNull String kind) {
+        return cache.getClass().getName() + ":" + kind + ":" + DBUtils.getObjectFullId(owner);
+    }
+
+    @Nullable
+    public synchronized Entry getEntry(@NotNull String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void putEntry(@NotNull String key, @NotNull Entry entry) {
+        if (discarded) {
+            return;
+        }
+        entries.put(key, entry);
+        scheduleSave();
+    }
+
+    public synchronized void removeEntry(@NotNull String key) {
+        if (entries.remove(key) != null) {
+            scheduleSave();
+        }
+    }
+
+    /**
+     * Checks in background that the replayed entry is still actual. If the marker has changed (or can't be read)
+     * then the entry is removed and the invalidator is called so the cache reloads objects from the database.
+     */
+    public void validateEntry(
+        @NotNull DBSObject owner,
+        @NotNull String key,
+        @NotNull Entry entry,
+        @NotNull MarkerReader markerReader,
+        @NotNull Runnable invalidator)
+    {
+        new ValidateJob(owner, key, entry, markerReader, invalidator).schedule();
+    }
+
+    /**
+     * Throws the first error of a replayed result set. Does nothing for live result sets.
+     */
+    public static void checkReplayError(@NotNull JDBCResultSet resultSet) throws SQLException {
+        if (Proxy.isProxyClass(resultSet.getClass()) && Proxy.getInvocationHandler(resultSet) instanceof JDBCSnapshotResultSet) {
+            SQLException error = ((JDBCSnapshotResultSet) Proxy.getInvocationHandler(resultSet)).getReplayError();
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    private void scheduleSave() {
+        if (saveJob == null) {
+            saveJob = new SaveJob();
+        }
+        saveJob.schedule(SAVE_DELAY);
+    }
+
+    private void loadEntries() {
+        if (!snapshotFile.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(snapshotFile))))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.debug("Unsupported metadata snapshot format in " + snapshotFile.getAbsolutePath());
+                return;
+            }
+            if (!GeneralUtils.getProductVersion().toString().equals(in.readUTF())) {
+                // Metadata queries may differ in other versions
+                return;
+            }
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                String key = in.readUTF();
+                entries.put(key, readEntry(in));
+            }
+        } catch (Exception e) {
+            log.debug("Error reading metadata snapshot of '" + containerId + "'", e);
+            entries.clear();
+        }
+    }
+
+    private void saveEntries() {
+        List<Map.Entry<String, Entry>> entriesCopy;
+        synchronized (this) {
+            if (discarded) {
+                return;
+            }
+            entriesCopy = new ArrayList<>(entries.entrySet());
+        }
+        File folder = snapshotFile.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            log.debug("Can't create metadata snapshot folder " + folder.getAbsolutePath());
+            return;
+        }
+        File tmpFile = new File(folder, snapshotFile.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmpFile))))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeUTF(GeneralUtils.getProductVersion().toString());
+                out.writeInt(entriesCopy.size());
+                for (Map.Entry<String, Entry> entry : entriesCopy) {
+                    out.writeUTF(entry.getKey());
+                    writeEntry(out, entry.getValue());
+                }
+            }
+            Files.move(tmpFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            log.debug("Error saving metadata snapshot of '" + containerId + "'", e);
+            if (tmpFile.exists() && !tmpFile.delete()) {
+                log.debug("Can't delete " + tmpFile.getAbsolutePath());
+            }
+        }
+    }
+
+    private static Entry readEntry(DataInputStream in) throws IOException {
+        String marker = in.readUTF();
+        String[] columns = new String[in.readInt()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = in.readUTF();
+        }
+        int rowCount = in.readInt();
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            Object[] row = new Object[columns.length];
+            for (int k = 0; k < row.length; k++) {
+                row[k] = readValue(in);
+            }
+            rows.add(row);
+        }
+        return new Entry(marker, columns, rows);
+    }
+
+    private static void writeEntry(DataOutputStream out, Entry entry) throws IOException {
+        out.writeUTF(entry.marker);
+        out.writeInt(entry.columns.length);
+        for (String column : entry.columns) {
+            out.writeUTF(column);
+        }
+        out.writeInt(entry.rows.size());
+        for (Object[] row : entry.rows) {
+            for (Object value : row) {
+                writeValue(out, value);
+            }
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL: return null;
+            case TYPE_STRING: return readString(in);
+            case TYPE_INTEGER: return in.readInt();
+            case TYPE_LONG: return in.readLong();
+            case TYPE_SHORT: return in.readShort();
+            case TYPE_DOUBLE: return in.readDouble();
+            case TYPE_FLOAT: return in.readFloat();
+            case TYPE_DECIMAL: return new BigDecimal(in.readUTF());
+            case TYPE_BOOLEAN: return in.readBoolean();
+            case TYPE_TIMESTAMP: {
+                Timestamp ts = new Timestamp(in.readLong());
+                ts.setNanos(in.readInt());
+                return ts;
+            }
+            case TYPE_DATE: return new java.sql.Date(in.readLong());
+            case TYPE_TIME: return new Time(in.readLong());
+            case TYPE_BYTES: {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return bytes;
+            }
+            case TYPE_ARRAY: {
+                Class<?> componentType = ARRAY_COMPONENT_TYPES[in.readByte()];
+                Object[] items = (Object[]) java.lang.reflect.Array.newInstance(componentType, in.readInt());
+                for (int i = 0; i < items.length; i++) {
+                    items[i] = readValue(in);
+                }
+                return new SnapshotArray(items);
+            }
+            default:
+                throw new IOException("Bad value type: " + type);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            out.writeByte(TYPE_SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(TYPE_DECIMAL);
+            out.writeUTF(value.toString());
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Timestamp) {
+            out.writeByte(TYPE_TIMESTAMP);
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (value instanceof Time) {
+            out.writeByte(TYPE_TIME);
+            out.writeLong(((Time) value).getTime());
+        } else if (value instanceof byte[]) {
+            out.writeByte(TYPE_BYTES);
+            out.writeInt(((byte[]) value).length);
+            out.write((byte[]) value);
+        } else if (value instanceof SnapshotArray) {
+            Object[] items = ((SnapshotArray) value).items;
+            out.writeByte(TYPE_ARRAY);
+            out.writeByte(Arrays.asList(ARRAY_COMPONENT_TYPES).indexOf(items.getClass().getComponentType()));
+            out.writeInt(items.length);
+            for (Object item : items) {
+                writeValue(out, item);
+            }
+        } else {
+            throw new IOException("Unsupported value type: " + value.getClass().getName());
+        }
+    }
+
+    // Metadata texts (e.g. view definitions) may exceed writeUTF limit
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Recorded query result.
+     */
+    public static class Entry {
+        private final String marker;
+        private final String[] columns;
+        private final List<Object[]> rows;
+        private final Map<String, Integer> columnIndexes = new HashMap<>();
+
+        Entry(@NotNull String marker, @NotNull String[] columns, @NotNull List<Object[]> rows) {
+            this.marker = marker;
+            this.columns = columns;
+            this.rows = rows;
+            for (int i = 0; i < columns.length; i++) {
+                // Duplicate labels resolve to the first column, the same way drivers do
+                columnIndexes.putIfAbsent(columns[i].toLowerCase(Locale.ENGLISH), i);
+            }
+        }
+
+        String[] getColumns() {
+            return columns;
+        }
+
+        List<Object[]> getRows() {
+            return rows;
+        }
+
+        int findColumn(String label) {
+            Integer index = columnIndexes.get(label.toLowerCase(Locale.ENGLISH));
+            return index == null ? -1 : index;
+        }
+
+        /**
+         * Opens result set which replays recorded rows.
+         */
+        @NotNull
+        public JDBCResultSet openResultSet(@NotNull JDBCSession session) {
+            return (JDBCResultSet) Proxy.newProxyInstance(
+                JDBCMetadataSnapshot.class.getClassLoader(),
+                new Class[] { JDBCResultSet.class },
+                new JDBCSnapshotResultSet(session, this));
+        }
+    }
+
+    /**
+     * Records rows of a live result set. Each row must be added before it is read by the cache,
+     * so stream columns (which can be read only once) make result set not recordable.
+     */
+    public static class Recorder {
+        private final String[] columns;
+        private final List<Object[]> rows = new ArrayList<>();
+        private boolean recordable = true;
+
+        private Recorder(@NotNull ResultSet resultSet) throws SQLException {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            columns = new String[metaData.getColumnCount()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = CommonUtils.notEmpty(metaData.getColumnLabel(i + 1));
+                switch (metaData.getColumnType(i + 1)) {
+                    case Types.LONGVARCHAR:
+                    case Types.LONGNVARCHAR:
+                    case Types.LONGVARBINARY:
+                    case Types.CLOB:
+                    case Types.NCLOB:
+                    case Types.BLOB:
+                    case Types.SQLXML:
+                        recordable = false;
+                        break;
+                }
+            }
+        }
+
+        public void addRow(@NotNull ResultSet resultSet) {
+            if (!recordable) {
+                return;
+            }
+            if (rows.size() >= MAX_ENTRY_ROWS) {
+                stopRecording();
+                return;
+            }
+            Object[] row = new Object[columns.length];
+            try {
+                for (int i = 0; i < row.length; i++) {
+                    Object value = toSnapshotValue(resultSet.getObject(i + 1));
+                    if (value == UNSUPPORTED_VALUE) {
+                        value = resultSet.getString(i + 1);
+                    }
+                    row[i] = value;
+                }
+            } catch (SQLException e) {
+                log.debug("Error recording metadata row: " + e.getMessage());
+                stopRecording();
+                return;
+            }
+            if (!recordable) {
+                // Unsupported array value
+                stopRecording();
+                return;
+            }
+            rows.add(row);
+        }
+
+        private void stopRecording() {
+            recordable = false;
+            rows.clear();
+        }
+
+        /**
+         * Makes entry from recorded rows or returns null if result set wasn't recordable.
+         */
+        @Nullable
+        public Entry makeEntry(@NotNull String marker) {
+            return recordable ? new Entry(marker, columns, rows) : null;
+        }
+
+        private Object toSnapshotValue(Object value) throws SQLException {
+            if (value == null || value instanceof String || value instanceof Integer || value instanceof Long ||
+                value instanceof Short || value instanceof Double || value instanceof Float || value instanceof BigDecimal ||
+                value instanceof Boolean || value instanceof Timestamp || value instanceof java.sql.Date ||
+                value instanceof Time || value instanceof byte[])
+            {
+                return value;
+            } else if (value instanceof Byte) {
+                return ((Byte) value).shortValue();
+            } else if (value instanceof BigInteger) {
+                return new BigDecimal((BigInteger) value);
+            } else if (value instanceof java.util.Date) {
+                return new Timestamp(((java.util.Date) value).getTime());
+            } else if (value instanceof Array) {
+                Object items = ((Array) value).getArray();
+                if (items instanceof Object[] && Arrays.asList(ARRAY_COMPONENT_TYPES).contains(items.getClass().getComponentType())) {
+                    Object[] itemsCopy = ((Object[]) items).clone();
+                    for (int i = 0; i < itemsCopy.length; i++) {
+                        Object item = toSnapshotValue(itemsCopy[i]);
+                        if (item == UNSUPPORTED_VALUE || item instanceof SnapshotArray) {
+                            recordable = false;
+                            return null;
+                        }
+                        itemsCopy[i] = item;
+                    }
+                    return new SnapshotArray(itemsCopy);
+                }
+                recordable = false;
+                return null;
+            }
+            // Driver specific objects are kept as strings
+            return UNSUPPORTED_VALUE;
+        }
+    }
+
+    private static final Object UNSUPPORTED_VALUE = new Object();
+
+    /**
+     * Starts recording of the live result set.
+     * @return recorder or null if result set can't be recorded
+     */
+    @Nullable
+    public static Recorder startRecording(@NotNull ResultSet resultSet) {
+        try {
+            Recorder recorder = new Recorder(resultSet);
+            return recorder.recordable ? recorder : null;
+        } catch (SQLException e) {
+            log.debug("Error reading metadata result set columns: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Array value restored from snapshot.
+     */
+    static class SnapshotArray implements Array {
+        private final Object[] items;
+
+        SnapshotArray(Object[] items) {
+            this.items = items;
+        }
+
+        @Override
+        public String getBaseTypeName() throws SQLException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public int getBaseType() throws SQLException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public Object getArray() {
+            return items.clone();
+        }
+
+        @Override
+        public Object getArray(Map<String, Class<?>> map) {
+            return getArray();
+        }
+
+        @Override
+        public Object getArray(long index, int count) {
+            return Arrays.copyOfRange(items, (int) index - 1, (int) index - 1 + count);
+        }
+
+        @Override
+        public Object getArray(long index, int count, Map<String, Class<?>> map) {
+            return getArray(index, count);
+        }
+
+        @Override
+        public ResultSet getResultSet() throws SQLException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public ResultSet getResultSet(Map<String, Class<?>> map) throws SQLException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public ResultSet getResultSet(long index, int count) throws SQLException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public ResultSet getResultSet(long index, int count, Map<String, Class<?>> map) throws SQLException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public void free() {
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder str = new StringBuilder("{");
+            for (int i = 0; i < items.length; i++) {
+                if (i > 0) str.append(',');
+                str.append(items[i]);
+            }
+            return str.append('}').toString();
+        }
+    }
+
+    /**
+     * Reads actual marker of snapshot entry
+     */
+    public interface MarkerReader {
+        @Nullable
+        String readMarker(@NotNull JDBCSession session);
+    }
+
+    private class ValidateJob extends AbstractJob {
+        private final DBSObject owner;
+        private final String key;
+        private final Entry entry;
+        private final MarkerReader markerReader;
+        private final Runnable invalidator;
+
+        ValidateJob(DBSObject owner, String key, Entry entry, MarkerReader markerReader, Runnable invalidator) {
+            super("Validate metadata snapshot");
+            this.owner = owner;
+            this.key = key;
+            this.entry = entry;
+            this.markerReader = markerReader;
+            this.invalidator = invalidator;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            String marker;
+            try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Validate metadata snapshot")) {
+                marker = markerReader.readMarker(session);
+            } catch (Exception e) {
+                log.debug("Error validating metadata snapshot of '" + owner.getName() + "': " + e.getMessage());
+                marker = null;
+            }
+            if (!entry.marker.equals(marker)) {
+                synchronized (JDBCMetadataSnapshot.this) {
+                    if (entries.get(key) == entry) {
+                        entries.remove(key);
+                        scheduleSave();
+                    }
+                }
+                invalidator.run();
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private class SaveJob extends AbstractJob {
+        SaveJob() {
+            super("Save metadata snapshot");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            saveEntries();
+            return Status.OK_STATUS;
+        }
+    }
+
+}
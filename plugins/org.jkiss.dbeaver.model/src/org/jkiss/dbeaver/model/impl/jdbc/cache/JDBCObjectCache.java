@@ -48,6 +48,9 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
 
     // Maximum number of objects in cache
     private int maximumCacheSize = DEFAULT_MAX_CACHE_SIZE;
+    private volatile boolean snapshotBypass;
+    // Snapshot entry objects were replayed from. Reset when objects are read from the database.
+    private volatile JDBCMetadataSnapshot.Entry replayedEntry;
 
     protected JDBCObjectCache() {
     }
@@ -100,35 +103,62 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         }
         try {
             try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load objects from " + owner.getName())) {
-                try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
-                    monitor.subTask("Load " + getCacheName());
-                    dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                    dbStat.executeStatement();
-                    JDBCResultSet dbResult = dbStat.getResultSet();
-                    if (dbResult != null) {
-                        try {
-                            while (dbResult.next()) {
-                                if (monitor.isCanceled()) {
+                JDBCMetadataSnapshot snapshot = JDBCMetadataSnapshot.getSnapshot(dataSource);
+                String snapshotKey = snapshot == null ? null : JDBCMetadataSnapshot.makeKey(this, owner, "objects");
+                boolean replayed = false;
+                if (snapshot != null && !snapshotBypass) {
+                    JDBCMetadataSnapshot.Entry entry = snapshot.getEntry(snapshotKey);
+                    if (entry != null) {
+                        try (JDBCResultSet dbResult = entry.openResultSet(session)) {
+                            monitor.subTask("Load " + getCacheName() + " from snapshot");
+                            if (!fetchObjects(monitor, session, owner, dbResult, null, tmpObjectList)) {
+                                return;
+                            }
+                            JDBCMetadataSnapshot.checkReplayError(dbResult);
+                            replayed = true;
+                        } catch (Exception e) {
+                            log.debug("Error reading " + getCacheName() + " from metadata snapshot: " + e.getMessage());
+                            snapshot.removeEntry(snapshotKey);
+                            tmpObjectList.clear();
+                        }
+                        if (replayed) {
+                            // Marker query is not cheap for big schemas, so the snapshot is validated in background
+                            replayedEntry = entry;
+                            snapshot.validateEntry(owner, snapshotKey, entry, markerSession -> readMarker(markerSession, owner), () -> {
+                                if (replayedEntry == entry) {
+                                    log.debug(getCacheName() + " metadata snapshot is obsolete. Reload objects.");
+                                    clearCache();
+                                    DBUtils.fireObjectUpdate(owner);
+                                }
+                            });
+                        }
+                    }
+                }
+                if (!replayed) {
+                    replayedEntry = null;
+                    // Marker is read before the query, so changes made during the query make the recorded entry obsolete
+                    String snapshotMarker = snapshot == null ? null : readMarker(session, owner);
+                    try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
+                        monitor.subTask("Load " + getCacheName());
+                        dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                        dbStat.executeStatement();
+                        JDBCResultSet dbResult = dbStat.getResultSet();
+                        if (dbResult != null) {
+                            try {
+                                JDBCMetadataSnapshot.Recorder recorder = snapshotMarker == null ? null : JDBCMetadataSnapshot.startRecording(dbResult);
+                                if (!fetchObjects(monitor, session, owner, dbResult, recorder, tmpObjectList)) {
                                     return;
                                 }
-
-                                OBJECT object = fetchObject(session, owner, dbResult);
-                                if (object == null || !isValidObject(monitor, owner, object)) {
-                                    continue;
-                                }
-                                tmpObjectList.add(object);
-
-                                // Do not log every object load. This overheats UI in case of long lists
-                                //monitor.subTask(object.getName());
-                                if (tmpObjectList.size() == maximumCacheSize) {
-                                    log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
-                                    break;
+                                JDBCMetadataSnapshot.Entry entry = recorder == null ? null : recorder.makeEntry(snapshotMarker);
+                                if (entry != null) {
+                                    snapshot.putEntry(snapshotKey, entry);
                                 }
+                            } finally {
+                                dbResult.close();
                             }
-                        } finally {
-                            dbResult.close();
                         }
                     }
+                    snapshotBypass = false;
                 }
             } catch (SQLException ex) {
                 throw new DBException(ex, dataSource);
@@ -155,6 +185,66 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         this.invalidateObjects(monitor, owner, new CacheIterator());
     }
 
+    private boolean fetchObjects(
+        DBRProgressMonitor monitor,
+        JDBCSession session,
+        OWNER owner,
+        JDBCResultSet dbResult,
+        @Nullable JDBCMetadataSnapshot.Recorder recorder,
+        List<OBJECT> objectList) throws SQLException, DBException
+    {
+        while (dbResult.next()) {
+            if (monitor.isCanceled()) {
+                return false;
+            }
+            if (recorder != null) {
+                recorder.addRow(dbResult);
+            }
+
+            OBJECT object = fetchObject(session, owner, dbResult);
+            if (object == null || !isValidObject(monitor, owner, object)) {
+                continue;
+            }
+            objectList.add(object);
+
+            // Do not log every object load. This overheats UI in case of long lists
+            //monitor.subTask(object.getName());
+            if (objectList.size() == maximumCacheSize) {
+                log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads cheap marker which changes whenever objects of this owner change (e.g. last DDL time).
+     * Caches which return non-null markers may be restored from persistent metadata snapshot.
+     * Returns null by default (snapshots are not supported).
+     */
+    @Nullable
+    protected String readSnapshotMarker(@NotNull JDBCSession session, @NotNull OWNER owner) throws SQLException {
+        return null;
+    }
+
+    @Nullable
+    String readMarker(@NotNull JDBCSession session, @NotNull OWNER owner) {
+        try {
+            return readSnapshotMarker(session, owner);
+        } catch (SQLException e) {
+            log.debug("Error reading " + getCacheName() + " snapshot marker: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void clearCache() {
+        // Explicit refresh always reads objects from the database
+        snapshotBypass = true;
+        replayedEntry = null;
+        super.clearCache();
+    }
+
     protected String getCacheName() {
         return getClass().getSimpleName();
     }
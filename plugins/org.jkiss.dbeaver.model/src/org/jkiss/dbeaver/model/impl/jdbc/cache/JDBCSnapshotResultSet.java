@@ -0,0 +1,270 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replays rows recorded in metadata snapshot as a read-only forward-only result set.
+ * Supports column getters used by metadata readers. Values are converted
+ * the way most drivers convert them.
+ * The first error is remembered: readers often swallow getter errors (JDBCUtils.safeGet*),
+ * so the cache checks it after fetch to discard the whole replay.
+ */
+class JDBCSnapshotResultSet implements InvocationHandler {
+
+    private final JDBCSession session;
+    private final JDBCMetadataSnapshot.Entry entry;
+    private final List<Object[]> rows;
+    private int rowIndex = -1;
+    private boolean wasNull;
+    private boolean closed;
+    private SQLException replayError;
+
+    JDBCSnapshotResultSet(JDBCSession session, JDBCMetadataSnapshot.Entry entry) {
+        this.session = session;
+        this.entry = entry;
+        this.rows = entry.getRows();
+    }
+
+    /**
+     * First error thrown by this result set or null
+     */
+    SQLException getReplayError() {
+        return replayError;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        try {
+            return invokeMethod(proxy, method, args);
+        } catch (SQLException e) {
+            if (replayError == null) {
+                replayError = e;
+            }
+            throw e;
+        }
+    }
+
+    private Object invokeMethod(Object proxy, Method method, Object[] args) throws SQLException {
+        String name = method.getName();
+        int argCount = args == null ? 0 : args.length;
+        switch (name) {
+            case "next":
+            case "nextRow":
+                if (closed) throw new SQLException("Result set is closed");
+                if (rowIndex < rows.size()) rowIndex++;
+                return rowIndex < rows.size();
+            case "close":
+                closed = true;
+                return null;
+            case "isClosed":
+                return closed;
+            case "wasNull":
+                return wasNull;
+            case "findColumn":
+                return getColumnIndex(args[0]) + 1;
+            case "getRow":
+                return rowIndex >= 0 && rowIndex < rows.size() ? rowIndex + 1 : 0;
+            case "isBeforeFirst":
+                return rowIndex < 0 && !rows.isEmpty();
+            case "isAfterLast":
+                return rowIndex >= rows.size() && !rows.isEmpty();
+            case "getSession":
+                return session;
+            case "getSourceStatement":
+            case "getStatement":
+            case "getOriginal":
+                return null;
+            case "getFetchSize":
+                return 0;
+            case "setFetchSize":
+            case "setMaxRows":
+                return null;
+            case "getAttributeValue":
+                // DBCResultSet attributes are zero-based
+                return getValue(args[0] instanceof Integer ? (Integer) args[0] : getColumnIndex(args[0]));
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "Metadata snapshot result set " + Arrays.toString(entry.getColumns());
+        }
+        if (name.startsWith("get") && argCount >= 1 && (args[0] instanceof Integer || args[0] instanceof String)) {
+            int index = args[0] instanceof Integer ? (Integer) args[0] - 1 : getColumnIndex(args[0]);
+            Object value = getValue(index);
+            switch (name) {
+                case "getObject":
+                    if (argCount == 2 && args[1] instanceof Class) {
+                        return convertObject(value, (Class<?>) args[1]);
+                    }
+                    return value;
+                case "getString":
+                case "getNString":
+                    return toString(value);
+                case "getBoolean": return toBoolean(value);
+                case "getByte": return toNumber(value).byteValue();
+                case "getShort": return toNumber(value).shortValue();
+                case "getInt": return toNumber(value).intValue();
+                case "getLong": return toNumber(value).longValue();
+                case "getFloat": return toNumber(value).floatValue();
+                case "getDouble": return toNumber(value).doubleValue();
+                case "getBigDecimal": return toDecimal(value);
+                case "getTimestamp": return toTimestamp(value);
+                case "getDate": return value == null ? null : new Date(toTimestamp(value).getTime());
+                case "getTime": return value == null ? null : new Time(toTimestamp(value).getTime());
+                case "getBytes": return value instanceof String ? ((String) value).getBytes(StandardCharsets.UTF_8) : (byte[]) value;
+                case "getArray":
+                    if (value != null && !(value instanceof Array)) {
+                        throw new SQLException("Column " + args[0] + " is not an array");
+                    }
+                    return value;
+            }
+        }
+        // Cache falls back to the database query on any error
+        throw new SQLFeatureNotSupportedException("Method " + name + " is not supported by metadata snapshot");
+    }
+
+    private int getColumnIndex(Object label) throws SQLException {
+        int index = entry.findColumn(String.valueOf(label));
+        if (index < 0) {
+            throw new SQLException("Column '" + label + "' not found");
+        }
+        return index;
+    }
+
+    private Object getValue(int index) throws SQLException {
+        if (closed) {
+            throw new SQLException("Result set is closed");
+        }
+        if (rowIndex < 0 || rowIndex >= rows.size()) {
+            throw new SQLException("No current row");
+        }
+        Object[] row = rows.get(rowIndex);
+        if (index < 0 || index >= row.length) {
+            throw new SQLException("Column index " + (index + 1) + " is out of range");
+        }
+        Object value = row[index];
+        wasNull = value == null;
+        return value;
+    }
+
+    private static String toString(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        } else if (value instanceof byte[]) {
+            return new String((byte[]) value, StandardCharsets.UTF_8);
+        }
+        return value.toString();
+    }
+
+    private static boolean toBoolean(Object value) throws SQLException {
+        if (value == null) {
+            return false;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        } else if (value instanceof String) {
+            switch (((String) value).trim().toLowerCase(Locale.ENGLISH)) {
+                case "1": case "t": case "true": case "y": case "yes": case "on":
+                    return true;
+                case "0": case "f": case "false": case "n": case "no": case "off": case "":
+                    return false;
+            }
+        }
+        throw new SQLException("Can't convert '" + value + "' to boolean");
+    }
+
+    private static Number toNumber(Object value) throws SQLException {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof Number) {
+            return (Number) value;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        } else if (value instanceof String) {
+            try {
+                return new BigDecimal(((String) value).trim());
+            } catch (NumberFormatException e) {
+                throw new SQLException("Can't convert '" + value + "' to number", e);
+            }
+        }
+        throw new SQLException("Can't convert " + value.getClass().getName() + " to number");
+    }
+
+    private static BigDecimal toDecimal(Object value) throws SQLException {
+        if (value == null || value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        Number number = toNumber(value);
+        return number instanceof BigDecimal ? (BigDecimal) number : new BigDecimal(number.toString());
+    }
+
+    private static Timestamp toTimestamp(Object value) throws SQLException {
+        if (value == null || value instanceof Timestamp) {
+            return (Timestamp) value;
+        } else if (value instanceof java.util.Date) {
+            return new Timestamp(((java.util.Date) value).getTime());
+        } else if (value instanceof String) {
+            try {
+                return Timestamp.valueOf(((String) value).trim());
+            } catch (IllegalArgumentException e) {
+                throw new SQLException("Can't convert '" + value + "' to timestamp", e);
+            }
+        }
+        throw new SQLException("Can't convert " + value.getClass().getName() + " to timestamp");
+    }
+
+    private static Object convertObject(Object value, Class<?> type) throws SQLException {
+        if (value == null || type.isInstance(value)) {
+            return value;
+        } else if (type == String.class) {
+            return toString(value);
+        } else if (type == Integer.class) {
+            return toNumber(value).intValue();
+        } else if (type == Long.class) {
+            return toNumber(value).longValue();
+        } else if (type == Short.class) {
+            return toNumber(value).shortValue();
+        } else if (type == Double.class) {
+            return toNumber(value).doubleValue();
+        } else if (type == Float.class) {
+            return toNumber(value).floatValue();
+        } else if (type == BigDecimal.class) {
+            return toDecimal(value);
+        } else if (type == Boolean.class) {
+            return toBoolean(value);
+        } else if (type == Timestamp.class) {
+            return toTimestamp(value);
+        }
+        throw new SQLException("Can't convert " + value.getClass().getName() + " to " + type.getName());
+    }
+
+}
@@ -49,6 +49,9 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
 
     private final Object objectNameColumn;
     private volatile boolean childrenCached = false;
+    private volatile boolean childrenSnapshotBypass;
+    // Snapshot entry children were replayed from. Reset when children are read from the database.
+    private volatile JDBCMetadataSnapshot.Entry replayedChildrenEntry;
     private final Map<OBJECT, SimpleObjectCache<OBJECT, CHILD>> childrenCache = new IdentityHashMap<>();
 
     abstract protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull OWNER owner, @Nullable OBJECT forObject)
@@ -92,85 +95,96 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load child objects")) {
             Map<OBJECT, List<CHILD>> objectMap = new HashMap<>();
 
-            // Load columns
-            try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
-                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
-                if (dbResult != null) {
-                    try {
-                        while (dbResult.next()) {
-                            if (monitor.isCanceled()) {
-                                return;
+            // Children of all objects may be restored from snapshot
+            JDBCMetadataSnapshot snapshot = forObject == null ? JDBCMetadataSnapshot.getSnapshot(dataSource) : null;
+            String snapshotKey = snapshot == null ? null : JDBCMetadataSnapshot.makeKey(this, owner, "children");
+            boolean loaded = false;
+            if (snapshot != null && !childrenSnapshotBypass) {
+                JDBCMetadataSnapshot.Entry entry = snapshot.getEntry(snapshotKey);
+                if (entry != null) {
+                    try (JDBCResultSet dbResult = entry.openResultSet(session)) {
+                        if (!fetchChildren(monitor, session, owner, null, dbResult, null, objectMap)) {
+                            return;
+                        }
+                        JDBCMetadataSnapshot.checkReplayError(dbResult);
+                        loaded = true;
+                    } catch (Exception e) {
+                        log.debug("Error reading " + getCacheName() + " children from metadata snapshot: " + e.getMessage());
+                        snapshot.removeEntry(snapshotKey);
+                        objectMap.clear();
+                    }
+                    if (loaded) {
+                        replayedChildrenEntry = entry;
+                        snapshot.validateEntry(owner, snapshotKey, entry, markerSession -> readMarker(markerSession, owner), () -> {
+                            if (replayedChildrenEntry == entry) {
+                                log.debug(getCacheName() + " children metadata snapshot is obsolete. Reload children.");
+                                clearChildrenCache(null);
+                                DBUtils.fireObjectUpdate(owner);
                             }
-                            OBJECT object = forObject;
-                            if (object == null) {
-                                String objectName;
-                                if (objectNameColumn instanceof Number) {
-                                    objectName = JDBCUtils.safeGetString(dbResult, ((Number) objectNameColumn).intValue());
-                                } else {
-                                    objectName = JDBCUtils.safeGetStringTrimmed(dbResult, objectNameColumn.toString());
-                                }
-                                if (objectName == null) {
-                                    log.debug("NULL object name in " + this);
-                                    continue;
-                                }
+                        });
+                    }
+                }
+            }
 
-                                object = super.getCachedObject(objectName);
-                                if (object == null) {
-                                    log.debug("Object '" + objectName + "' not found in struct cache (" + getClass().getSimpleName() + ")");
-                                    continue;
-                                }
-                            }
-                            if (isChildrenCached(object)) {
-                                // Already read
-                                continue;
-                            }
-                            CHILD child = fetchChild(session, owner, object, dbResult);
-                            if (child == null) {
-                                continue;
+            if (!loaded) {
+                if (forObject == null) {
+                    replayedChildrenEntry = null;
+                }
+                String snapshotMarker = snapshot == null ? null : readMarker(session, owner);
+                // Load columns
+                try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
+                    dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                    dbStat.executeStatement();
+                    JDBCResultSet dbResult = dbStat.getResultSet();
+                    if (dbResult != null) {
+                        try {
+                            JDBCMetadataSnapshot.Recorder recorder = snapshotMarker == null ? null : JDBCMetadataSnapshot.startRecording(dbResult);
+                            if (!fetchChildren(monitor, session, owner, forObject, dbResult, recorder, objectMap)) {
+                                return;
                             }
-
-                            // Add to map
-                            List<CHILD> children = objectMap.get(object);
-                            if (children == null) {
-                                children = new ArrayList<>();
-                                objectMap.put(object, children);
+                            JDBCMetadataSnapshot.Entry entry = recorder == null ? null : recorder.makeEntry(snapshotMarker);
+                            if (entry != null) {
+                                snapshot.putEntry(snapshotKey, entry);
                             }
-                            children.add(child);
+                            loaded = true;
+                        } finally {
+                            dbResult.close();
                         }
+                    }
+                }
+                if (forObject == null) {
+                    childrenSnapshotBypass = false;
+                }
+            }
 
-                        if (monitor.isCanceled()) {
-                            return;
-                        }
+            if (loaded) {
+                if (monitor.isCanceled()) {
+                    return;
+                }
 
-                        // All children are read. Now assign them to parents
-                        for (Map.Entry<OBJECT, List<CHILD>> colEntry : objectMap.entrySet()) {
-                            if (!isChildrenCached(colEntry.getKey())) {
-                                // isChildrenCached may return true if the same cache was read in other thread
-                                // just skip
-                                cacheChildren(colEntry.getKey(), colEntry.getValue());
-                            }
-                        }
-                        if (forObject == null) {
-                            if (objectMap.isEmpty()) {
-                                // Nothing was read. May be it means empty list of children
-                                // but possibly this feature is not supported [JDBC: SQLite]
-                            } else {
-                                // Now set empty column list for other tables
-                                for (OBJECT tmpObject : getAllObjects(monitor, owner)) {
-                                    if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
-                                        cacheChildren(tmpObject, new ArrayList<>());
-                                    }
-                                }
-                                this.childrenCached = true;
+                // All children are read. Now assign them to parents
+                for (Map.Entry<OBJECT, List<CHILD>> colEntry : objectMap.entrySet()) {
+                    if (!isChildrenCached(colEntry.getKey())) {
+                        // isChildrenCached may return true if the same cache was read in other thread
+                        // just skip
+                        cacheChildren(colEntry.getKey(), colEntry.getValue());
+                    }
+                }
+                if (forObject == null) {
+                    if (objectMap.isEmpty()) {
+                        // Nothing was read. May be it means empty list of children
+                        // but possibly this feature is not supported [JDBC: SQLite]
+                    } else {
+                        // Now set empty column list for other tables
+                        for (OBJECT tmpObject : getAllObjects(monitor, owner)) {
+                            if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
+                                cacheChildren(tmpObject, new ArrayList<>());
                             }
-                        } else if (!objectMap.containsKey(forObject)) {
-                            cacheChildren(forObject, new ArrayList<>());
                         }
-                    } finally {
-                        dbResult.close();
+                        this.childrenCached = true;
                     }
+                } else if (!objectMap.containsKey(forObject)) {
+                    cacheChildren(forObject, new ArrayList<>());
                 }
             }
         } catch (SQLException ex) {
@@ -178,6 +192,61 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         }
     }
 
+    private boolean fetchChildren(
+        DBRProgressMonitor monitor,
+        JDBCSession session,
+        OWNER owner,
+        @Nullable OBJECT forObject,
+        JDBCResultSet dbResult,
+        @Nullable JDBCMetadataSnapshot.Recorder recorder,
+        Map<OBJECT, List<CHILD>> objectMap) throws SQLException, DBException
+    {
+        while (dbResult.next()) {
+            if (monitor.isCanceled()) {
+                return false;
+            }
+            if (recorder != null) {
+                recorder.addRow(dbResult);
+            }
+            OBJECT object = forObject;
+            if (object == null) {
+                String objectName;
+                if (objectNameColumn instanceof Number) {
+                    objectName = JDBCUtils.safeGetString(dbResult, ((Number) objectNameColumn).intValue());
+                } else {
+                    objectName = JDBCUtils.safeGetStringTrimmed(dbResult, objectNameColumn.toString());
+                }
+                if (objectName == null) {
+                    log.debug("NULL object name in " + this);
+                    continue;
+                }
+
+                object = super.getCachedObject(objectName);
+                if (object == null) {
+                    log.debug("Object '" + objectName + "' not found in struct cache (" + getClass().getSimpleName() + ")");
+                    continue;
+                }
+            }
+            if (isChildrenCached(object)) {
+                // Already read
+                continue;
+            }
+            CHILD child = fetchChild(session, owner, object, dbResult);
+            if (child == null) {
+                continue;
+            }
+
+            // Add to map
+            List<CHILD> children = objectMap.get(object);
+            if (children == null) {
+                children = new ArrayList<>();
+                objectMap.put(object, children);
+            }
+            children.add(child);
+        }
+        return true;
+    }
+
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
     {
@@ -242,6 +311,9 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
                 this.childrenCache.remove(forParent);
             } else {
                 this.childrenCache.clear();
+                // Explicit refresh always reads children from the database
+                childrenSnapshotBypass = true;
+                replayedChildrenEntry = null;
             }
             childrenCached = false;
         }
@@ -269,4 +341,4 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         }
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
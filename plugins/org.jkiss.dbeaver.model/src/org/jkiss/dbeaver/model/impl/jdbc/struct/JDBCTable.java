@@ -27,6 +27,7 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.DBObjectNameCaseTransformer;
 import org.jkiss.dbeaver.model.impl.data.ExecuteBatchImpl;
+import org.jkiss.dbeaver.model.impl.data.ExecuteMultiRowBatchImpl;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructCache;
 import org.jkiss.dbeaver.model.impl.struct.AbstractTable;
@@ -44,6 +45,7 @@ import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -54,7 +56,7 @@ import java.util.Map;
  */
 public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER extends DBSObject>
     extends AbstractTable<DATASOURCE, CONTAINER>
-    implements DBSDictionary, DBSDataManipulator, DBPSaveableObject
+    implements DBSDictionary, DBSDataManipulatorMultiRow, DBPSaveableObject
 {
     private static final Log log = Log.getLog(JDBCTable.class);
 
@@ -379,6 +381,68 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         };
     }
 
+    @NotNull
+    @Override
+    public ExecuteBatch insertMultiRowData(@NotNull DBCSession session, @NotNull DBSAttributeBase[] attributes, int maxRowsInStatement, @NotNull final DBCExecutionSource source)
+        throws DBCException
+    {
+        SQLDialect dialect = session.getDataSource().getSQLDialect();
+        List<DBSAttributeBase> valueAttributes = new ArrayList<>(attributes.length);
+        for (DBSAttributeBase attribute : attributes) {
+            if (!DBUtils.isPseudoAttribute(attribute)) {
+                valueAttributes.add(attribute);
+            }
+        }
+        int rowsInStatement = valueAttributes.isEmpty() ? 1 :
+            Math.min(maxRowsInStatement, dialect.getMaxStatementParameters() / valueAttributes.size());
+        if (rowsInStatement <= 1 || dialect.getMultiValueInsertMode() != SQLDialect.MultiValueInsertMode.GROUP_ROWS) {
+            return insertData(session, attributes, null, source);
+        }
+        for (DBSAttributeBase attribute : valueAttributes) {
+            if (DBUtils.findValueHandler(session, attribute) instanceof DBDValueBinder) {
+                // Custom value binding may depend on the value. Use regular row by row insert.
+                return insertData(session, attributes, null, source);
+            }
+        }
+        readRequiredMeta(session.getProgressMonitor());
+
+        // Rows are full width (with pseudo attributes), batch skips pseudo attributes and NULL values itself
+        return new ExecuteMultiRowBatchImpl(attributes, rowsInStatement) {
+            @NotNull
+            @Override
+            protected String makeQuery(@NotNull int[] columns, int rowCount, Map<String, Object> options) {
+                String tableName = DBUtils.getEntityScriptName(JDBCTable.this, options);
+                StringBuilder query = new StringBuilder(200 + rowCount * columns.length * 2);
+                query
+                    .append(useUpsert(session) ? SQLConstants.KEYWORD_UPSERT : SQLConstants.KEYWORD_INSERT)
+                    .append(" INTO ").append(tableName).append(" ("); //$NON-NLS-1$ //$NON-NLS-2$
+                for (int i = 0; i < columns.length; i++) {
+                    if (i > 0) query.append(","); //$NON-NLS-1$
+                    query.append(getAttributeName(this.attributes[columns[i]]));
+                }
+                query.append(")\n\tVALUES "); //$NON-NLS-1$
+                for (int row = 0; row < rowCount; row++) {
+                    if (row > 0) query.append(","); //$NON-NLS-1$
+                    query.append("("); //$NON-NLS-1$
+                    for (int i = 0; i < columns.length; i++) {
+                        if (i > 0) query.append(","); //$NON-NLS-1$
+                        query.append("?"); //$NON-NLS-1$
+                    }
+                    query.append(")"); //$NON-NLS-1$
+                }
+                return query.toString();
+            }
+
+            @NotNull
+            @Override
+            protected DBCStatement prepareStatement(@NotNull DBCSession session, @NotNull int[] columns, int rowCount, Map<String, Object> options) throws DBCException {
+                DBCStatement dbStat = super.prepareStatement(session, columns, rowCount, options);
+                dbStat.setStatementSource(source);
+                return dbStat;
+            }
+        };
+    }
+
     ////////////////////////////////////////////////////////////////////
     // Update
 
@@ -20,6 +20,7 @@ import org.eclipse.core.runtime.Status;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.access.DBAObject;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
@@ -32,6 +33,7 @@ import org.jkiss.dbeaver.model.navigator.meta.DBXTreeObject;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableParametrized;
+import org.jkiss.dbeaver.model.runtime.ParallelProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.struct.rdb.DBSPackage;
@@ -44,6 +46,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * DBNDatabaseNode
@@ -51,10 +55,15 @@ import java.util.*;
 public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBPContextProvider, IDataSourceContainerProvider {
 
     private static final DBNDatabaseNode[] EMPTY_NODES = new DBNDatabaseNode[0];
+    private static final int MAX_LOADER_THREADS = 16;
+    private static final String LOADER_CONTEXT_NAME = "Navigator loader";
+    // Set in threads which run children load tasks
+    private static final ThreadLocal<Boolean> PARALLEL_LOAD_THREAD = new ThreadLocal<>();
+    private static ExecutorService loadExecutor;
 
     private volatile boolean locked;
     protected volatile DBNDatabaseNode[] childNodes;
-    private boolean filtered;
+    private volatile boolean filtered;
 
     protected DBNDatabaseNode(DBNNode parentNode) {
         super(parentNode);
@@ -411,58 +420,70 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
         final boolean showOnlyEntities = navSettings.isShowOnlyEntities();
         final boolean hideFolders = navSettings.isHideFolders();
 
+        // Each child meta fills its own list, lists are merged in meta order.
+        // Loads of different metas are independent and may run concurrently.
+        final List<List<DBNDatabaseNode>> metaLists = new ArrayList<>(childMetas.size());
+        final List<ChildrenLoadTask> loadTasks = new ArrayList<>();
         for (DBXTreeNode child : childMetas) {
             if (monitor.isCanceled()) {
                 break;
             }
-            monitor.subTask(ModelMessages.model_navigator_load_ + " " + child.getChildrenTypeLabel(object.getDataSource(), null));
             if (showOnlyEntities && !isEntityMeta(child)) {
+                monitor.worked(1);
                 continue;
             }
+            final String taskName = ModelMessages.model_navigator_load_ + " " + child.getChildrenTypeLabel(object.getDataSource(), null);
+            final List<DBNDatabaseNode> metaList = new ArrayList<>();
+            metaLists.add(metaList);
             if (child instanceof DBXTreeItem) {
                 final DBXTreeItem item = (DBXTreeItem) child;
-                boolean isLoaded = loadTreeItems(monitor, item, oldList, toList, source, showSystem, hideFolders, reflect);
-                if (!isLoaded && item.isOptional() && item.getRecursiveLink() == null) {
-                    // This may occur only if no child nodes was read
-                    // Then we try to go on next DBX level
-                    loadChildren(monitor, item, oldList, toList, source, reflect);
-                }
+                loadTasks.add(new ChildrenLoadTask(taskName, taskMonitor -> {
+                    boolean isLoaded = loadTreeItems(taskMonitor, item, oldList, metaList, source, showSystem, hideFolders, reflect);
+                    if (!isLoaded && item.isOptional() && item.getRecursiveLink() == null) {
+                        // This may occur only if no child nodes was read
+                        // Then we try to go on next DBX level
+                        loadChildren(taskMonitor, item, oldList, metaList, source, reflect);
+                    }
+                }));
+                continue;
             } else if (child instanceof DBXTreeFolder) {
                 if (hideFolders) {
-                    if (child.isVirtual()) {
+                    if (!child.isVirtual()) {
+                        // Fall down
+                        loadTasks.add(new ChildrenLoadTask(taskName, taskMonitor ->
+                            loadChildren(taskMonitor, child, oldList, metaList, source, reflect)));
                         continue;
                     }
-                    // Fall down
-                    loadChildren(monitor, child, oldList, toList, source, reflect);
                 } else {
                     if (oldList == null) {
                         // Load new folders only if there are no old ones
-                        toList.add(
+                        metaList.add(
                             new DBNDatabaseFolder(this, (DBXTreeFolder) child));
                     } else {
                         for (DBNDatabaseNode oldFolder : oldList) {
                             if (oldFolder.getMeta() == child) {
-                                oldFolder.reloadChildren(monitor, source, reflect);
-                                toList.add(oldFolder);
+                                metaList.add(oldFolder);
+                                loadTasks.add(new ChildrenLoadTask(taskName, taskMonitor ->
+                                    oldFolder.reloadChildren(taskMonitor, source, reflect)));
                                 break;
                             }
                         }
                     }
                 }
             } else if (child instanceof DBXTreeObject) {
-                if (hideFolders) {
-                    continue;
-                }
-                if (oldList == null) {
-                    // Load new objects only if there are no old ones
-                    toList.add(
-                        new DBNDatabaseObject(this, (DBXTreeObject) child));
-                } else {
-                    for (DBNDatabaseNode oldObject : oldList) {
-                        if (oldObject.getMeta() == child) {
-                            oldObject.reloadChildren(monitor, source, reflect);
-                            toList.add(oldObject);
-                            break;
+                if (!hideFolders) {
+                    if (oldList == null) {
+                        // Load new objects only if there are no old ones
+                        metaList.add(
+                            new DBNDatabaseObject(this, (DBXTreeObject) child));
+                    } else {
+                        for (DBNDatabaseNode oldObject : oldList) {
+                            if (oldObject.getMeta() == child) {
+                                metaList.add(oldObject);
+                                loadTasks.add(new ChildrenLoadTask(taskName, taskMonitor ->
+                                    oldObject.reloadChildren(taskMonitor, source, reflect)));
+                                break;
+                            }
                         }
                     }
                 }
@@ -471,6 +492,10 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
             }
             monitor.worked(1);
         }
+        runLoadTasks(monitor, loadTasks);
+        for (List<DBNDatabaseNode> metaList : metaLists) {
+            toList.addAll(metaList);
+        }
         monitor.done();
 
         if (reflect && filtered) {
@@ -478,6 +503,155 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
         }
     }
 
+    /**
+     * Runs children load tasks. If there are several tasks and parallel load is enabled then tasks run
+     * concurrently: current thread and up to (parallelism - 1) loader threads take tasks one by one.
+     * If no loader thread is available current thread runs all tasks itself.
+     * Current thread uses the default meta context, each loader thread reads metadata with its own isolated context.
+     * Nested loads (e.g. folders inside folders) run sequentially in the thread which started them.
+     */
+    private void runLoadTasks(DBRProgressMonitor monitor, List<ChildrenLoadTask> tasks) throws DBException {
+        int parallelism = 1;
+        DBSInstance instance = DBUtils.getObjectOwnerInstance(getObject());
+        if (tasks.size() > 1 && instance != null && isParallelLoadSupported() && !Boolean.TRUE.equals(PARALLEL_LOAD_THREAD.get())) {
+            parallelism = Math.min(tasks.size(), getDataSourceContainer().getPreferenceStore().getInt(ModelPreferences.NAVIGATOR_LOAD_PARALLEL_THREADS));
+        }
+        if (parallelism <= 1) {
+            for (ChildrenLoadTask task : tasks) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                monitor.subTask(task.taskName);
+                task.loader.run(monitor);
+                monitor.worked(1);
+            }
+            return;
+        }
+
+        final AtomicInteger nextTask = new AtomicInteger();
+        final ParallelProgressMonitor loaderMonitor = new ParallelProgressMonitor(monitor);
+        final DBCExecutionContext initContext = DBUtils.getDefaultContext(getObject(), true);
+        Throwable error = null;
+        // Loader monitor is registered as a single block, so cancel reaches blocks of all loader threads
+        monitor.startBlock(loaderMonitor, null);
+        try {
+            for (int i = 1; i < parallelism; i++) {
+                try {
+                    getLoadExecutor().execute(() -> runLoaderThreadTasks(loaderMonitor, instance, initContext, tasks, nextTask));
+                } catch (RejectedExecutionException e) {
+                    // All loader threads are busy
+                    break;
+                }
+            }
+            runNextTasks(loaderMonitor, tasks, nextTask);
+
+            for (ChildrenLoadTask task : tasks) {
+                try {
+                    task.complete.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DBException("Children load interrupted", e);
+                }
+                monitor.worked(1);
+                if (error == null) {
+                    error = task.error;
+                }
+            }
+        } finally {
+            monitor.endBlock();
+        }
+        if (error instanceof DBException) {
+            throw (DBException) error;
+        } else if (error != null) {
+            throw new DBException("Error loading children of " + getNodeName(), error);
+        }
+    }
+
+    /**
+     * Parallel load needs extra connections, they are not used if metadata is read with the main connection
+     */
+    private boolean isParallelLoadSupported() {
+        DBPDataSourceContainer container = getDataSourceContainer();
+        return !container.getDriver().isEmbedded() && container.getPreferenceStore().getBoolean(ModelPreferences.META_SEPARATE_CONNECTION);
+    }
+
+    /**
+     * Runs tasks in a loader thread with an isolated meta context, so loaders don't share a connection.
+     * Context comes from the instance's isolated contexts pool if it is enabled.
+     * If context can't be opened then remaining tasks are left to other threads.
+     */
+    private static void runLoaderThreadTasks(
+        DBRProgressMonitor monitor,
+        DBSInstance instance,
+        DBCExecutionContext initContext,
+        List<ChildrenLoadTask> tasks,
+        AtomicInteger nextTask)
+    {
+        if (monitor.isCanceled() || nextTask.get() >= tasks.size()) {
+            return;
+        }
+        DBCExecutionContext context;
+        try {
+            context = instance.openIsolatedContext(monitor, LOADER_CONTEXT_NAME, initContext);
+        } catch (Throwable e) {
+            log.debug("Can't open navigator loader context: " + e.getMessage());
+            return;
+        }
+        DBCExecutionContext prevContext = DBExecUtils.setThreadMetaContext(context);
+        try {
+            runNextTasks(monitor, tasks, nextTask);
+        } finally {
+            DBExecUtils.setThreadMetaContext(prevContext);
+            context.close();
+        }
+    }
+
+    private static void runNextTasks(DBRProgressMonitor monitor, List<ChildrenLoadTask> tasks, AtomicInteger nextTask) {
+        Boolean prevFlag = PARALLEL_LOAD_THREAD.get();
+        PARALLEL_LOAD_THREAD.set(Boolean.TRUE);
+        try {
+            for (int index = nextTask.getAndIncrement(); index < tasks.size(); index = nextTask.getAndIncrement()) {
+                ChildrenLoadTask task = tasks.get(index);
+                try {
+                    if (!monitor.isCanceled()) {
+                        monitor.subTask(task.taskName);
+                        task.loader.run(monitor);
+                    }
+                } catch (Throwable e) {
+                    task.error = e;
+                } finally {
+                    task.complete.countDown();
+                }
+            }
+        } finally {
+            PARALLEL_LOAD_THREAD.set(prevFlag);
+        }
+    }
+
+    private static synchronized ExecutorService getLoadExecutor() {
+        if (loadExecutor == null) {
+            // No queue: if all threads are busy the caller loads children itself
+            loadExecutor = new ThreadPoolExecutor(
+                0, MAX_LOADER_THREADS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "Navigator children loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        }
+        return loadExecutor;
+    }
+
+    /**
+     * Stops loader threads. Called on model plugin stop.
+     */
+    public static synchronized void shutdownLoadExecutor() {
+        if (loadExecutor != null) {
+            loadExecutor.shutdownNow();
+            loadExecutor = null;
+        }
+    }
+
     private boolean isEntityMeta(DBXTreeNode node) {
         Class<?> nodeChildClass = null;
         if (node instanceof DBXTreeItem) {
@@ -910,4 +1084,21 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
             }
         }
     }
+
+    @FunctionalInterface
+    private interface ChildrenLoader {
+        void run(DBRProgressMonitor monitor) throws DBException;
+    }
+
+    private static class ChildrenLoadTask {
+        final String taskName;
+        final ChildrenLoader loader;
+        final CountDownLatch complete = new CountDownLatch(1);
+        volatile Throwable error;
+
+        ChildrenLoadTask(String taskName, ChildrenLoader loader) {
+            this.taskName = taskName;
+            this.loader = loader;
+        }
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.runtime;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+
+import java.util.*;
+
+/**
+ * Monitor shared by several worker threads of one task.
+ * Original monitor keeps blocks in a single stack which can't be used from several threads,
+ * so blocks are tracked per thread here. The monitor itself is a blocking object: register it in the original
+ * monitor with startBlock, then cancel of the original monitor cancels the innermost block of each worker thread.
+ * Progress is reported only from the thread which created the monitor.
+ */
+public class ParallelProgressMonitor extends ProxyProgressMonitor implements DBRBlockingObject {
+
+    private static final Log log = Log.getLog(ParallelProgressMonitor.class);
+
+    private final Thread ownerThread;
+    private final Map<Thread, Deque<DBRBlockingObject>> threadBlocks = new HashMap<>();
+
+    public ParallelProgressMonitor(DBRProgressMonitor original) {
+        super(original);
+        this.ownerThread = Thread.currentThread();
+    }
+
+    @Override
+    public void beginTask(String name, int totalWork) {
+        if (Thread.currentThread() == ownerThread) {
+            super.beginTask(name, totalWork);
+        }
+    }
+
+    @Override
+    public void done() {
+        if (Thread.currentThread() == ownerThread) {
+            super.done();
+        }
+    }
+
+    @Override
+    public void subTask(String name) {
+        if (Thread.currentThread() == ownerThread) {
+            super.subTask(name);
+        }
+    }
+
+    @Override
+    public void worked(int work) {
+        if (Thread.currentThread() == ownerThread) {
+            super.worked(work);
+        }
+    }
+
+    @Override
+    public synchronized void startBlock(DBRBlockingObject object, String taskName) {
+        threadBlocks.computeIfAbsent(Thread.currentThread(), t -> new ArrayDeque<>()).push(object);
+    }
+
+    @Override
+    public synchronized void endBlock() {
+        Deque<DBRBlockingObject> blocks = threadBlocks.get(Thread.currentThread());
+        if (blocks == null) {
+            log.warn("End block invoked while no blocking objects are in stack");
+            return;
+        }
+        blocks.pop();
+        if (blocks.isEmpty()) {
+            threadBlocks.remove(Thread.currentThread());
+        }
+    }
+
+    @Override
+    public synchronized List<DBRBlockingObject> getActiveBlocks() {
+        List<DBRBlockingObject> blocks = new ArrayList<>();
+        for (Deque<DBRBlockingObject> threadStack : threadBlocks.values()) {
+            blocks.addAll(threadStack);
+        }
+        return blocks;
+    }
+
+    @Override
+    public void cancelBlock(@NotNull DBRProgressMonitor monitor, @Nullable Thread blockThread) throws DBException {
+        Map<Thread, DBRBlockingObject> innerBlocks = new HashMap<>();
+        synchronized (this) {
+            for (Map.Entry<Thread, Deque<DBRBlockingObject>> entry : threadBlocks.entrySet()) {
+                innerBlocks.put(entry.getKey(), entry.getValue().peek());
+            }
+        }
+        DBException error = null;
+        for (Map.Entry<Thread, DBRBlockingObject> entry : innerBlocks.entrySet()) {
+            try {
+                entry.getValue().cancelBlock(monitor, entry.getKey());
+            } catch (DBException e) {
+                error = e;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+}
+
@@ -292,6 +292,15 @@ public interface SQLDialect {
     @NotNull
     MultiValueInsertMode getMultiValueInsertMode();
 
+    /**
+     * Maximum number of bind parameters in one statement.
+     * Limits number of rows in multi-row inserts.
+     * Default is SQLite limit, most other databases allow more.
+     */
+    default int getMaxStatementParameters() {
+        return 999;
+    }
+
     String addFiltersToQuery(DBRProgressMonitor monitor, DBPDataSource dataSource, String query, DBDDataFilter filter);
 
     /**
@@ -36,6 +36,7 @@ import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
 import org.jkiss.dbeaver.model.exec.DBCEntityMetaData;
+import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.sql.parser.SQLSemanticProcessor;
 import org.jkiss.utils.CommonUtils;
 
@@ -126,7 +127,7 @@ public class SQLQuery implements SQLScriptElement {
                 this.parseError = new DBException("Empty query");
                 return;
             }
-            statement = SQLSemanticProcessor.parseQuery(dataSource == null ? null : dataSource.getSQLDialect(), text);
+            statement = SQLSemanticProcessor.parseQueryCached(dataSource == null ? null : dataSource.getSQLDialect(), text);
             if (statement instanceof Select) {
                 type = SQLQueryType.SELECT;
                 // Detect single source table (no joins, no group by, no sub-selects)
@@ -268,12 +269,24 @@ public class SQLQuery implements SQLScriptElement {
         return queryTitle;
     }
 
+    /**
+     * Parsed statement. It is shared with other queries with the same text and must not be modified.
+     * Use {@link #parseModifiableStatement()} to patch the query.
+     */
     @Nullable
     public Statement getStatement() {
         parseQuery();
         return statement;
     }
 
+    /**
+     * Parses query text again. Returned statement is not shared and may be modified.
+     */
+    @NotNull
+    public Statement parseModifiableStatement() throws DBCException {
+        return SQLSemanticProcessor.parseQuery(dataSource == null ? null : dataSource.getSQLDialect(), text);
+    }
+
     public Throwable getParseError() {
         return parseError;
     }
@@ -51,7 +51,9 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Semantic SQL processor
@@ -63,28 +65,89 @@ public class SQLSemanticProcessor {
     private static final String NESTED_QUERY_AlIAS = "z_q";
 
 
+    private static final int PARSE_CACHE_MAX_ENTRIES = 500;
+    private static final int PARSE_CACHE_MAX_TEXT_LENGTH = 64 * 1024;
+
+    // Access-ordered (LRU) cache of parse results. Guarded by itself.
+    private static final Map<ParseKey, ParseResult> parseCache = new LinkedHashMap<ParseKey, ParseResult>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ParseKey, ParseResult> eldest) {
+            return size() > PARSE_CACHE_MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Parses query text. Returned statement belongs to the caller and may be modified.
+     * Parse failures are cached so text which can't be parsed is not parsed again.
+     */
     public static Statement parseQuery(@Nullable SQLDialect dialect, @NotNull String sql) throws DBCException {
-        CCJSqlParser parser = new CCJSqlParser(new StringProvider(sql));
+        ParseKey key = new ParseKey(dialect, sql);
+        ParseResult cached = getCachedResult(key);
+        if (cached != null && cached.error != null) {
+            throw new DBCException("Error parsing SQL query", cached.error);
+        }
+        ParseResult result = doParse(key);
+        if (result.error != null) {
+            cacheResult(key, result);
+            throw new DBCException("Error parsing SQL query", result.error);
+        }
+        return result.statement;
+    }
+
+    /**
+     * Parses query text or returns cached parse result.
+     * Returned statement is shared between all callers (and all {@link org.jkiss.dbeaver.model.sql.SQLQuery} instances)
+     * with the same text, so it MUST NOT be modified: no setters, no added conditions, no changed TOP/LIMIT.
+     * JSQLParser statements have no deep copy, so callers which patch the query must use
+     * {@link #parseQuery(SQLDialect, String)} or {@link org.jkiss.dbeaver.model.sql.SQLQuery#parseModifiableStatement()}.
+     */
+    public static Statement parseQueryCached(@Nullable SQLDialect dialect, @NotNull String sql) throws DBCException {
+        ParseKey key = new ParseKey(dialect, sql);
+        ParseResult result = getCachedResult(key);
+        if (result == null) {
+            result = doParse(key);
+            cacheResult(key, result);
+        }
+        if (result.error != null) {
+            throw new DBCException("Error parsing SQL query", result.error);
+        }
+        return result.statement;
+    }
+
+    @Nullable
+    private static ParseResult getCachedResult(ParseKey key) {
+        synchronized (parseCache) {
+            return parseCache.get(key);
+        }
+    }
+
+    private static void cacheResult(ParseKey key, ParseResult result) {
+        if (key.text.length() > PARSE_CACHE_MAX_TEXT_LENGTH) {
+            // Do not keep huge scripts in memory
+            return;
+        }
+        synchronized (parseCache) {
+            parseCache.put(key, result);
+        }
+    }
+
+    @NotNull
+    private static ParseResult doParse(ParseKey key) {
+        CCJSqlParser parser = new CCJSqlParser(new StringProvider(key.text));
         try {
-            if (dialect != null) {
-                // Enable square brackets
-                for (String[] qs : ArrayUtils.safeArray(dialect.getIdentifierQuoteStrings())) {
-                    if (qs.length == 2 && "[".equals(qs[0]) && "]".equals(qs[1])) {
-                        parser.withSquareBracketQuotation(true);
-                        break;
-                    }
-                }
+            if (key.squareBrackets) {
+                parser.withSquareBracketQuotation(true);
             }
-            return parser.Statement();
+            return new ParseResult(parser.Statement(), null);
         } catch (Exception e) {
-            throw new DBCException("Error parsing SQL query", e);
+            return new ParseResult(null, e);
         }
     }
 
     public static boolean isSelectQuery(SQLDialect dialect, String query)
     {
         try {
-            Statement statement = parseQuery(dialect, query);
+            Statement statement = parseQueryCached(dialect, query);
             return
                 statement instanceof Select &&
                 ((Select) statement).getSelectBody() instanceof PlainSelect &&
@@ -296,4 +359,51 @@ public class SQLSemanticProcessor {
         }
     }
 
+    /**
+     * Parser output depends only on the query text and square brackets quotation.
+     */
+    private static class ParseKey {
+        private final boolean squareBrackets;
+        private final String text;
+
+        ParseKey(@Nullable SQLDialect dialect, @NotNull String text) {
+            boolean squareBrackets = false;
+            if (dialect != null) {
+                // Enable square brackets
+                for (String[] qs : ArrayUtils.safeArray(dialect.getIdentifierQuoteStrings())) {
+                    if (qs.length == 2 && "[".equals(qs[0]) && "]".equals(qs[1])) {
+                        squareBrackets = true;
+                        break;
+                    }
+                }
+            }
+            this.squareBrackets = squareBrackets;
+            this.text = text.trim();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ParseKey)) {
+                return false;
+            }
+            ParseKey key = (ParseKey) obj;
+            return squareBrackets == key.squareBrackets && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return text.hashCode() * 31 + (squareBrackets ? 1 : 0);
+        }
+    }
+
+    private static class ParseResult {
+        private final Statement statement;
+        private final Throwable error;
+
+        ParseResult(Statement statement, Throwable error) {
+            this.statement = statement;
+            this.error = error;
+        }
+    }
+
 }
@@ -0,0 +1,44 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+
+/**
+ * Data manipulator which can insert several rows with one statement (INSERT ... VALUES (...),(...)).
+ * Reduces number of round trips for drivers which execute JDBC batches row by row.
+ */
+public interface DBSDataManipulatorMultiRow extends DBSDataManipulator {
+
+    /**
+     * Creates insert batch which groups rows in multi-row statements.
+     * Falls back to regular insert batch if database doesn't support multi-row inserts.
+     * @param maxRowsInStatement maximum number of rows in one statement.
+     *                           Actual number may be lower because of database parameters count limit.
+     */
+    @NotNull
+    ExecuteBatch insertMultiRowData(
+        @NotNull DBCSession session,
+        @NotNull DBSAttributeBase[] attributes,
+        int maxRowsInStatement,
+        @NotNull DBCExecutionSource source)
+        throws DBCException;
+
+}
@@ -39,8 +39,10 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 {
     private static final Log log = Log.getLog(AbstractObjectCache.class);
 
-    private List<OBJECT> objectList;
-    private Map<String, OBJECT> objectMap;
+    private volatile CacheState<OBJECT> state;
+    // Modifications which are not published yet. Guarded by the cache lock.
+    private CacheChanges<OBJECT> changes;
+    private volatile boolean hasChanges;
     protected volatile boolean fullCache = false;
     protected volatile boolean caseSensitive = true;
     protected Comparator<OBJECT> listOrderComparator;
@@ -67,9 +69,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public List<OBJECT> getCachedObjects()
     {
-        synchronized (this) {
-            return objectList == null ? Collections.<OBJECT>emptyList() : objectList;
-        }
+        CacheState<OBJECT> curState = getState();
+        return curState == null ? Collections.<OBJECT>emptyList() : curState.objects;
     }
 
     public <SUB_TYPE> Collection<SUB_TYPE> getTypedObjects(DBRProgressMonitor monitor, OWNER owner, Class<SUB_TYPE> type)
@@ -88,30 +89,35 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public OBJECT getCachedObject(@NotNull String name)
     {
-        synchronized (this) {
-            return objectList == null || name == null ? null : getObjectMap().get(caseSensitive ? name : name.toUpperCase());
-        }
+        CacheState<OBJECT> curState = getState();
+        return curState == null || name == null ? null : getObjectMap(curState).get(caseSensitive ? name : name.toUpperCase());
     }
 
     public int getCacheSize() {
-        synchronized (this) {
-            return objectList == null ? 0 : objectList.size();
-        }
+        CacheState<OBJECT> curState = getState();
+        return curState == null ? 0 : curState.objects.size();
     }
 
     @Override
     public void cacheObject(@NotNull OBJECT object)
     {
         synchronized (this) {
-            if (this.objectList == null) {
-                this.objectList = new ArrayList<>();
-            }
             detectCaseSensitivity(object);
-            this.objectList.add(object);
-            if (this.objectMap != null) {
-                String name = getObjectName(object);
-                checkDuplicateName(name, object);
-                this.objectMap.put(name, object);
+            CacheChanges<OBJECT> curChanges = getChanges();
+            if (curChanges.removed.contains(object)) {
+                // Object is removed and added back, drop its old position
+                curChanges.compact();
+            }
+            curChanges.objects.add(object);
+            if (curChanges.objectMap != null) {
+                if (curChanges.indexCaseSensitive != caseSensitive) {
+                    // Index will be rebuilt on lookup
+                    curChanges.objectMap = null;
+                } else {
+                    String name = getObjectName(object);
+                    checkDuplicateName(curChanges.objectMap, name, object);
+                    curChanges.objectMap.put(name, object);
+                }
             }
         }
     }
@@ -120,12 +126,9 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
     {
         synchronized (this) {
-            if (this.objectList != null) {
+            if (this.state != null || this.changes != null) {
                 detectCaseSensitivity(object);
-                this.objectList.remove(object);
-                if (this.objectMap != null) {
-                    this.objectMap.remove(getObjectName(object));
-                }
+                removeCachedObject(object);
             }
             if (resetFullCache) {
                 fullCache = false;
@@ -136,14 +139,16 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public void renameObject(@NotNull OBJECT object, @NotNull String oldName, @NotNull String newName) {
         synchronized (this) {
-            if (this.objectMap != null) {
-                if (!caseSensitive) {
-                    oldName = oldName.toUpperCase(Locale.ENGLISH);
-                    newName = newName.toUpperCase(Locale.ENGLISH);
-                }
-                if (this.objectMap.remove(oldName) == object) {
-                    this.objectMap.put(newName, object);
-                }
+            if (!hasNameIndex()) {
+                return;
+            }
+            Map<String, OBJECT> objectMap = getChanges().objectMap;
+            if (!caseSensitive) {
+                oldName = oldName.toUpperCase(Locale.ENGLISH);
+                newName = newName.toUpperCase(Locale.ENGLISH);
+            }
+            if (objectMap.remove(oldName) == object) {
+                objectMap.put(newName, object);
             }
         }
     }
@@ -165,17 +170,30 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     public void clearCache()
     {
         synchronized (this) {
-            this.objectList = null;
-            this.objectMap = null;
+            this.changes = null;
+            this.hasChanges = false;
+            this.state = null;
             this.fullCache = false;
         }
     }
 
+    /**
+     * Replaces cache contents with a copy of the specified list
+     */
     public void setCache(List<OBJECT> objects)
+    {
+        setCacheObjects(new ArrayList<>(objects));
+    }
+
+    /**
+     * Replaces cache contents. The list is owned by the cache after this call.
+     */
+    private void setCacheObjects(List<OBJECT> objects)
     {
         synchronized (this) {
-            this.objectList = objects;
-            this.objectMap = null;
+            this.changes = null;
+            this.hasChanges = false;
+            this.state = new CacheState<>(objects, null);
             this.fullCache = true;
         }
     }
@@ -197,41 +215,115 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     protected void mergeCache(List<OBJECT> objects)
     {
         synchronized (this) {
-            if (this.objectList != null) {
+            publishChanges();
+            objects = new ArrayList<>(objects);
+            if (this.state != null) {
                 // Merge lists
-                objects = new ArrayList<>(objects);
+                Map<String, OBJECT> oldObjects = new HashMap<>();
+                for (OBJECT oldObject : state.objects) {
+                    // The first object with the same name wins
+                    oldObjects.putIfAbsent(getObjectName(oldObject), oldObject);
+                }
                 for (int i = 0; i < objects.size(); i++) {
-                    OBJECT newObject = objects.get(i);
-                    String newObjectName = getObjectName(newObject);
-                    for (int k = 0; k < objectList.size(); k++) {
-                        OBJECT oldObject = objectList.get(k);
-                        String oldObjectName = getObjectName(oldObject);
-                        if (newObjectName.equals(oldObjectName)) {
-                            objects.set(i, oldObject);
-                            break;
-                        }
+                    OBJECT oldObject = oldObjects.get(getObjectName(objects.get(i)));
+                    if (oldObject != null) {
+                        objects.set(i, oldObject);
                     }
                 }
             }
+            setCacheObjects(objects);
         }
-        setCache(objects);
     }
 
-    private synchronized Map<String, OBJECT> getObjectMap()
+    /**
+     * Name index is built once per cache state, on the first lookup.
+     * Concurrent readers may build it simultaneously, the result is the same.
+     */
+    private Map<String, OBJECT> getObjectMap(CacheState<OBJECT> curState)
     {
-        if (this.objectMap == null) {
-            this.objectMap = new HashMap<>();
-            for (OBJECT object : objectList) {
+        NameIndex<OBJECT> index = curState.index;
+        boolean curCaseSensitive = this.caseSensitive;
+        if (index == null || index.caseSensitive != curCaseSensitive) {
+            Map<String, OBJECT> objectMap = new HashMap<>(curState.objects.size() * 4 / 3 + 1);
+            for (OBJECT object : curState.objects) {
                 String name = getObjectName(object);
-                checkDuplicateName(name, object);
-                this.objectMap.put(name, object);
+                checkDuplicateName(objectMap, name, object);
+                objectMap.put(name, object);
+            }
+            index = new NameIndex<>(curCaseSensitive, objectMap);
+            curState.index = index;
+        }
+        return index.objectMap;
+    }
+
+    /**
+     * Returns current cache state. Pending modifications are published first.
+     * Readers take the lock only if there are pending modifications.
+     */
+    @Nullable
+    private CacheState<OBJECT> getState() {
+        if (hasChanges) {
+            synchronized (this) {
+                publishChanges();
             }
         }
-        return this.objectMap;
+        return state;
     }
 
-    private void checkDuplicateName(String name, OBJECT object) {
-        if (this.objectMap.containsKey(name)) {
+    /**
+     * Returns pending modifications. State is copied once for all modifications until the next publishing,
+     * so bulk updates (e.g. loading objects one by one or removing them while iterating) cost O(n) in total.
+     * Must be called under cache lock.
+     */
+    @NotNull
+    private CacheChanges<OBJECT> getChanges() {
+        if (changes == null) {
+            CacheState<OBJECT> curState = this.state;
+            List<OBJECT> objects = curState == null ? new ArrayList<>() : new ArrayList<>(curState.objects);
+            NameIndex<OBJECT> index = curState == null ? null : curState.index;
+            Map<String, OBJECT> objectMap = index == null || index.caseSensitive != caseSensitive ? null : new HashMap<>(index.objectMap);
+            changes = new CacheChanges<>(objects, objectMap, caseSensitive);
+            hasChanges = true;
+        }
+        return changes;
+    }
+
+    /**
+     * Must be called under cache lock
+     */
+    private void publishChanges() {
+        if (changes != null) {
+            changes.compact();
+            Map<String, OBJECT> objectMap = changes.objectMap;
+            this.state = new CacheState<>(changes.objects, objectMap == null ? null : new NameIndex<>(changes.indexCaseSensitive, objectMap));
+            changes = null;
+            hasChanges = false;
+        }
+    }
+
+    /**
+     * Checks that name index is maintained. Must be called under cache lock.
+     */
+    private boolean hasNameIndex() {
+        if (changes != null) {
+            return changes.objectMap != null && changes.indexCaseSensitive == caseSensitive;
+        }
+        return state != null && state.index != null && state.index.caseSensitive == caseSensitive;
+    }
+
+    private synchronized void removeCachedObject(OBJECT object) {
+        if (state == null && changes == null) {
+            return;
+        }
+        CacheChanges<OBJECT> curChanges = getChanges();
+        curChanges.removed.add(object);
+        if (curChanges.objectMap != null) {
+            curChanges.objectMap.remove(getObjectName(object));
+        }
+    }
+
+    private void checkDuplicateName(Map<String, OBJECT> objectMap, String name, OBJECT object) {
+        if (objectMap.containsKey(name)) {
             log.debug("Duplicate object name '" + name + "' in cache " + this.getClass().getSimpleName() + ". Last value: " + DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
         }
     }
@@ -257,21 +349,20 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 
     public void clearChildrenOf(DBSObject parent) {
         synchronized (this) {
-            if (objectList == null) {
+            publishChanges();
+            if (state == null) {
                 return;
             }
-            for (int i = 0; i < objectList.size(); ) {
-                OBJECT object = objectList.get(i);
-                if (object.getParentObject() == parent) {
-                    this.objectList.remove(object);
-                    if (this.objectMap != null) {
-                        this.objectMap.remove(getObjectName(object));
-                    }
-                    fullCache = false;
-                } else {
-                    i++;
+            List<OBJECT> objects = new ArrayList<>(state.objects.size());
+            for (OBJECT object : state.objects) {
+                if (object.getParentObject() != parent) {
+                    objects.add(object);
                 }
             }
+            if (objects.size() != state.objects.size()) {
+                this.state = new CacheState<>(objects, null);
+                fullCache = false;
+            }
         }
     }
 
@@ -341,8 +432,11 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         }
     }
 
+    /**
+     * Iterates over the current cache state. Removed objects are removed from the cache immediately.
+     */
     protected class CacheIterator implements Iterator<OBJECT> {
-        private Iterator<OBJECT> listIterator = objectList.iterator();
+        private Iterator<OBJECT> listIterator = getCachedObjects().iterator();
         private OBJECT curObject;
         public CacheIterator()
         {
@@ -363,13 +457,58 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         @Override
         public void remove()
         {
-            listIterator.remove();
-            if (objectMap != null) {
-                objectMap.remove(getObjectName(curObject));
+            removeCachedObject(curObject);
+        }
+    }
+
+    /**
+     * Cache contents. Object list and published name index are never modified:
+     * writers replace the whole state so readers don't need locks.
+     */
+    private static class CacheState<OBJECT> {
+        final List<OBJECT> objects;
+        volatile NameIndex<OBJECT> index;
+
+        CacheState(List<OBJECT> objects, NameIndex<OBJECT> index) {
+            this.objects = objects;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Modifiable copy of cache contents. Removed objects are dropped from the list on publishing.
+     */
+    private static class CacheChanges<OBJECT> {
+        final List<OBJECT> objects;
+        final Set<OBJECT> removed = new HashSet<>();
+        // Null if name index is not maintained
+        Map<String, OBJECT> objectMap;
+        final boolean indexCaseSensitive;
+
+        CacheChanges(List<OBJECT> objects, Map<String, OBJECT> objectMap, boolean indexCaseSensitive) {
+            this.objects = objects;
+            this.objectMap = objectMap;
+            this.indexCaseSensitive = indexCaseSensitive;
+        }
+
+        void compact() {
+            if (!removed.isEmpty()) {
+                objects.removeIf(removed::contains);
+                removed.clear();
             }
         }
     }
 
+    private static class NameIndex<OBJECT> {
+        final boolean caseSensitive;
+        final Map<String, OBJECT> objectMap;
+
+        NameIndex(boolean caseSensitive, Map<String, OBJECT> objectMap) {
+            this.caseSensitive = caseSensitive;
+            this.objectMap = objectMap;
+        }
+    }
+
     public static boolean isPropertyGroupField(Field field) {
         String getterName = "get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
         for (Method getter : field.getDeclaringClass().getMethods()) {
@@ -29,8 +29,15 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.utils.BeanUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstract object attribute
@@ -46,6 +53,18 @@ public abstract class ObjectAttributeDescriptor {
         }
     };
 
+    // Marks methods which can't be accessed with method handles
+    private static final MethodHandle REFLECTIVE_ACCESSOR = MethodHandles.constant(Object.class, null);
+
+    // Descriptors are created for each property source but accessors are built once per method.
+    // Accessors are kept with the declaring class, so they don't keep unloaded plugin class loaders.
+    private static final ClassValue<Map<Method, MethodHandle>> accessorCache = new ClassValue<Map<Method, MethodHandle>>() {
+        @Override
+        protected Map<Method, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     private final DBPPropertySource source;
     private ObjectPropertyGroupDescriptor parent;
     private int orderNumber;
@@ -186,6 +205,79 @@ public abstract class ObjectAttributeDescriptor {
         return annoProps;
     }
 
+    /**
+     * Invokes property getter or setter.
+     * Method handle is used instead of reflective call. Handles are cached per method.
+     * Exceptions are the same as of {@link Method#invoke(Object, Object...)}: everything thrown by the method
+     * itself (including errors like NoClassDefFoundError) is wrapped in InvocationTargetException.
+     */
+    static Object invokeMethod(@NotNull Method method, Object object, @Nullable Object[] args)
+        throws IllegalAccessException, IllegalArgumentException, InvocationTargetException
+    {
+        MethodHandle accessor = accessorCache.get(method.getDeclaringClass()).computeIfAbsent(method, ObjectAttributeDescriptor::makeAccessor);
+        // Conversion errors of the handle can't be told apart from errors of the method itself,
+        // so mismatched arguments go through reflection which reports them with IllegalArgumentException
+        if (accessor == REFLECTIVE_ACCESSOR || !isHandleApplicable(method, object, args)) {
+            return method.invoke(object, args);
+        }
+        try {
+            return (Object) accessor.invokeExact(object, args);
+        } catch (WrongMethodTypeException e) {
+            throw new IllegalArgumentException("Can't invoke " + method.getName() + ": " + e.getMessage(), e);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Checks that receiver and arguments exactly match method parameters (primitives must be passed as their wrappers)
+     */
+    private static boolean isHandleApplicable(@NotNull Method method, Object object, @Nullable Object[] args) {
+        if (!method.getDeclaringClass().isInstance(object)) {
+            return false;
+        }
+        Class<?>[] paramTypes = method.getParameterTypes();
+        int argCount = args == null ? 0 : args.length;
+        if (argCount != paramTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < argCount; i++) {
+            Class<?> paramType = paramTypes[i];
+            Object arg = args[i];
+            if (arg == null) {
+                if (paramType.isPrimitive()) {
+                    return false;
+                }
+            } else if (!MethodType.methodType(paramType).wrap().returnType().isInstance(arg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Makes (Object target, Object[] args) handle of the method.
+     * LambdaMetafactory is not used: it needs a lookup with private access to the model class and defines
+     * accessor classes in the loader of the lookup class, which doesn't see classes of other plugins.
+     */
+    @NotNull
+    private static MethodHandle makeAccessor(@NotNull Method method) {
+        if (Modifier.isStatic(method.getModifiers())) {
+            return REFLECTIVE_ACCESSOR;
+        }
+        try {
+            int paramCount = method.getParameterCount();
+            // (Object target, Object[] args) -> Object
+            return MethodHandles.publicLookup().unreflect(method)
+                .asType(MethodType.genericMethodType(paramCount + 1))
+                .asSpreader(Object[].class, paramCount);
+        } catch (Exception e) {
+            // Method of non-public class
+            log.debug("Can't create accessor for " + method + ", reflection will be used: " + e.getMessage());
+            return REFLECTIVE_ACCESSOR;
+        }
+    }
+
     static void extractAnnotations(
         @Nullable DBPPropertySource source,
         @Nullable ObjectPropertyGroupDescriptor parent,
@@ -375,7 +375,7 @@ public class ObjectPropertyDescriptor extends ObjectAttributeDescriptor implemen
             try {
                 DBExecUtils.tryExecuteRecover(progressMonitor, ((DBSObject) object).getDataSource(), param -> {
                     try {
-                        finalResult[0] = getter.invoke(finalObject, params);
+                        finalResult[0] = invokeMethod(getter, finalObject, params);
                     } catch (Exception e) {
                         throw new InvocationTargetException(e);
                     }
@@ -385,7 +385,7 @@ public class ObjectPropertyDescriptor extends ObjectAttributeDescriptor implemen
             }
             value = finalResult[0];
         } else {
-            value = getter.invoke(object, params);
+            value = invokeMethod(getter, object, params);
         }
 
         if (formatValue) {
@@ -443,7 +443,7 @@ public class ObjectPropertyDescriptor extends ObjectAttributeDescriptor implemen
                     value = ' ';
                 }
             }
-            setter.invoke(object, value);
+            invokeMethod(setter, object, new Object[] { value });
         } else {
             throw new IllegalAccessError("No setter found for property " + getId());
         }
@@ -20,6 +20,8 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.*;
 import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -27,6 +29,7 @@ import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.io.File;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -45,11 +48,27 @@ public class QMControllerImpl implements QMController {
 
     private QMExecutionHandler defaultHandler;
     private QMMCollectorImpl metaHandler;
+    @Nullable
+    private final DBPPreferenceStore preferenceStore;
+    private final DBPPreferenceListener preferenceListener = event -> {
+        if (QMConstants.PROP_STORE_HISTORY.equals(event.getProperty())) {
+            updateHistoryStore();
+        }
+    };
+    private QMEventHistoryStore historyStore;
     private final List<QMExecutionHandler> handlers = new ArrayList<>();
     private QMEventBrowser eventBrowser;
     private DefaultEventBrowser defaultEventBrowser = new DefaultEventBrowser();
 
     public QMControllerImpl() {
+        this(null);
+    }
+
+    /**
+     * @param preferenceStore store with query manager settings. Persistent query history is available only if it is specified.
+     */
+    public QMControllerImpl(@Nullable DBPPreferenceStore preferenceStore) {
+        this.preferenceStore = preferenceStore;
         defaultHandler = (QMExecutionHandler) Proxy.newProxyInstance(
             getClass().getClassLoader(),
             new Class[]{ QMExecutionHandler.class },
@@ -57,10 +76,19 @@ public class QMControllerImpl implements QMController {
 
         metaHandler = new QMMCollectorImpl();
         registerHandler(metaHandler);
+
+        if (preferenceStore != null) {
+            preferenceStore.addPropertyChangeListener(preferenceListener);
+            updateHistoryStore();
+        }
     }
 
     public void dispose()
     {
+        if (preferenceStore != null) {
+            preferenceStore.removePropertyChangeListener(preferenceListener);
+        }
+        closeHistoryStore();
         if (metaHandler != null) {
             unregisterHandler(metaHandler);
             metaHandler.dispose();
@@ -76,6 +104,38 @@ public class QMControllerImpl implements QMController {
       	defaultHandler = null;
     }
 
+    /**
+     * Opens or closes persistent query history according to preferences.
+     * History keeps all executed query texts on disk so it is disabled by default.
+     */
+    private synchronized void updateHistoryStore() {
+        boolean enabled = preferenceStore != null && preferenceStore.getBoolean(QMConstants.PROP_STORE_HISTORY);
+        if (enabled && historyStore == null && metaHandler != null) {
+            historyStore = QMEventHistoryStore.open(new File(GeneralUtils.getMetadataFolder(), "qm-history"), preferenceStore);
+            if (historyStore != null) {
+                metaHandler.addListener(historyStore);
+                if (eventBrowser == defaultEventBrowser) {
+                    eventBrowser = historyStore;
+                }
+            }
+        } else if (!enabled) {
+            closeHistoryStore();
+        }
+    }
+
+    private synchronized void closeHistoryStore() {
+        if (historyStore != null) {
+            if (metaHandler != null) {
+                metaHandler.removeListener(historyStore);
+            }
+            historyStore.close();
+            if (eventBrowser == historyStore) {
+                eventBrowser = defaultEventBrowser;
+            }
+            historyStore = null;
+        }
+    }
+
     @Override
     public QMMCollector getMetaCollector()
     {
@@ -95,8 +155,8 @@ public class QMControllerImpl implements QMController {
         if (eventBrowser == null) {
             eventBrowser = GeneralUtils.adapt(this, QMEventBrowser.class);
             if (eventBrowser == null) {
-                // Default browser
-                this.eventBrowser = defaultEventBrowser;
+                // Persistent history or default browser
+                this.eventBrowser = historyStore != null ? historyStore : defaultEventBrowser;
             }
         }
 
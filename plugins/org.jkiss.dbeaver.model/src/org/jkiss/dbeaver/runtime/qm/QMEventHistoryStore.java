@@ -0,0 +1,686 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.qm.*;
+import org.jkiss.dbeaver.model.qm.meta.QMMSessionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementInfo;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Persistent query history.
+ * Completed query executions are appended to segment files in the workspace metadata folder.
+ * Each segment is indexed in memory (time, data source, session, query purpose) on startup,
+ * record bodies are read from segment files only for index matches.
+ * Segments older than the history retention period are deleted.
+ * Segment files are never memory-mapped so they can be truncated and deleted on any OS.
+ */
+public class QMEventHistoryStore implements QMMetaListener, QMEventBrowser {
+
+    private static final Log log = Log.getLog(QMEventHistoryStore.class);
+
+    private static final int SEGMENT_MAGIC = 0x514D4831; // QMH1
+    private static final String SEGMENT_EXT = ".qmh";
+    private static final int HEADER_SIZE = 4;
+    private static final long MAX_SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final int MAX_SEGMENT_COUNT = 256;
+
+    // Record layout: length, openTime, closeTime, fetchBeginTime, fetchEndTime, rowCount, sessionId, sessionOpenTime,
+    // errorCode, purpose, transactional, then strings: containerId, containerName, driverId, instanceId, contextName, query, error
+    private static final int OFFSET_OPEN_TIME = 4;
+    private static final int OFFSET_CLOSE_TIME = 12;
+    private static final int OFFSET_FETCH_BEGIN_TIME = 20;
+    private static final int OFFSET_FETCH_END_TIME = 28;
+    private static final int OFFSET_ROW_COUNT = 36;
+    private static final int OFFSET_SESSION_ID = 44;
+    private static final int OFFSET_SESSION_OPEN_TIME = 52;
+    private static final int OFFSET_ERROR_CODE = 60;
+    private static final int OFFSET_PURPOSE = 64;
+    private static final int OFFSET_TRANSACTIONAL = 65;
+    private static final int OFFSET_STRINGS = 66;
+    private static final int STRING_COUNT = 7;
+
+    private final File folder;
+    private final DBPPreferenceStore preferenceStore;
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<String, Integer> containerKeys = new HashMap<>();
+    // Session object IDs are unique only within one run, so stored sessions get their own keys.
+    // Keys continue after the greatest stored one and thus stay unique across restarts.
+    private final Map<Long, Long> sessionKeys = new HashMap<>();
+    private long nextSessionKey = 1;
+    private FileChannel activeChannel;
+    private boolean closed;
+
+    private QMEventHistoryStore(@NotNull File folder, @NotNull DBPPreferenceStore preferenceStore) {
+        this.folder = folder;
+        this.preferenceStore = preferenceStore;
+    }
+
+    /**
+     * Opens history store in the specified folder.
+     * @return store or null if store folder can't be used
+     */
+    @Nullable
+    public static QMEventHistoryStore open(@NotNull File folder, @NotNull DBPPreferenceStore preferenceStore) {
+        if (!folder.exists() && !folder.mkdirs()) {
+            log.error("Can't create query history folder '" + folder.getAbsolutePath() + "'");
+            return null;
+        }
+        QMEventHistoryStore store = new QMEventHistoryStore(folder, preferenceStore);
+        try {
+            store.loadSegments();
+        } catch (IOException e) {
+            log.error("Error opening query history store", e);
+            store.close();
+            return null;
+        }
+        return store;
+    }
+
+    public synchronized void close() {
+        closed = true;
+        closeActiveChannel();
+    }
+
+    private void loadSegments() throws IOException {
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(SEGMENT_EXT));
+        if (files != null) {
+            for (File file : files) {
+                long sequence = CommonUtils.toLong(file.getName().substring(0, file.getName().length() - SEGMENT_EXT.length()), -1);
+                if (sequence < 0) {
+                    continue;
+                }
+                Segment segment = new Segment(file, sequence);
+                try {
+                    indexSegment(segment);
+                } catch (IOException | RuntimeException e) {
+                    // Broken segment must not prevent opening of the store
+                    log.warn("Skip broken query history segment '" + file.getName() + "'", e);
+                    continue;
+                }
+                segments.add(segment);
+            }
+        }
+        segments.sort(Comparator.comparingLong(s -> s.sequence));
+        removeExpiredSegments();
+    }
+
+    /**
+     * Reads record headers and builds segment index.
+     * Incomplete or corrupted record (e.g. after crash) and all records after it are cut off.
+     */
+    private void indexSegment(@NotNull Segment segment) throws IOException {
+        long fileSize = segment.file.length();
+        if (fileSize < HEADER_SIZE) {
+            throw new IOException("Segment is too short");
+        }
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Segment is too long");
+        }
+        // Read the whole segment into heap. Segment size is limited so it is cheaper than many small reads.
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileSize);
+        try (FileChannel channel = FileChannel.open(segment.file.toPath(), StandardOpenOption.READ)) {
+            readFully(channel, buffer, 0);
+        }
+        if (buffer.getInt(0) != SEGMENT_MAGIC) {
+            throw new IOException("Bad segment signature");
+        }
+        int offset = HEADER_SIZE;
+        while (offset + 4 <= fileSize) {
+            int length = buffer.getInt(offset);
+            if (length < OFFSET_STRINGS || offset + (long) length > fileSize || !isValidRecord(buffer, offset, length)) {
+                break;
+            }
+            long sessionKey = buffer.getLong(offset + OFFSET_SESSION_ID);
+            nextSessionKey = Math.max(nextSessionKey, sessionKey + 1);
+            segment.addEntry(
+                offset,
+                buffer.getLong(offset + OFFSET_CLOSE_TIME),
+                getContainerKey(readString(buffer, offset + OFFSET_STRINGS)),
+                sessionKey,
+                buffer.get(offset + OFFSET_PURPOSE));
+            offset += length;
+        }
+        segment.size = offset;
+    }
+
+    private int getContainerKey(@Nullable String containerId) {
+        if (containerId == null) {
+            return -1;
+        }
+        Integer key = containerKeys.get(containerId);
+        if (key == null) {
+            key = containerKeys.size();
+            containerKeys.put(containerId, key);
+        }
+        return key;
+    }
+
+    private long getSessionKey(@NotNull QMMSessionInfo session) {
+        Long key = sessionKeys.get(session.getObjectId());
+        if (key == null) {
+            key = nextSessionKey++;
+            sessionKeys.put(session.getObjectId(), key);
+        }
+        return key;
+    }
+
+    @Override
+    public void metaInfoChanged(DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events) {
+        List<QMMStatementExecuteInfo> executions = null;
+        for (QMMetaEvent event : events) {
+            if (event.getAction() == QMMetaEvent.Action.END && event.getObject() instanceof QMMStatementExecuteInfo) {
+                if (executions == null) {
+                    executions = new ArrayList<>();
+                }
+                executions.add((QMMStatementExecuteInfo) event.getObject());
+            }
+        }
+        if (executions != null) {
+            appendExecutions(executions);
+        }
+    }
+
+    private synchronized void appendExecutions(@NotNull List<QMMStatementExecuteInfo> executions) {
+        if (closed) {
+            return;
+        }
+        try {
+            Segment segment = getActiveSegment();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(executions.size() * 256);
+            ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+            int[] recordOffsets = new int[executions.size()];
+            long[] recordSessions = new long[executions.size()];
+            for (int i = 0; i < executions.size(); i++) {
+                recordOffsets[i] = (int) segment.size + bytes.size();
+                recordSessions[i] = getSessionKey(executions.get(i).getStatement().getSession());
+                recordBytes.reset();
+                writeRecord(new DataOutputStream(recordBytes), executions.get(i), recordSessions[i]);
+                // Record length includes length field itself
+                int length = recordBytes.size() + 4;
+                bytes.write(length >>> 24);
+                bytes.write(length >>> 16);
+                bytes.write(length >>> 8);
+                bytes.write(length);
+                recordBytes.writeTo(bytes);
+            }
+            ByteBuffer data = ByteBuffer.wrap(bytes.toByteArray());
+            while (data.hasRemaining()) {
+                activeChannel.write(data, segment.size + data.position());
+            }
+            for (int i = 0; i < executions.size(); i++) {
+                QMMStatementExecuteInfo execution = executions.get(i);
+                QMMSessionInfo session = execution.getStatement().getSession();
+                segment.addEntry(
+                    recordOffsets[i],
+                    execution.getCloseTime(),
+                    getContainerKey(session.getContainerId()),
+                    recordSessions[i],
+                    (byte) execution.getStatement().getPurpose().getId());
+            }
+            segment.size += bytes.size();
+        } catch (IOException e) {
+            log.warn("IO error writing query history. Disable history store", e);
+            closed = true;
+            closeActiveChannel();
+        }
+    }
+
+    private static void writeRecord(@NotNull DataOutputStream out, @NotNull QMMStatementExecuteInfo execution, long sessionKey) throws IOException {
+        QMMStatementInfo statement = execution.getStatement();
+        QMMSessionInfo session = statement.getSession();
+        out.writeLong(execution.getOpenTime());
+        out.writeLong(execution.getCloseTime());
+        out.writeLong(execution.getFetchBeginTime());
+        out.writeLong(execution.getFetchEndTime());
+        out.writeLong(execution.getFetchRowCount() > 0 ? execution.getFetchRowCount() : execution.getUpdateRowCount());
+        out.writeLong(sessionKey);
+        out.writeLong(session.getOpenTime());
+        out.writeInt(execution.getErrorCode());
+        out.writeByte(statement.getPurpose().getId());
+        out.writeByte(execution.isTransactional() ? 1 : 0);
+        writeString(out, session.getContainerId());
+        writeString(out, session.getContainerName());
+        writeString(out, session.getDriverId());
+        writeString(out, session.getInstanceId());
+        writeString(out, session.getContextName());
+        writeString(out, execution.getQueryString());
+        writeString(out, execution.getErrorMessage());
+        out.flush();
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Nullable
+    private static String readString(@NotNull ByteBuffer buffer, int offset) {
+        int length = buffer.getInt(offset);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int skipString(@NotNull ByteBuffer buffer, int offset) {
+        return offset + 4 + Math.max(buffer.getInt(offset), 0);
+    }
+
+    /**
+     * Checks that record strings exactly fill the record, so the record can be decoded
+     */
+    private static boolean isValidRecord(@NotNull ByteBuffer buffer, int offset, int length) {
+        int end = offset + length;
+        int pos = offset + OFFSET_STRINGS;
+        for (int i = 0; i < STRING_COUNT; i++) {
+            if (end - pos < 4) {
+                return false;
+            }
+            int stringLength = buffer.getInt(pos);
+            pos += 4;
+            if (stringLength < -1 || stringLength > end - pos) {
+                return false;
+            }
+            pos += Math.max(stringLength, 0);
+        }
+        return pos == end;
+    }
+
+    private static void readFully(@NotNull FileChannel channel, @NotNull ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of query history segment");
+            }
+        }
+    }
+
+    @NotNull
+    private Segment getActiveSegment() throws IOException {
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment != null && segment.size >= MAX_SEGMENT_SIZE) {
+            // Seal current segment and start a new one
+            closeActiveChannel();
+            segment = null;
+        }
+        if (segment == null) {
+            long sequence = segments.isEmpty() ? 1 : segments.get(segments.size() - 1).sequence + 1;
+            segment = new Segment(new File(folder, String.format("%010d", sequence) + SEGMENT_EXT), sequence);
+            activeChannel = FileChannel.open(segment.file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(SEGMENT_MAGIC).flip();
+            activeChannel.write(header, 0);
+            segment.size = HEADER_SIZE;
+            segments.add(segment);
+            removeExpiredSegments();
+        } else if (activeChannel == null) {
+            activeChannel = FileChannel.open(segment.file.toPath(), StandardOpenOption.WRITE);
+            // Cut off incomplete tail record
+            activeChannel.truncate(segment.size);
+        }
+        return segment;
+    }
+
+    private void closeActiveChannel() {
+        if (activeChannel != null) {
+            try {
+                activeChannel.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            activeChannel = null;
+        }
+    }
+
+    /**
+     * Deletes segments which are completely out of history retention period.
+     * Active (last) segment is never deleted.
+     */
+    private void removeExpiredSegments() {
+        long minTime = getMinHistoryTime();
+        while (segments.size() > 1) {
+            Segment oldest = segments.get(0);
+            if (segments.size() <= MAX_SEGMENT_COUNT && oldest.maxTime >= minTime) {
+                break;
+            }
+            segments.remove(0);
+            if (!oldest.file.delete()) {
+                log.debug("Can't delete expired query history segment '" + oldest.file.getName() + "'");
+            }
+        }
+    }
+
+    private long getMinHistoryTime() {
+        int historyDays = preferenceStore.getInt(QMConstants.PROP_HISTORY_DAYS);
+        if (historyDays <= 0) {
+            return 0;
+        }
+        return System.currentTimeMillis() - historyDays * 24L * 60 * 60 * 1000;
+    }
+
+    @Override
+    public QMEventCursor getQueryHistoryCursor(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull QMEventCriteria criteria,
+        @Nullable QMEventFilter filter)
+        throws DBException
+    {
+        List<SegmentSnapshot> snapshots = new ArrayList<>();
+        int containerKey = -1;
+        long sessionKey = -1;
+        synchronized (this) {
+            if (criteria.hasObjectTypes() && !criteria.hasObjectType(QMObjectType.query)) {
+                // Only query executions are stored
+                return new QMUtils.ListCursorImpl(Collections.emptyList());
+            }
+            if (criteria.getContainerId() != null) {
+                Integer key = containerKeys.get(criteria.getContainerId());
+                if (key == null) {
+                    return new QMUtils.ListCursorImpl(Collections.emptyList());
+                }
+                containerKey = key;
+            }
+            if (!CommonUtils.isEmpty(criteria.getSessionId())) {
+                // Criteria refer to live sessions of the current run
+                Long key = sessionKeys.get(CommonUtils.toLong(criteria.getSessionId(), -1));
+                if (key == null) {
+                    return new QMUtils.ListCursorImpl(Collections.emptyList());
+                }
+                sessionKey = key;
+            }
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                Segment segment = segments.get(i);
+                if (segment.count == 0) {
+                    continue;
+                }
+                snapshots.add(new SegmentSnapshot(segment));
+            }
+        }
+        return new HistoryCursor(snapshots, criteria, containerKey, sessionKey, getMinHistoryTime(), filter);
+    }
+
+    private static class Segment {
+        final File file;
+        final long sequence;
+        long size;
+        long maxTime;
+
+        // Index
+        int count;
+        int[] offsets = new int[256];
+        long[] times = new long[256];
+        int[] containers = new int[256];
+        long[] sessions = new long[256];
+        byte[] purposes = new byte[256];
+
+        Segment(File file, long sequence) {
+            this.file = file;
+            this.sequence = sequence;
+        }
+
+        void addEntry(int offset, long time, int container, long session, byte purpose) {
+            if (count == offsets.length) {
+                // Arrays are replaced, not modified, so cursors can keep reading old ones
+                int newSize = count * 2;
+                offsets = Arrays.copyOf(offsets, newSize);
+                times = Arrays.copyOf(times, newSize);
+                containers = Arrays.copyOf(containers, newSize);
+                sessions = Arrays.copyOf(sessions, newSize);
+                purposes = Arrays.copyOf(purposes, newSize);
+            }
+            offsets[count] = offset;
+            times[count] = time;
+            containers[count] = container;
+            sessions[count] = session;
+            purposes[count] = purpose;
+            count++;
+            maxTime = Math.max(maxTime, time);
+        }
+    }
+
+    /**
+     * Segment index state at cursor creation. Entries appended later are not visible.
+     */
+    private static class SegmentSnapshot {
+        final File file;
+        final int count;
+        final int[] offsets;
+        final long[] times;
+        final int[] containers;
+        final long[] sessions;
+        final byte[] purposes;
+
+        SegmentSnapshot(Segment segment) {
+            this.file = segment.file;
+            this.count = segment.count;
+            this.offsets = segment.offsets;
+            this.times = segment.times;
+            this.containers = segment.containers;
+            this.sessions = segment.sessions;
+            this.purposes = segment.purposes;
+        }
+    }
+
+    /**
+     * Iterates segments from the newest record to the oldest.
+     * Index arrays are checked first, records are decoded only for index matches.
+     */
+    private static class HistoryCursor implements QMEventCursor {
+
+        private final List<SegmentSnapshot> snapshots;
+        private final QMEventCriteria criteria;
+        private final int containerKey;
+        private final long sessionKey;
+        @Nullable
+        private final QMEventFilter filter;
+        @Nullable
+        private final String searchString;
+        private final long minTime;
+
+        private int segmentIndex;
+        private int entryIndex;
+        private QMMetaEvent nextEvent;
+        // Channel of the current segment
+        private FileChannel channel;
+        private ByteBuffer recordBuffer = ByteBuffer.allocate(1024);
+
+        HistoryCursor(List<SegmentSnapshot> snapshots, QMEventCriteria criteria, int containerKey, long sessionKey, long minTime, @Nullable QMEventFilter filter) {
+            this.snapshots = snapshots;
+            this.criteria = criteria;
+            this.containerKey = containerKey;
+            this.sessionKey = sessionKey;
+            this.filter = filter;
+            this.searchString = CommonUtils.isEmpty(criteria.getSearchString()) ? null : criteria.getSearchString().toLowerCase();
+            this.minTime = minTime;
+            resetPosition();
+        }
+
+        private void resetPosition() {
+            closeChannel();
+            segmentIndex = 0;
+            entryIndex = snapshots.isEmpty() ? -1 : snapshots.get(0).count - 1;
+            nextEvent = null;
+        }
+
+        private void closeChannel() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.debug(e);
+                }
+                channel = null;
+            }
+        }
+
+        @NotNull
+        private ByteBuffer readRecord(@NotNull SegmentSnapshot snapshot, int offset) throws IOException {
+            if (channel == null) {
+                channel = FileChannel.open(snapshot.file.toPath(), StandardOpenOption.READ);
+            }
+            recordBuffer.clear().limit(4);
+            readFully(channel, recordBuffer, offset);
+            int length = recordBuffer.getInt(0);
+            if (length < OFFSET_STRINGS || length > channel.size() - offset) {
+                throw new IOException("Bad record length " + length);
+            }
+            if (recordBuffer.capacity() < length) {
+                recordBuffer = ByteBuffer.allocate(Math.max(length, recordBuffer.capacity() * 2));
+            }
+            recordBuffer.clear().limit(length);
+            readFully(channel, recordBuffer, offset);
+            // Segment file may be changed after indexing
+            if (!isValidRecord(recordBuffer, 0, length)) {
+                throw new IOException("Corrupted record at " + offset);
+            }
+            return recordBuffer;
+        }
+
+        @Override
+        public long getTotalSize() {
+            // Upper bound, criteria are applied while reading
+            long total = 0;
+            for (SegmentSnapshot snapshot : snapshots) {
+                total += snapshot.count;
+            }
+            return total;
+        }
+
+        @Override
+        public void scroll(int position, DBRProgressMonitor monitor) throws DBException {
+            resetPosition();
+            for (int i = 0; i < position; i++) {
+                if (!hasNextEvent(monitor)) {
+                    throw new DBException("Position is out of range (" + i + ")");
+                }
+                nextEvent = null;
+            }
+        }
+
+        @Override
+        public boolean hasNextEvent(DBRProgressMonitor monitor) throws DBException {
+            while (nextEvent == null && segmentIndex < snapshots.size() && !monitor.isCanceled()) {
+                SegmentSnapshot snapshot = snapshots.get(segmentIndex);
+                if (entryIndex < 0) {
+                    closeChannel();
+                    segmentIndex++;
+                    entryIndex = segmentIndex < snapshots.size() ? snapshots.get(segmentIndex).count - 1 : -1;
+                    continue;
+                }
+                int entry = entryIndex--;
+                if (snapshot.times[entry] < minTime) {
+                    // Older entries are out of retention period
+                    closeChannel();
+                    segmentIndex = snapshots.size();
+                    break;
+                }
+                if (containerKey >= 0 && snapshot.containers[entry] != containerKey) {
+                    continue;
+                }
+                if (sessionKey >= 0 && snapshot.sessions[entry] != sessionKey) {
+                    continue;
+                }
+                if (criteria.hasQueryTypes() && !criteria.hasQueryType(DBCExecutionPurpose.getById(snapshot.purposes[entry]))) {
+                    continue;
+                }
+                QMMetaEvent event;
+                try {
+                    event = readEvent(readRecord(snapshot, snapshot.offsets[entry]), 0);
+                } catch (IOException e) {
+                    throw new DBException("Error reading query history segment '" + snapshot.file.getName() + "'", e);
+                }
+                if (searchString != null && !event.getObject().getText().toLowerCase().contains(searchString)) {
+                    continue;
+                }
+                if (filter != null && !filter.accept(event)) {
+                    continue;
+                }
+                nextEvent = event;
+            }
+            return nextEvent != null;
+        }
+
+        @Override
+        public QMMetaEvent nextEvent(DBRProgressMonitor monitor) throws DBException {
+            if (!hasNextEvent(monitor)) {
+                throw new DBException("No more events in query history");
+            }
+            QMMetaEvent event = nextEvent;
+            nextEvent = null;
+            return event;
+        }
+
+        @Override
+        public void close() {
+            closeChannel();
+            snapshots.clear();
+        }
+    }
+
+    @NotNull
+    private static QMMetaEvent readEvent(@NotNull ByteBuffer buffer, int offset) {
+        long openTime = buffer.getLong(offset + OFFSET_OPEN_TIME);
+        long closeTime = buffer.getLong(offset + OFFSET_CLOSE_TIME);
+        long fetchBeginTime = buffer.getLong(offset + OFFSET_FETCH_BEGIN_TIME);
+        long fetchEndTime = buffer.getLong(offset + OFFSET_FETCH_END_TIME);
+        long rowCount = buffer.getLong(offset + OFFSET_ROW_COUNT);
+        long sessionOpenTime = buffer.getLong(offset + OFFSET_SESSION_OPEN_TIME);
+        int errorCode = buffer.getInt(offset + OFFSET_ERROR_CODE);
+        DBCExecutionPurpose purpose = DBCExecutionPurpose.getById(buffer.get(offset + OFFSET_PURPOSE));
+        boolean transactional = buffer.get(offset + OFFSET_TRANSACTIONAL) != 0;
+        String[] strings = new String[STRING_COUNT];
+        int pos = offset + OFFSET_STRINGS;
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(buffer, pos);
+            pos = skipString(buffer, pos);
+        }
+        QMMSessionInfo session = new QMMSessionInfo(
+            sessionOpenTime, 0, strings[0], strings[1], strings[2], null, strings[3], strings[4], false);
+        QMMStatementInfo statement = new QMMStatementInfo(openTime, closeTime, session, purpose);
+        QMMStatementExecuteInfo execution = new QMMStatementExecuteInfo(
+            openTime, closeTime, statement, strings[5], rowCount, errorCode, strings[6], fetchBeginTime, fetchEndTime, transactional);
+        return new QMMetaEvent(execution, QMMetaEvent.Action.END);
+    }
+
+}
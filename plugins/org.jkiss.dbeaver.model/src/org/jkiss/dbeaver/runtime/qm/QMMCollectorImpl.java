@@ -32,12 +32,22 @@ import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.utils.LongKeyMap;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
- * Query manager execution handler implementation
+ * Query manager execution handler implementation.
+ *
+ * Handlers are called from all execution contexts so there is no global lock here.
+ * Session map is split in stripes by context ID, session state is guarded by the session itself
+ * and events are collected in a lock-free queue which is drained by the event dispatcher.
  */
 public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMCollector {
 
@@ -45,39 +55,48 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
     private static final long EVENT_DISPATCH_PERIOD = 250;
     private static final int MAX_HISTORY_EVENTS = 10000;
+    // Must be a power of 2
+    private static final int SESSION_MAP_STRIPES = 16;
 
-    // Session map
-    private LongKeyMap<QMMSessionInfo> sessionMap = new LongKeyMap<>();
-    private List<Long> closedSessions = new ArrayList<>();
+    // Session map stripes. Each stripe is guarded by itself.
+    @SuppressWarnings("unchecked")
+    private final LongKeyMap<QMMSessionInfo>[] sessionMaps = new LongKeyMap[SESSION_MAP_STRIPES];
+    // IDs of closed sessions waiting for cleanup. Set makes removal on reopen cheap.
+    private final Set<Long> closedSessions = ConcurrentHashMap.newKeySet();
 
     // External listeners
     private final List<QMMetaListener> listeners = new ArrayList<>();
 
     // Temporary event pool
-    private List<QMMetaEvent> eventPool = new ArrayList<>();
+    private final Queue<QMMetaEvent> eventPool = new ConcurrentLinkedQueue<>();
     // Sync object
     private final Object historySync = new Object();
-    // History (may be purged when limit reached)
-    private List<QMMetaEvent> pastEvents = new ArrayList<>();
-    private boolean running = true;
+    // History (oldest events are purged when limit reached)
+    private final ArrayDeque<QMMetaEvent> pastEvents = new ArrayDeque<>();
+    private volatile boolean running = true;
 
     public QMMCollectorImpl()
     {
+        for (int i = 0; i < sessionMaps.length; i++) {
+            sessionMaps[i] = new LongKeyMap<>();
+        }
         new EventDispatcher().schedule(EVENT_DISPATCH_PERIOD);
     }
 
-    public synchronized void dispose()
+    public void dispose()
     {
-        if (!sessionMap.isEmpty()) {
-            List<QMMSessionInfo> openSessions = new ArrayList<>();
-            for (QMMSessionInfo session : sessionMap.values()) {
-                if (!session.isClosed()) {
-                    openSessions.add(session);
+        List<QMMSessionInfo> openSessions = new ArrayList<>();
+        for (LongKeyMap<QMMSessionInfo> sessionMap : sessionMaps) {
+            synchronized (sessionMap) {
+                for (QMMSessionInfo session : sessionMap.values()) {
+                    if (!session.isClosed()) {
+                        openSessions.add(session);
+                    }
                 }
             }
-            if (!openSessions.isEmpty()) {
-                log.warn("Some sessions are still open: " + openSessions);
-            }
+        }
+        if (!openSessions.isEmpty()) {
+            log.warn("Some sessions are still open: " + openSessions);
         }
         synchronized (listeners) {
             if (!listeners.isEmpty()) {
@@ -129,26 +148,38 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
     }
 
-    private synchronized void fireMetaEvent(final QMMObject object, final QMMetaEvent.Action action)
+    private void fireMetaEvent(final QMMObject object, final QMMetaEvent.Action action)
     {
         eventPool.add(new QMMetaEvent(object, action));
     }
 
-    private synchronized List<QMMetaEvent> obtainEvents()
+    private List<QMMetaEvent> obtainEvents()
     {
         if (eventPool.isEmpty()) {
             return Collections.emptyList();
         }
-        List<QMMetaEvent> events = eventPool;
-        eventPool = new ArrayList<>();
+        List<QMMetaEvent> events = new ArrayList<>();
+        for (QMMetaEvent event = eventPool.poll(); event != null; event = eventPool.poll()) {
+            events.add(event);
+        }
         return events;
     }
 
+    private LongKeyMap<QMMSessionInfo> getSessionMap(long contextId)
+    {
+        return sessionMaps[(int) (contextId & (SESSION_MAP_STRIPES - 1))];
+    }
+
     public QMMSessionInfo getSessionInfo(DBCExecutionContext context)
     {
-        QMMSessionInfo sessionInfo = sessionMap.get(context.getContextId());
+        final long contextId = context.getContextId();
+        final LongKeyMap<QMMSessionInfo> sessionMap = getSessionMap(contextId);
+        QMMSessionInfo sessionInfo;
+        synchronized (sessionMap) {
+            sessionInfo = sessionMap.get(contextId);
+        }
         if (sessionInfo == null) {
-            log.debug("Can't find sessionInfo meta information: " + context.getContextId() + " (" + context.getContextName() + ")");
+            log.debug("Can't find sessionInfo meta information: " + contextId + " (" + context.getContextName() + ")");
         }
         return sessionInfo;
     }
@@ -161,143 +192,173 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional)
+    public void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional)
     {
         final long contextId = context.getContextId();
-        QMMSessionInfo session = sessionMap.get(contextId);
-        if (session == null) {
-            session = new QMMSessionInfo(
-                context,
-                transactional);
-            sessionMap.put(contextId, session);
-        } else {
-            // This session may already be in cache in case of reconnect/invalidate
-            // (when context closed and reopened without new context object creation)
-            session.reopen(context);
+        final LongKeyMap<QMMSessionInfo> sessionMap = getSessionMap(contextId);
+        // Session is created or reopened under the stripe lock so the dispatcher cleanup
+        // (which checks isClosed() under the same lock) can't evict a session being reopened
+        synchronized (sessionMap) {
+            QMMSessionInfo session = sessionMap.get(contextId);
+            boolean reopen = false;
+            if (session == null) {
+                session = new QMMSessionInfo(
+                    context,
+                    transactional);
+                sessionMap.put(contextId, session);
+            } else {
+                reopen = true;
+            }
+            synchronized (session) {
+                if (reopen) {
+                    // This session may already be in cache in case of reconnect/invalidate
+                    // (when context closed and reopened without new context object creation)
+                    session.reopen(context);
+                }
+                // Remove from closed sessions (in case of re-opened connection)
+                closedSessions.remove(contextId);
+                // Notify
+                fireMetaEvent(session, QMMetaEvent.Action.BEGIN);
+            }
         }
-
-        // Remove from closed sessions (in case of re-opened connection)
-        closedSessions.remove(contextId);
-        // Notify
-        fireMetaEvent(session, QMMetaEvent.Action.BEGIN);
     }
 
     @Override
-    public synchronized void handleContextClose(@NotNull DBCExecutionContext context)
+    public void handleContextClose(@NotNull DBCExecutionContext context)
     {
         QMMSessionInfo session = getSessionInfo(context);
         if (session != null) {
-            session.close();
-            fireMetaEvent(session, QMMetaEvent.Action.END);
+            synchronized (session) {
+                session.close();
+                fireMetaEvent(session, QMMetaEvent.Action.END);
+            }
         }
         closedSessions.add(context.getContextId());
     }
 
     @Override
-    public synchronized void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit)
+    public void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit)
     {
         QMMSessionInfo sessionInfo = getSessionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
-            if (oldTxn != null) {
-                fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
+                if (oldTxn != null) {
+                    fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+                }
+                fireMetaEvent(sessionInfo, QMMetaEvent.Action.UPDATE);
             }
-            fireMetaEvent(sessionInfo, QMMetaEvent.Action.UPDATE);
         }
     }
 
     @Override
-    public synchronized void handleTransactionCommit(@NotNull DBCExecutionContext context)
+    public void handleTransactionCommit(@NotNull DBCExecutionContext context)
     {
         QMMSessionInfo sessionInfo = getSessionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.commit();
-            if (oldTxn != null) {
-                fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.commit();
+                if (oldTxn != null) {
+                    fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint)
+    public void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint)
     {
         QMMSessionInfo sessionInfo = getSessionInfo(context);
         if (sessionInfo != null) {
-            QMMObject oldTxn = sessionInfo.rollback(savepoint);
-            if (oldTxn != null) {
-                fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+            synchronized (sessionInfo) {
+                QMMObject oldTxn = sessionInfo.rollback(savepoint);
+                if (oldTxn != null) {
+                    fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementOpen(@NotNull DBCStatement statement)
+    public void handleStatementOpen(@NotNull DBCStatement statement)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.openStatement(statement);
-            fireMetaEvent(stat, QMMetaEvent.Action.BEGIN);
+            synchronized (session) {
+                QMMStatementInfo stat = session.openStatement(statement);
+                fireMetaEvent(stat, QMMetaEvent.Action.BEGIN);
+            }
         }
     }
 
     @Override
-    public synchronized void handleStatementClose(@NotNull DBCStatement statement, long rows)
+    public void handleStatementClose(@NotNull DBCStatement statement, long rows)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.closeStatement(statement, rows);
-            if (stat == null) {
-                log.warn("Can't properly handle statement close");
-            } else {
-                fireMetaEvent(stat, QMMetaEvent.Action.END);
+            synchronized (session) {
+                QMMStatementInfo stat = session.closeStatement(statement, rows);
+                if (stat == null) {
+                    log.warn("Can't properly handle statement close");
+                } else {
+                    fireMetaEvent(stat, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteBegin(@NotNull DBCStatement statement)
+    public void handleStatementExecuteBegin(@NotNull DBCStatement statement)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginExecution(statement);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.BEGIN);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginExecution(statement);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.BEGIN);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error)
+    public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.END);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetOpen(@NotNull DBCResultSet resultSet)
+    public void handleResultSetOpen(@NotNull DBCResultSet resultSet)
     {
         QMMSessionInfo session = getSessionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount)
+    public void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount)
     {
         QMMSessionInfo session = getSessionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+                }
             }
         }
     }
@@ -314,40 +375,37 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         @Override
         protected IStatus run(DBRProgressMonitor monitor)
         {
-            final List<QMMetaEvent> events;
-            List<Long> sessionsToClose;
-            synchronized (QMMCollectorImpl.this) {
-                events = obtainEvents();
-                sessionsToClose = closedSessions;
-                closedSessions.clear();
-            }
+            final List<QMMetaEvent> events = obtainEvents();
             final List<QMMetaListener> listeners = getListeners();
             if (!listeners.isEmpty() && !events.isEmpty()) {
                 // Reverse collection. Fresh events must come first.
-                Collections.reverse(events);
+                List<QMMetaEvent> reversedEvents = new ArrayList<>(events);
+                Collections.reverse(reversedEvents);
                 // Dispatch all events
                 for (QMMetaListener listener : listeners) {
                     try {
-                        listener.metaInfoChanged(monitor, events);
+                        listener.metaInfoChanged(monitor, reversedEvents);
                     } catch (Throwable e) {
                         log.error("Error notifying event listener", e);
                     }
                 }
             }
-            synchronized (historySync) {
-                pastEvents.addAll(events);
-                int size = pastEvents.size();
-                if (size > MAX_HISTORY_EVENTS) {
-                    pastEvents = new ArrayList<>(pastEvents.subList(
-                        size - MAX_HISTORY_EVENTS,
-                        size));
+            if (!events.isEmpty()) {
+                synchronized (historySync) {
+                    pastEvents.addAll(events);
+                    while (pastEvents.size() > MAX_HISTORY_EVENTS) {
+                        pastEvents.removeFirst();
+                    }
                 }
             }
             // Cleanup closed sessions
-            synchronized (QMMCollectorImpl.this) {
-                for (Long sessionId : sessionsToClose) {
+            for (Iterator<Long> iter = closedSessions.iterator(); iter.hasNext(); ) {
+                final Long sessionId = iter.next();
+                iter.remove();
+                final LongKeyMap<QMMSessionInfo> sessionMap = getSessionMap(sessionId);
+                synchronized (sessionMap) {
                     final QMMSessionInfo session = sessionMap.get(sessionId);
-                    if (session != null && !session.isClosed()) {
+                    if (session != null && session.isClosed()) {
                         // It is possible (rarely) that session was reopened before event dispatcher run
                         // In that case just ignore it
                         sessionMap.remove(sessionId);
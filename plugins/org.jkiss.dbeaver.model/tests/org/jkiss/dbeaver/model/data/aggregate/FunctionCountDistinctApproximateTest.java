@@ -0,0 +1,72 @@
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FunctionCountDistinctApproximateTest {
+
+    private static void assertEstimate(long expected, Object result, double relativeError) {
+        long estimate = (Long) result;
+        Assert.assertTrue("Estimate " + estimate + " of " + expected, Math.abs(estimate - expected) <= expected * relativeError);
+    }
+
+    @Test
+    public void testSmallCardinality() {
+        FunctionCountDistinctApproximate function = new FunctionCountDistinctApproximate();
+        for (int i = 0; i < 10000; i++) {
+            function.accumulate(i % 1000, false);
+        }
+        assertEstimate(1000, function.getResult(10000), 0.02);
+    }
+
+    @Test
+    public void testLargeCardinality() {
+        FunctionCountDistinctApproximate function = new FunctionCountDistinctApproximate();
+        int count = 1000000;
+        for (int i = 0; i < count; i++) {
+            function.accumulate("value" + i, false);
+        }
+        // Standard error is about 0.8%
+        assertEstimate(count, function.getResult(count), 0.03);
+    }
+
+    @Test
+    public void testNumbers() {
+        FunctionCountDistinctApproximate function = new FunctionCountDistinctApproximate();
+        function.accumulate(1, false);
+        function.accumulate(1L, false);
+        function.accumulate(1.0, false);
+        function.accumulate("1", false);
+        function.accumulate(2.5, false);
+        function.accumulate("2.5", false);
+        Assert.assertEquals(2L, function.getResult(6));
+    }
+
+    @Test
+    public void testStrings() {
+        FunctionCountDistinctApproximate function = new FunctionCountDistinctApproximate();
+        function.accumulate(1, true);
+        function.accumulate("1", true);
+        function.accumulate("1.0", true);
+        Assert.assertEquals(2L, function.getResult(3));
+    }
+
+    @Test
+    public void testNulls() {
+        FunctionCountDistinctApproximate function = new FunctionCountDistinctApproximate();
+        Assert.assertTrue(function.accumulate(null, false));
+        Assert.assertFalse(function.accumulate(null, false));
+        function.accumulate("a", false);
+        Assert.assertEquals(2L, function.getResult(3));
+    }
+
+    @Test
+    public void testResultIsLimitedByValueCount() {
+        FunctionCountDistinctApproximate function = new FunctionCountDistinctApproximate();
+        for (int i = 0; i < 100; i++) {
+            function.accumulate(i, false);
+        }
+        Assert.assertEquals(50L, function.getResult(50));
+    }
+
+}
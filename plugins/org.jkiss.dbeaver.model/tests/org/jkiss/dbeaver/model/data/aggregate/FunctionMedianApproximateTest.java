@@ -0,0 +1,78 @@
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+public class FunctionMedianApproximateTest {
+
+    @Test
+    public void testSmallSetIsExact() {
+        FunctionMedianApproximate function = new FunctionMedianApproximate();
+        for (int value : new int[] { 5, 1, 3, 4, 2 }) {
+            Assert.assertTrue(function.accumulate(value, false));
+        }
+        Assert.assertEquals(3.0, function.getResult(5));
+    }
+
+    @Test
+    public void testRankError() {
+        int count = 200000;
+        List<Double> values = new ArrayList<>(count);
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++) {
+            values.add(random.nextDouble() * 1000);
+        }
+        FunctionMedianApproximate function = new FunctionMedianApproximate();
+        for (Double value : values) {
+            function.accumulate(value, false);
+        }
+        double median = (Double) function.getResult(count);
+        Collections.sort(values);
+        int rank = Collections.binarySearch(values, median);
+        Assert.assertTrue("Median value must be one of accumulated values", rank >= 0);
+        // Sketch keeps about 200 values per level, rank error is within few percents
+        Assert.assertTrue("Rank " + rank + " of " + count, Math.abs(rank - count / 2) <= count * 0.03);
+    }
+
+    @Test
+    public void testStringsAreExact() {
+        FunctionMedianApproximate function = new FunctionMedianApproximate();
+        for (String value : new String[] { "b", "10", "a", "c", "2" }) {
+            Assert.assertTrue(function.accumulate(value, true));
+        }
+        Assert.assertEquals("a", function.getResult(5));
+    }
+
+    @Test
+    public void testDatesAreExact() {
+        FunctionMedianApproximate function = new FunctionMedianApproximate();
+        Date[] dates = { new Date(3000), new Date(1000), new Date(2000) };
+        for (Date date : dates) {
+            Assert.assertTrue(function.accumulate(date, false));
+        }
+        Assert.assertEquals(dates[2], function.getResult(3));
+    }
+
+    @Test
+    public void testNonNumericValuesAfterNumbers() {
+        FunctionMedianApproximate function = new FunctionMedianApproximate();
+        Assert.assertTrue(function.accumulate(1, false));
+        Assert.assertFalse(function.accumulate("text", false));
+        Assert.assertFalse(function.accumulate(null, false));
+        Assert.assertTrue(function.accumulate("2", false));
+        Assert.assertTrue(function.accumulate(3, false));
+        Assert.assertEquals(2.0, function.getResult(5));
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertNull(new FunctionMedianApproximate().getResult(0));
+    }
+
+}
@@ -0,0 +1,184 @@
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+public class AbstractObjectCacheTest {
+
+    private static class TestObject implements DBSObject {
+        private final String name;
+
+        TestObject(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+
+        @Override
+        public DBSObject getParentObject() {
+            return null;
+        }
+
+        @Override
+        public DBPDataSource getDataSource() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static class TestCache extends SimpleObjectCache<DBSObject, TestObject> {
+        void removeMatching(String prefix) {
+            for (Iterator<TestObject> iter = new CacheIterator(); iter.hasNext(); ) {
+                if (iter.next().getName().startsWith(prefix)) {
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    private static List<TestObject> makeObjects(String prefix, int count) {
+        List<TestObject> objects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            objects.add(new TestObject(prefix + i));
+        }
+        return objects;
+    }
+
+    @Test
+    public void testCacheObjects() {
+        TestCache cache = new TestCache();
+        List<TestObject> objects = makeObjects("a", 100000);
+        for (TestObject object : objects) {
+            cache.cacheObject(object);
+        }
+        Assert.assertEquals(objects, cache.getCachedObjects());
+        Assert.assertSame(objects.get(500), cache.getCachedObject("a500"));
+
+        // Name index is maintained after it was built
+        TestObject extra = new TestObject("extra");
+        cache.cacheObject(extra);
+        Assert.assertSame(extra, cache.getCachedObject("extra"));
+        Assert.assertEquals(100001, cache.getCacheSize());
+    }
+
+    @Test
+    public void testPublishedListsAreNotModified() {
+        TestCache cache = new TestCache();
+        List<TestObject> objects = makeObjects("a", 3);
+        cache.setCache(objects);
+        List<TestObject> snapshot = cache.getCachedObjects();
+        cache.cacheObject(new TestObject("b"));
+        cache.removeObject(objects.get(0), false);
+        Assert.assertEquals(objects, snapshot);
+        Assert.assertEquals(Arrays.asList("a1", "a2", "b"), getNames(cache));
+    }
+
+    @Test
+    public void testSetCacheCopiesList() {
+        TestCache cache = new TestCache();
+        List<TestObject> objects = makeObjects("a", 3);
+        cache.setCache(objects);
+        objects.clear();
+        Assert.assertEquals(3, cache.getCacheSize());
+        Assert.assertTrue(cache.isFullyCached());
+    }
+
+    @Test
+    public void testRemoveWhileIterating() {
+        TestCache cache = new TestCache();
+        List<TestObject> objects = makeObjects("a", 50000);
+        objects.addAll(makeObjects("b", 50000));
+        cache.setCache(objects);
+        Assert.assertNotNull(cache.getCachedObject("a1"));
+        cache.removeMatching("a");
+        Assert.assertEquals(objects.subList(50000, 100000), cache.getCachedObjects());
+        Assert.assertNull(cache.getCachedObject("a1"));
+        Assert.assertNotNull(cache.getCachedObject("b1"));
+    }
+
+    @Test
+    public void testRemoveAndAddBack() {
+        TestCache cache = new TestCache();
+        List<TestObject> objects = makeObjects("a", 3);
+        cache.setCache(objects);
+        cache.removeObject(objects.get(0), false);
+        cache.cacheObject(objects.get(0));
+        cache.removeObject(objects.get(1), true);
+        Assert.assertEquals(Arrays.asList("a2", "a0"), getNames(cache));
+        Assert.assertSame(objects.get(0), cache.getCachedObject("a0"));
+        Assert.assertFalse(cache.isFullyCached());
+    }
+
+    @Test
+    public void testRenameAndMerge() {
+        TestCache cache = new TestCache();
+        List<TestObject> objects = makeObjects("a", 3);
+        cache.setCache(objects);
+        Assert.assertSame(objects.get(1), cache.getCachedObject("a1"));
+        cache.renameObject(objects.get(1), "a1", "renamed");
+        Assert.assertNull(cache.getCachedObject("a1"));
+        Assert.assertSame(objects.get(1), cache.getCachedObject("renamed"));
+
+        // Cached objects with the same names are kept
+        cache.removeObject(objects.get(2), false);
+        List<TestObject> newObjects = makeObjects("a", 4);
+        cache.mergeCache(newObjects);
+        List<TestObject> merged = cache.getCachedObjects();
+        Assert.assertSame(objects.get(0), merged.get(0));
+        Assert.assertSame(objects.get(1), merged.get(1));
+        Assert.assertSame(newObjects.get(2), merged.get(2));
+        Assert.assertSame(newObjects.get(3), merged.get(3));
+        Assert.assertSame(newObjects.get(2), cache.getCachedObject("a2"));
+    }
+
+    @Test
+    public void testClearCache() {
+        TestCache cache = new TestCache();
+        cache.cacheObject(new TestObject("a"));
+        cache.clearCache();
+        Assert.assertTrue(cache.getCachedObjects().isEmpty());
+        Assert.assertNull(cache.getCachedObject("a"));
+        cache.cacheObject(new TestObject("b"));
+        Assert.assertEquals(Arrays.asList("b"), getNames(cache));
+
+        // Removal of objects which were not published yet
+        cache.clearCache();
+        TestObject object = new TestObject("c");
+        cache.cacheObject(object);
+        cache.removeObject(object, false);
+        Assert.assertTrue(cache.getCachedObjects().isEmpty());
+    }
+
+    private static List<String> getNames(TestCache cache) {
+        List<String> names = new ArrayList<>();
+        for (TestObject object : cache.getCachedObjects()) {
+            names.add(object.getName());
+        }
+        return names;
+    }
+
+}
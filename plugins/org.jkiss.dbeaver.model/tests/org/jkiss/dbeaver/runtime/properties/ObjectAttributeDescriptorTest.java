@@ -0,0 +1,72 @@
+package org.jkiss.dbeaver.runtime.properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+public class ObjectAttributeDescriptorTest {
+
+    public static class TestObject {
+        private int size;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public String getFailure() {
+            throw new IllegalStateException("failure");
+        }
+
+        public String getError() {
+            throw new NoClassDefFoundError("error");
+        }
+    }
+
+    private static Method getMethod(String name, Class<?>... paramTypes) throws NoSuchMethodException {
+        return TestObject.class.getMethod(name, paramTypes);
+    }
+
+    @Test
+    public void testGetterAndSetter() throws Exception {
+        TestObject object = new TestObject();
+        ObjectAttributeDescriptor.invokeMethod(getMethod("setSize", int.class), object, new Object[] { 10 });
+        Assert.assertEquals(10, ObjectAttributeDescriptor.invokeMethod(getMethod("getSize"), object, null));
+    }
+
+    @Test
+    public void testExceptionIsWrapped() throws Exception {
+        try {
+            ObjectAttributeDescriptor.invokeMethod(getMethod("getFailure"), new TestObject(), null);
+            Assert.fail("Exception expected");
+        } catch (InvocationTargetException e) {
+            Assert.assertTrue(e.getTargetException() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testErrorIsWrapped() throws Exception {
+        try {
+            ObjectAttributeDescriptor.invokeMethod(getMethod("getError"), new TestObject(), null);
+            Assert.fail("Exception expected");
+        } catch (InvocationTargetException e) {
+            Assert.assertTrue(e.getTargetException() instanceof NoClassDefFoundError);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongArgument() throws Exception {
+        ObjectAttributeDescriptor.invokeMethod(getMethod("setSize", int.class), new TestObject(), new Object[] { "10" });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongReceiver() throws Exception {
+        ObjectAttributeDescriptor.invokeMethod(getMethod("getSize"), "test", null);
+    }
+
+}
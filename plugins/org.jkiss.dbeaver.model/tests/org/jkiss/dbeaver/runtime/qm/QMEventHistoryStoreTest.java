@@ -0,0 +1,208 @@
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.impl.preferences.SimplePreferenceStore;
+import org.jkiss.dbeaver.model.qm.QMConstants;
+import org.jkiss.dbeaver.model.qm.QMEventCriteria;
+import org.jkiss.dbeaver.model.qm.QMEventCursor;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+import org.jkiss.dbeaver.model.qm.meta.QMMSessionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementInfo;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class QMEventHistoryStoreTest {
+
+    private static final long BASE_TIME = System.currentTimeMillis() - 60000;
+
+    private File folder;
+    private SimplePreferenceStore preferenceStore;
+    private QMMSessionInfo session;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("qm-history").toFile();
+        preferenceStore = new SimplePreferenceStore() {
+            @Override
+            public void save() {
+            }
+        };
+        preferenceStore.setValue(QMConstants.PROP_HISTORY_DAYS, 1);
+        session = new QMMSessionInfo(BASE_TIME, 0, "container", "Container", "driver", null, "instance", "context", false);
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Assert.assertTrue(file.delete());
+            }
+        }
+        Assert.assertTrue(folder.delete());
+    }
+
+    private QMMStatementExecuteInfo makeExecution(int index) {
+        long time = BASE_TIME + index * 10;
+        QMMStatementInfo statement = new QMMStatementInfo(time, time + 5, session, DBCExecutionPurpose.USER_SCRIPT);
+        return new QMMStatementExecuteInfo(
+            time, time + 5, statement, "select " + index + " /* \u00e9 */", index * 3 + 1, index % 2, index % 2 == 0 ? null : "error " + index,
+            time + 1, time + 2, index % 3 == 0);
+    }
+
+    private void append(QMEventHistoryStore store, int fromIndex, int toIndex) {
+        List<QMMetaEvent> events = new ArrayList<>();
+        for (int i = fromIndex; i < toIndex; i++) {
+            events.add(new QMMetaEvent(makeExecution(i), QMMetaEvent.Action.END));
+        }
+        store.metaInfoChanged(new VoidProgressMonitor(), events);
+    }
+
+    private QMEventHistoryStore openStore() {
+        QMEventHistoryStore store = QMEventHistoryStore.open(folder, preferenceStore);
+        Assert.assertNotNull(store);
+        return store;
+    }
+
+    /**
+     * @return stored executions from the oldest to the newest
+     */
+    private static List<QMMStatementExecuteInfo> readAll(QMEventHistoryStore store) throws DBException {
+        VoidProgressMonitor monitor = new VoidProgressMonitor();
+        List<QMMStatementExecuteInfo> executions = new ArrayList<>();
+        QMEventCursor cursor = store.getQueryHistoryCursor(monitor, new QMEventCriteria(), null);
+        try {
+            while (cursor.hasNextEvent(monitor)) {
+                executions.add((QMMStatementExecuteInfo) cursor.nextEvent(monitor).getObject());
+            }
+        } finally {
+            cursor.close();
+        }
+        Collections.reverse(executions);
+        return executions;
+    }
+
+    private void assertExecutions(int count, List<QMMStatementExecuteInfo> executions) {
+        Assert.assertEquals(count, executions.size());
+        for (int i = 0; i < count; i++) {
+            QMMStatementExecuteInfo expected = makeExecution(i);
+            QMMStatementExecuteInfo actual = executions.get(i);
+            Assert.assertEquals(expected.getQueryString(), actual.getQueryString());
+            Assert.assertEquals(expected.getOpenTime(), actual.getOpenTime());
+            Assert.assertEquals(expected.getCloseTime(), actual.getCloseTime());
+            Assert.assertEquals(expected.getFetchBeginTime(), actual.getFetchBeginTime());
+            Assert.assertEquals(expected.getFetchEndTime(), actual.getFetchEndTime());
+            Assert.assertEquals(expected.getFetchRowCount(), actual.getFetchRowCount());
+            Assert.assertEquals(expected.getErrorCode(), actual.getErrorCode());
+            Assert.assertEquals(expected.getErrorMessage(), actual.getErrorMessage());
+            Assert.assertEquals(expected.isTransactional(), actual.isTransactional());
+            Assert.assertEquals(DBCExecutionPurpose.USER_SCRIPT, actual.getStatement().getPurpose());
+            QMMSessionInfo actualSession = actual.getStatement().getSession();
+            Assert.assertEquals("container", actualSession.getContainerId());
+            Assert.assertEquals("Container", actualSession.getContainerName());
+            Assert.assertEquals("driver", actualSession.getDriverId());
+            Assert.assertEquals("instance", actualSession.getInstanceId());
+            Assert.assertEquals("context", actualSession.getContextName());
+        }
+    }
+
+    private File getSegmentFile() {
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(".qmh"));
+        Assert.assertNotNull(files);
+        Assert.assertEquals(1, files.length);
+        return files[0];
+    }
+
+    @Test
+    public void testRoundTrip() throws DBException {
+        QMEventHistoryStore store = openStore();
+        append(store, 0, 5);
+        append(store, 5, 10);
+        assertExecutions(10, readAll(store));
+        store.close();
+
+        store = openStore();
+        assertExecutions(10, readAll(store));
+        append(store, 10, 12);
+        assertExecutions(12, readAll(store));
+        store.close();
+    }
+
+    @Test
+    public void testTailTruncation() throws DBException, IOException {
+        QMEventHistoryStore store = openStore();
+        append(store, 0, 10);
+        store.close();
+
+        // Incomplete last record, e.g. after crash
+        File segmentFile = getSegmentFile();
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile, "rw")) {
+            file.setLength(file.length() - 7);
+        }
+        store = openStore();
+        assertExecutions(9, readAll(store));
+        // New records overwrite the incomplete one
+        append(store, 9, 11);
+        assertExecutions(11, readAll(store));
+        store.close();
+
+        store = openStore();
+        assertExecutions(11, readAll(store));
+        store.close();
+    }
+
+    @Test
+    public void testCorruptedStringLength() throws DBException, IOException {
+        QMEventHistoryStore store = openStore();
+        append(store, 0, 3);
+        store.close();
+
+        File segmentFile = getSegmentFile();
+        long recordOffset;
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile, "rw")) {
+            // Second record: header, first record, length, fixed fields, then the first string length
+            file.seek(4);
+            recordOffset = 4 + file.readInt();
+            for (int length : new int[] { Integer.MAX_VALUE, -2, 100000 }) {
+                file.seek(recordOffset + 66);
+                file.writeInt(length);
+                store = openStore();
+                assertExecutions(1, readAll(store));
+                store.close();
+            }
+        }
+        // Corrupted records are cut off on the next write
+        store = openStore();
+        append(store, 1, 2);
+        assertExecutions(2, readAll(store));
+        store.close();
+        Assert.assertTrue(segmentFile.length() > recordOffset);
+    }
+
+    @Test
+    public void testBrokenSegmentsAreSkipped() throws DBException, IOException {
+        QMEventHistoryStore store = openStore();
+        append(store, 0, 2);
+        store.close();
+
+        Files.write(new File(folder, "0000000000.qmh").toPath(), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        Files.write(new File(folder, "0000000077.qmh").toPath(), new byte[] { 1 });
+        store = openStore();
+        assertExecutions(2, readAll(store));
+        store.close();
+    }
+
+}
@@ -35,6 +35,7 @@ public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
     private final String label;
     private final String description;
     private final ObjectType implClass;
+    private final ObjectType approximateClass;
     private final DBPImage icon;
     private final String type;
     private final boolean isDefault;
@@ -46,6 +47,8 @@ public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
         this.label = config.getAttribute("label");
         this.description = config.getAttribute("description");
         this.implClass = new ObjectType(config.getAttribute("class"));
+        String approximateClassName = config.getAttribute("approximateClass");
+        this.approximateClass = CommonUtils.isEmpty(approximateClassName) ? null : new ObjectType(approximateClassName);
         this.icon = iconToImage(config.getAttribute("icon"));
         this.type = config.getAttribute("type");
         this.isDefault = CommonUtils.toBoolean(config.getAttribute("default"));
@@ -81,4 +84,20 @@ public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
         return implClass.createInstance(IAggregateFunction.class);
     }
 
+    public boolean hasApproximation() {
+        return approximateClass != null;
+    }
+
+    /**
+     * Creates function instance. Approximate (sketch-based) implementation is used if requested and available.
+     */
+    public IAggregateFunction createFunction(boolean approximate)
+        throws DBException
+    {
+        if (approximate && approximateClass != null) {
+            return approximateClass.createInstance(IAggregateFunction.class);
+        }
+        return createFunction();
+    }
+
 }
@@ -0,0 +1,871 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Result set rows storage.
+ *
+ * Rows are grouped in pages and each page keeps its values column by column.
+ * Integer, long and double values are kept in primitive arrays with a null bitmap,
+ * low-cardinality strings are dictionary-encoded. Other values (dates, decimals, LOBs, structures)
+ * are kept as objects: they are mutable or are referenced by editors, so they must keep their identity.
+ * Column representation is chosen by the first non-null value of the page. If some later value doesn't fit
+ * then the column falls back to objects.
+ *
+ * If the number of pages in memory exceeds the limit then least recently used pages are encoded
+ * and written to a temporary file. Values of such rows are read back on access.
+ * Pages with values which can't be encoded always stay in memory.
+ * Client-side ordering reads only the key values of spilled rows (see ResultSetSorter), pages are loaded back one by one.
+ * Data filters are applied by the server on re-read, so there is no separate external sort or filter.
+ *
+ * Values are read without locks. Rows are added and changed in the UI thread, page load and eviction
+ * are synchronized. Rows are addressed by slot, not by row number.
+ */
+class ResultSetColumnStorage {
+
+    private static final Log log = Log.getLog(ResultSetColumnStorage.class);
+
+    static final int PAGE_SIZE = 4096;
+    // Spill file is allocated by regions of power of 2 size. Freed regions are reused.
+    private static final int MIN_REGION_SIZE = 4096;
+    // Strings are dictionary-encoded only if there are at least this many values per distinct string
+    private static final int MIN_DICTIONARY_VALUES_PER_KEY = 4;
+    private static final int MAX_DICTIONARY_SIZE = PAGE_SIZE / MIN_DICTIONARY_VALUES_PER_KEY;
+    private static final int MIN_COLUMN_CAPACITY = 64;
+
+    private static final byte TYPE_EMPTY = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_DECIMAL = 5;
+    private static final byte TYPE_TIMESTAMP = 6;
+    private static final byte TYPE_DATE = 7;
+    private static final byte TYPE_SQL_DATE = 8;
+    private static final byte TYPE_SQL_TIME = 9;
+    private static final byte TYPE_STRING = 10;
+    private static final byte TYPE_STRING_DICTIONARY = 11;
+
+    private final int columnCount;
+    private final int maxMemoryPages;
+    // Pages array is replaced on growth, so it can be read without lock
+    private volatile Page[] pages = new Page[16];
+    private int pageCount;
+    private int size;
+    // Loaded pages which may be spilled
+    private int loadedPageCount;
+    private int clockHand;
+
+    private File spillFile;
+    private RandomAccessFile spillData;
+    private long spillLength;
+    private final Map<Integer, Deque<Long>> freeRegions = new HashMap<>();
+    private boolean spillFailed;
+
+    /**
+     * @param maxMemoryRows maximum number of rows kept in memory. Zero means no limit.
+     */
+    ResultSetColumnStorage(int columnCount, int maxMemoryRows) {
+        this.columnCount = columnCount;
+        this.maxMemoryPages = maxMemoryRows <= 0 ? 0 : Math.max(2, maxMemoryRows / PAGE_SIZE);
+    }
+
+    int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Adds row values and returns row slot. Values array is not referenced after this call.
+     */
+    synchronized int addRow(@NotNull Object[] values) {
+        Page page = pageCount == 0 ? null : pages[pageCount - 1];
+        if (page == null || page.size == PAGE_SIZE) {
+            if (page != null) {
+                page.seal();
+            }
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, pageCount * 2);
+            }
+            page = new Page(columnCount);
+            pages[pageCount++] = page;
+            loadedPageCount++;
+            evictPages(page);
+        }
+        Column[] columns = loadColumns(page);
+        int index = page.size;
+        for (int col = 0; col < columnCount; col++) {
+            setColumnValue(columns, col, index, col < values.length ? values[col] : null);
+        }
+        page.size++;
+        page.referenced = true;
+        return size++;
+    }
+
+    @Nullable
+    Object getValue(int slot, int index) {
+        if (index < 0 || index >= columnCount) {
+            return null;
+        }
+        Column column = getPageColumns(slot)[index];
+        return column == null ? null : column.get(slot % PAGE_SIZE);
+    }
+
+    /**
+     * Returns new array with row values
+     */
+    @NotNull
+    Object[] getValues(int slot) {
+        Column[] columns = getPageColumns(slot);
+        int row = slot % PAGE_SIZE;
+        Object[] values = new Object[columnCount];
+        for (int col = 0; col < columnCount; col++) {
+            if (columns[col] != null) {
+                values[col] = columns[col].get(row);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Updates row value. Page is guaranteed to stay in memory during update.
+     */
+    synchronized void setValue(int slot, int index, @Nullable Object value) {
+        if (index < 0 || index >= columnCount) {
+            return;
+        }
+        Page page = pages[slot / PAGE_SIZE];
+        setColumnValue(loadColumns(page), index, slot % PAGE_SIZE, value);
+        page.referenced = true;
+    }
+
+    synchronized void setValues(int slot, @NotNull Object[] values) {
+        Page page = pages[slot / PAGE_SIZE];
+        Column[] columns = loadColumns(page);
+        for (int col = 0; col < columnCount; col++) {
+            setColumnValue(columns, col, slot % PAGE_SIZE, col < values.length ? values[col] : null);
+        }
+        page.referenced = true;
+    }
+
+    /**
+     * Releases row values. Spilled rows never contain values which need to be released.
+     */
+    void releaseValues(int slot) {
+        Column[] columns = pages[slot / PAGE_SIZE].columns;
+        if (columns == null) {
+            return;
+        }
+        for (Column column : columns) {
+            if (column instanceof ObjectColumn) {
+                DBUtils.releaseValue(column.get(slot % PAGE_SIZE));
+            }
+        }
+    }
+
+    /**
+     * Deletes spill file. Spilled rows are not accessible after this.
+     */
+    synchronized void dispose() {
+        if (spillData != null) {
+            try {
+                spillData.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            spillData = null;
+        }
+        if (spillFile != null) {
+            if (!spillFile.delete()) {
+                log.debug("Can't delete result set spill file '" + spillFile.getAbsolutePath() + "'");
+            }
+            spillFile = null;
+        }
+        freeRegions.clear();
+        spillLength = 0;
+    }
+
+    @NotNull
+    private Column[] getPageColumns(int slot) {
+        Page page = pages[slot / PAGE_SIZE];
+        page.referenced = true;
+        Column[] columns = page.columns;
+        if (columns == null) {
+            synchronized (this) {
+                columns = loadColumns(page);
+            }
+        }
+        return columns;
+    }
+
+    @NotNull
+    private Column[] loadColumns(@NotNull Page page) {
+        Column[] columns = page.columns;
+        if (columns == null) {
+            loadPage(page);
+            columns = page.columns;
+            if (columns == null) {
+                // Page read failed. Error is already logged.
+                return new Column[columnCount];
+            }
+        }
+        return columns;
+    }
+
+    private static void setColumnValue(@NotNull Column[] columns, int col, int row, @Nullable Object value) {
+        Column column = columns[col];
+        if (column == null) {
+            if (value == null) {
+                return;
+            }
+            column = createColumn(value);
+            columns[col] = column;
+        }
+        if (!column.set(row, value)) {
+            ObjectColumn objects = new ObjectColumn();
+            for (int i = 0; i < column.capacity(); i++) {
+                objects.set(i, column.get(i));
+            }
+            objects.set(row, value);
+            columns[col] = objects;
+        }
+    }
+
+    @NotNull
+    private static Column createColumn(@NotNull Object value) {
+        Class<?> valueClass = value.getClass();
+        if (valueClass == Integer.class) {
+            return new IntColumn();
+        } else if (valueClass == Long.class) {
+            return new LongColumn();
+        } else if (valueClass == Double.class) {
+            return new DoubleColumn();
+        } else if (valueClass == String.class) {
+            return new StringColumn();
+        } else {
+            return new ObjectColumn();
+        }
+    }
+
+    private void loadPage(@NotNull Page page) {
+        if (page.columns != null) {
+            return;
+        }
+        if (spillData == null) {
+            log.debug("Result set spill file is closed");
+            return;
+        }
+        try {
+            byte[] buffer = new byte[page.fileLength];
+            spillData.seek(page.fileOffset);
+            spillData.readFully(buffer);
+            page.columns = readPage(new DataInputStream(new ByteArrayInputStream(buffer)), page.size);
+            if (page.size == PAGE_SIZE) {
+                page.seal();
+            }
+        } catch (IOException e) {
+            log.error("Error reading result set page", e);
+            return;
+        }
+        page.referenced = true;
+        loadedPageCount++;
+        evictPages(page);
+    }
+
+    /**
+     * Spills pages using clock algorithm: recently used pages get a second chance.
+     */
+    private void evictPages(@NotNull Page current) {
+        if (maxMemoryPages <= 0 || spillFailed) {
+            return;
+        }
+        for (int scanned = 0; loadedPageCount > maxMemoryPages && scanned < pageCount * 2; scanned++) {
+            if (clockHand >= pageCount) {
+                clockHand = 0;
+            }
+            Page page = pages[clockHand++];
+            if (page.columns == null || page.pinned || page == current) {
+                continue;
+            }
+            if (page.referenced) {
+                page.referenced = false;
+                continue;
+            }
+            try {
+                if (!spillPage(page)) {
+                    // Keep it in memory forever
+                    page.pinned = true;
+                    loadedPageCount--;
+                }
+            } catch (IOException e) {
+                log.error("Error writing result set page. Keep all rows in memory.", e);
+                spillFailed = true;
+                break;
+            }
+        }
+    }
+
+    private boolean spillPage(@NotNull Page page) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(page.size * columnCount * 8);
+        // Values may be changed after page load, so page is always encoded again
+        if (!writePage(new DataOutputStream(bytes), page)) {
+            return false;
+        }
+        if (spillData == null) {
+            File folder = DBWorkbench.getPlatform().getTempFolder(new VoidProgressMonitor(), "resultset-pages");
+            spillFile = File.createTempFile("resultset", ".pages", folder);
+            spillData = new RandomAccessFile(spillFile, "rw");
+        }
+        int length = bytes.size();
+        if (page.fileOffset < 0 || page.fileCapacity < length) {
+            if (page.fileOffset >= 0) {
+                freeRegions.computeIfAbsent(page.fileCapacity, k -> new ArrayDeque<>()).push(page.fileOffset);
+            }
+            int capacity = MIN_REGION_SIZE;
+            while (capacity < length) {
+                capacity <<= 1;
+            }
+            Deque<Long> free = freeRegions.get(capacity);
+            if (free != null && !free.isEmpty()) {
+                page.fileOffset = free.pop();
+            } else {
+                page.fileOffset = spillLength;
+                spillLength += capacity;
+            }
+            page.fileCapacity = capacity;
+        }
+        page.fileLength = length;
+        spillData.seek(page.fileOffset);
+        spillData.write(bytes.toByteArray());
+
+        page.columns = null;
+        loadedPageCount--;
+        return true;
+    }
+
+    /**
+     * Writes page values column by column.
+     * @return false if some values can't be encoded
+     */
+    private boolean writePage(@NotNull DataOutputStream out, @NotNull Page page) throws IOException {
+        Column[] columns = page.columns;
+        for (int col = 0; col < columnCount; col++) {
+            Column column = columns[col];
+            byte typeId = getColumnType(column, page.size);
+            if (typeId < 0) {
+                return false;
+            }
+            out.writeByte(typeId);
+            // Null bitmap
+            long nullBits = 0;
+            for (int i = 0; i < page.size; i++) {
+                if (column == null || column.get(i) == null) {
+                    nullBits |= 1L << i;
+                }
+                if ((i & 63) == 63 || i == page.size - 1) {
+                    out.writeLong(nullBits);
+                    nullBits = 0;
+                }
+            }
+            if (typeId == TYPE_EMPTY) {
+                continue;
+            }
+            if (typeId == TYPE_STRING_DICTIONARY) {
+                writeDictionaryColumn(out, (StringColumn) column, page.size);
+                continue;
+            }
+            for (int i = 0; i < page.size; i++) {
+                Object value = column.get(i);
+                if (value != null) {
+                    writeValue(out, typeId, value);
+                }
+            }
+        }
+        out.flush();
+        return true;
+    }
+
+    /**
+     * Returns column type in page or -1 if column values can't be encoded
+     */
+    private static byte getColumnType(@Nullable Column column, int rowCount) {
+        if (column instanceof IntColumn) {
+            return TYPE_INT;
+        } else if (column instanceof LongColumn) {
+            return TYPE_LONG;
+        } else if (column instanceof DoubleColumn) {
+            return TYPE_DOUBLE;
+        } else if (column instanceof StringColumn) {
+            return TYPE_STRING_DICTIONARY;
+        }
+        Class<?> valueClass = null;
+        for (int i = 0; column != null && i < rowCount; i++) {
+            Object value = column.get(i);
+            if (value == null) {
+                continue;
+            }
+            if (valueClass == null) {
+                valueClass = value.getClass();
+            } else if (value.getClass() != valueClass) {
+                return -1;
+            }
+        }
+        if (valueClass == null) {
+            return TYPE_EMPTY;
+        } else if (valueClass == Boolean.class) {
+            return TYPE_BOOLEAN;
+        } else if (valueClass == BigDecimal.class) {
+            return TYPE_DECIMAL;
+        } else if (valueClass == Timestamp.class) {
+            return TYPE_TIMESTAMP;
+        } else if (valueClass == java.util.Date.class) {
+            return TYPE_DATE;
+        } else if (valueClass == java.sql.Date.class) {
+            return TYPE_SQL_DATE;
+        } else if (valueClass == java.sql.Time.class) {
+            return TYPE_SQL_TIME;
+        } else if (valueClass == String.class) {
+            // High-cardinality strings
+            return TYPE_STRING;
+        } else {
+            return -1;
+        }
+    }
+
+    private static void writeValue(@NotNull DataOutputStream out, byte typeId, @NotNull Object value) throws IOException {
+        switch (typeId) {
+            case TYPE_INT:
+                out.writeInt((Integer) value);
+                break;
+            case TYPE_LONG:
+                out.writeLong((Long) value);
+                break;
+            case TYPE_DOUBLE:
+                out.writeDouble((Double) value);
+                break;
+            case TYPE_BOOLEAN:
+                out.writeBoolean((Boolean) value);
+                break;
+            case TYPE_DECIMAL: {
+                BigDecimal decimal = (BigDecimal) value;
+                byte[] unscaled = decimal.unscaledValue().toByteArray();
+                out.writeInt(decimal.scale());
+                out.writeInt(unscaled.length);
+                out.write(unscaled);
+                break;
+            }
+            case TYPE_TIMESTAMP:
+                out.writeLong(((Timestamp) value).getTime());
+                out.writeInt(((Timestamp) value).getNanos());
+                break;
+            case TYPE_DATE:
+            case TYPE_SQL_DATE:
+            case TYPE_SQL_TIME:
+                out.writeLong(((java.util.Date) value).getTime());
+                break;
+            case TYPE_STRING:
+                writeString(out, (String) value);
+                break;
+            default:
+                throw new IOException("Bad column type: " + typeId);
+        }
+    }
+
+    private static void writeDictionaryColumn(@NotNull DataOutputStream out, @NotNull StringColumn column, int rowCount) throws IOException {
+        out.writeInt(column.dictionarySize);
+        for (int i = 0; i < column.dictionarySize; i++) {
+            writeString(out, column.dictionary[i]);
+        }
+        for (int i = 0; i < rowCount; i++) {
+            int code = column.getCode(i);
+            if (code >= 0) {
+                out.writeInt(code);
+            }
+        }
+    }
+
+    @NotNull
+    private Column[] readPage(@NotNull DataInputStream in, int rowCount) throws IOException {
+        Column[] columns = new Column[columnCount];
+        long[] nulls = new long[(rowCount + 63) >> 6];
+        for (int col = 0; col < columnCount; col++) {
+            byte typeId = in.readByte();
+            for (int i = 0; i < nulls.length; i++) {
+                nulls[i] = in.readLong();
+            }
+            if (typeId == TYPE_EMPTY) {
+                continue;
+            }
+            if (typeId == TYPE_STRING_DICTIONARY) {
+                StringColumn column = new StringColumn();
+                int dictionarySize = in.readInt();
+                for (int i = 0; i < dictionarySize; i++) {
+                    column.addKey(readString(in));
+                }
+                for (int i = 0; i < rowCount; i++) {
+                    if ((nulls[i >> 6] & (1L << i)) == 0) {
+                        column.setCode(i, in.readInt());
+                    }
+                }
+                columns[col] = column;
+                continue;
+            }
+            for (int i = 0; i < rowCount; i++) {
+                if ((nulls[i >> 6] & (1L << i)) == 0) {
+                    setColumnValue(columns, col, i, readValue(in, typeId));
+                }
+            }
+        }
+        return columns;
+    }
+
+    @NotNull
+    private static Object readValue(@NotNull DataInputStream in, byte typeId) throws IOException {
+        switch (typeId) {
+            case TYPE_INT:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_DECIMAL: {
+                int scale = in.readInt();
+                byte[] unscaled = new byte[in.readInt()];
+                in.readFully(unscaled);
+                return new BigDecimal(new BigInteger(unscaled), scale);
+            }
+            case TYPE_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            }
+            case TYPE_DATE:
+                return new java.util.Date(in.readLong());
+            case TYPE_SQL_DATE:
+                return new java.sql.Date(in.readLong());
+            case TYPE_SQL_TIME:
+                return new java.sql.Time(in.readLong());
+            case TYPE_STRING:
+                return readString(in);
+            default:
+                throw new IOException("Bad column type: " + typeId);
+        }
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @NotNull String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @NotNull
+    private static String readString(@NotNull DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int growCapacity(int capacity, int row) {
+        int newCapacity = Math.max(capacity, MIN_COLUMN_CAPACITY);
+        while (newCapacity <= row) {
+            newCapacity <<= 1;
+        }
+        return Math.min(newCapacity, PAGE_SIZE);
+    }
+
+    private static class Page {
+        int size;
+        // Null while page is spilled
+        volatile Column[] columns;
+        volatile boolean referenced;
+        boolean pinned;
+        // Spill file region
+        long fileOffset = -1;
+        int fileCapacity;
+        int fileLength;
+
+        Page(int columnCount) {
+            this.columns = new Column[columnCount];
+        }
+
+        /**
+         * Page is full, drops structures needed only for appends
+         */
+        void seal() {
+            Column[] pageColumns = columns;
+            if (pageColumns != null) {
+                for (Column column : pageColumns) {
+                    if (column instanceof StringColumn) {
+                        ((StringColumn) column).codes = null;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Values of one column in one page. Rows which were never set are nulls.
+     */
+    private static abstract class Column {
+
+        abstract int capacity();
+
+        @Nullable
+        abstract Object get(int row);
+
+        /**
+         * @return false if value doesn't fit this column
+         */
+        abstract boolean set(int row, @Nullable Object value);
+    }
+
+    /**
+     * Column of primitive values with bitmap of non-null rows
+     */
+    private static abstract class PrimitiveColumn extends Column {
+        private long[] valueBits = new long[0];
+
+        boolean hasValue(int row) {
+            int word = row >> 6;
+            return word < valueBits.length && (valueBits[word] & (1L << row)) != 0;
+        }
+
+        void setHasValue(int row, boolean hasValue) {
+            int word = row >> 6;
+            if (word >= valueBits.length) {
+                if (!hasValue) {
+                    return;
+                }
+                valueBits = Arrays.copyOf(valueBits, (growCapacity(capacity(), row) + 63) >> 6);
+            }
+            if (hasValue) {
+                valueBits[word] |= 1L << row;
+            } else {
+                valueBits[word] &= ~(1L << row);
+            }
+        }
+    }
+
+    private static class IntColumn extends PrimitiveColumn {
+        private int[] values = new int[0];
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        Object get(int row) {
+            return hasValue(row) ? values[row] : null;
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value != null && value.getClass() != Integer.class) {
+                return false;
+            }
+            if (value != null) {
+                if (row >= values.length) {
+                    values = Arrays.copyOf(values, growCapacity(values.length, row));
+                }
+                values[row] = (Integer) value;
+            }
+            setHasValue(row, value != null);
+            return true;
+        }
+    }
+
+    private static class LongColumn extends PrimitiveColumn {
+        private long[] values = new long[0];
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        Object get(int row) {
+            return hasValue(row) ? values[row] : null;
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value != null && value.getClass() != Long.class) {
+                return false;
+            }
+            if (value != null) {
+                if (row >= values.length) {
+                    values = Arrays.copyOf(values, growCapacity(values.length, row));
+                }
+                values[row] = (Long) value;
+            }
+            setHasValue(row, value != null);
+            return true;
+        }
+    }
+
+    private static class DoubleColumn extends PrimitiveColumn {
+        private double[] values = new double[0];
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        Object get(int row) {
+            return hasValue(row) ? values[row] : null;
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value != null && value.getClass() != Double.class) {
+                return false;
+            }
+            if (value != null) {
+                if (row >= values.length) {
+                    values = Arrays.copyOf(values, growCapacity(values.length, row));
+                }
+                values[row] = (Double) value;
+            }
+            setHasValue(row, value != null);
+            return true;
+        }
+    }
+
+    /**
+     * Dictionary-encoded strings. Falls back to objects when there are too many distinct strings.
+     */
+    private static class StringColumn extends Column {
+        // Dictionary code + 1, zero means null
+        private int[] data = new int[0];
+        private String[] dictionary = new String[16];
+        private int dictionarySize;
+        // Dictionary index. Dropped when page is full, edits of full pages search dictionary.
+        private Map<String, Integer> codes = new HashMap<>();
+
+        @Override
+        int capacity() {
+            return data.length;
+        }
+
+        @Override
+        Object get(int row) {
+            int code = getCode(row);
+            return code < 0 ? null : dictionary[code];
+        }
+
+        int getCode(int row) {
+            return row < data.length ? data[row] - 1 : -1;
+        }
+
+        void setCode(int row, int code) {
+            if (row >= data.length) {
+                data = Arrays.copyOf(data, growCapacity(data.length, row));
+            }
+            data[row] = code + 1;
+        }
+
+        int addKey(@NotNull String key) {
+            if (dictionarySize == dictionary.length) {
+                dictionary = Arrays.copyOf(dictionary, dictionarySize * 2);
+            }
+            if (codes != null) {
+                codes.put(key, dictionarySize);
+            }
+            dictionary[dictionarySize] = key;
+            return dictionarySize++;
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value == null) {
+                if (row < data.length) {
+                    data[row] = 0;
+                }
+                return true;
+            }
+            if (value.getClass() != String.class) {
+                return false;
+            }
+            int code = findKey((String) value);
+            if (code < 0) {
+                if (dictionarySize >= MAX_DICTIONARY_SIZE) {
+                    return false;
+                }
+                code = addKey((String) value);
+            }
+            setCode(row, code);
+            return true;
+        }
+
+        private int findKey(@NotNull String key) {
+            if (codes != null) {
+                Integer code = codes.get(key);
+                return code == null ? -1 : code;
+            }
+            for (int i = 0; i < dictionarySize; i++) {
+                if (dictionary[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static class ObjectColumn extends Column {
+        private Object[] values = new Object[0];
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        Object get(int row) {
+            return row < values.length ? values[row] : null;
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (row >= values.length) {
+                if (value == null) {
+                    return true;
+                }
+                values = Arrays.copyOf(values, growCapacity(values.length, row));
+            }
+            values[row] = value;
+            return true;
+        }
+    }
+
+}
@@ -34,6 +34,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Data pump for SQL queries
@@ -42,6 +44,11 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
     private static final Log log = Log.getLog(ResultSetDataReceiver.class);
 
+    // Max rows kept in receiver during next segments read. Then they are moved into model storage
+    private static final int MAX_PENDING_ROWS = 10000;
+    // Max row blocks passed to UI thread and not appended to the model yet
+    private static final int MAX_PENDING_APPENDS = 2;
+
     private ResultSetViewer resultSetViewer;
     private int columnsCount;
     private DBDAttributeBinding[] metaColumns;
@@ -50,6 +57,9 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
     private boolean nextSegmentRead;
     private long offset;
     private long maxRows;
+    private long rowsFetched;
+    private boolean rowsFlushed;
+    private final Semaphore appendPermits = new Semaphore(MAX_PENDING_APPENDS);
 
     private boolean paused;
 
@@ -95,6 +105,8 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         this.rows.clear();
         this.offset = offset;
         this.maxRows = maxRows;
+        this.rowsFetched = 0;
+        this.rowsFlushed = false;
 
         if (!nextSegmentRead) {
             // Get columns metadata
@@ -149,6 +161,50 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
             }
         }
         rows.add(row);
+        rowsFetched++;
+        if (nextSegmentRead && rows.size() >= MAX_PENDING_ROWS) {
+            // Fetch all rows: do not keep them all in the receiver, model may spill them to disk
+            appendRows(session.getProgressMonitor(), rows, !rowsFlushed && isResetOldRows());
+            rows = new ArrayList<>();
+            rowsFlushed = true;
+        }
+    }
+
+    /**
+     * Model rows are read by UI, so new rows are appended in UI thread.
+     * Fetch doesn't wait for the append itself (UI thread may wait for the fetch), only for a free slot
+     * if UI thread is behind by MAX_PENDING_APPENDS blocks. This keeps number of pending rows bounded.
+     */
+    private void appendRows(DBRProgressMonitor monitor, List<Object[]> newRows, boolean resetOldRows) {
+        if (UIUtils.isUIThread()) {
+            resultSetViewer.appendData(newRows, resetOldRows);
+            return;
+        }
+        boolean acquired = false;
+        try {
+            while (!(acquired = appendPermits.tryAcquire(100, TimeUnit.MILLISECONDS))) {
+                if (monitor.isCanceled()) {
+                    // Canceled fetch ends soon, no need to wait for UI
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        final boolean releasePermit = acquired;
+        UIUtils.asyncExec(() -> {
+            try {
+                resultSetViewer.appendData(newRows, resetOldRows);
+            } finally {
+                if (releasePermit) {
+                    appendPermits.release();
+                }
+            }
+        });
+    }
+
+    private boolean isResetOldRows() {
+        return getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
     }
 
     @Override
@@ -179,11 +235,10 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
             resultSetViewer.setData(tmpRows, focusRow);
         } else {
             monitor.subTask("Append data");
-            boolean resetOldRows = getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
-            resultSetViewer.appendData(tmpRows, resetOldRows);
+            appendRows(monitor, tmpRows, !rowsFlushed && isResetOldRows());
         }
         // Check for more data
-        hasMoreData = maxRows > 0 && tmpRows.size() >= maxRows;
+        hasMoreData = maxRows > 0 && rowsFetched >= maxRows;
         monitor.done();
 
         UIUtils.asyncExec(() -> {
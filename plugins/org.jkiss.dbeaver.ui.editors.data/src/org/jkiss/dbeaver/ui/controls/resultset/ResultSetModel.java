@@ -33,6 +33,7 @@ import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.virtual.DBVColorOverride;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
 import org.jkiss.dbeaver.model.virtual.DBVUtils;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.ArrayUtils;
@@ -57,6 +58,10 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // Values of all rows
+    private ResultSetColumnStorage storage;
+    // Storages of rows dropped by appendData. Disposed with the model data.
+    private final List<ResultSetColumnStorage> retiredStorages = new ArrayList<>();
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
@@ -336,7 +341,7 @@ public class ResultSetModel {
 
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValues();
     }
 
     @NotNull
@@ -354,7 +359,11 @@ public class ResultSetModel {
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
-        return DBUtils.getAttributeValue(attribute, attributes, row.values);
+        if (attribute.getLevel() == 0 && !attribute.isCustom()) {
+            // Read single cell without materializing the whole row
+            return row.getValue(attribute.getOrdinalPosition());
+        }
+        return DBUtils.getAttributeValue(attribute, attributes, row.getValues());
     }
 
     /**
@@ -377,7 +386,7 @@ public class ResultSetModel {
         } else {
             rootIndex = attr.getTopParent().getOrdinalPosition();
         }
-        Object rootValue = row.values[rootIndex];
+        Object rootValue = row.getValue(rootIndex);
         Object ownerValue = depth > 0 ? rootValue : null;
         {
             // Obtain owner value and create all intermediate values
@@ -479,7 +488,7 @@ public class ResultSetModel {
             if (ownerValue != null) {
                 ((DBDComposite) ownerValue).setAttributeValue(attr.getAttribute(), value);
             } else {
-                row.values[rootIndex] = value;
+                row.setValue(rootIndex, value);
             }
             return true;
         }
@@ -771,11 +780,18 @@ public class ResultSetModel {
             curRows.clear();
         }
         int rowCount = rows.size();
+        if (resetOldRows || storage == null) {
+            // Old rows keep reference to their own storage, they may be released later
+            if (storage != null) {
+                retiredStorages.add(storage);
+            }
+            storage = createStorage(rowCount > 0 ? rows.get(0).length : attributes.length);
+        }
         int firstRowNum = curRows.size();
         List<ResultSetRow> newRows = new ArrayList<>(rowCount);
         for (int i = 0; i < rowCount; i++) {
             newRows.add(
-                new ResultSetRow(firstRowNum + i, rows.get(i)));
+                new ResultSetRow(firstRowNum + i, storage, rows.get(i)));
         }
         curRows.addAll(newRows);
 
@@ -785,6 +801,7 @@ public class ResultSetModel {
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        disposeStorage();
         this.totalRowCount = null;
 
         this.hasData = false;
@@ -794,6 +811,24 @@ public class ResultSetModel {
         return hasData;
     }
 
+    @NotNull
+    private ResultSetColumnStorage createStorage(int columnCount) {
+        return new ResultSetColumnStorage(
+            columnCount,
+            DBWorkbench.getPlatform().getPreferenceStore().getInt(ResultSetPreferences.RESULT_SET_MAX_MEMORY_ROWS));
+    }
+
+    private void disposeStorage() {
+        if (storage != null) {
+            storage.dispose();
+            storage = null;
+        }
+        for (ResultSetColumnStorage oldStorage : retiredStorages) {
+            oldStorage.dispose();
+        }
+        retiredStorages.clear();
+    }
+
     public boolean isDirty() {
         return changesCount != 0;
     }
@@ -845,7 +880,10 @@ public class ResultSetModel {
 
     @NotNull
     ResultSetRow addNewRow(int rowNum, @NotNull Object[] data) {
-        ResultSetRow newRow = new ResultSetRow(curRows.size(), data);
+        if (storage == null) {
+            storage = createStorage(data.length);
+        }
+        ResultSetRow newRow = new ResultSetRow(curRows.size(), storage, data);
         newRow.setVisualNumber(rowNum);
         newRow.setState(ResultSetRow.STATE_ADDED);
         shiftRows(newRow, 1);
@@ -1044,25 +1082,18 @@ public class ResultSetModel {
         if (hasOrdering) {
             // Sort locally
             final List<DBDAttributeConstraint> orderConstraints = dataFilter.getOrderConstraints();
-            curRows.sort((row1, row2) -> {
-                int result = 0;
-                for (DBDAttributeConstraint co : orderConstraints) {
-                    final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
-                    if (binding == null) {
-                        continue;
-                    }
-                    Object cell1 = getCellValue(binding, row1);
-                    Object cell2 = getCellValue(binding, row2);
-                    result = DBUtils.compareDataValues(cell1, cell2);
-                    if (co.isOrderDescending()) {
-                        result = -result;
-                    }
-                    if (result != 0) {
-                        break;
-                    }
+            List<DBDAttributeBinding> orderAttributes = new ArrayList<>(orderConstraints.size());
+            boolean[] descending = new boolean[orderConstraints.size()];
+            for (DBDAttributeConstraint co : orderConstraints) {
+                final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
+                if (binding != null) {
+                    descending[orderAttributes.size()] = co.isOrderDescending();
+                    orderAttributes.add(binding);
                 }
-                return result;
-            });
+            }
+            if (!orderAttributes.isEmpty()) {
+                ResultSetSorter.sortRows(this, curRows, orderAttributes, descending);
+            }
         }
         for (int i = 0; i < curRows.size(); i++) {
             curRows.get(i).setVisualNumber(i);
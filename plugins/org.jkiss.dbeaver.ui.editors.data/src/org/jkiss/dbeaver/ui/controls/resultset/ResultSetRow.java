@@ -52,9 +52,10 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
+    // Rows storage and row position in it. Row values are kept by storage.
     @NotNull
-    public Object[] values;
+    private final ResultSetColumnStorage storage;
+    private final int storageSlot;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -64,16 +65,37 @@ public class ResultSetRow {
     @Nullable
     public ColorInfo colorInfo;
 
-    ResultSetRow(int rowNumber, @NotNull Object[] values) {
+    ResultSetRow(int rowNumber, @NotNull ResultSetColumnStorage storage, @NotNull Object[] values) {
         this.rowNumber = rowNumber;
         this.visualNumber = rowNumber;
-        this.values = values;
+        this.storage = storage;
+        this.storageSlot = storage.addRow(values);
         this.state = STATE_NORMAL;
     }
 
+    /**
+     * Returns copy of row values. Changes of returned array do not affect the row.
+     */
     @NotNull
     public Object[] getValues() {
-        return values;
+        return storage.getValues(storageSlot);
+    }
+
+    void setValues(@NotNull Object[] values) {
+        storage.setValues(storageSlot, values);
+    }
+
+    @Nullable
+    public Object getValue(int index) {
+        return storage.getValue(storageSlot, index);
+    }
+
+    void setValue(int index, @Nullable Object value) {
+        storage.setValue(storageSlot, index, value);
+    }
+
+    int getValueCount() {
+        return storage.getColumnCount();
     }
 
     public boolean isChanged() {
@@ -124,9 +146,7 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
-        }
+        storage.releaseValues(storageSlot);
         if (changes != null) {
             for (Object oldValue : changes.values()) {
                 DBUtils.releaseValue(oldValue);
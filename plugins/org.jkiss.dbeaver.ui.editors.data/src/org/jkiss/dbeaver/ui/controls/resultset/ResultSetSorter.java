@@ -0,0 +1,292 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Client-side result set sorter.
+ *
+ * Sort keys are extracted from rows once. Numeric columns become double arrays (the same
+ * precision DBUtils.compareDataValues uses), string and other single-class comparable columns
+ * keep their values, mixed columns fall back to DBUtils.compareDataValues.
+ * Row indexes are then sorted with a stable parallel merge sort.
+ */
+class ResultSetSorter {
+
+    // Ranges smaller than this are sorted in the current thread
+    private static final int PARALLEL_THRESHOLD = 8192;
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private final SortKey[] keys;
+
+    private ResultSetSorter(@NotNull SortKey[] keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Sorts rows in place by the specified attributes. Rows with equal keys keep their relative order.
+     */
+    static void sortRows(
+        @NotNull ResultSetModel model,
+        @NotNull List<ResultSetRow> rows,
+        @NotNull List<DBDAttributeBinding> attributes,
+        @NotNull boolean[] descending)
+    {
+        int rowCount = rows.size();
+        // Read keys in storage order (row numbers follow it), so spilled pages are loaded once and not per row
+        long[] readOrder = new long[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            readOrder[i] = ((long) rows.get(i).getRowNumber() << 32) | i;
+        }
+        Arrays.sort(readOrder);
+        Object[][] keyValues = new Object[attributes.size()][rowCount];
+        for (int k = 0; k < keyValues.length; k++) {
+            DBDAttributeBinding attribute = attributes.get(k);
+            for (long position : readOrder) {
+                int i = (int) position;
+                keyValues[k][i] = model.getCellValue(attribute, rows.get(i));
+            }
+        }
+        int[] order = sortIndexes(keyValues, descending);
+        ResultSetRow[] sourceRows = rows.toArray(new ResultSetRow[0]);
+        for (int i = 0; i < rowCount; i++) {
+            rows.set(i, sourceRows[order[i]]);
+        }
+    }
+
+    /**
+     * Sorts rows by key values. Rows with equal keys keep their relative order.
+     * @param keyValues values of sort keys: keyValues[key][row]
+     * @return row indexes in sorted order
+     */
+    @NotNull
+    static int[] sortIndexes(@NotNull Object[][] keyValues, @NotNull boolean[] descending) {
+        int rowCount = keyValues.length == 0 ? 0 : keyValues[0].length;
+        SortKey[] keys = new SortKey[keyValues.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = SortKey.extract(keyValues[i], descending[i]);
+        }
+        int[] order = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            order[i] = i;
+        }
+        ResultSetSorter sorter = new ResultSetSorter(keys);
+        int[] buffer = new int[rowCount];
+        if (rowCount < PARALLEL_THRESHOLD) {
+            sorter.mergeSort(order, buffer, 0, rowCount);
+        } else {
+            ForkJoinPool.commonPool().invoke(sorter.new SortTask(order, buffer, 0, rowCount));
+        }
+        return order;
+    }
+
+    private int compare(int row1, int row2) {
+        for (SortKey key : keys) {
+            int result = key.compare(row1, row2);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private void mergeSort(int[] order, int[] buffer, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(order, from, to);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(order, buffer, from, middle);
+        mergeSort(order, buffer, middle, to);
+        merge(order, buffer, from, middle, to);
+    }
+
+    private void insertionSort(int[] order, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int value = order[i];
+            int k = i - 1;
+            while (k >= from && compare(order[k], value) > 0) {
+                order[k + 1] = order[k];
+                k--;
+            }
+            order[k + 1] = value;
+        }
+    }
+
+    private void merge(int[] order, int[] buffer, int from, int middle, int to) {
+        if (compare(order[middle - 1], order[middle]) <= 0) {
+            // Already ordered
+            return;
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from, right = middle, pos = from;
+        while (left < middle && right < to) {
+            // Take from the left part on equal keys to keep sort stable
+            order[pos++] = compare(buffer[right], buffer[left]) < 0 ? buffer[right++] : buffer[left++];
+        }
+        while (left < middle) {
+            order[pos++] = buffer[left++];
+        }
+        while (right < to) {
+            order[pos++] = buffer[right++];
+        }
+    }
+
+    private class SortTask extends RecursiveAction {
+        private final int[] order;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+
+        SortTask(int[] order, int[] buffer, int from, int to) {
+            this.order = order;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                mergeSort(order, buffer, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SortTask(order, buffer, from, middle), new SortTask(order, buffer, middle, to));
+            merge(order, buffer, from, middle, to);
+        }
+    }
+
+    /**
+     * Sort key values of one attribute for all rows. Nulls go last (first in descending order).
+     */
+    private static abstract class SortKey {
+        final boolean descending;
+        final boolean[] nulls;
+
+        SortKey(boolean descending, boolean[] nulls) {
+            this.descending = descending;
+            this.nulls = nulls;
+        }
+
+        int compare(int row1, int row2) {
+            int result;
+            if (nulls[row1] || nulls[row2]) {
+                result = nulls[row1] == nulls[row2] ? 0 : (nulls[row1] ? 1 : -1);
+            } else {
+                result = compareValues(row1, row2);
+            }
+            return descending ? -result : result;
+        }
+
+        abstract int compareValues(int row1, int row2);
+
+        /**
+         * @param values key values of all rows, nulls are cleared
+         */
+        @NotNull
+        static SortKey extract(@NotNull Object[] values, boolean descending) {
+            int rowCount = values.length;
+            boolean[] nulls = new boolean[rowCount];
+            boolean allNumbers = true;
+            Class<?> commonClass = null;
+            boolean sameClass = true;
+            for (int i = 0; i < rowCount; i++) {
+                Object value = values[i];
+                if (DBUtils.isNullValue(value)) {
+                    nulls[i] = true;
+                    values[i] = null;
+                    continue;
+                }
+                if (!(value instanceof Number)) {
+                    allNumbers = false;
+                }
+                if (commonClass == null) {
+                    commonClass = value.getClass();
+                } else if (commonClass != value.getClass()) {
+                    sameClass = false;
+                }
+            }
+            if (allNumbers) {
+                double[] numbers = new double[rowCount];
+                for (int i = 0; i < rowCount; i++) {
+                    if (!nulls[i]) {
+                        numbers[i] = ((Number) values[i]).doubleValue();
+                    }
+                }
+                return new NumberKey(descending, nulls, numbers);
+            } else if (sameClass && Comparable.class.isAssignableFrom(commonClass)) {
+                return new ComparableKey(descending, nulls, values);
+            } else {
+                return new ObjectKey(descending, nulls, values);
+            }
+        }
+    }
+
+    private static class NumberKey extends SortKey {
+        private final double[] values;
+
+        NumberKey(boolean descending, boolean[] nulls, double[] values) {
+            super(descending, nulls);
+            this.values = values;
+        }
+
+        @Override
+        int compareValues(int row1, int row2) {
+            double diff = values[row1] - values[row2];
+            return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+        }
+    }
+
+    private static class ComparableKey extends SortKey {
+        private final Object[] values;
+
+        ComparableKey(boolean descending, boolean[] nulls, Object[] values) {
+            super(descending, nulls);
+            this.values = values;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        int compareValues(int row1, int row2) {
+            return ((Comparable<Object>) values[row1]).compareTo(values[row2]);
+        }
+    }
+
+    private static class ObjectKey extends SortKey {
+        private final Object[] values;
+
+        ObjectKey(boolean descending, boolean[] nulls, Object[] values) {
+            super(descending, nulls);
+            this.values = values;
+        }
+
+        @Override
+        int compareValues(int row1, int row2) {
+            return DBUtils.compareDataValues(values[row1], values[row2]);
+        }
+    }
+
+}
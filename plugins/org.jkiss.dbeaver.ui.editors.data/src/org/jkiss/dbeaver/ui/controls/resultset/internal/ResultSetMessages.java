@@ -267,6 +267,8 @@ public class ResultSetMessages extends NLS {
     public static String virtual_edit_columns_page_confirm_action_delete;
     public static String virtual_edit_columns_page_confirm_action_question_delete_column;
 
+    public static String aggregate_panel_action_approximate;
+
     static {
         // initialize resource bundle
         NLS.initializeMessages(BUNDLE_NAME, ResultSetMessages.class);
@@ -39,6 +39,7 @@ import org.jkiss.dbeaver.ui.DBeaverIcons;
 import org.jkiss.dbeaver.ui.UIIcon;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.*;
+import org.jkiss.dbeaver.ui.controls.resultset.internal.ResultSetMessages;
 
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
@@ -57,6 +58,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     public static final String SETTINGS_SECTION_AGGREGATE = "panel-" + PANEL_ID;
     public static final String PARAM_GROUP_BY_COLUMNS = "groupByColumns";
     public static final String PARAM_GROUP_AS_STRINGS = "groupAsStrings";
+    public static final String PARAM_APPROXIMATE = "approximate";
 
     private static final DecimalFormat DOUBLE_FORMAT = new DecimalFormat("###,###,###,###,###,##0.###");
     private static final DecimalFormat INTEGER_FORMAT = new DecimalFormat("###,###,###,###,###,##0");
@@ -66,6 +68,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     private boolean groupByColumns;
     private boolean aggregateAsStrings;
+    private boolean approximate;
     //private boolean runServerQueries;
 
     private IDialogSettings panelSettings;
@@ -126,6 +129,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private void loadSettings() {
         aggregateAsStrings = panelSettings.getBoolean(PARAM_GROUP_AS_STRINGS);
         groupByColumns = panelSettings.getBoolean(PARAM_GROUP_BY_COLUMNS);
+        approximate = panelSettings.getBoolean(PARAM_APPROXIMATE);
         IDialogSettings functionsSection = panelSettings.getSection("functions");
         if (functionsSection != null) {
             final Map<AggregateFunctionDescriptor, Integer> funcIndexes = new HashMap<>();
@@ -163,6 +167,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private void saveSettings() {
         panelSettings.put(PARAM_GROUP_BY_COLUMNS, groupByColumns);
         panelSettings.put(PARAM_GROUP_AS_STRINGS, aggregateAsStrings);
+        panelSettings.put(PARAM_APPROXIMATE, approximate);
         IDialogSettings functionsSection = UIUtils.getSettingsSection(panelSettings, "functions");
 
         for (AggregateFunctionDescriptor func : FunctionsRegistry.getInstance().getAggregateFunctions()) {
@@ -212,83 +217,97 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     private void aggregateSelection(IResultSetSelection selection) {
         ResultSetModel model = presentation.getController().getModel();
+        // Values are streamed into function states, selection values are never collected
         if (groupByColumns) {
-            Map<DBDAttributeBinding, List<Object>> attrValues = new LinkedHashMap<>();
-            for (Object element : selection.toList()) {
+            Map<DBDAttributeBinding, AggregateGroup> attrGroups = new LinkedHashMap<>();
+            for (Iterator<?> iter = selection.iterator(); iter.hasNext(); ) {
+                Object element = iter.next();
                 DBDAttributeBinding attr = selection.getElementAttribute(element);
                 ResultSetRow row = selection.getElementRow(element);
                 Object cellValue = model.getCellValue(attr, row);
-                List<Object> values = attrValues.computeIfAbsent(attr, k -> new ArrayList<>());
-                values.add(cellValue);
+                attrGroups.computeIfAbsent(attr, k -> new AggregateGroup()).accumulate(cellValue);
             }
 
-            for (Map.Entry<DBDAttributeBinding, List<Object>> entry : attrValues.entrySet()) {
+            for (Map.Entry<DBDAttributeBinding, AggregateGroup> entry : attrGroups.entrySet()) {
                 TreeItem attrItem = new TreeItem(aggregateTable, SWT.NONE);
                 attrItem.setText(entry.getKey().getName());
                 attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(entry.getKey())));
-                aggregateValues(attrItem, entry.getValue());
+                entry.getValue().showResults(attrItem);
                 attrItem.setExpanded(true);
             }
         } else {
-            List<Object> allValues = new ArrayList<>(selection.size());
-            for (Object element : selection.toList()) {
+            AggregateGroup group = new AggregateGroup();
+            for (Iterator<?> iter = selection.iterator(); iter.hasNext(); ) {
+                Object element = iter.next();
                 DBDAttributeBinding attr = selection.getElementAttribute(element);
                 ResultSetRow row = selection.getElementRow(element);
-                Object cellValue = model.getCellValue(attr, row);
-                allValues.add(cellValue);
+                group.accumulate(model.getCellValue(attr, row));
             }
-            aggregateValues(null, allValues);
+            group.showResults(null);
         }
     }
 
-    private void aggregateValues(TreeItem parentItem, Collection<Object> values) {
-        List<AggregateFunctionDescriptor> functions = enabledFunctions;
-        Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
-        for (AggregateFunctionDescriptor funcDesc : functions) {
-            TreeItem funcItem = (parentItem == null) ?
-                new TreeItem(aggregateTable, SWT.NONE) :
-                new TreeItem(parentItem, SWT.NONE);
-            funcItem.setData(funcDesc);
-            funcItem.setText(0, funcDesc.getLabel());
-            DBPImage icon = funcDesc.getIcon();
-            if (icon != null) {
-                funcItem.setImage(0, DBeaverIcons.getImage(icon));
-            }
-            try {
-                IAggregateFunction func = funcDesc.createFunction();
-                funcMap.put(func, funcItem);
-            } catch (DBException e) {
-                log.error(e);
+    /**
+     * Function states of one group of values
+     */
+    private class AggregateGroup {
+        private final AggregateFunctionDescriptor[] descriptors;
+        private final IAggregateFunction[] funcs;
+        private final int[] funcCount;
+
+        AggregateGroup() {
+            List<AggregateFunctionDescriptor> functions = enabledFunctions;
+            descriptors = functions.toArray(new AggregateFunctionDescriptor[0]);
+            funcs = new IAggregateFunction[descriptors.length];
+            funcCount = new int[descriptors.length];
+            for (int i = 0; i < descriptors.length; i++) {
+                try {
+                    funcs[i] = descriptors[i].createFunction(approximate);
+                } catch (DBException e) {
+                    log.error(e);
+                }
             }
         }
 
-        IAggregateFunction[] funcs = funcMap.keySet().toArray(new IAggregateFunction[funcMap.size()]);
-        int[] funcCount = new int[funcs.length];
-        for (Object element : values) {
+        void accumulate(Object value) {
             for (int i = 0; i < funcs.length; i++) {
-                if (funcs[i].accumulate(element, aggregateAsStrings)) {
+                if (funcs[i] != null && funcs[i].accumulate(value, aggregateAsStrings)) {
                     funcCount[i]++;
                 }
             }
         }
-        for (int i = 0; i < funcs.length; i++) {
-            if (funcCount[i] <= 0) {
-                continue;
-            }
-            IAggregateFunction func = funcs[i];
-            Object result = func.getResult(funcCount[i]);
-            if (result != null) {
-                TreeItem treeItem = funcMap.get(func);
-                String strValue;
-                if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
-                    strValue = DOUBLE_FORMAT.format(result);
-                } else if (result instanceof Integer || result instanceof Long || result instanceof Short) {
-                    strValue = INTEGER_FORMAT.format(result);
-                } else {
-                    strValue = result.toString();
+
+        void showResults(TreeItem parentItem) {
+            for (int i = 0; i < descriptors.length; i++) {
+                AggregateFunctionDescriptor funcDesc = descriptors[i];
+                TreeItem funcItem = (parentItem == null) ?
+                    new TreeItem(aggregateTable, SWT.NONE) :
+                    new TreeItem(parentItem, SWT.NONE);
+                funcItem.setData(funcDesc);
+                funcItem.setText(0, funcDesc.getLabel());
+                DBPImage icon = funcDesc.getIcon();
+                if (icon != null) {
+                    funcItem.setImage(0, DBeaverIcons.getImage(icon));
+                }
+                if (funcs[i] == null || funcCount[i] <= 0) {
+                    continue;
                 }
-                if (strValue != null) {
-                    treeItem.setText(1, strValue);
+                Object result = funcs[i].getResult(funcCount[i]);
+                if (result != null) {
+                    String strValue;
+                    if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
+                        strValue = DOUBLE_FORMAT.format(result);
+                    } else if (result instanceof Integer || result instanceof Long || result instanceof Short) {
+                        strValue = INTEGER_FORMAT.format(result);
+                    } else {
+                        strValue = result.toString();
+                    }
+                    if (strValue != null) {
+                        if (approximate && funcDesc.hasApproximation()) {
+                            strValue = "~" + strValue;
+                        }
+                        funcItem.setText(1, strValue);
+                    }
                 }
             }
         }
@@ -307,6 +326,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         contributionManager.add(new Separator());
         contributionManager.add(new GroupByColumnsAction());
         contributionManager.add(new ValueTypeToggleAction());
+        contributionManager.add(new ApproximateToggleAction());
     }
 
     private class GroupByColumnsAction extends Action {
@@ -341,6 +361,21 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
     }
 
+    private class ApproximateToggleAction extends Action {
+        public ApproximateToggleAction() {
+            super(ResultSetMessages.aggregate_panel_action_approximate, IAction.AS_CHECK_BOX);
+            setImageDescriptor(DBeaverIcons.getImageDescriptor(UIIcon.ASTERISK));
+            setChecked(approximate);
+        }
+
+        @Override
+        public void run() {
+            approximate = !approximate;
+            setChecked(approximate);
+            refresh(false);
+        }
+    }
+
     private class AddFunctionAction extends Action {
         public AddFunctionAction() {
             super("Add function", DBeaverIcons.getImageDescriptor(UIIcon.OBJ_ADD));
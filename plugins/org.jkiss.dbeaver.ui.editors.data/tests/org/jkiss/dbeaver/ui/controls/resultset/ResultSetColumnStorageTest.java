@@ -0,0 +1,86 @@
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+public class ResultSetColumnStorageTest {
+
+    private static Object[] makeRow(int i) {
+        return new Object[] {
+            i % 7 == 0 ? null : i,
+            (long) i * 1000000000L,
+            i % 5 == 0 ? null : i / 3.0,
+            "key" + (i % 10),
+            "unique" + i,
+            new Timestamp(i * 1000L),
+            BigDecimal.valueOf(i, 2),
+            i % 2 == 0,
+            null
+        };
+    }
+
+    @Test
+    public void testValuesRoundTrip() {
+        ResultSetColumnStorage storage = new ResultSetColumnStorage(9, 0);
+        int rowCount = ResultSetColumnStorage.PAGE_SIZE * 2 + 100;
+        int[] slots = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            slots[i] = storage.addRow(makeRow(i));
+        }
+        for (int i = 0; i < rowCount; i++) {
+            Assert.assertArrayEquals(makeRow(i), storage.getValues(slots[i]));
+        }
+        Assert.assertNull(storage.getValue(slots[0], -1));
+        Assert.assertNull(storage.getValue(slots[0], 9));
+    }
+
+    @Test
+    public void testObjectValuesKeepIdentity() {
+        ResultSetColumnStorage storage = new ResultSetColumnStorage(1, 0);
+        Timestamp timestamp = new Timestamp(1000L);
+        int slot = storage.addRow(new Object[] { timestamp });
+        Assert.assertSame(timestamp, storage.getValue(slot, 0));
+    }
+
+    @Test
+    public void testColumnTypeFallback() {
+        ResultSetColumnStorage storage = new ResultSetColumnStorage(2, 0);
+        int slot1 = storage.addRow(new Object[] { 1, "a" });
+        int slot2 = storage.addRow(new Object[] { 2L, 3 });
+        int slot3 = storage.addRow(new Object[] { null, "b" });
+        Assert.assertEquals(1, storage.getValue(slot1, 0));
+        Assert.assertEquals(2L, storage.getValue(slot2, 0));
+        Assert.assertNull(storage.getValue(slot3, 0));
+        Assert.assertEquals("a", storage.getValue(slot1, 1));
+        Assert.assertEquals(3, storage.getValue(slot2, 1));
+        Assert.assertEquals("b", storage.getValue(slot3, 1));
+    }
+
+    @Test
+    public void testHighCardinalityStrings() {
+        ResultSetColumnStorage storage = new ResultSetColumnStorage(1, 0);
+        int rowCount = ResultSetColumnStorage.PAGE_SIZE;
+        for (int i = 0; i < rowCount; i++) {
+            storage.addRow(new Object[] { "value" + i });
+        }
+        for (int i = 0; i < rowCount; i++) {
+            Assert.assertEquals("value" + i, storage.getValue(i, 0));
+        }
+    }
+
+    @Test
+    public void testSetValue() {
+        ResultSetColumnStorage storage = new ResultSetColumnStorage(3, 0);
+        int slot = storage.addRow(new Object[] { 1, "a", null });
+        storage.setValue(slot, 0, null);
+        storage.setValue(slot, 1, "b");
+        storage.setValue(slot, 2, 2.5);
+        Assert.assertArrayEquals(new Object[] { null, "b", 2.5 }, storage.getValues(slot));
+        storage.setValues(slot, new Object[] { 3, null, "c" });
+        Assert.assertArrayEquals(new Object[] { 3, null, "c" }, storage.getValues(slot));
+    }
+
+}
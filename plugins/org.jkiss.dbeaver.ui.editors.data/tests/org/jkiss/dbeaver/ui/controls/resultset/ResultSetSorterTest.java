@@ -0,0 +1,90 @@
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class ResultSetSorterTest {
+
+    private static int[] sortReference(Object[][] keyValues, boolean[] descending) {
+        int rowCount = keyValues[0].length;
+        List<Integer> order = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            order.add(i);
+        }
+        Comparator<Integer> comparator = (row1, row2) -> {
+            for (int k = 0; k < keyValues.length; k++) {
+                Object value1 = keyValues[k][row1], value2 = keyValues[k][row2];
+                int result;
+                if (value1 == null || value2 == null) {
+                    result = value1 == value2 ? 0 : (value1 == null ? 1 : -1);
+                } else if (value1 instanceof Number) {
+                    result = Double.compare(((Number) value1).doubleValue(), ((Number) value2).doubleValue());
+                } else {
+                    result = ((String) value1).compareTo((String) value2);
+                }
+                if (result != 0) {
+                    return descending[k] ? -result : result;
+                }
+            }
+            return 0;
+        };
+        // List.sort is stable
+        order.sort(comparator);
+        return order.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Object[][] makeKeys(int rowCount, Random random) {
+        Object[][] keyValues = new Object[2][rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            int number = random.nextInt(20);
+            // Mixed number classes with few distinct values, so there are many equal keys
+            keyValues[0][i] = number == 0 ? null : (number % 2 == 0 ? (Object) number : (Object) (long) number);
+            keyValues[1][i] = number == 1 ? null : "value" + random.nextInt(5);
+        }
+        return keyValues;
+    }
+
+    private static void assertSortedAsReference(int rowCount, boolean[] descending) {
+        Random random = new Random(rowCount);
+        Object[][] keyValues = makeKeys(rowCount, random);
+        int[] expected = sortReference(keyValues, descending);
+        Assert.assertArrayEquals(expected, ResultSetSorter.sortIndexes(keyValues, descending));
+    }
+
+    @Test
+    public void testStableSort() {
+        assertSortedAsReference(1000, new boolean[] { false, false });
+        assertSortedAsReference(1000, new boolean[] { true, false });
+    }
+
+    @Test
+    public void testStableParallelSort() {
+        // Larger than parallel sort threshold
+        assertSortedAsReference(100000, new boolean[] { false, true });
+        assertSortedAsReference(100000, new boolean[] { true, true });
+    }
+
+    @Test
+    public void testEqualKeysKeepOrder() {
+        Object[][] keyValues = { { 1, 1, 1, 1, 1 } };
+        Assert.assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, ResultSetSorter.sortIndexes(keyValues, new boolean[] { true }));
+    }
+
+    @Test
+    public void testNulls() {
+        Object[][] keyValues = { { null, 2, null, 1 } };
+        Assert.assertArrayEquals(new int[] { 3, 1, 0, 2 }, ResultSetSorter.sortIndexes(keyValues, new boolean[] { false }));
+        Assert.assertArrayEquals(new int[] { 0, 2, 1, 3 }, ResultSetSorter.sortIndexes(keyValues, new boolean[] { true }));
+    }
+
+    @Test
+    public void testNoRows() {
+        Assert.assertEquals(0, ResultSetSorter.sortIndexes(new Object[][] { {} }, new boolean[] { false }).length);
+    }
+
+}
@@ -56,6 +56,7 @@ import org.jkiss.dbeaver.model.sql.completion.SQLCompletionContext;
 import org.jkiss.dbeaver.model.sql.parser.SQLParserContext;
 import org.jkiss.dbeaver.model.sql.parser.SQLParserPartitions;
 import org.jkiss.dbeaver.model.sql.parser.SQLRuleManager;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptElementIterator;
 import org.jkiss.dbeaver.model.sql.parser.SQLScriptParser;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.*;
@@ -685,6 +686,17 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         return SQLScriptParser.extractScriptQueries(parserContext, startOffset, length, scriptMode, keepDelimiters, parseParameters);
     }
 
+    /**
+     * Opens lazy script splitter. Caller must close it.
+     */
+    @Nullable
+    public SQLScriptElementIterator openScriptQueries(int startOffset, int length, boolean scriptMode, boolean keepDelimiters, boolean parseParameters) {
+        if (parserContext == null) {
+            return null;
+        }
+        return new SQLScriptElementIterator(parserContext, startOffset, length, scriptMode, keepDelimiters, parseParameters);
+    }
+
     public SQLCompletionContext getCompletionContext() {
         return completionContext;
     }
@@ -28,6 +28,7 @@ import org.eclipse.jface.text.source.projection.ProjectionAnnotation;
 import org.eclipse.jface.text.source.projection.ProjectionAnnotationModel;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptElementIterator;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditorBase;
 import org.jkiss.utils.CommonUtils;
 
@@ -99,6 +100,22 @@ public class SQLReconcilingStrategy implements IReconcilingStrategy, IReconcilin
         List<Annotation> removedAnnotations = null;
         Map<Annotation, Position> addedAnnotations = null;
 
+        if (partition instanceof DirtyRegion) {
+            // Multiline positions are registered in the annotation model and updated by the document.
+            // Other positions must be shifted manually.
+            DirtyRegion dirtyRegion = (DirtyRegion) partition;
+            boolean insert = DirtyRegion.INSERT.equals(dirtyRegion.getType());
+            for (SQLScriptPosition sp : parsedPositions) {
+                if (!sp.isMultiline() && sp.getOffset() >= dirtyRegion.getOffset()) {
+                    if (insert) {
+                        sp.setOffset(sp.getOffset() + dirtyRegion.getLength());
+                    } else {
+                        sp.setOffset(Math.max(dirtyRegion.getOffset(), sp.getOffset() - dirtyRegion.getLength()));
+                    }
+                }
+            }
+        }
+
         if (partition == null) {
             regionOffset = 0;
             regionLength = document.getLength();
@@ -116,67 +133,32 @@ public class SQLReconcilingStrategy implements IReconcilingStrategy, IReconcilin
                     break;
                 }
             }
-
-/*
-            if (partition instanceof DirtyRegion) {
-                // Modify positions
-                DirtyRegion dirtyRegion = (DirtyRegion)partition;
-                // Shift parsed positions
-                boolean insert = DirtyRegion.INSERT.equals(dirtyRegion.getType());
-                for (SQLScriptPosition sp : parsedPositions) {
-                    if (dirtyRegion.getOffset() > sp.getOffset() && dirtyRegion.getOffset() < sp.getOffset() + sp.getLength()) {
-                        // In this position
-                        if (insert) {
-                            sp.setLength(sp.getLength() + dirtyRegion.getLength());
-                        } else {
-                            sp.setLength(sp.getLength() - dirtyRegion.getLength());
-                        }
-                    } else if (sp.getOffset() >= dirtyRegion.getOffset()) {
-                        // After this position
-                        if (insert) {
-                            sp.setOffset(sp.getOffset() + dirtyRegion.getLength());
-                        } else {
-                            sp.setOffset(sp.getOffset() - dirtyRegion.getLength());
-                        }
-                    }
-                }
-            }
-*/
         }
         ProjectionAnnotationModel annotationModel = editor.getAnnotationModel();
         if (annotationModel == null) {
             return;
         }
-        List<SQLScriptElement> queries;
-        try {
-            queries = editor.extractScriptQueries(regionOffset, document.getLength() - regionOffset, false, true, false);
-        } catch (Exception e) {
-            log.error("Error parsing script queries", e);
-            return;
-        }
 
-        {
-            List<SQLScriptPosition> removedPositions = new ArrayList<>();
+        // Positions after the changed region which may be reused as is.
+        // Parsing stops when it reaches one of them - the rest of the script is not changed.
+        Map<Integer, SQLScriptPosition> syncPositions = new HashMap<>();
+        if (partition != null) {
             for (SQLScriptPosition sp : parsedPositions) {
-                if (sp.getOffset() >= regionOffset/* && sp.getOffset() <= regionOffset + regionLength*/) {
-                    removedPositions.add(sp);
-                }
-            }
-            if (!removedPositions.isEmpty()) {
-                parsedPositions.removeAll(removedPositions);
-                removedAnnotations = new ArrayList<>();
-                for (SQLScriptPosition removedPosition : removedPositions) {
-                    if (removedPosition.isMultiline()) {
-                        removedAnnotations.add(removedPosition.getFoldingAnnotation());
-                    }
+                if (sp.isMultiline() && !sp.isDeleted() && sp.getOffset() > regionOffset + regionLength) {
+                    syncPositions.put(sp.getOffset(), sp);
                 }
             }
         }
 
-        try {
-            List<SQLScriptPosition> addedPositions = new ArrayList<>();
+        List<SQLScriptPosition> addedPositions = new ArrayList<>();
+        int syncOffset = -1;
+        try (SQLScriptElementIterator queries = editor.openScriptQueries(regionOffset, document.getLength() - regionOffset, false, true, false)) {
+            if (queries == null) {
+                return;
+            }
             int documentLength = document.getLength();
-            for (SQLScriptElement se : queries) {
+            while (queries.hasNext()) {
+                SQLScriptElement se = queries.next();
                 int queryOffset = se.getOffset();
                 int queryLength = se.getLength();
 
@@ -192,29 +174,53 @@ public class SQLReconcilingStrategy implements IReconcilingStrategy, IReconcilin
                         break;
                     }
                 }
+                SQLScriptPosition syncPosition = syncPositions.get(queryOffset);
+                if (isMultiline && syncPosition != null && syncPosition.getLength() == queryLength) {
+                    syncOffset = queryOffset;
+                    break;
+                }
                 addedPositions.add(new SQLScriptPosition(queryOffset, queryLength, isMultiline, new ProjectionAnnotation()));
             }
-            if (!addedPositions.isEmpty()) {
-                final int firstQueryPos = addedPositions.get(0).getOffset();
-                int posBeforeFirst = 0;
-                for (int i = 0; i < parsedPositions.size(); i++) {
-                    SQLScriptPosition sp = parsedPositions.get(i);
-                    if (sp.getOffset() >= firstQueryPos) {
-                        break;
+        } catch (Exception e) {
+            log.error("Error parsing script queries", e);
+            return;
+        }
+
+        {
+            List<SQLScriptPosition> removedPositions = new ArrayList<>();
+            for (SQLScriptPosition sp : parsedPositions) {
+                if (sp.getOffset() >= regionOffset && (syncOffset < 0 || sp.getOffset() < syncOffset)) {
+                    removedPositions.add(sp);
+                }
+            }
+            if (!removedPositions.isEmpty()) {
+                parsedPositions.removeAll(removedPositions);
+                removedAnnotations = new ArrayList<>();
+                for (SQLScriptPosition removedPosition : removedPositions) {
+                    if (removedPosition.isMultiline()) {
+                        removedAnnotations.add(removedPosition.getFoldingAnnotation());
                     }
-                    posBeforeFirst = i;
                 }
-                parsedPositions.addAll(posBeforeFirst, addedPositions);
+            }
+        }
+
+        if (!addedPositions.isEmpty()) {
+            final int firstQueryPos = addedPositions.get(0).getOffset();
+            int insertIndex = parsedPositions.size();
+            for (int i = 0; i < parsedPositions.size(); i++) {
+                if (parsedPositions.get(i).getOffset() >= firstQueryPos) {
+                    insertIndex = i;
+                    break;
+                }
+            }
+            parsedPositions.addAll(insertIndex, addedPositions);
 
-                addedAnnotations = new HashMap<>();
-                for (SQLScriptPosition pos : addedPositions) {
-                    if (pos.isMultiline()) {
-                        addedAnnotations.put(pos.getFoldingAnnotation(), pos);
-                    }
+            addedAnnotations = new HashMap<>();
+            for (SQLScriptPosition pos : addedPositions) {
+                if (pos.isMultiline()) {
+                    addedAnnotations.put(pos.getFoldingAnnotation(), pos);
                 }
             }
-        } catch (Exception e) {
-            log.error(e);
         }
         if (removedAnnotations != null || !CommonUtils.isEmpty(addedAnnotations)) {
             annotationModel.modifyAnnotations(